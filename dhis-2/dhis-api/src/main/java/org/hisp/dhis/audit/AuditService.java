@@ -35,6 +35,13 @@ import java.util.List;
 public interface AuditService {
   long addAudit(Audit audit);
 
+  /**
+   * Persists the given audits in a single batch.
+   *
+   * @param audits the audits to persist.
+   */
+  void addAudits(List<Audit> audits);
+
   int countAudits(AuditQuery query);
 
   List<Audit> getAudits(AuditQuery query);
@@ -115,4 +115,12 @@ public interface CacheProvider {
   <V> Cache<V> createDataIntegrityDetailsCache();
 
   <V> Cache<V> createQueryAliasCache();
+
+  <V> Cache<V> createBasicAuthCredentialsCache();
+
+  <V> Cache<V> createUserOrgUnitIdsCache();
+
+  <V> Cache<V> createGistPlanCache();
+
+  <V> Cache<V> createGistQueryCache();
 }
@@ -444,6 +444,16 @@ public interface CategoryService {
    */
   CategoryOptionCombo getCategoryOptionComboAcl(IdScheme idScheme, String id);
 
+  /**
+   * Returns the category option combos with the given ids. Respects access control by only
+   * returning objects which the current user has {@code data write} access to.
+   *
+   * @param idScheme the id scheme, must be {@link IdScheme#UID} or {@link IdScheme#CODE}.
+   * @param ids the ids.
+   * @return a list of category option combos.
+   */
+  List<CategoryOptionCombo> getCategoryOptionCombosAcl(IdScheme idScheme, Collection<String> ids);
+
   /** Updates the name property of all category option combinations. */
   void updateCategoryOptionComboNames();
 
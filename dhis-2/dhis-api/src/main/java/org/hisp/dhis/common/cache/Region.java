@@ -66,5 +66,9 @@ public enum Region {
   securityCache,
   dataIntegritySummaryCache,
   dataIntegrityDetailsCache,
-  queryAliasCache
+  queryAliasCache,
+  basicAuthCredentialsCache,
+  userOrgUnitIdsCache,
+  gistPlanCache,
+  gistQueryCache
 }
@@ -27,6 +27,7 @@
  */
 package org.hisp.dhis.dataapproval;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -152,6 +153,17 @@ public interface DataApprovalService {
       OrganisationUnit organisationUnit,
       CategoryOptionCombo attributeOptionCombo);
 
+  /**
+   * Tells which of the given workflow, period, organisation unit and attribute option combo
+   * combinations are approved, using a single query for all of them. This is the bulk variant of
+   * {@link #isApproved(DataApprovalWorkflow, Period, OrganisationUnit, CategoryOptionCombo)}, the
+   * approval level of the given data approvals is ignored.
+   *
+   * @param dataApprovals the combinations to check.
+   * @return the subset of the given data approvals which are approved.
+   */
+  Set<DataApproval> getApproved(Collection<DataApproval> dataApprovals);
+
   /**
    * Returns a map showing each data approval status for a list of data approval objects.
    *
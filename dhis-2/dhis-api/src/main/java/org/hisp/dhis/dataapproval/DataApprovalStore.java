@@ -144,6 +144,7 @@ public interface DataApprovalStore {
    * 3.
    *
    * <p>If a list of organisation units is specified, they must all be at the same hierarchy level.
+   * Organisation units the user may not see are left out of the results.
    *
    * @param workflow Data approval workflow to check
    * @param period Period to look within
@@ -34,6 +34,7 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.io.Serializable;
 import java.util.Comparator;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
@@ -73,10 +74,16 @@ public final class DataIntegrityCheck implements Serializable {
   @JsonProperty private final boolean isSlow;
   @JsonProperty private final boolean isProgrammatic;
 
+  /**
+   * Names of the tables read by the SQL of the check. Empty for programmatic checks or when the
+   * tables are not known.
+   */
+  @JsonIgnore @Builder.Default private final Set<String> tables = Set.of();
+
   private long executionTime;
   private int executionCount;
 
-  public @JsonProperty Long getAverageExecutionTime() {
+  public synchronized @JsonProperty Long getAverageExecutionTime() {
     return executionTime <= 0L ? null : executionTime / executionCount;
   }
 
@@ -96,7 +103,8 @@ public final class DataIntegrityCheck implements Serializable {
 
   private final transient Function<DataIntegrityCheck, DataIntegrityDetails> runDetailsCheck;
 
-  public DataIntegrityCheck addExecution(long time) {
+  /** Checks can run concurrently so updates of the execution statistics must be synchronized. */
+  public synchronized DataIntegrityCheck addExecution(long time) {
     executionCount++;
     executionTime += time;
     return this;
@@ -27,6 +27,9 @@
  */
 package org.hisp.dhis.dataintegrity;
 
+import java.util.Set;
+import javax.annotation.CheckForNull;
+
 /**
  * Database support for running data integrity checks.
  *
@@ -52,4 +55,20 @@ public interface DataIntegrityStore {
    * @return the mapped details
    */
   DataIntegrityDetails queryDetails(DataIntegrityCheck check, String sql);
+
+  /**
+   * Sums up the rows inserted, updated and deleted in the given tables as tracked by the database
+   * statistics of the primary database. The absolute value has no meaning, it only changes when any
+   * of the tables is modified.
+   *
+   * <p>The counters are not persistent: they are reset when the statistics are reset (e.g. {@code
+   * pg_stat_reset()} or a crash recovery) and start from scratch after a failover to another
+   * instance. Callers must therefore treat any difference to a previous value, including a
+   * decrease, as a modification.
+   *
+   * @param tables names of the tables to include
+   * @return the modification count, or null when it cannot be determined
+   */
+  @CheckForNull
+  Long getModificationCount(Set<String> tables);
 }
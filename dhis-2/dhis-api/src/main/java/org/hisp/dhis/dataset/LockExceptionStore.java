@@ -27,6 +27,7 @@
  */
 package org.hisp.dhis.dataset;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import org.hisp.dhis.common.GenericStore;
@@ -40,6 +41,15 @@ import org.hisp.dhis.period.Period;
 public interface LockExceptionStore extends GenericStore<LockException> {
   List<LockException> getLockExceptions(List<DataSet> dataSets);
 
+  /**
+   * Returns the lock exceptions of any of the given data sets and periods.
+   *
+   * @param dataSets the data sets.
+   * @param periods the periods.
+   * @return list of lock exceptions.
+   */
+  List<LockException> getLockExceptions(Collection<DataSet> dataSets, Collection<Period> periods);
+
   List<LockException> getLockExceptionCombinations();
 
   void deleteLockExceptions(DataSet dataSet, Period period);
@@ -30,6 +30,7 @@ package org.hisp.dhis.dxf2.metadata.feedback;
 import static java.util.Collections.unmodifiableSet;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlElementWrapper;
 import com.fasterxml.jackson.dataformat.xml.annotation.JacksonXmlProperty;
@@ -38,6 +39,7 @@ import com.google.common.base.MoreObjects;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -64,6 +66,8 @@ public class ImportReport implements ErrorReportContainer {
 
   private final Map<Class<?>, TypeReport> typeReportMap = new HashMap<>();
 
+  private Map<String, Long> validationDurations = new LinkedHashMap<>();
+
   // -----------------------------------------------------------------------------------
   // Utility Methods
   // -----------------------------------------------------------------------------------
@@ -159,6 +163,21 @@ public class ImportReport implements ErrorReportContainer {
     }
   }
 
+  /**
+   * @return milliseconds spent in each validation check, by check name in order of execution
+   */
+  @JsonProperty
+  @JsonInclude(JsonInclude.Include.NON_EMPTY)
+  @JacksonXmlProperty(namespace = DxfNamespaces.DXF_2_0)
+  public Map<String, Long> getValidationDurations() {
+    return validationDurations;
+  }
+
+  public void setValidationDurations(Map<String, Long> validationDurations) {
+    this.validationDurations =
+        validationDurations == null ? new LinkedHashMap<>() : validationDurations;
+  }
+
   public Set<Class<?>> getTypeReportKeys() {
     return unmodifiableSet(typeReportMap.keySet());
   }
@@ -29,6 +29,7 @@ package org.hisp.dhis.message;
 
 import java.util.Collection;
 import java.util.List;
+import javax.annotation.CheckForNull;
 import org.hisp.dhis.common.IdentifiableObjectStore;
 import org.hisp.dhis.user.User;
 
@@ -52,6 +53,24 @@ public interface MessageConversationStore extends IdentifiableObjectStore<Messag
       Integer first,
       Integer max);
 
+  /**
+   * Returns a page of MessageConversations of a user, ordered by last message descending. Pages are
+   * addressed by the last conversation of the previous page (keyset paging).
+   *
+   * @param user the User for which the MessageConversations are sent to.
+   * @param after the last MessageConversation of the previous page, or null for the first page.
+   * @param max the max number of records to return.
+   * @return a list of MessageConversations.
+   */
+  List<MessageConversation> getMessageConversations(
+      User user, @CheckForNull MessageConversation after, int max);
+
+  /**
+   * @param user the User for which the MessageConversations are sent to.
+   * @return the UIDs of all MessageConversations of the user.
+   */
+  List<String> getMessageConversationUids(User user);
+
   List<MessageConversation> getMessagesConversationFromSenderMatchingExtMessageId(
       String extMessageId);
 
@@ -65,6 +84,37 @@ public interface MessageConversationStore extends IdentifiableObjectStore<Messag
 
   long getUnreadUserMessageConversationCount(User user);
 
+  /**
+   * @param user the User for which the MessageConversations are sent to.
+   * @return the conversation counts of the user per ticket status which has any conversations.
+   */
+  List<MessageConversationInboxSummary> getInboxSummaries(User user);
+
+  /**
+   * Applies the changes of the given conversation to the inbox summaries of the users that are or
+   * were part of it. The counts of the conversation as stored in the database are subtracted, the
+   * changes are flushed, and the counts of the conversation as stored then are added. Must be
+   * called before the changes are flushed otherwise.
+   *
+   * @param conversation a conversation which was saved or updated in the current transaction.
+   */
+  void updateInboxSummaries(MessageConversation conversation);
+
+  /**
+   * Subtracts the counts of the given conversation from the inbox summaries of its users. Must be
+   * called before the conversation is deleted.
+   *
+   * @param conversation the conversation which is deleted.
+   */
+  void removeInboxSummaries(MessageConversation conversation);
+
+  /**
+   * Recomputes the inbox summaries of the given user.
+   *
+   * @param user the user whose conversations changed.
+   */
+  void updateInboxSummaries(User user);
+
   int deleteMessages(User sender);
 
   int deleteUserMessages(User user);
@@ -30,6 +30,7 @@ package org.hisp.dhis.message;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
+import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
 import org.hisp.dhis.dataset.CompleteDataSetRegistration;
 import org.hisp.dhis.fileresource.FileResource;
@@ -94,6 +95,34 @@ public interface MessageService {
 
   List<MessageConversation> getMessageConversations(int first, int max);
 
+  /**
+   * Get a page of MessageConversations for the current user, ordered by last message descending.
+   *
+   * @param after the last conversation of the previous page, or null for the first page.
+   * @param max the max number of conversations to return.
+   * @return a list of message conversations for the current user.
+   */
+  List<MessageConversation> getMessageConversations(
+      @CheckForNull MessageConversation after, int max);
+
+  /**
+   * @return the UIDs of all message conversations for the current user.
+   */
+  List<String> getMessageConversationUids();
+
+  /**
+   * @return the conversation counts of the current user per ticket status.
+   */
+  List<MessageConversationInboxSummary> getInboxSummaries();
+
+  /**
+   * Removes the given conversation from the inbox summaries of its users. Must be called before the
+   * conversation is deleted.
+   *
+   * @param conversation the conversation which is deleted.
+   */
+  void removeInboxSummaries(MessageConversation conversation);
+
   List<MessageConversation> getMatchingExtId(String extId);
 
   List<MessageConversation> getMessageConversations(User user, Collection<String> uids);
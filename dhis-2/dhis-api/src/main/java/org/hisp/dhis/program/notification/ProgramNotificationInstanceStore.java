@@ -27,6 +27,7 @@
  */
 package org.hisp.dhis.program.notification;
 
+import java.util.Date;
 import java.util.List;
 import org.hisp.dhis.common.IdentifiableObjectStore;
 
@@ -39,4 +40,18 @@ public interface ProgramNotificationInstanceStore
       ProgramNotificationInstanceParam programNotificationInstanceParam);
 
   Long countProgramNotificationInstances(ProgramNotificationInstanceParam params);
+
+  /**
+   * Returns a page of notification instances scheduled within the given time range, ordered by id.
+   * Pages are addressed by the id of the last instance of the previous page (keyset paging), which
+   * keeps the cost of fetching a page independent of how many pages were already fetched.
+   *
+   * @param from the inclusive start of the scheduled time range.
+   * @param to the exclusive end of the scheduled time range.
+   * @param afterId the id of the last instance of the previous page, or 0 for the first page.
+   * @param limit the maximum number of instances to return.
+   * @return a list of {@link ProgramNotificationInstance} ordered by id.
+   */
+  List<ProgramNotificationInstance> getScheduledProgramNotificationInstances(
+      Date from, Date to, long afterId, int limit);
 }
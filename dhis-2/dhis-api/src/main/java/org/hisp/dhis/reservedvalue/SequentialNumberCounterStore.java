@@ -35,5 +35,22 @@ import java.util.List;
 public interface SequentialNumberCounterStore {
   List<Integer> getNextValues(String uid, String key, int length);
 
+  /**
+   * Increments the counter in its own transaction so that the counter row is not locked for longer
+   * than the increment itself.
+   *
+   * @return the counter after the increment, the values from {@code counter - size} (inclusive) to
+   *     {@code counter} (exclusive) belong to the caller
+   */
+  int incrementCounter(String uid, String key, int size);
+
+  /**
+   * Sets the counter back to {@code value} if it still is {@code expected}, which is the case when
+   * no values were taken since the caller incremented it to {@code expected}.
+   *
+   * @return true, if the counter was set back
+   */
+  boolean releaseCounter(String uid, String key, int expected, int value);
+
   void deleteCounter(String uid);
 }
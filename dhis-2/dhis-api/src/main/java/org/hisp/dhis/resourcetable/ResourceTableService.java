@@ -33,8 +33,13 @@ import org.hisp.dhis.scheduling.JobProgress;
  * @author Lars Helge Overland
  */
 public interface ResourceTableService {
-  /** Generates resource tables. */
-  void generateResourceTables();
+  /**
+   * Generates resource tables. Resource tables which do not depend on each other are generated in
+   * parallel.
+   *
+   * @param progress the {@link JobProgress}.
+   */
+  void generateResourceTables(JobProgress progress);
 
   /** Replicates resource tables in the analytics database. */
   void replicateAnalyticsResourceTables();
@@ -27,21 +27,20 @@
  */
 package org.hisp.dhis.resourcetable;
 
+import java.util.Set;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 
 /**
  * @author Lars Helge Overland
  */
 @Getter
-@RequiredArgsConstructor
 public enum ResourceTableType {
   ORG_UNIT_STRUCTURE,
   DATA_SET_ORG_UNIT_CATEGORY,
   CATEGORY_OPTION_COMBO_NAME,
   DATA_ELEMENT_GROUP_SET_STRUCTURE,
   INDICATOR_GROUP_SET_STRUCTURE,
-  ORG_UNIT_GROUP_SET_STRUCTURE,
+  ORG_UNIT_GROUP_SET_STRUCTURE(ORG_UNIT_STRUCTURE),
   CATEGORY_STRUCTURE,
   DATA_ELEMENT_STRUCTURE,
   DATA_SET,
@@ -49,6 +48,16 @@ public enum ResourceTableType {
   DATE_PERIOD_STRUCTURE,
   DATA_ELEMENT_CATEGORY_OPTION_COMBO,
   DATA_APPROVAL_REMAP_LEVEL,
-  DATA_APPROVAL_MIN_LEVEL,
-  TEI_RELATIONSHIP_COUNT
+  DATA_APPROVAL_MIN_LEVEL(DATA_APPROVAL_REMAP_LEVEL, ORG_UNIT_STRUCTURE),
+  TEI_RELATIONSHIP_COUNT;
+
+  /**
+   * The types of the resource tables which the statement populating this resource table reads from,
+   * and which hence must be generated before this resource table.
+   */
+  private final Set<ResourceTableType> dependencies;
+
+  ResourceTableType(ResourceTableType... dependencies) {
+    this.dependencies = Set.of(dependencies);
+  }
 }
@@ -41,6 +41,7 @@ import lombok.Getter;
 import org.hisp.dhis.dxf2.common.ImportOptions;
 import org.hisp.dhis.scheduling.parameters.AggregateDataExchangeJobParameters;
 import org.hisp.dhis.scheduling.parameters.AnalyticsJobParameters;
+import org.hisp.dhis.scheduling.parameters.AnalyticsTableSnapshotJobParameters;
 import org.hisp.dhis.scheduling.parameters.ContinuousAnalyticsJobParameters;
 import org.hisp.dhis.scheduling.parameters.DataIntegrityDetailsJobParameters;
 import org.hisp.dhis.scheduling.parameters.DataIntegrityJobParameters;
@@ -76,6 +77,7 @@ public enum JobType {
   RESOURCE_TABLE(),
   ANALYTICS_TABLE(AnalyticsJobParameters.class),
   CONTINUOUS_ANALYTICS_TABLE(ContinuousAnalyticsJobParameters.class),
+  ANALYTICS_TABLE_SNAPSHOT(AnalyticsTableSnapshotJobParameters.class),
   DATA_SYNC(DataSynchronizationJobParameters.class),
   META_DATA_SYNC(MetadataSyncJobParameters.class),
   AGGREGATE_DATA_EXCHANGE(AggregateDataExchangeJobParameters.class),
@@ -266,6 +268,7 @@ public enum JobType {
               "skipTableTypes", "/api/analytics/tableTypes",
               "skipPrograms", "/api/programs");
       case CONTINUOUS_ANALYTICS_TABLE -> Map.of("skipTableTypes", "/api/analytics/tableTypes");
+      case ANALYTICS_TABLE_SNAPSHOT -> Map.of("tableTypes", "/api/analytics/tableTypes");
       case AGGREGATE_DATA_EXCHANGE -> Map.of("dataExchangeIds", "/api/aggregateDataExchanges");
       case MONITORING ->
           Map.of(
@@ -51,5 +51,10 @@ public class TrackerTrigramIndexJobParameters implements JobParameters {
   @OpenApi.Property({UID[].class, TrackedEntityAttribute.class})
   private Set<String> attributes = new HashSet<>();
 
+  /** Attributes to create a btree index on their lower case values for. */
+  @JsonProperty
+  @OpenApi.Property({UID[].class, TrackedEntityAttribute.class})
+  private Set<String> valueIndexAttributes = new HashSet<>();
+
   @JsonProperty private boolean skipIndexDeletion = false;
 }
@@ -81,4 +81,16 @@ public class ThreadUserSettings {
   public static void put(Map<String, String> settings) {
     REQUEST_CURRENT_USER_SETTINGS.set(get().withOverride(settings));
   }
+
+  /**
+   * Sets the {@link UserSettings} of the current thread, for example to run part of the work of a
+   * request on another thread with the same settings. Must be followed by a {@link #clear()} once
+   * that work is done.
+   *
+   * @param settings the settings as returned by {@link UserSettings#getCurrentSettings()} on the
+   *     thread of the request
+   */
+  public static void set(@Nonnull UserSettings settings) {
+    REQUEST_CURRENT_USER_SETTINGS.set(settings);
+  }
 }
@@ -27,6 +27,7 @@
  */
 package org.hisp.dhis.sms.incoming;
 
+import java.util.Date;
 import java.util.List;
 
 /** Service providing support for retrieving incoming SMSes. */
@@ -55,4 +56,34 @@ public interface IncomingSmsService {
       SmsMessageStatus status, String keyword, Integer min, Integer max, boolean hasPagination);
 
   List<IncomingSms> getAllUnparsedMessages();
+
+  /**
+   * Claims up to the given number of incoming messages for processing, so that no other node or
+   * thread processes them as well. Messages whose claim is older than the given time are assumed to
+   * have been abandoned, for instance by a node which was stopped, and are claimed again.
+   *
+   * <p>Only messages received for the given user are claimed, so that they are processed with the
+   * authority of the user they were received for. Messages without a user are claimed as well so
+   * that they can be marked as failed.
+   *
+   * @param limit maximum number of messages to claim
+   * @param createdBy UID of the user whose messages are claimed
+   * @param staleClaimBefore messages claimed before this time are claimed again
+   * @return the claimed messages, oldest first
+   */
+  List<IncomingSmsClaim> claimIncomingSms(int limit, String createdBy, Date staleClaimBefore);
+
+  /**
+   * Marks incoming messages which are too old to be answered as {@link SmsMessageStatus#UNHANDLED}
+   * without processing them.
+   *
+   * @param receivedBefore messages received before this time are expired
+   * @return the number of expired messages
+   */
+  int expireIncomingSms(Date receivedBefore);
+
+  /**
+   * @return the number of {@link SmsMessageStatus#INCOMING} messages
+   */
+  long countIncomingSms();
 }
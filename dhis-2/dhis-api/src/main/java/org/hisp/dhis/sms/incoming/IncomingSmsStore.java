@@ -27,6 +27,7 @@
  */
 package org.hisp.dhis.sms.incoming;
 
+import java.util.Date;
 import java.util.List;
 import org.hisp.dhis.common.IdentifiableObjectStore;
 
@@ -44,4 +45,32 @@ public interface IncomingSmsStore extends IdentifiableObjectStore<IncomingSms> {
   List<IncomingSms> getSmsByOriginator(String originator);
 
   List<IncomingSms> getAllUnparsedMessages();
+
+  /**
+   * Sets up to the given number of {@link SmsMessageStatus#INCOMING} messages to {@link
+   * SmsMessageStatus#PROCESSING} and records when they were claimed. Messages left in {@link
+   * SmsMessageStatus#PROCESSING} by a claim older than the given time are claimed again. Messages
+   * locked by a concurrent claim are skipped rather than waited for.
+   *
+   * @param limit maximum number of messages to claim
+   * @param createdBy UID of the user whose messages are claimed, messages without a user are
+   *     claimed as well
+   * @param staleClaimBefore messages claimed before this time are claimed again
+   * @return the claimed messages, oldest first
+   */
+  List<IncomingSmsClaim> claimIncomingSms(int limit, String createdBy, Date staleClaimBefore);
+
+  /**
+   * Sets all {@link SmsMessageStatus#INCOMING} messages received before the given time to {@link
+   * SmsMessageStatus#UNHANDLED} without processing them.
+   *
+   * @param receivedBefore messages received before this time are expired
+   * @return the number of expired messages
+   */
+  int expireIncomingSms(Date receivedBefore);
+
+  /**
+   * @return the number of {@link SmsMessageStatus#INCOMING} messages
+   */
+  long countIncomingSms();
 }
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.user;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.stream.Stream;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+
+/**
+ * Immutable set of UIDs backed by a sorted array, used for the org unit, group and role UIDs held
+ * by {@link UserDetails}. Compared to a hash based set it needs no table or entry objects, {@link
+ * #contains(Object)} is a binary search. The UID strings are interned so that the many users
+ * assigned to the same org units also share the strings.
+ */
+public final class CompactUidSet extends AbstractSet<String> implements Serializable {
+  @Serial private static final long serialVersionUID = 1L;
+
+  private static final Interner<String> UIDS = Interners.newWeakInterner();
+
+  private static final CompactUidSet EMPTY = new CompactUidSet(new String[0]);
+
+  private final String[] uids;
+
+  private CompactUidSet(String[] uids) {
+    this.uids = uids;
+  }
+
+  /**
+   * @param uids the UIDs, null elements are ignored
+   * @return an immutable set of the given UIDs
+   */
+  @Nonnull
+  public static CompactUidSet of(@CheckForNull Collection<String> uids) {
+    if (uids instanceof CompactUidSet set) {
+      return set;
+    }
+    if (uids == null || uids.isEmpty()) {
+      return EMPTY;
+    }
+    return sortedDistinct(uids.stream());
+  }
+
+  /**
+   * @return an immutable set of the UIDs contained in either of the given sets
+   */
+  @Nonnull
+  public static CompactUidSet union(@Nonnull CompactUidSet a, @Nonnull CompactUidSet b) {
+    if (a == b || b.isEmpty()) {
+      return a;
+    }
+    if (a.isEmpty()) {
+      return b;
+    }
+    return sortedDistinct(Stream.concat(Arrays.stream(a.uids), Arrays.stream(b.uids)));
+  }
+
+  private static CompactUidSet sortedDistinct(Stream<String> uids) {
+    String[] array =
+        uids.filter(Objects::nonNull).map(UIDS::intern).sorted().distinct().toArray(String[]::new);
+    return array.length == 0 ? EMPTY : new CompactUidSet(array);
+  }
+
+  @Override
+  public boolean contains(Object o) {
+    return o instanceof String uid && Arrays.binarySearch(uids, uid) >= 0;
+  }
+
+  @Override
+  public int size() {
+    return uids.length;
+  }
+
+  @Override
+  @Nonnull
+  public Iterator<String> iterator() {
+    return Arrays.asList(uids).iterator();
+  }
+
+  /** Restores interning and the shared empty instance when read from a serialized session. */
+  @Serial
+  private Object readResolve() {
+    return uids.length == 0 ? EMPTY : sortedDistinct(Arrays.stream(uids));
+  }
+}
@@ -29,17 +29,13 @@ package org.hisp.dhis.user;
 
 import java.util.Collection;
 import java.util.List;
-import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
 import org.hisp.dhis.common.IdentifiableObject;
 import org.hisp.dhis.common.UidObject;
 import org.hisp.dhis.security.Authorities;
 import org.hisp.dhis.security.twofa.TwoFactorType;
-import org.hisp.dhis.user.UserDetailsImpl.UserDetailsImplBuilder;
 import org.springframework.security.core.GrantedAuthority;
 
 public interface UserDetails
@@ -112,70 +108,82 @@ public interface UserDetails
       return null;
     }
 
-    UserDetailsImplBuilder userDetailsImplBuilder =
-        UserDetailsImpl.builder()
-            .id(user.getId())
-            .uid(user.getUid())
-            .code(user.getCode())
-            .username(user.getUsername())
-            .password(user.getPassword())
-            .externalAuth(user.isExternalAuth())
-            .isTwoFactorEnabled(user.isTwoFactorEnabled())
-            .twoFactorType(user.getTwoFactorType())
-            .secret(user.getSecret())
-            .isEmailVerified(user.isEmailVerified())
-            .firstName(user.getFirstName())
-            .surname(user.getSurname())
-            .enabled(user.isEnabled())
-            .accountNonExpired(user.isAccountNonExpired())
-            .accountNonLocked(accountNonLocked)
-            .credentialsNonExpired(credentialsNonExpired)
-            .authorities(user.getAuthorities())
-            .allAuthorities(
-                Set.copyOf(
-                    user.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList()))
-            .isSuper(user.isSuper())
-            .userRoleIds(setOfIds(user.getUserRoles()))
-            .userGroupIds(user.getUid() == null ? Set.of() : setOfIds(user.getGroups()));
-
-    if (loadOrgUnits) {
-
-      Set<String> userOrgUnitIds =
-          (orgUnitUids == null) ? setOfIds(user.getOrganisationUnits()) : orgUnitUids;
-
-      Set<String> userSearchOrgUnitIds =
-          (searchOrgUnitUids == null)
-              ? setOfIds(user.getTeiSearchOrganisationUnitsWithFallback())
-              : (searchOrgUnitUids.isEmpty() ? orgUnitUids : searchOrgUnitUids);
-
-      Set<String> userEffectiveSearchOrgUnitIds =
-          Stream.of(userOrgUnitIds, userSearchOrgUnitIds)
-              .filter(Objects::nonNull)
-              .flatMap(Collection::stream)
-              .collect(Collectors.toSet());
-
-      Set<String> userDataOrgUnitIds =
-          (dataViewUnitUids == null)
-              ? setOfIds(user.getDataViewOrganisationUnitsWithFallback())
-              : (dataViewUnitUids.isEmpty() ? orgUnitUids : dataViewUnitUids);
-
-      userDetailsImplBuilder
-          .userOrgUnitIds(userOrgUnitIds)
-          .userSearchOrgUnitIds(userSearchOrgUnitIds)
-          .userEffectiveSearchOrgUnitIds(userEffectiveSearchOrgUnitIds)
-          .userDataOrgUnitIds(userDataOrgUnitIds)
-          .allRestrictions(user.getAllRestrictions());
-
-    } else {
-      userDetailsImplBuilder
-          .userOrgUnitIds(Set.of())
-          .userSearchOrgUnitIds(Set.of())
-          .userEffectiveSearchOrgUnitIds(Set.of())
-          .userDataOrgUnitIds(Set.of())
-          .allRestrictions(Set.of());
+    if (!loadOrgUnits) {
+      return createUserDetails(
+          user, accountNonLocked, credentialsNonExpired, UserOrgUnitIds.EMPTY, Set.of());
     }
 
-    return userDetailsImplBuilder.build();
+    UserOrgUnitIds orgUnitIds =
+        UserOrgUnitIds.of(
+            orgUnitUids == null ? uidsOf(user.getOrganisationUnits()) : orgUnitUids,
+            searchOrgUnitUids == null
+                ? uidsOf(user.getTeiSearchOrganisationUnitsWithFallback())
+                : searchOrgUnitUids,
+            dataViewUnitUids == null
+                ? uidsOf(user.getDataViewOrganisationUnitsWithFallback())
+                : dataViewUnitUids);
+
+    return createUserDetails(
+        user, accountNonLocked, credentialsNonExpired, orgUnitIds, user.getAllRestrictions());
+  }
+
+  /**
+   * Create UserDetails with org unit UIDs that were already resolved, for example shared with other
+   * sessions of the same user.
+   *
+   * @param user user to convert
+   * @param orgUnitIds the org unit UIDs of the user, held as is
+   * @return UserDetails
+   */
+  @CheckForNull
+  static UserDetails createUserDetails(
+      @CheckForNull User user,
+      boolean accountNonLocked,
+      boolean credentialsNonExpired,
+      @Nonnull UserOrgUnitIds orgUnitIds) {
+    if (user == null) {
+      return null;
+    }
+    return createUserDetails(
+        user, accountNonLocked, credentialsNonExpired, orgUnitIds, user.getAllRestrictions());
+  }
+
+  @Nonnull
+  private static UserDetails createUserDetails(
+      @Nonnull User user,
+      boolean accountNonLocked,
+      boolean credentialsNonExpired,
+      @Nonnull UserOrgUnitIds orgUnitIds,
+      @Nonnull Set<String> allRestrictions) {
+    return UserDetailsImpl.builder()
+        .id(user.getId())
+        .uid(user.getUid())
+        .code(user.getCode())
+        .username(user.getUsername())
+        .password(user.getPassword())
+        .externalAuth(user.isExternalAuth())
+        .isTwoFactorEnabled(user.isTwoFactorEnabled())
+        .twoFactorType(user.getTwoFactorType())
+        .secret(user.getSecret())
+        .isEmailVerified(user.isEmailVerified())
+        .firstName(user.getFirstName())
+        .surname(user.getSurname())
+        .enabled(user.isEnabled())
+        .accountNonExpired(user.isAccountNonExpired())
+        .accountNonLocked(accountNonLocked)
+        .credentialsNonExpired(credentialsNonExpired)
+        .authorities(user.getAuthorities())
+        .allAuthorities(
+            Set.copyOf(user.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList()))
+        .isSuper(user.isSuper())
+        .userRoleIds(CompactUidSet.of(uidsOf(user.getUserRoles())))
+        .userGroupIds(user.getUid() == null ? Set.of() : CompactUidSet.of(uidsOf(user.getGroups())))
+        .userOrgUnitIds(orgUnitIds.orgUnitIds())
+        .userSearchOrgUnitIds(orgUnitIds.searchOrgUnitIds())
+        .userEffectiveSearchOrgUnitIds(orgUnitIds.effectiveSearchOrgUnitIds())
+        .userDataOrgUnitIds(orgUnitIds.dataViewOrgUnitIds())
+        .allRestrictions(allRestrictions)
+        .build();
   }
 
   @Nonnull
@@ -289,11 +297,9 @@ public interface UserDetails
     return false;
   }
 
-  @Nonnull
-  private static Set<String> setOfIds(
+  @CheckForNull
+  private static List<String> uidsOf(
       @CheckForNull Collection<? extends IdentifiableObject> objects) {
-    return objects == null || objects.isEmpty()
-        ? Set.of()
-        : Set.copyOf(objects.stream().map(IdentifiableObject::getUid).toList());
+    return objects == null ? null : objects.stream().map(IdentifiableObject::getUid).toList();
   }
 }
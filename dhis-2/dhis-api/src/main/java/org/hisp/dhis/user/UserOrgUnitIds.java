@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.user;
+
+import java.util.Collection;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+
+/**
+ * The UIDs of the org units a user is assigned to, as held by {@link UserDetails}. Instances are
+ * immutable and are shared by the {@link UserDetails} of all sessions of the same user.
+ *
+ * @param orgUnitIds the data capture org units
+ * @param searchOrgUnitIds the search org units, the data capture org units if the user has none
+ * @param dataViewOrgUnitIds the data view org units, the data capture org units if the user has
+ *     none
+ * @param effectiveSearchOrgUnitIds the data capture and search org units
+ */
+public record UserOrgUnitIds(
+    @Nonnull CompactUidSet orgUnitIds,
+    @Nonnull CompactUidSet searchOrgUnitIds,
+    @Nonnull CompactUidSet dataViewOrgUnitIds,
+    @Nonnull CompactUidSet effectiveSearchOrgUnitIds) {
+
+  public static final UserOrgUnitIds EMPTY = of(null, null, null);
+
+  /**
+   * Search and data view org units fall back to the data capture org units when empty.
+   *
+   * @return the compact and immutable org unit UIDs of a user
+   */
+  @Nonnull
+  public static UserOrgUnitIds of(
+      @CheckForNull Collection<String> orgUnitIds,
+      @CheckForNull Collection<String> searchOrgUnitIds,
+      @CheckForNull Collection<String> dataViewOrgUnitIds) {
+    CompactUidSet capture = CompactUidSet.of(orgUnitIds);
+    CompactUidSet search =
+        searchOrgUnitIds == null || searchOrgUnitIds.isEmpty()
+            ? capture
+            : CompactUidSet.of(searchOrgUnitIds);
+    CompactUidSet dataView =
+        dataViewOrgUnitIds == null || dataViewOrgUnitIds.isEmpty()
+            ? capture
+            : CompactUidSet.of(dataViewOrgUnitIds);
+    return new UserOrgUnitIds(capture, search, dataView, CompactUidSet.union(capture, search));
+  }
+}
@@ -495,6 +495,16 @@ public interface UserService {
    */
   UserDetails createUserDetails(User user);
 
+  /**
+   * Returns the org unit UIDs of a user as held by its {@link UserDetails}. The result is cached
+   * and shared by all sessions of the user until the user is changed.
+   *
+   * @param username the username of the user
+   * @return the org unit UIDs of the user
+   */
+  @Nonnull
+  UserOrgUnitIds getUserOrgUnitIds(@Nonnull String username);
+
   /**
    * Checks if the input user can modify the other input user.
    *
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link CompactUidSet} and {@link UserOrgUnitIds}. */
+class CompactUidSetTest {
+
+  @Test
+  void testOf() {
+    CompactUidSet set = CompactUidSet.of(Arrays.asList("ouB", "ouA", null, "ouB"));
+
+    assertEquals(2, set.size());
+    assertTrue(set.contains("ouA"));
+    assertTrue(set.contains("ouB"));
+    assertFalse(set.contains("ouC"));
+    assertFalse(set.contains(null));
+    assertEquals(Set.of("ouA", "ouB"), set);
+    assertEquals(List.of("ouA", "ouB"), List.copyOf(set));
+  }
+
+  @Test
+  void testOfInternsUids() {
+    String uid = new String(new char[] {'o', 'u', 'A'});
+
+    CompactUidSet a = CompactUidSet.of(List.of("ouA"));
+    CompactUidSet b = CompactUidSet.of(List.of(uid));
+
+    assertSame(a.iterator().next(), b.iterator().next());
+  }
+
+  @Test
+  void testOfEmpty() {
+    assertSame(CompactUidSet.of(null), CompactUidSet.of(List.of()));
+    assertTrue(CompactUidSet.of(null).isEmpty());
+  }
+
+  @Test
+  void testIsImmutable() {
+    CompactUidSet set = CompactUidSet.of(List.of("ouA"));
+
+    assertThrows(UnsupportedOperationException.class, () -> set.add("ouB"));
+    assertThrows(UnsupportedOperationException.class, () -> set.remove("ouA"));
+  }
+
+  @Test
+  void testUnion() {
+    CompactUidSet a = CompactUidSet.of(List.of("ouA", "ouB"));
+    CompactUidSet b = CompactUidSet.of(List.of("ouB", "ouC"));
+
+    assertEquals(Set.of("ouA", "ouB", "ouC"), CompactUidSet.union(a, b));
+    assertSame(a, CompactUidSet.union(a, a));
+    assertSame(a, CompactUidSet.union(a, CompactUidSet.of(null)));
+  }
+
+  @Test
+  void testSerialization() throws Exception {
+    CompactUidSet set = CompactUidSet.of(List.of("ouA", "ouB"));
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(set);
+    }
+    try (ObjectInputStream in =
+        new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      CompactUidSet read = (CompactUidSet) in.readObject();
+
+      assertEquals(set, read);
+      assertSame(set.iterator().next(), read.iterator().next());
+    }
+  }
+
+  @Test
+  void testUserOrgUnitIdsFallBackToCaptureOrgUnits() {
+    UserOrgUnitIds ids = UserOrgUnitIds.of(List.of("ouA"), List.of(), null);
+
+    assertEquals(Set.of("ouA"), ids.orgUnitIds());
+    assertSame(ids.orgUnitIds(), ids.searchOrgUnitIds());
+    assertSame(ids.orgUnitIds(), ids.dataViewOrgUnitIds());
+    assertSame(ids.orgUnitIds(), ids.effectiveSearchOrgUnitIds());
+  }
+
+  @Test
+  void testUserOrgUnitIdsEffectiveSearchOrgUnits() {
+    UserOrgUnitIds ids = UserOrgUnitIds.of(List.of("ouA"), List.of("ouB"), List.of("ouC"));
+
+    assertEquals(Set.of("ouB"), ids.searchOrgUnitIds());
+    assertEquals(Set.of("ouC"), ids.dataViewOrgUnitIds());
+    assertEquals(Set.of("ouA", "ouB"), ids.effectiveSearchOrgUnitIds());
+  }
+}
@@ -36,8 +36,12 @@ import com.networknt.schema.JsonSchema;
 import com.networknt.schema.ValidationMessage;
 import java.io.InputStream;
 import java.nio.file.Path;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import lombok.extern.slf4j.Slf4j;
 import org.hisp.dhis.jsonschema.JsonSchemaValidator;
 import org.springframework.core.io.AbstractFileResolvingResource;
@@ -51,6 +55,10 @@ import org.springframework.core.io.UrlResource;
  */
 @Slf4j
 class DataIntegrityYamlReader {
+
+  private static final Pattern TABLE_REFERENCE =
+      Pattern.compile("\\b(?:from|join)\\s+(?:\\w+\\.)?([a-z_]\\w*)", Pattern.CASE_INSENSITIVE);
+
   private DataIntegrityYamlReader() {
     throw new UnsupportedOperationException("util");
   }
@@ -213,6 +221,7 @@ class DataIntegrityYamlReader {
                 .sectionOrder(yamlFile.sectionOrder)
                 .severity(yamlFile.severity)
                 .isSlow(yamlFile.isSlow)
+                .tables(getReferencedTables(yamlFile.summarySql, yamlFile.detailsSql))
                 .runSummaryCheck(
                     dataIntegrityRecord.sqlToSummary().apply(sanitiseSQL(yamlFile.summarySql)))
                 .runDetailsCheck(
@@ -255,6 +264,23 @@ class DataIntegrityYamlReader {
             .replace("|| '%'", ""));
   }
 
+  /**
+   * Extracts the names used in {@code FROM} and {@code JOIN} clauses. This may include names of
+   * CTEs or set returning functions which is harmless as they do not match any table.
+   */
+  static Set<String> getReferencedTables(String... sqls) {
+    Set<String> tables = new HashSet<>();
+    for (String sql : sqls) {
+      if (sql != null) {
+        Matcher m = TABLE_REFERENCE.matcher(sql);
+        while (m.find()) {
+          tables.add(m.group(1).toLowerCase(Locale.ROOT));
+        }
+      }
+    }
+    return Set.copyOf(tables);
+  }
+
   enum ResourceLocation {
     CLASS_PATH,
     FILE_SYSTEM
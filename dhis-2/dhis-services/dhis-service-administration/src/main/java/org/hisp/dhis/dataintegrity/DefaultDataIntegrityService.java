@@ -82,6 +82,8 @@ import org.hisp.dhis.dataset.DataSetService;
 import org.hisp.dhis.expression.Expression;
 import org.hisp.dhis.expression.ExpressionService;
 import org.hisp.dhis.expression.ExpressionValidationOutcome;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.external.location.LocationManager;
 import org.hisp.dhis.external.location.LocationManagerException;
 import org.hisp.dhis.i18n.I18n;
@@ -150,6 +152,8 @@ public class DefaultDataIntegrityService implements DataIntegrityService {
 
   private final SchemaService schemaService;
 
+  private final DhisConfigurationProvider config;
+
   private Cache<DataIntegritySummary> summaryCache;
 
   private Cache<DataIntegrityDetails> detailsCache;
@@ -158,6 +162,14 @@ public class DefaultDataIntegrityService implements DataIntegrityService {
 
   private final Set<String> runningDetailsChecks = ConcurrentHashMap.newKeySet();
 
+  /**
+   * Modification count of the tables of a check at the time its cached result was computed, used to
+   * skip re-running checks whose tables did not change.
+   */
+  private final Map<String, Long> summaryModificationCounts = new ConcurrentHashMap<>();
+
+  private final Map<String, Long> detailsModificationCounts = new ConcurrentHashMap<>();
+
   @PostConstruct
   public void init() {
     summaryCache = cacheProvider.createDataIntegritySummaryCache();
@@ -649,6 +661,7 @@ public class DefaultDataIntegrityService implements DataIntegrityService {
         expandChecks(checks, true),
         progress,
         summaryCache,
+        summaryModificationCounts,
         runningSummaryChecks,
         check -> check.getRunSummaryCheck().apply(check),
         (check, startTime, ex) ->
@@ -671,6 +684,7 @@ public class DefaultDataIntegrityService implements DataIntegrityService {
         expandChecks(checks, true),
         progress,
         detailsCache,
+        detailsModificationCounts,
         runningDetailsChecks,
         check -> check.getRunDetailsCheck().apply(check),
         (check, startTime, ex) ->
@@ -713,46 +727,91 @@ public class DefaultDataIntegrityService implements DataIntegrityService {
     T createErrorReport(DataIntegrityCheck check, Date startTime, RuntimeException ex);
   }
 
+  /**
+   * Runs the given checks. SQL based checks run in parallel up to the configured {@link
+   * ConfigurationKey#DATA_INTEGRITY_PARALLELISM} as each of them uses its own transaction.
+   * Programmatic checks navigate lazy loaded objects and therefore run one after another on the
+   * calling thread before the SQL checks.
+   */
   private <T> void runDataIntegrityChecks(
       String stageDesc,
       Set<String> checks,
       JobProgress progress,
       Cache<T> cache,
+      Map<String, Long> modificationCounts,
       Set<String> running,
       Function<DataIntegrityCheck, T> runCheck,
       DataIntegrityCheckErrorHandler<T> createErrorReport) {
     try {
       running.addAll(checks);
-      progress.startingProcess("Data integrity check");
-      progress.startingStage(stageDesc, checks.size(), SKIP_ITEM);
-      progress.runStage(
+      Map<Boolean, List<DataIntegrityCheck>> checksByProgrammatic =
           checks.stream()
               .map(checksByName::get)
               .filter(Objects::nonNull)
-              .sorted(DataIntegrityCheck.FAST_TO_SLOW),
-          DataIntegrityCheck::getDescription,
+              .sorted(DataIntegrityCheck.FAST_TO_SLOW)
+              .collect(Collectors.partitioningBy(DataIntegrityCheck::isProgrammatic));
+      List<DataIntegrityCheck> programmaticChecks = checksByProgrammatic.get(true);
+      List<DataIntegrityCheck> sqlChecks = checksByProgrammatic.get(false);
+      boolean skipUnchanged = config.isEnabled(ConfigurationKey.DATA_INTEGRITY_SKIP_UNCHANGED);
+      Consumer<DataIntegrityCheck> work =
           check -> {
-            Date startTime = new Date();
-            T res;
+            String name = check.getName();
             try {
-              res = runCheck.apply(check);
-            } catch (RuntimeException ex) {
-              cache.put(check.getName(), createErrorReport.createErrorReport(check, startTime, ex));
-              throw ex;
+              Long modifications =
+                  skipUnchanged ? dataIntegrityStore.getModificationCount(check.getTables()) : null;
+              // any difference counts as a change, counters go down on a stats reset or failover
+              if (modifications != null
+                  && modifications.equals(modificationCounts.get(name))
+                  && cache.get(name).isPresent()) {
+                log.debug("Skipping check {} as none of its tables changed", name);
+                return;
+              }
+              modificationCounts.remove(name);
+              runDataIntegrityCheck(check, cache, runCheck, createErrorReport);
+              if (modifications != null) {
+                modificationCounts.put(name, modifications);
+              }
             } finally {
-              running.remove(check.getName());
-            }
-            if (res != null) {
-              check.addExecution(currentTimeMillis() - startTime.getTime());
-              cache.put(check.getName(), res);
+              running.remove(name);
             }
-          });
+          };
+
+      progress.startingProcess("Data integrity check");
+      if (!programmaticChecks.isEmpty()) {
+        progress.startingStage(stageDesc, programmaticChecks.size(), SKIP_ITEM);
+        progress.runStage(programmaticChecks, DataIntegrityCheck::getDescription, work);
+      }
+      if (!sqlChecks.isEmpty()) {
+        int parallelism = config.getIntProperty(ConfigurationKey.DATA_INTEGRITY_PARALLELISM);
+        progress.startingStage(stageDesc + " (SQL)", sqlChecks.size(), SKIP_ITEM);
+        progress.runStageInParallel(
+            parallelism, sqlChecks, DataIntegrityCheck::getDescription, work);
+      }
       progress.completedProcess(null);
     } finally {
       running.removeAll(checks);
     }
   }
 
+  private static <T> void runDataIntegrityCheck(
+      DataIntegrityCheck check,
+      Cache<T> cache,
+      Function<DataIntegrityCheck, T> runCheck,
+      DataIntegrityCheckErrorHandler<T> createErrorReport) {
+    Date startTime = new Date();
+    T res;
+    try {
+      res = runCheck.apply(check);
+    } catch (RuntimeException ex) {
+      cache.put(check.getName(), createErrorReport.createErrorReport(check, startTime, ex));
+      throw ex;
+    }
+    if (res != null) {
+      check.addExecution(currentTimeMillis() - startTime.getTime());
+      cache.put(check.getName(), res);
+    }
+  }
+
   private Set<String> expandChecks(Set<String> names, boolean restricted) {
     ensureConfigurationsAreLoaded();
 
@@ -27,39 +27,72 @@
  */
 package org.hisp.dhis.dataintegrity.hibernate;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
 import static java.util.stream.Collectors.toUnmodifiableList;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceException;
+import jakarta.persistence.Query;
 import java.util.Date;
 import java.util.List;
-import lombok.RequiredArgsConstructor;
+import java.util.Set;
+import javax.annotation.CheckForNull;
+import lombok.extern.slf4j.Slf4j;
 import org.hisp.dhis.dataintegrity.DataIntegrityCheck;
 import org.hisp.dhis.dataintegrity.DataIntegrityDetails;
 import org.hisp.dhis.dataintegrity.DataIntegrityDetails.DataIntegrityIssue;
 import org.hisp.dhis.dataintegrity.DataIntegrityStore;
 import org.hisp.dhis.dataintegrity.DataIntegritySummary;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * As we want each check to be its own transaction the @{@link Transactional} annotation is used on
  * the store and not the service level in this case.
  *
+ * <p>Each check query is limited by {@link ConfigurationKey#DATA_INTEGRITY_CHECK_TIMEOUT} so that a
+ * single slow check cannot hold on to a connection indefinitely.
+ *
+ * <p>Modification counts are read in a separate read-write transaction, so that they always come
+ * from the primary database. The table statistics are kept per database instance, a read replica
+ * has its own counters which are unrelated to those of the primary.
+ *
  * @author Jan Bernitt
  */
+@Slf4j
 @Repository
-@RequiredArgsConstructor
 public class HibernateDataIntegrityStore implements DataIntegrityStore {
+  private static final String QUERY_TIMEOUT_HINT = "jakarta.persistence.query.timeout";
+
   @PersistenceContext private final EntityManager entityManager;
 
+  private final DhisConfigurationProvider config;
+
+  private final TransactionTemplate primaryTransactionTemplate;
+
+  public HibernateDataIntegrityStore(
+      EntityManager entityManager,
+      DhisConfigurationProvider config,
+      PlatformTransactionManager transactionManager) {
+    this.entityManager = entityManager;
+    this.config = config;
+    this.primaryTransactionTemplate = new TransactionTemplate(transactionManager);
+    this.primaryTransactionTemplate.setPropagationBehavior(
+        TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+  }
+
   @Override
   @Transactional(readOnly = true)
   public DataIntegritySummary querySummary(DataIntegrityCheck check, String sql) {
     Date startTime = new Date();
     // Note! that the SQL here can be touching any table so we cannot sync it
-    Object summary =
-        entityManager.createNativeQuery(sql).getResultStream().findFirst().orElse(null);
+    Object summary = createCheckQuery(sql).getResultStream().findFirst().orElse(null);
     return new DataIntegritySummary(
         check, startTime, new Date(), null, parseCount(summary), parsePercentage(summary));
   }
@@ -70,7 +103,7 @@ public class HibernateDataIntegrityStore implements DataIntegrityStore {
     Date startTime = new Date();
     // Note! that the SQL here can be touching any table so we cannot sync it
     @SuppressWarnings("unchecked")
-    List<Object[]> rows = entityManager.createNativeQuery(sql).getResultList();
+    List<Object[]> rows = createCheckQuery(sql).getResultList();
     return new DataIntegrityDetails(
         check,
         startTime,
@@ -84,6 +117,40 @@ public class HibernateDataIntegrityStore implements DataIntegrityStore {
             .collect(toUnmodifiableList()));
   }
 
+  @CheckForNull
+  @Override
+  public Long getModificationCount(Set<String> tables) {
+    if (tables.isEmpty()) {
+      return null;
+    }
+    String sql =
+        "select coalesce(sum(n_tup_ins + n_tup_upd + n_tup_del), 0) from pg_stat_user_tables"
+            + " where relname in (:tables)";
+    try {
+      return primaryTransactionTemplate.execute(
+          status -> {
+            Object count =
+                entityManager
+                    .createNativeQuery(sql)
+                    .setParameter("tables", tables)
+                    .getSingleResult();
+            return ((Number) count).longValue();
+          });
+    } catch (PersistenceException ex) {
+      log.debug("Table statistics are not available: {}", ex.getMessage());
+      return null;
+    }
+  }
+
+  private Query createCheckQuery(String sql) {
+    Query query = entityManager.createNativeQuery(sql);
+    int timeout = config.getIntProperty(ConfigurationKey.DATA_INTEGRITY_CHECK_TIMEOUT);
+    if (timeout > 0) {
+      query.setHint(QUERY_TIMEOUT_HINT, Math.toIntExact(SECONDS.toMillis(timeout)));
+    }
+    return query;
+  }
+
   private static String getIndex(Object[] row, int index) {
     return row.length <= index ? null : (String) row[index];
   }
@@ -28,6 +28,8 @@
 package org.hisp.dhis.dataintegrity;
 
 import static org.hisp.dhis.dataintegrity.DataIntegrityDetails.DataIntegrityIssue.issueName;
+import static org.hisp.dhis.external.conf.ConfigurationKey.DATA_INTEGRITY_PARALLELISM;
+import static org.hisp.dhis.external.conf.ConfigurationKey.DATA_INTEGRITY_SKIP_UNCHANGED;
 import static org.hisp.dhis.test.TestBase.createDataElement;
 import static org.hisp.dhis.test.TestBase.createDataElementGroup;
 import static org.hisp.dhis.test.TestBase.createDataSet;
@@ -56,8 +58,10 @@ import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import java.util.Collection;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -73,6 +77,7 @@ import org.hisp.dhis.dataintegrity.DataIntegrityDetails.DataIntegrityIssue;
 import org.hisp.dhis.dataset.DataSet;
 import org.hisp.dhis.dataset.DataSetService;
 import org.hisp.dhis.expression.ExpressionService;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.external.location.DefaultLocationManager;
 import org.hisp.dhis.i18n.I18n;
 import org.hisp.dhis.i18n.I18nManager;
@@ -96,7 +101,9 @@ import org.hisp.dhis.programrule.ProgramRuleActionService;
 import org.hisp.dhis.programrule.ProgramRuleService;
 import org.hisp.dhis.programrule.ProgramRuleVariable;
 import org.hisp.dhis.programrule.ProgramRuleVariableService;
+import org.hisp.dhis.scheduling.JobProgress;
 import org.hisp.dhis.schema.SchemaService;
+import org.hisp.dhis.test.cache.TestCache;
 import org.hisp.dhis.test.random.BeanRandomizer;
 import org.hisp.dhis.validation.ValidationRuleService;
 import org.junit.jupiter.api.BeforeEach;
@@ -157,6 +164,8 @@ class DataIntegrityServiceTest {
 
   @Mock private ProgramRuleActionService programRuleActionService;
 
+  @Mock private DhisConfigurationProvider config;
+
   @InjectMocks private DefaultDataIntegrityService subject;
 
   private DataElementGroup elementGroupA;
@@ -526,6 +535,39 @@ class DataIntegrityServiceTest {
     assertFalse(dataIntegrityChecks.isEmpty());
   }
 
+  @Test
+  void testRunSummaryChecks_SkipUnchanged() {
+    when(i18nManager.getI18n(DataIntegrityService.class)).thenReturn(i18n);
+    when(i18n.getString(anyString(), anyString())).thenReturn("default");
+    when(i18n.getString(contains("severity"), eq("WARNING"))).thenReturn("WARNING");
+    when(cacheProvider.createDataIntegritySummaryCache()).thenReturn(new TestCache<>());
+    when(cacheProvider.createDataIntegrityDetailsCache()).thenReturn(new TestCache<>());
+    when(config.isEnabled(DATA_INTEGRITY_SKIP_UNCHANGED)).thenReturn(true);
+    when(config.getIntProperty(DATA_INTEGRITY_PARALLELISM)).thenReturn(1);
+    when(dataIntegrityStore.getModificationCount(Set.of("category", "categories_categoryoptions")))
+        .thenReturn(42L);
+    when(dataIntegrityStore.querySummary(any(), anyString()))
+        .thenAnswer(
+            call ->
+                new DataIntegritySummary(call.getArgument(0), new Date(), new Date(), null, 0, 0d));
+    subject.init();
+
+    Set<String> checks = Set.of("categories_no_options");
+    subject.runSummaryChecks(checks, JobProgress.noop());
+    subject.runSummaryChecks(checks, JobProgress.noop());
+    verify(dataIntegrityStore, times(1)).querySummary(any(), anyString());
+    assertEquals(checks, subject.getSummaries(checks, 0).keySet());
+
+    when(dataIntegrityStore.getModificationCount(any())).thenReturn(43L);
+    subject.runSummaryChecks(checks, JobProgress.noop());
+    verify(dataIntegrityStore, times(2)).querySummary(any(), anyString());
+
+    // counters start over after a stats reset or failover, a decrease is a change too
+    when(dataIntegrityStore.getModificationCount(any())).thenReturn(7L);
+    subject.runSummaryChecks(checks, JobProgress.noop());
+    verify(dataIntegrityStore, times(3)).querySummary(any(), anyString());
+  }
+
   private Map<String, DataElement> createRandomDataElements(int quantity, String uidSeed) {
 
     return IntStream.range(1, quantity + 1)
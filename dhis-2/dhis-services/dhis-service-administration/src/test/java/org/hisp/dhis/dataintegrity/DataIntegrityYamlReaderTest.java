@@ -111,6 +111,16 @@ class DataIntegrityYamlReaderTest {
             .startsWith("SELECT uid,name from category"));
   }
 
+  @Test
+  void testGetReferencedTables() {
+    assertEquals(
+        Set.of("dataelement", "datasetelement", "dataset", "generate_series"),
+        DataIntegrityYamlReader.getReferencedTables(
+            "SELECT de.uid FROM dataelement de LEFT JOIN datasetelement dse ON de.id = dse.id"
+                + " where not exists (select 1 from public.dataset ds)",
+            "select x from (select 1) sub join generate_series(1, 2) x on true"));
+  }
+
   @Test
   void testWithValidChecksFile() {
     List<DataIntegrityCheck> checks = new ArrayList<>();
@@ -31,6 +31,7 @@ import java.util.List;
 import java.util.Map;
 import org.hisp.dhis.common.AnalyticalObject;
 import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.common.GridStreamWriter;
 import org.hisp.dhis.dxf2.datavalueset.DataValueSet;
 
 /**
@@ -127,6 +128,16 @@ public interface AnalyticsService {
    */
   Grid getRawDataValues(DataQueryParams params);
 
+  /**
+   * Writes raw data values for the given query to the given writer. The output has the same
+   * structure as the grid returned by {@link #getRawDataValues(DataQueryParams)}, but rows are
+   * written as they are read from the database instead of being collected in a grid first.
+   *
+   * @param params the data query parameters.
+   * @param writer the {@link GridStreamWriter}.
+   */
+  void getRawDataValues(DataQueryParams params, GridStreamWriter writer);
+
   /**
    * Generates a data value set for the given query. The query must contain a data, period and
    * organisation unit dimension.
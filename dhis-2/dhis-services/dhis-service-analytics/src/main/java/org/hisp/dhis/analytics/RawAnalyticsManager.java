@@ -27,6 +27,8 @@
  */
 package org.hisp.dhis.analytics;
 
+import java.util.List;
+import java.util.function.Consumer;
 import org.hisp.dhis.common.Grid;
 
 /**
@@ -43,4 +45,13 @@ public interface RawAnalyticsManager {
    * @return a grid with data.
    */
   Grid getRawDataValues(DataQueryParams params, Grid grid);
+
+  /**
+   * Passes raw analytics data based on the given query to the given consumer, one row at a time as
+   * rows are read from the database. Rows are not retained in memory.
+   *
+   * @param params the {@link DataQueryParams}.
+   * @param rowConsumer the consumer of rows.
+   */
+  void streamRawDataValues(DataQueryParams params, Consumer<List<Object>> rowConsumer);
 }
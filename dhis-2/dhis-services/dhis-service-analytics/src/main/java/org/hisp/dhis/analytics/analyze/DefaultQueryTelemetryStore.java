@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.analytics.analyze;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static org.hisp.dhis.external.conf.ConfigurationKey.ANALYTICS_QUERY_SLOW_LOG_SIZE;
+import static org.hisp.dhis.external.conf.ConfigurationKey.ANALYTICS_QUERY_SLOW_THRESHOLD;
+import static org.hisp.dhis.external.conf.ConfigurationKey.MONITORING_ANALYTICS_QUERIES_ENABLED;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.hisp.dhis.analytics.AnalyticsTableType;
+import org.hisp.dhis.analytics.DataQueryParams;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.springframework.stereotype.Service;
+
+/**
+ * Implementation of {@link QueryTelemetryStore} which publishes query timings and row counts as
+ * Micrometer meters tagged with the analytics table type, and retains the most recent queries which
+ * exceeded the slow query threshold in a fixed size ring buffer.
+ *
+ * <p>Like the other monitoring subsystems the meters are only registered and recorded when {@link
+ * org.hisp.dhis.external.conf.ConfigurationKey#MONITORING_ANALYTICS_QUERIES_ENABLED} is on. The
+ * slow query log is always kept.
+ */
+@Slf4j
+@Service
+public class DefaultQueryTelemetryStore implements QueryTelemetryStore {
+  private final MeterRegistry meterRegistry;
+
+  private final Map<AnalyticsTableType, Meters> meters = new ConcurrentHashMap<>();
+
+  /** Whether query timings and row counts are published as meters. */
+  private final boolean metricsEnabled;
+
+  /** Slow query threshold in milliseconds. */
+  private final long slowThreshold;
+
+  /** Ring buffer of recent slow queries, guarded by this instance. */
+  private final QueryTelemetry[] slowQueries;
+
+  /** Index of the next slot to write in the ring buffer. */
+  private int next = 0;
+
+  public DefaultQueryTelemetryStore(MeterRegistry meterRegistry, DhisConfigurationProvider config) {
+    this.meterRegistry = meterRegistry;
+    this.metricsEnabled = config.isEnabled(MONITORING_ANALYTICS_QUERIES_ENABLED);
+    this.slowThreshold = config.getIntProperty(ANALYTICS_QUERY_SLOW_THRESHOLD);
+    this.slowQueries =
+        new QueryTelemetry[Math.max(1, config.getIntProperty(ANALYTICS_QUERY_SLOW_LOG_SIZE))];
+  }
+
+  @Override
+  public QueryTimer startTimer(AnalyticsTableType tableType, DataQueryParams params, String sql) {
+    long start = System.nanoTime();
+
+    return new QueryTimer() {
+      private long sqlExecuted = start;
+
+      @Override
+      public void sqlExecuted() {
+        sqlExecuted = System.nanoTime();
+      }
+
+      @Override
+      public void completed(int rows) {
+        long sqlTime = sqlExecuted - start;
+        long mappingTime = System.nanoTime() - sqlExecuted;
+
+        if (metricsEnabled) {
+          Meters queryMeters = meters.computeIfAbsent(tableType, type -> createMeters(type));
+          queryMeters.sql().record(sqlTime, NANOSECONDS);
+          queryMeters.mapping().record(mappingTime, NANOSECONDS);
+          queryMeters.rows().record(rows);
+        }
+
+        if (NANOSECONDS.toMillis(sqlTime + mappingTime) >= slowThreshold) {
+          addSlowQuery(
+              QueryTelemetry.builder()
+                  .tableType(tableType)
+                  .table(params.getTableName())
+                  .partitions(
+                      params.hasPartitions()
+                          ? Set.copyOf(params.getPartitions().getPartitions())
+                          : Set.of())
+                  .rows(rows)
+                  .sqlTime(NANOSECONDS.toMillis(sqlTime))
+                  .mappingTime(NANOSECONDS.toMillis(mappingTime))
+                  .created(new Date())
+                  .sql(sql)
+                  .build());
+        }
+      }
+    };
+  }
+
+  @Override
+  public synchronized List<QueryTelemetry> getSlowQueries() {
+    return Arrays.stream(slowQueries)
+        .filter(Objects::nonNull)
+        .sorted(Comparator.comparingLong(QueryTelemetry::getTotalTime).reversed())
+        .toList();
+  }
+
+  @Override
+  public synchronized void removeSlowQueries() {
+    Arrays.fill(slowQueries, null);
+    next = 0;
+  }
+
+  /**
+   * Adds the given query to the ring buffer of slow queries, replacing the oldest query if full.
+   *
+   * @param telemetry the {@link QueryTelemetry}.
+   */
+  private synchronized void addSlowQuery(QueryTelemetry telemetry) {
+    log.debug(
+        "Slow analytics query on table: '{}' in {} ms",
+        telemetry.getTable(),
+        telemetry.getTotalTime());
+
+    slowQueries[next] = telemetry;
+    next = (next + 1) % slowQueries.length;
+  }
+
+  /**
+   * Creates the meters for the given analytics table type.
+   *
+   * @param tableType the {@link AnalyticsTableType}.
+   * @return the {@link Meters}.
+   */
+  private Meters createMeters(AnalyticsTableType tableType) {
+    String type = tableType.name().toLowerCase();
+
+    return new Meters(
+        Timer.builder("analytics.query.sql")
+            .description("Time spent executing analytics SQL queries")
+            .tag("type", type)
+            .register(meterRegistry),
+        Timer.builder("analytics.query.mapping")
+            .description("Time spent mapping the result of analytics SQL queries")
+            .tag("type", type)
+            .register(meterRegistry),
+        DistributionSummary.builder("analytics.query.rows")
+            .description("Number of rows returned by analytics SQL queries")
+            .tag("type", type)
+            .register(meterRegistry));
+  }
+
+  private record Meters(Timer sql, Timer mapping, DistributionSummary rows) {}
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.analytics.analyze;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.Date;
+import java.util.Set;
+import lombok.Builder;
+import lombok.Getter;
+import org.hisp.dhis.analytics.AnalyticsTableType;
+
+/**
+ * Telemetry of a single analytics SQL query, including the analytics table and partitions queried,
+ * the number of rows returned and the time spent executing the SQL query and mapping the result.
+ */
+@Getter
+@Builder
+public class QueryTelemetry {
+  /** The analytics table type. */
+  @JsonProperty private final AnalyticsTableType tableType;
+
+  /** The name of the analytics table. */
+  @JsonProperty private final String table;
+
+  /** The yearly partitions of the analytics table. */
+  @JsonProperty private final Set<Integer> partitions;
+
+  /** The number of rows returned. */
+  @JsonProperty private final int rows;
+
+  /** The time spent executing the SQL query in milliseconds. */
+  @JsonProperty private final long sqlTime;
+
+  /** The time spent mapping the result of the SQL query in milliseconds. */
+  @JsonProperty private final long mappingTime;
+
+  /** The time the query completed. */
+  @JsonProperty private final Date created;
+
+  /** The SQL query. */
+  @JsonProperty private final String sql;
+
+  /** Returns the total time spent on the query in milliseconds. */
+  @JsonProperty
+  public long getTotalTime() {
+    return sqlTime + mappingTime;
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.analytics.analyze;
+
+import java.util.List;
+import org.hisp.dhis.analytics.AnalyticsTableType;
+import org.hisp.dhis.analytics.DataQueryParams;
+
+/**
+ * Collects telemetry for analytics SQL queries. Telemetry is published as metrics, and the slowest
+ * recent queries are retained in memory.
+ */
+public interface QueryTelemetryStore {
+  /**
+   * Starts timing the given SQL query. The returned {@link QueryTimer} must be notified when the
+   * SQL query has been executed and when the result has been mapped.
+   *
+   * @param tableType the {@link AnalyticsTableType}.
+   * @param params the {@link DataQueryParams} of the query.
+   * @param sql the SQL query.
+   * @return a {@link QueryTimer}.
+   */
+  QueryTimer startTimer(AnalyticsTableType tableType, DataQueryParams params, String sql);
+
+  /**
+   * Returns the retained slow queries, sorted by total time descending.
+   *
+   * @return a list of {@link QueryTelemetry}.
+   */
+  List<QueryTelemetry> getSlowQueries();
+
+  /** Removes all retained slow queries. */
+  void removeSlowQueries();
+
+  /** Timer for an analytics SQL query. */
+  interface QueryTimer {
+    /** Marks the SQL query as executed, after which the mapping of the result starts. */
+    void sqlExecuted();
+
+    /**
+     * Marks the mapping of the result as completed and records the telemetry of the query.
+     *
+     * @param rows the number of rows returned.
+     */
+    void completed(int rows);
+  }
+}
@@ -58,6 +58,7 @@ import org.hisp.dhis.common.AnalyticalObject;
 import org.hisp.dhis.common.CombinationGenerator;
 import org.hisp.dhis.common.DimensionalItemObject;
 import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.common.GridStreamWriter;
 import org.hisp.dhis.common.IdentifiableObjectUtils;
 import org.hisp.dhis.common.IllegalQueryException;
 import org.hisp.dhis.dxf2.datavalueset.DataValueSet;
@@ -131,6 +132,16 @@ public class DefaultAnalyticsService implements AnalyticsService {
     return dataAggregator.getRawDataGrid(params);
   }
 
+  @Override
+  @Transactional(readOnly = true)
+  public void getRawDataValues(DataQueryParams params, GridStreamWriter writer) {
+    params = checkSecurityConstraints(params);
+
+    queryValidator.validate(params);
+
+    dataAggregator.streamRawData(params, writer);
+  }
+
   @Override
   @Transactional(readOnly = true)
   public DataValueSet getAggregatedDataValueSet(DataQueryParams params) {
@@ -39,7 +39,11 @@ import static org.hisp.dhis.util.DateUtils.getLatest;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -171,7 +175,10 @@ public class DefaultQueryPlanner implements QueryPlanner {
   // -------------------------------------------------------------------------
 
   /**
-   * Splits the given list of queries in sub queries on the given dimension.
+   * Splits the given list of queries in sub queries on the given dimension. The number of sub
+   * queries of each query is proportional to the estimated number of rows in the partitions of the
+   * query, relative to the other queries of the same sequential query group. If estimates are not
+   * available, each query is split into the same number of sub queries.
    *
    * @param queryGroups {@link {@link DataQueryGroups}.
    * @param dimension the dimension identifier.
@@ -183,6 +190,8 @@ public class DefaultQueryPlanner implements QueryPlanner {
     int optimalForSubQuery =
         MathUtils.divideToFloor(optimalQueries, queryGroups.getLargestGroupSize());
 
+    Map<DataQueryParams, Integer> pageCounts = getPageCounts(queryGroups, optimalQueries);
+
     List<DataQueryParams> subQueries = new ArrayList<>();
 
     for (DataQueryParams query : queryGroups.getAllQueries()) {
@@ -195,8 +204,10 @@ public class DefaultQueryPlanner implements QueryPlanner {
         continue;
       }
 
+      int pages = pageCounts.getOrDefault(query, optimalForSubQuery);
+
       List<List<DimensionalItemObject>> valuePages =
-          new PaginatedList<>(values).setNumberOfPages(optimalForSubQuery).getPages();
+          new PaginatedList<>(values).setNumberOfPages(pages).getPages();
 
       for (List<DimensionalItemObject> valuePage : valuePages) {
         DataQueryParams subQuery =
@@ -218,6 +229,69 @@ public class DefaultQueryPlanner implements QueryPlanner {
     return DataQueryGroups.newBuilder().withQueries(subQueries).build();
   }
 
+  /**
+   * Returns the number of sub queries to split each query into, based on the share of the estimated
+   * number of rows of the query within its sequential query group. Queries of groups for which
+   * estimates are not available are not included.
+   *
+   * @param queryGroups the {@link DataQueryGroups}.
+   * @param optimalQueries the number of optimal queries.
+   * @return a mapping from query to number of sub queries.
+   */
+  private Map<DataQueryParams, Integer> getPageCounts(
+      DataQueryGroups queryGroups, int optimalQueries) {
+    Map<DataQueryParams, Integer> pageCounts = new IdentityHashMap<>();
+
+    for (List<DataQueryParams> group : queryGroups.getSequentialQueries()) {
+      if (group.size() < 2) {
+        continue;
+      }
+
+      Map<DataQueryParams, Long> rowCounts = new IdentityHashMap<>();
+
+      for (DataQueryParams query : group) {
+        rowCounts.put(query, getEstimatedRowCount(query));
+      }
+
+      if (rowCounts.values().stream().anyMatch(rowCount -> rowCount <= 0)) {
+        continue;
+      }
+
+      double totalRowCount = rowCounts.values().stream().mapToLong(Long::longValue).sum();
+
+      rowCounts.forEach(
+          (query, rowCount) ->
+              pageCounts.put(
+                  query, Math.max(1, (int) Math.round(optimalQueries * rowCount / totalRowCount))));
+    }
+
+    return pageCounts;
+  }
+
+  /**
+   * Returns the estimated number of rows in the partitions covered by the periods of the given
+   * query. Partitions are assigned once for the original query, so the partitions of each query are
+   * narrowed down to the years spanned by its own periods.
+   *
+   * @param query the {@link DataQueryParams}.
+   * @return the estimated number of rows, or -1 if not available.
+   */
+  private long getEstimatedRowCount(DataQueryParams query) {
+    Partitions partitions = query.getPartitions();
+
+    if (partitions != null
+        && partitions.hasAny()
+        && !query.hasStartEndDate()
+        && !query.getAllPeriods().isEmpty()) {
+      Set<Integer> years =
+          new HashSet<>(PartitionUtils.getPartitions(query.getAllPeriods()).getPartitions());
+      years.retainAll(partitions.getPartitions());
+      partitions = new Partitions(years);
+    }
+
+    return partitionManager.getEstimatedRowCount(query.getTableName(), partitions);
+  }
+
   // -------------------------------------------------------------------------
   // Supportive group by methods
   // -------------------------------------------------------------------------
@@ -74,6 +74,8 @@ import org.hisp.dhis.analytics.DataType;
 import org.hisp.dhis.analytics.MeasureFilter;
 import org.hisp.dhis.analytics.QueryPlanner;
 import org.hisp.dhis.analytics.analyze.ExecutionPlanStore;
+import org.hisp.dhis.analytics.analyze.QueryTelemetryStore;
+import org.hisp.dhis.analytics.analyze.QueryTelemetryStore.QueryTimer;
 import org.hisp.dhis.analytics.table.model.Partitions;
 import org.hisp.dhis.analytics.table.util.PartitionUtils;
 import org.hisp.dhis.analytics.util.AnalyticsUtils;
@@ -156,6 +158,8 @@ public class JdbcAnalyticsManager implements AnalyticsManager {
 
   private final ExecutionPlanStore executionPlanStore;
 
+  private final QueryTelemetryStore queryTelemetryStore;
+
   private final SqlBuilder sqlBuilder;
 
   // -------------------------------------------------------------------------
@@ -199,7 +203,7 @@ public class JdbcAnalyticsManager implements AnalyticsManager {
 
       try {
         map =
-            withExceptionHandling(() -> getKeyValueMap(immutableParams, sql, maxLimit))
+            withExceptionHandling(() -> getKeyValueMap(immutableParams, tableType, sql, maxLimit))
                 .orElse(Map.of());
       } catch (BadSqlGrammarException ex) {
         if (relationDoesNotExist(ex.getSQLException())) {
@@ -924,16 +928,22 @@ public class JdbcAnalyticsManager implements AnalyticsManager {
    * value mapping.
    *
    * @param params the {@link DataQueryParams}.
+   * @param tableType the {@link AnalyticsTableType}.
    * @param sql the SQL query.
    * @param maxLimit the max limit of records to return, 0 indicates unlimited.
    */
-  private Map<String, Object> getKeyValueMap(DataQueryParams params, String sql, int maxLimit) {
+  private Map<String, Object> getKeyValueMap(
+      DataQueryParams params, AnalyticsTableType tableType, String sql, int maxLimit) {
     Map<String, Object> map = new HashMap<>();
 
     log.debug("Analytics query SQL: '{}'", sql);
 
+    QueryTimer timer = queryTelemetryStore.startTimer(tableType, params, sql);
+
     SqlRowSet rowSet = jdbcTemplate.queryForRowSet(sql);
 
+    timer.sqlExecuted();
+
     int counter = 0;
 
     while (rowSet.next()) {
@@ -964,6 +974,8 @@ public class JdbcAnalyticsManager implements AnalyticsManager {
       }
     }
 
+    timer.completed(map.size());
+
     return map;
   }
 
@@ -35,8 +35,11 @@ import static org.hisp.dhis.analytics.DataQueryParams.PERIOD_START_DATE_NAME;
 import static org.hisp.dhis.common.IdentifiableObjectUtils.getUids;
 import static org.hisp.dhis.util.DateUtils.toMediumDate;
 
+import java.sql.ResultSet;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -56,8 +59,8 @@ import org.hisp.dhis.db.sql.SqlBuilder;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
 import org.hisp.dhis.util.ObjectUtils;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.ConnectionCallback;
 import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.support.rowset.SqlRowSet;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 
@@ -72,6 +75,9 @@ import org.springframework.util.Assert;
 public class JdbcRawAnalyticsManager implements RawAnalyticsManager {
   private static final String DIM_NAME_OU = "ou.path";
 
+  /** Number of rows fetched from the database per round trip when streaming raw data. */
+  private static final int FETCH_SIZE = 1000;
+
   private final SqlBuilder sqlBuilder;
 
   @Qualifier("analyticsReadOnlyJdbcTemplate")
@@ -83,6 +89,13 @@ public class JdbcRawAnalyticsManager implements RawAnalyticsManager {
 
   @Override
   public Grid getRawDataValues(DataQueryParams params, Grid grid) {
+    streamRawDataValues(params, row -> grid.addRow().addValuesAsList(row));
+
+    return grid;
+  }
+
+  @Override
+  public void streamRawDataValues(DataQueryParams params, Consumer<List<Object>> rowConsumer) {
     Assert.isTrue(params.hasStartEndDate(), "Start and end dates must be specified");
 
     List<DimensionalObject> dimensions = new ArrayList<>();
@@ -105,19 +118,42 @@ public class JdbcRawAnalyticsManager implements RawAnalyticsManager {
 
     log.debug("Analytics raw data query SQL: '{}'", sql);
 
-    SqlRowSet rowSet = jdbcTemplate.queryForRowSet(sql);
+    jdbcTemplate.execute(
+        (ConnectionCallback<Void>)
+            connection -> {
+              // The driver only fetches rows in batches when auto-commit is off
 
-    while (rowSet.next()) {
-      grid.addRow();
+              boolean autoCommit = connection.getAutoCommit();
 
-      for (DimensionalObject dim : dimensions) {
-        grid.addValue(rowSet.getString(dim.getDimensionName()));
-      }
+              if (autoCommit) {
+                connection.setAutoCommit(false);
+              }
 
-      grid.addValue(rowSet.getDouble("value"));
-    }
+              try (Statement statement = connection.createStatement()) {
+                statement.setFetchSize(FETCH_SIZE);
 
-    return grid;
+                try (ResultSet resultSet = statement.executeQuery(sql)) {
+                  while (resultSet.next()) {
+                    List<Object> row = new ArrayList<>(dimensions.size() + 1);
+
+                    for (DimensionalObject dim : dimensions) {
+                      row.add(resultSet.getString(dim.getDimensionName()));
+                    }
+
+                    row.add(resultSet.getDouble("value"));
+
+                    rowConsumer.accept(row);
+                  }
+                }
+              } finally {
+                if (autoCommit) {
+                  connection.rollback();
+                  connection.setAutoCommit(true);
+                }
+              }
+
+              return null;
+            });
   }
 
   // -------------------------------------------------------------------------
@@ -35,11 +35,14 @@ import static org.hisp.dhis.analytics.ProcessingHint.SINGLE_PROGRAM_INDICATOR_RE
 import static org.hisp.dhis.analytics.SortOrder.ASC;
 import static org.hisp.dhis.common.DimensionalObject.DATA_X_DIM_ID;
 
+import java.util.List;
+import java.util.Map;
 import javax.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.hisp.dhis.analytics.DataQueryParams;
 import org.hisp.dhis.common.DimensionalObject;
 import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.common.GridStreamWriter;
 import org.hisp.dhis.system.grid.ListGrid;
 import org.springframework.stereotype.Component;
 
@@ -134,6 +137,50 @@ public class DataAggregator {
     return grid;
   }
 
+  /**
+   * Writes headers, meta data and raw data to the given writer. Rows are written as they are read
+   * from the database and are not retained in memory. Meta data is based on the query only, as the
+   * rows are not available when it is written.
+   *
+   * @param params the {@link DataQueryParams}.
+   * @param writer the {@link GridStreamWriter}.
+   */
+  public void streamRawData(DataQueryParams params, GridStreamWriter writer) {
+    Grid grid = new ListGrid();
+
+    params = dataHandler.prepareForRawDataQuery(params);
+
+    headerHandler.addHeaders(params, grid);
+
+    metaDataHandler.addMetaData(params, grid);
+
+    Map<String, String> idSchemeMap = metaDataHandler.getIdSchemeMap(params);
+
+    if (!idSchemeMap.isEmpty()) {
+      grid.substituteMetaData(idSchemeMap);
+    }
+
+    List<Integer> metaColumns = idSchemeMap.isEmpty() ? List.of() : grid.getMetaColumnIndexes();
+
+    writer.writeStart(grid);
+
+    dataHandler.streamRawData(
+        params,
+        row -> {
+          for (int index : metaColumns) {
+            String value = idSchemeMap.get(row.get(index));
+
+            if (value != null) {
+              row.set(index, value);
+            }
+          }
+
+          writer.writeRow(row);
+        });
+
+    writer.writeEnd();
+  }
+
   /**
    * Performs pre-handling of the given query and returns the immutable, handled query. If the query
    * has a single indicator as item for the data filter, the filter is set as a dimension and
@@ -114,6 +114,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.Future;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
@@ -561,6 +562,26 @@ public class DataHandler {
     }
   }
 
+  /**
+   * Passes raw data for the given data query parameters to the given consumer, one row at a time.
+   *
+   * @param params the {@link DataQueryParams}.
+   * @param rowConsumer the consumer of rows.
+   */
+  @Transactional(readOnly = true)
+  public void streamRawData(DataQueryParams params, Consumer<List<Object>> rowConsumer) {
+    if (!params.isSkipData()) {
+      QueryPlannerParams plannerParams =
+          QueryPlannerParams.newBuilder().withTableType(DATA_VALUE).build();
+
+      params = queryPlanner.withTableNameAndPartitions(params, plannerParams);
+
+      final DataQueryParams immutableParams = DataQueryParams.newBuilder(params).build();
+      withExceptionHandling(
+          () -> rawAnalyticsManager.streamRawDataValues(immutableParams, rowConsumer));
+    }
+  }
+
   /**
    * Prepares the given data query parameters.
    *
@@ -177,10 +177,25 @@ public class MetadataHandler {
    * @param grid the {@link Grid}.
    */
   void applyIdScheme(DataQueryParams params, Grid grid) {
+    if (!params.isSkipMeta() && params.hasCustomIdSchemeSet()) {
+      grid.substituteMetaData(getIdSchemeMap(params));
+    }
+  }
+
+  /**
+   * Returns a mapping from identifiers to the identifier scheme meta data property indicated in the
+   * query, or an empty map if no custom identifier scheme is set.
+   *
+   * @param params the {@link DataQueryParams}.
+   * @return a mapping from identifiers to identifier scheme values.
+   */
+  Map<String, String> getIdSchemeMap(DataQueryParams params) {
     if (!params.isSkipMeta() && params.hasCustomIdSchemeSet()) {
       SchemeInfo schemeInfo = new SchemeInfo(schemeSettings(params), schemeData(params));
-      grid.substituteMetaData(schemeIdResponseMapper.getSchemeIdResponseMap(schemeInfo));
+      return schemeIdResponseMapper.getSchemeIdResponseMap(schemeInfo);
     }
+
+    return Map.of();
   }
 
   private Data schemeData(DataQueryParams params) {
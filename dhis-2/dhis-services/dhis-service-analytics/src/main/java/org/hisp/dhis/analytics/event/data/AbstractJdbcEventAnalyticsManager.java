@@ -92,9 +92,12 @@ import org.apache.commons.lang3.math.NumberUtils;
 import org.apache.commons.lang3.time.DateFormatUtils;
 import org.apache.commons.lang3.time.DateUtils;
 import org.hisp.dhis.analytics.AggregationType;
+import org.hisp.dhis.analytics.AnalyticsTableType;
 import org.hisp.dhis.analytics.EventOutputType;
 import org.hisp.dhis.analytics.SortOrder;
 import org.hisp.dhis.analytics.analyze.ExecutionPlanStore;
+import org.hisp.dhis.analytics.analyze.QueryTelemetryStore;
+import org.hisp.dhis.analytics.analyze.QueryTelemetryStore.QueryTimer;
 import org.hisp.dhis.analytics.common.CteContext;
 import org.hisp.dhis.analytics.common.CteDefinition;
 import org.hisp.dhis.analytics.common.ProgramIndicatorSubqueryBuilder;
@@ -171,6 +174,8 @@ public abstract class AbstractJdbcEventAnalyticsManager {
 
   protected final ExecutionPlanStore executionPlanStore;
 
+  protected final QueryTelemetryStore queryTelemetryStore;
+
   protected final SqlBuilder sqlBuilder;
 
   protected final SystemSettingsService settingsService;
@@ -623,8 +628,14 @@ public abstract class AbstractJdbcEventAnalyticsManager {
   private void getAggregatedEventData(Grid grid, EventQueryParams params, String sql) {
     log.debug("Event analytics aggregate SQL: '{}'", sql);
 
+    QueryTimer timer = queryTelemetryStore.startTimer(getAnalyticsTableType(), params, sql);
+
     SqlRowSet rowSet = jdbcTemplate.queryForRowSet(sql);
 
+    timer.sqlExecuted();
+
+    int height = grid.getHeight();
+
     while (rowSet.next()) {
       grid.addRow();
 
@@ -698,6 +709,8 @@ public abstract class AbstractJdbcEventAnalyticsManager {
         grid.addNullValues(NUMERATOR_DENOMINATOR_PROPERTIES_COUNT);
       }
     }
+
+    timer.completed(grid.getHeight() - height);
   }
 
   /**
@@ -1550,4 +1563,15 @@ public abstract class AbstractJdbcEventAnalyticsManager {
    * @return the {@link AnalyticsType}.
    */
   protected abstract AnalyticsType getAnalyticsType();
+
+  /**
+   * Returns the {@link AnalyticsTableType} queried by this manager.
+   *
+   * @return the {@link AnalyticsTableType}.
+   */
+  protected AnalyticsTableType getAnalyticsTableType() {
+    return getAnalyticsType() == AnalyticsType.ENROLLMENT
+        ? AnalyticsTableType.ENROLLMENT
+        : AnalyticsTableType.EVENT;
+  }
 }
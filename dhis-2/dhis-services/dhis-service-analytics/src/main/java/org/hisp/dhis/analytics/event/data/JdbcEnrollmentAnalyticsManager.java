@@ -68,6 +68,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.text.StringSubstitutor;
 import org.hisp.dhis.analytics.analyze.ExecutionPlanStore;
+import org.hisp.dhis.analytics.analyze.QueryTelemetryStore;
+import org.hisp.dhis.analytics.analyze.QueryTelemetryStore.QueryTimer;
 import org.hisp.dhis.analytics.common.CteContext;
 import org.hisp.dhis.analytics.common.CteDefinition;
 import org.hisp.dhis.analytics.common.CteUtils;
@@ -150,6 +152,7 @@ public class JdbcEnrollmentAnalyticsManager extends AbstractJdbcEventAnalyticsMa
       ProgramIndicatorSubqueryBuilder programIndicatorSubqueryBuilder,
       EnrollmentTimeFieldSqlRenderer timeFieldSqlRenderer,
       ExecutionPlanStore executionPlanStore,
+      QueryTelemetryStore queryTelemetryStore,
       SystemSettingsService settingsService,
       DhisConfigurationProvider config,
       SqlBuilder sqlBuilder,
@@ -160,6 +163,7 @@ public class JdbcEnrollmentAnalyticsManager extends AbstractJdbcEventAnalyticsMa
         programIndicatorService,
         programIndicatorSubqueryBuilder,
         executionPlanStore,
+        queryTelemetryStore,
         sqlBuilder,
         settingsService,
         config,
@@ -202,8 +206,14 @@ public class JdbcEnrollmentAnalyticsManager extends AbstractJdbcEventAnalyticsMa
       EventQueryParams params, Grid grid, String sql, boolean unlimitedPaging) {
     log.debug("Analytics enrollment query SQL: '{}'", sql);
 
+    QueryTimer timer = queryTelemetryStore.startTimer(getAnalyticsTableType(), params, sql);
+
     SqlRowSet rowSet = jdbcTemplate.queryForRowSet(sql);
 
+    timer.sqlExecuted();
+
+    int height = grid.getHeight();
+
     int rowsRed = 0;
 
     grid.setLastDataRow(true);
@@ -233,6 +243,8 @@ public class JdbcEnrollmentAnalyticsManager extends AbstractJdbcEventAnalyticsMa
         }
       }
     }
+
+    timer.completed(grid.getHeight() - height);
   }
 
   /**
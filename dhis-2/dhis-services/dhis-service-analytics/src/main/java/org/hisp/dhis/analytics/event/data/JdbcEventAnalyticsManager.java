@@ -64,6 +64,8 @@ import org.hisp.dhis.analytics.OrgUnitField;
 import org.hisp.dhis.analytics.Rectangle;
 import org.hisp.dhis.analytics.TimeField;
 import org.hisp.dhis.analytics.analyze.ExecutionPlanStore;
+import org.hisp.dhis.analytics.analyze.QueryTelemetryStore;
+import org.hisp.dhis.analytics.analyze.QueryTelemetryStore.QueryTimer;
 import org.hisp.dhis.analytics.common.CteContext;
 import org.hisp.dhis.analytics.common.ProgramIndicatorSubqueryBuilder;
 import org.hisp.dhis.analytics.event.EventAnalyticsManager;
@@ -122,6 +124,7 @@ public class JdbcEventAnalyticsManager extends AbstractJdbcEventAnalyticsManager
       ProgramIndicatorSubqueryBuilder programIndicatorSubqueryBuilder,
       EventTimeFieldSqlRenderer timeFieldSqlRenderer,
       ExecutionPlanStore executionPlanStore,
+      QueryTelemetryStore queryTelemetryStore,
       SystemSettingsService settingsService,
       DhisConfigurationProvider config,
       SqlBuilder sqlBuilder,
@@ -132,6 +135,7 @@ public class JdbcEventAnalyticsManager extends AbstractJdbcEventAnalyticsManager
         programIndicatorService,
         programIndicatorSubqueryBuilder,
         executionPlanStore,
+        queryTelemetryStore,
         sqlBuilder,
         settingsService,
         config,
@@ -165,8 +169,14 @@ public class JdbcEventAnalyticsManager extends AbstractJdbcEventAnalyticsManager
   private void getEvents(EventQueryParams params, Grid grid, String sql, boolean unlimitedPaging) {
     log.debug("Analytics event query SQL: '{}'", sql);
 
+    QueryTimer timer = queryTelemetryStore.startTimer(getAnalyticsTableType(), params, sql);
+
     SqlRowSet rowSet = queryForRows(sql);
 
+    timer.sqlExecuted();
+
+    int height = grid.getHeight();
+
     int rowsRed = 0;
 
     grid.setLastDataRow(true);
@@ -196,6 +206,8 @@ public class JdbcEventAnalyticsManager extends AbstractJdbcEventAnalyticsManager
         index++;
       }
     }
+
+    timer.completed(grid.getHeight() - height);
   }
 
   @Override
@@ -29,8 +29,11 @@ package org.hisp.dhis.analytics.partition;
 
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -40,6 +43,7 @@ import org.hisp.dhis.analytics.table.util.PartitionUtils;
 import org.hisp.dhis.common.event.ApplicationCacheClearedEvent;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
@@ -52,6 +56,12 @@ import org.springframework.stereotype.Service;
 public class JdbcPartitionManager implements PartitionManager {
   private Map<AnalyticsTableType, Set<String>> analyticsPartitions = new HashMap<>();
 
+  /** Time to live for cached row count estimates. */
+  private static final long ROW_COUNT_TTL_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+  /** Row count estimates keyed on table name. */
+  private final Map<String, RowCount> estimatedRowCounts = new ConcurrentHashMap<>();
+
   @Qualifier("analyticsJdbcTemplate")
   private final JdbcTemplate jdbcTemplate;
 
@@ -61,6 +71,15 @@ public class JdbcPartitionManager implements PartitionManager {
       return analyticsPartitions.get(tableType);
     }
 
+    Set<String> partitions = getAnalyticsTables(tableType);
+
+    analyticsPartitions.put(tableType, partitions);
+
+    return partitions;
+  }
+
+  @Override
+  public Set<String> getAnalyticsTables(AnalyticsTableType tableType) {
     String sql =
         "select table_name from information_schema.tables "
             + "where table_name like '"
@@ -70,11 +89,7 @@ public class JdbcPartitionManager implements PartitionManager {
 
     log.info("Information schema analytics table SQL: " + sql);
 
-    Set<String> partitions = new HashSet<>(jdbcTemplate.queryForList(sql, String.class));
-
-    analyticsPartitions.put(tableType, partitions);
-
-    return partitions;
+    return new HashSet<>(jdbcTemplate.queryForList(sql, String.class));
   }
 
   @Override
@@ -107,10 +122,84 @@ public class JdbcPartitionManager implements PartitionManager {
     return tableExists(PartitionUtils.getPartitionName(tableName, partition));
   }
 
+  @Override
+  public long getEstimatedRowCount(String tableName, Partitions partitions) {
+    if (partitions == null || !partitions.hasAny()) {
+      return getEstimatedRowCount(tableName);
+    }
+
+    long rowCount = 0;
+
+    for (Integer partition : partitions.getPartitions()) {
+      long partitionRowCount =
+          getEstimatedRowCount(PartitionUtils.getPartitionName(tableName, partition));
+
+      if (partitionRowCount < 0) {
+        return -1;
+      }
+
+      rowCount += partitionRowCount;
+    }
+
+    return rowCount;
+  }
+
+  /**
+   * Returns the estimated number of rows of the given table based on the planner statistics of the
+   * database. Estimates are cached for an hour, or until application caches are cleared. The query
+   * runs outside of the map so that concurrent lookups of other tables are not blocked.
+   *
+   * @param table the table name.
+   * @return the estimated number of rows, or -1 if not available.
+   */
+  private long getEstimatedRowCount(String table) {
+    long now = System.currentTimeMillis();
+    RowCount cached = estimatedRowCounts.get(table);
+
+    if (cached != null && now - cached.timestamp() < ROW_COUNT_TTL_MILLIS) {
+      return cached.rowCount();
+    }
+
+    RowCount queried = new RowCount(queryEstimatedRowCount(table), now);
+
+    if (cached == null) {
+      RowCount existing = estimatedRowCounts.putIfAbsent(table, queried);
+      return existing != null ? existing.rowCount() : queried.rowCount();
+    }
+
+    estimatedRowCounts.replace(table, cached, queried);
+    return queried.rowCount();
+  }
+
+  /**
+   * Queries the estimated number of rows of the given table.
+   *
+   * @param name the table name.
+   * @return the estimated number of rows, or -1 if not available.
+   */
+  private long queryEstimatedRowCount(String name) {
+    String sql =
+        "select reltuples::bigint from pg_class where relname = ? and relkind in ('r', 'p')";
+
+    log.debug("Estimated row count SQL: '{}' for table: '{}'", sql, name);
+
+    try {
+      List<Long> rowCounts = jdbcTemplate.queryForList(sql, Long.class, name);
+      return rowCounts.isEmpty() || rowCounts.get(0) == null ? -1L : rowCounts.get(0);
+    } catch (DataAccessException ex) {
+      log.debug("Estimated row count not available for table: '{}'", name);
+      return -1L;
+    }
+  }
+
   @Override
   @EventListener
   public void handleApplicationCachesCleared(ApplicationCacheClearedEvent event) {
     analyticsPartitions = new HashMap<>();
+    estimatedRowCounts.clear();
     log.info("Analytics partition cache cleared");
   }
+
+  /** Row count estimate and the time it was retrieved. */
+  private record RowCount(long rowCount, long timestamp) {}
 }
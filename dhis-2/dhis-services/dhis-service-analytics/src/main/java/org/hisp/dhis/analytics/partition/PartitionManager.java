@@ -45,6 +45,15 @@ public interface PartitionManager {
    */
   Set<String> getAnalyticsPartitions(AnalyticsTableType tableType);
 
+  /**
+   * Returns the names of all tables starting with the table name of the given type, as currently
+   * present in the database. Unlike {@link #getAnalyticsPartitions(AnalyticsTableType)}, the result
+   * is not cached.
+   *
+   * @param tableType the type to get all existing tables for.
+   */
+  Set<String> getAnalyticsTables(AnalyticsTableType tableType);
+
   /**
    * Indicates whether the given analytics table exists.
    *
@@ -60,6 +69,17 @@ public interface PartitionManager {
    */
   void filterNonExistingPartitions(Partitions partitions, String tableName);
 
+  /**
+   * Returns the estimated number of rows of the given partitions of the given analytics table,
+   * based on database statistics. If no partitions are given, the estimate for the table itself is
+   * returned.
+   *
+   * @param tableName the analytics table name.
+   * @param partitions the partitions, may be null.
+   * @return the estimated number of rows, or -1 if not available.
+   */
+  long getEstimatedRowCount(String tableName, Partitions partitions);
+
   /**
    * Event handler for {@link ApplicationCacheClearedEvent}.
    *
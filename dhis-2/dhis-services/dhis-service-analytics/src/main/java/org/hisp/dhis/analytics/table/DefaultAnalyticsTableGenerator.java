@@ -35,9 +35,7 @@ import static org.hisp.dhis.scheduling.JobProgress.FailurePolicy.SKIP_STAGE;
 import static org.hisp.dhis.util.DateUtils.toLongDate;
 
 import java.util.Date;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
@@ -166,10 +164,7 @@ public class DefaultAnalyticsTableGenerator implements AnalyticsTableGenerator {
   private void generateResourceTablesInternal(JobProgress progress) {
     resourceTableService.dropAllSqlViews(progress);
 
-    Map<String, Runnable> generators = new LinkedHashMap<>();
-    generators.put("Generating resource tables", resourceTableService::generateResourceTables);
-    progress.startingStage("Generating resource tables", generators.size(), SKIP_STAGE);
-    progress.runStage(generators);
+    resourceTableService.generateResourceTables(progress);
 
     resourceTableService.createAllSqlViews(progress);
 
@@ -44,8 +44,8 @@ import org.hisp.dhis.analytics.AnalyticsTableType;
 import org.hisp.dhis.analytics.AnalyticsTableUpdateParams;
 import org.hisp.dhis.analytics.table.model.AnalyticsTable;
 import org.hisp.dhis.analytics.table.model.AnalyticsTablePartition;
+import org.hisp.dhis.analytics.table.setting.AnalyticsTableSettings;
 import org.hisp.dhis.common.IdentifiableObjectUtils;
-import org.hisp.dhis.commons.util.SystemUtils;
 import org.hisp.dhis.dataelement.DataElementService;
 import org.hisp.dhis.db.model.Index;
 import org.hisp.dhis.db.model.Table;
@@ -355,31 +355,12 @@ public class DefaultAnalyticsTableService implements AnalyticsTableService {
   }
 
   /**
-   * Returns the number of parallel jobs to use for processing analytics tables. The order of
-   * determination is:
-   *
-   * <ul>
-   *   <li>The system setting for parallel jobs in analytics table export, if set.
-   *   <li>The system setting for number of available processors of the database server, if set.
-   *   <li>The number of available processors of the application server, minus 1 if > 2.
-   * </ul>
+   * Returns the number of parallel jobs to use for processing analytics tables.
    *
    * @return the number of parallel jobs to use for processing analytics tables.
+   * @see AnalyticsTableSettings#getParallelJobs(SystemSettings)
    */
   int getParallelJobs() {
-    SystemSettings settings = settingsProvider.getCurrentSettings();
-    int parallelJobs = settings.getParallelJobsInAnalyticsTableExport();
-    if (parallelJobs > 0) {
-      return parallelJobs;
-    }
-    int databaseCpus = settings.getDatabaseServerCpus();
-    if (databaseCpus > 0) {
-      return databaseCpus;
-    }
-    int serverCpus = SystemUtils.getCpuCores();
-    if (serverCpus > 2) {
-      return serverCpus - 1;
-    }
-    return serverCpus;
+    return AnalyticsTableSettings.getParallelJobs(settingsProvider.getCurrentSettings());
   }
 }
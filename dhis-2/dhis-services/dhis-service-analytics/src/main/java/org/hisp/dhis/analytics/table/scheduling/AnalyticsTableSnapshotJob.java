@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.analytics.table.scheduling;
+
+import static org.hisp.dhis.scheduling.JobProgress.FailurePolicy.SKIP_ITEM;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hisp.dhis.analytics.AnalyticsTableType;
+import org.hisp.dhis.analytics.partition.PartitionManager;
+import org.hisp.dhis.db.sql.SqlBuilder;
+import org.hisp.dhis.external.location.LocationManager;
+import org.hisp.dhis.scheduling.Job;
+import org.hisp.dhis.scheduling.JobConfiguration;
+import org.hisp.dhis.scheduling.JobProgress;
+import org.hisp.dhis.scheduling.JobType;
+import org.hisp.dhis.scheduling.parameters.AnalyticsTableSnapshotJobParameters;
+import org.hisp.dhis.system.parquet.ParquetColumn;
+import org.hisp.dhis.system.parquet.ParquetType;
+import org.hisp.dhis.system.parquet.ParquetWriter;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Job which writes a Parquet snapshot of analytics tables to the {@code analytics/snapshots}
+ * directory of the DHIS2 home directory, one file per table named after the table. Table types with
+ * a table per program or tracked entity type get one file per table. Rows are streamed from a
+ * database cursor, a previous snapshot is replaced once the new one is complete.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AnalyticsTableSnapshotJob implements Job {
+  private static final int FETCH_SIZE = 10_000;
+
+  private static final String[] SNAPSHOT_DIRECTORY = {"analytics", "snapshots"};
+
+  private final PartitionManager partitionManager;
+
+  private final SqlBuilder sqlBuilder;
+
+  private final LocationManager locationManager;
+
+  @Qualifier("analyticsReadOnlyJdbcTemplate")
+  private final JdbcTemplate jdbcTemplate;
+
+  @Override
+  public JobType getJobType() {
+    return JobType.ANALYTICS_TABLE_SNAPSHOT;
+  }
+
+  @Override
+  public void execute(JobConfiguration jobConfiguration, JobProgress progress) {
+    AnalyticsTableSnapshotJobParameters parameters =
+        (AnalyticsTableSnapshotJobParameters) jobConfiguration.getJobParameters();
+
+    Collection<AnalyticsTableType> tableTypes =
+        parameters == null || parameters.getTableTypes().isEmpty()
+            ? Set.of(AnalyticsTableType.DATA_VALUE)
+            : parameters.getTableTypes();
+
+    progress.startingProcess("Analytics table snapshot");
+
+    List<String> tables =
+        tableTypes.stream()
+            .sorted()
+            .flatMap(type -> getSnapshotTables(type, partitionManager.getAnalyticsTables(type)))
+            .toList();
+
+    progress.startingStage(
+        "Writing Parquet snapshots of analytics tables", tables.size(), SKIP_ITEM);
+    progress.runStage(tables, table -> table, this::writeSnapshot);
+
+    progress.completedProcess("Analytics table snapshot done");
+  }
+
+  /**
+   * Returns the tables of the given type to write snapshots of. These are the table named after the
+   * type and the tables per program or tracked entity type, named after the type and a lower case
+   * UID. Partitions are left out, as they are read through the table they inherit from.
+   *
+   * @param tableType the analytics table type.
+   * @param tables the names of all tables starting with the table name of the type.
+   * @return the tables to write snapshots of, sorted by name.
+   */
+  static Stream<String> getSnapshotTables(AnalyticsTableType tableType, Collection<String> tables) {
+    Pattern pattern =
+        Pattern.compile(Pattern.quote(tableType.getTableName()) + "(_[a-z][a-z0-9]{10})?");
+
+    return tables.stream().filter(table -> pattern.matcher(table).matches()).sorted();
+  }
+
+  /**
+   * Writes the given table to a temporary file which is then moved to replace the snapshot file.
+   *
+   * @param table the analytics table name.
+   */
+  private void writeSnapshot(String table) {
+    File target = locationManager.getFileForWriting(table + ".parquet", SNAPSHOT_DIRECTORY);
+    File temp = new File(target.getParentFile(), target.getName() + ".tmp");
+
+    Long rows =
+        jdbcTemplate.execute(
+            (ConnectionCallback<Long>)
+                connection -> {
+                  // The driver only fetches rows in batches when auto-commit is off
+
+                  boolean autoCommit = connection.getAutoCommit();
+
+                  if (autoCommit) {
+                    connection.setAutoCommit(false);
+                  }
+
+                  try (Statement statement = connection.createStatement()) {
+                    statement.setFetchSize(FETCH_SIZE);
+
+                    try (ResultSet resultSet =
+                        statement.executeQuery("select * from " + sqlBuilder.quote(table))) {
+                      return writeRows(resultSet, temp);
+                    }
+                  } catch (SQLException | RuntimeException ex) {
+                    deleteQuietly(temp);
+                    throw ex;
+                  } finally {
+                    if (autoCommit) {
+                      connection.rollback();
+                      connection.setAutoCommit(true);
+                    }
+                  }
+                });
+
+    try {
+      Files.move(
+          temp.toPath(),
+          target.toPath(),
+          StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException ex) {
+      deleteQuietly(temp);
+      throw new UncheckedIOException(ex);
+    }
+
+    log.info("Wrote snapshot of analytics table '{}' with {} rows to '{}'", table, rows, target);
+  }
+
+  private long writeRows(ResultSet resultSet, File file) throws SQLException {
+    ResultSetMetaData metaData = resultSet.getMetaData();
+    List<ParquetColumn> columns = new ArrayList<>(metaData.getColumnCount());
+
+    for (int i = 1; i <= metaData.getColumnCount(); i++) {
+      columns.add(new ParquetColumn(metaData.getColumnName(i), getType(metaData.getColumnType(i))));
+    }
+
+    try (ParquetWriter writer =
+        new ParquetWriter(new BufferedOutputStream(new FileOutputStream(file)), columns)) {
+      while (resultSet.next()) {
+        List<Object> row = new ArrayList<>(columns.size());
+
+        for (int i = 1; i <= columns.size(); i++) {
+          row.add(
+              columns.get(i - 1).type() == ParquetType.STRING
+                  ? resultSet.getString(i)
+                  : resultSet.getObject(i));
+        }
+
+        writer.writeRow(row);
+      }
+
+      return writer.getRowCount();
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  private static void deleteQuietly(File file) {
+    try {
+      Files.deleteIfExists(file.toPath());
+    } catch (IOException ex) {
+      log.warn("Failed to delete incomplete snapshot file '{}'", file, ex);
+    }
+  }
+
+  private static ParquetType getType(int sqlType) {
+    return switch (sqlType) {
+      case Types.BOOLEAN, Types.BIT -> ParquetType.BOOLEAN;
+      case Types.TINYINT, Types.SMALLINT, Types.INTEGER -> ParquetType.INTEGER;
+      case Types.BIGINT -> ParquetType.LONG;
+      case Types.REAL, Types.FLOAT, Types.DOUBLE, Types.NUMERIC, Types.DECIMAL ->
+          ParquetType.DOUBLE;
+      case Types.DATE -> ParquetType.DATE;
+      case Types.TIMESTAMP, Types.TIMESTAMP_WITH_TIMEZONE -> ParquetType.TIMESTAMP;
+      default -> ParquetType.STRING;
+    };
+  }
+}
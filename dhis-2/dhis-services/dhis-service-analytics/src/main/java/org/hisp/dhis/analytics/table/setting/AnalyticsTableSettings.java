@@ -30,6 +30,7 @@ package org.hisp.dhis.analytics.table.setting;
 import static org.apache.commons.lang3.StringUtils.isBlank;
 import static org.hisp.dhis.db.model.Logged.LOGGED;
 import static org.hisp.dhis.db.model.Logged.UNLOGGED;
+import static org.hisp.dhis.external.conf.ConfigurationKey.ANALYTICS_RESOURCE_TABLE_SKIP_UNCHANGED;
 import static org.hisp.dhis.external.conf.ConfigurationKey.ANALYTICS_TABLE_SKIP_COLUMN;
 import static org.hisp.dhis.external.conf.ConfigurationKey.ANALYTICS_TABLE_SKIP_INDEX;
 import static org.hisp.dhis.external.conf.ConfigurationKey.ANALYTICS_TABLE_UNLOGGED;
@@ -42,6 +43,7 @@ import java.util.Set;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.hisp.dhis.analytics.table.model.Skip;
+import org.hisp.dhis.commons.util.SystemUtils;
 import org.hisp.dhis.db.model.Logged;
 import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.period.PeriodDataProvider.PeriodSource;
@@ -124,6 +126,55 @@ public class AnalyticsTableSettings {
     return toSet(config.getProperty(ANALYTICS_TABLE_SKIP_COLUMN));
   }
 
+  /**
+   * Indicates whether resource tables should be skipped when their source data has not changed
+   * since they were last generated.
+   *
+   * @return true if unchanged resource tables should be skipped.
+   */
+  public boolean isSkipUnchangedResourceTables() {
+    return config.isEnabled(ANALYTICS_RESOURCE_TABLE_SKIP_UNCHANGED);
+  }
+
+  /**
+   * Returns the number of parallel jobs to use when generating analytics and resource tables.
+   *
+   * @return the number of parallel jobs.
+   * @see #getParallelJobs(SystemSettings)
+   */
+  public int getParallelJobs() {
+    return getParallelJobs(settingsProvider.getCurrentSettings());
+  }
+
+  /**
+   * Returns the number of parallel jobs to use for processing analytics tables. The order of
+   * determination is:
+   *
+   * <ul>
+   *   <li>The system setting for parallel jobs in analytics table export, if set.
+   *   <li>The system setting for number of available processors of the database server, if set.
+   *   <li>The number of available processors of the application server, minus 1 if > 2.
+   * </ul>
+   *
+   * @param settings the current {@link SystemSettings}.
+   * @return the number of parallel jobs to use for processing analytics tables.
+   */
+  public static int getParallelJobs(SystemSettings settings) {
+    int parallelJobs = settings.getParallelJobsInAnalyticsTableExport();
+    if (parallelJobs > 0) {
+      return parallelJobs;
+    }
+    int databaseCpus = settings.getDatabaseServerCpus();
+    if (databaseCpus > 0) {
+      return databaseCpus;
+    }
+    int serverCpus = SystemUtils.getCpuCores();
+    if (serverCpus > 2) {
+      return serverCpus - 1;
+    }
+    return serverCpus;
+  }
+
   /**
    * Splits the given value on comma, and returns the values as a set.
    *
@@ -30,11 +30,19 @@ package org.hisp.dhis.resourcetable;
 import static java.time.temporal.ChronoUnit.YEARS;
 import static java.util.Comparator.reverseOrder;
 import static org.hisp.dhis.scheduling.JobProgress.FailurePolicy.SKIP_ITEM;
+import static org.hisp.dhis.scheduling.JobProgress.FailurePolicy.SKIP_STAGE;
 
 import com.google.common.collect.Lists;
 import java.time.Year;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -77,6 +85,7 @@ import org.hisp.dhis.sqlview.SqlViewService;
 import org.hisp.dhis.tablereplication.TableReplicationStore;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 /**
  * @author Lars Helge Overland
@@ -105,19 +114,96 @@ public class DefaultResourceTableService implements ResourceTableService {
 
   private final PeriodDataProvider periodDataProvider;
 
+  private final TransactionTemplate transactionTemplate;
+
+  /**
+   * Not transactional: each resource table is generated in its own transaction on the thread
+   * generating it, which also loads the metadata backing the table so that its content is only held
+   * in memory while the table is generated.
+   */
   @Override
-  @Transactional
-  public void generateResourceTables() {
-    for (ResourceTable table : getResourceTables()) {
+  public void generateResourceTables(JobProgress progress) {
+    Map<ResourceTableType, Supplier<ResourceTable>> resourceTables = getResourceTableSuppliers();
+    int parallelJobs = analyticsTableSettings.getParallelJobs();
+    Set<ResourceTableType> completed = ConcurrentHashMap.newKeySet();
+    Set<ResourceTableType> generated = ConcurrentHashMap.newKeySet();
+
+    for (List<ResourceTableType> generation : getGenerations(resourceTables.keySet())) {
+      progress.startingStage("Generating resource tables", generation.size(), SKIP_STAGE);
+      progress.runStageInParallel(
+          Math.min(parallelJobs, generation.size()),
+          generation,
+          type -> type.name().toLowerCase(),
+          type -> {
+            transactionTemplate.executeWithoutResult(
+                status -> generateResourceTable(resourceTables.get(type).get(), generated));
+            completed.add(type);
+          });
+
+      if (!completed.containsAll(generation)) {
+        log.warn("Resource table generation failed, skipping dependent resource tables");
+        return;
+      }
+    }
+  }
+
+  /**
+   * Generates the given resource table. The resource table is skipped if unchanged, unless any of
+   * the resource tables it depends on were generated.
+   *
+   * @param table the {@link ResourceTable}.
+   * @param generated the types of the resource tables generated so far.
+   */
+  private void generateResourceTable(ResourceTable table, Set<ResourceTableType> generated) {
+    if (table.getTableType().getDependencies().stream().anyMatch(generated::contains)) {
       resourceTableStore.generateResourceTable(table);
+      generated.add(table.getTableType());
+    } else if (resourceTableStore.generateResourceTableIfChanged(table)) {
+      generated.add(table.getTableType());
     }
   }
 
+  /**
+   * Groups the given resource table types into generations, where each resource table only depends
+   * on resource tables of previous generations. Resource tables of the same generation can be
+   * generated in parallel. Dependencies on resource tables not in the given collection are ignored.
+   *
+   * @param types the {@link ResourceTableType}s in generation order.
+   * @return a list of generations of {@link ResourceTableType}.
+   * @throws IllegalStateException if the resource tables have circular dependencies.
+   */
+  static List<List<ResourceTableType>> getGenerations(Collection<ResourceTableType> types) {
+    Set<ResourceTableType> resolved = new HashSet<>();
+    List<ResourceTableType> remaining = new ArrayList<>(types);
+    List<List<ResourceTableType>> generations = new ArrayList<>();
+
+    while (!remaining.isEmpty()) {
+      List<ResourceTableType> generation =
+          remaining.stream()
+              .filter(
+                  type ->
+                      type.getDependencies().stream()
+                          .filter(types::contains)
+                          .allMatch(resolved::contains))
+              .toList();
+
+      if (generation.isEmpty()) {
+        throw new IllegalStateException("Resource tables have circular dependencies: " + remaining);
+      }
+
+      resolved.addAll(generation);
+      remaining.removeAll(generation);
+      generations.add(generation);
+    }
+
+    return generations;
+  }
+
   @Override
   @Transactional
   public void replicateAnalyticsResourceTables() {
-    for (ResourceTable table : getResourceTables()) {
-      tableReplicationStore.replicateAnalyticsDatabaseTable(table.getMainTable());
+    for (Supplier<ResourceTable> table : getResourceTableSuppliers().values()) {
+      tableReplicationStore.replicateAnalyticsDatabaseTable(table.get().getMainTable());
     }
   }
 
@@ -130,41 +216,75 @@ public class DefaultResourceTableService implements ResourceTableService {
   }
 
   /**
-   * Returns a list of resource tables.
+   * Returns suppliers of the resource tables, which load the metadata backing the table when
+   * called. The available data years are validated up front so that generation fails before any
+   * resource table is generated.
    *
-   * @return a list of {@link ResourceTable}.
+   * @return the resource table suppliers by {@link ResourceTableType}, in generation order.
    */
-  private List<ResourceTable> getResourceTables() {
+  private Map<ResourceTableType, Supplier<ResourceTable>> getResourceTableSuppliers() {
     Logged logged = analyticsTableSettings.getTableLogged();
-    return List.of(
-        new OrganisationUnitStructureResourceTable(
-            logged,
-            organisationUnitService.getNumberOfOrganisationalLevels(),
-            organisationUnitService),
-        new DataSetOrganisationUnitCategoryResourceTable(
-            logged,
-            idObjectManager.getAllNoAcl(DataSet.class),
-            categoryService.getDefaultCategoryOptionCombo()),
-        new CategoryOptionComboNameResourceTable(
-            logged, idObjectManager.getAllNoAcl(CategoryCombo.class)),
-        new DataElementGroupSetResourceTable(
-            logged, idObjectManager.getDataDimensionsNoAcl(DataElementGroupSet.class)),
-        new IndicatorGroupSetResourceTable(
-            logged, idObjectManager.getAllNoAcl(IndicatorGroupSet.class)),
-        new DataSetResourceTable(logged),
-        new OrganisationUnitGroupSetResourceTable(
-            logged,
-            idObjectManager.getDataDimensionsNoAcl(OrganisationUnitGroupSet.class),
-            organisationUnitService.getNumberOfOrganisationalLevels()),
-        new CategoryResourceTable(
-            logged,
-            idObjectManager.getDataDimensionsNoAcl(Category.class),
-            idObjectManager.getDataDimensionsNoAcl(CategoryOptionGroupSet.class)),
-        new DataElementResourceTable(logged, idObjectManager.getAllNoAcl(DataElement.class)),
-        new DatePeriodResourceTable(logged, getAndValidateAvailableDataYears()),
-        new PeriodResourceTable(logged, periodService.getAllPeriods()),
-        new CategoryOptionComboResourceTable(logged),
-        new RelationshipCountResourceTable(logged));
+    List<Integer> dataYears = getAndValidateAvailableDataYears();
+    Map<ResourceTableType, Supplier<ResourceTable>> tables = new LinkedHashMap<>();
+    tables.put(
+        ResourceTableType.ORG_UNIT_STRUCTURE,
+        () ->
+            new OrganisationUnitStructureResourceTable(
+                logged,
+                organisationUnitService.getNumberOfOrganisationalLevels(),
+                organisationUnitService));
+    tables.put(
+        ResourceTableType.DATA_SET_ORG_UNIT_CATEGORY,
+        () ->
+            new DataSetOrganisationUnitCategoryResourceTable(
+                logged,
+                idObjectManager.getAllNoAcl(DataSet.class),
+                categoryService.getDefaultCategoryOptionCombo()));
+    tables.put(
+        ResourceTableType.CATEGORY_OPTION_COMBO_NAME,
+        () ->
+            new CategoryOptionComboNameResourceTable(
+                logged, idObjectManager.getAllNoAcl(CategoryCombo.class)));
+    tables.put(
+        ResourceTableType.DATA_ELEMENT_GROUP_SET_STRUCTURE,
+        () ->
+            new DataElementGroupSetResourceTable(
+                logged, idObjectManager.getDataDimensionsNoAcl(DataElementGroupSet.class)));
+    tables.put(
+        ResourceTableType.INDICATOR_GROUP_SET_STRUCTURE,
+        () ->
+            new IndicatorGroupSetResourceTable(
+                logged, idObjectManager.getAllNoAcl(IndicatorGroupSet.class)));
+    tables.put(ResourceTableType.DATA_SET, () -> new DataSetResourceTable(logged));
+    tables.put(
+        ResourceTableType.ORG_UNIT_GROUP_SET_STRUCTURE,
+        () ->
+            new OrganisationUnitGroupSetResourceTable(
+                logged,
+                idObjectManager.getDataDimensionsNoAcl(OrganisationUnitGroupSet.class),
+                organisationUnitService.getNumberOfOrganisationalLevels()));
+    tables.put(
+        ResourceTableType.CATEGORY_STRUCTURE,
+        () ->
+            new CategoryResourceTable(
+                logged,
+                idObjectManager.getDataDimensionsNoAcl(Category.class),
+                idObjectManager.getDataDimensionsNoAcl(CategoryOptionGroupSet.class)));
+    tables.put(
+        ResourceTableType.DATA_ELEMENT_STRUCTURE,
+        () -> new DataElementResourceTable(logged, idObjectManager.getAllNoAcl(DataElement.class)));
+    tables.put(
+        ResourceTableType.DATE_PERIOD_STRUCTURE,
+        () -> new DatePeriodResourceTable(logged, dataYears));
+    tables.put(
+        ResourceTableType.PERIOD_STRUCTURE,
+        () -> new PeriodResourceTable(logged, periodService.getAllPeriods()));
+    tables.put(
+        ResourceTableType.DATA_ELEMENT_CATEGORY_OPTION_COMBO,
+        () -> new CategoryOptionComboResourceTable(logged));
+    tables.put(
+        ResourceTableType.TEI_RELATIONSHIP_COUNT, () -> new RelationshipCountResourceTable(logged));
+    return tables;
   }
 
   /**
@@ -68,6 +68,18 @@ public interface ResourceTable {
    */
   ResourceTableType getTableType();
 
+  /**
+   * Returns the names of the database tables which the statement populating this resource table
+   * reads from. Used to detect whether the source data has changed since the resource table was
+   * last generated. Resource tables populated by a statement without source tables are always
+   * generated.
+   *
+   * @return a list of database table names, may be empty.
+   */
+  default List<String> getSourceTables() {
+    return List.of();
+  }
+
   /**
    * Returns an optional SQL statement for populating the resource table.
    *
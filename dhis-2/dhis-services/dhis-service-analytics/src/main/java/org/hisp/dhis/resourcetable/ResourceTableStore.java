@@ -37,4 +37,13 @@ public interface ResourceTableStore {
    * @param resourceTable the {@link ResourceTable}.
    */
   void generateResourceTable(ResourceTable resourceTable);
+
+  /**
+   * Generates the given resource table unless the table exists and its definition and source data
+   * are unchanged since the table was last generated by this instance.
+   *
+   * @param resourceTable the {@link ResourceTable}.
+   * @return true if the resource table was generated, false if it was skipped.
+   */
+  boolean generateResourceTableIfChanged(ResourceTable resourceTable);
 }
@@ -30,14 +30,18 @@ package org.hisp.dhis.resourcetable.jdbc;
 import static org.apache.commons.collections4.CollectionUtils.isNotEmpty;
 import static org.hisp.dhis.commons.util.TextUtils.removeLastComma;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.hisp.dhis.analytics.AnalyticsTableHook;
 import org.hisp.dhis.analytics.AnalyticsTableHookService;
 import org.hisp.dhis.analytics.AnalyticsTablePhase;
+import org.hisp.dhis.analytics.table.setting.AnalyticsTableSettings;
 import org.hisp.dhis.db.model.Index;
 import org.hisp.dhis.db.model.Table;
 import org.hisp.dhis.db.sql.PostgreSqlBuilder;
@@ -46,6 +50,7 @@ import org.hisp.dhis.resourcetable.ResourceTable;
 import org.hisp.dhis.resourcetable.ResourceTableStore;
 import org.hisp.dhis.resourcetable.ResourceTableType;
 import org.hisp.dhis.system.util.Clock;
+import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
@@ -59,25 +64,67 @@ public class JdbcResourceTableStore implements ResourceTableStore {
 
   private final AnalyticsTableHookService analyticsTableHookService;
 
+  private final AnalyticsTableSettings analyticsTableSettings;
+
   private final JdbcTemplate jdbcTemplate;
 
   private final SqlBuilder sqlBuilder = new PostgreSqlBuilder();
 
+  /**
+   * Fingerprints of the resource tables last generated by this instance, keyed on main table name.
+   */
+  private final Map<String, String> fingerprints = new ConcurrentHashMap<>();
+
   @Override
   public void generateResourceTable(ResourceTable resourceTable) {
+    generateResourceTable(resourceTable, false);
+  }
+
+  @Override
+  public boolean generateResourceTableIfChanged(ResourceTable resourceTable) {
+    return generateResourceTable(
+        resourceTable, analyticsTableSettings.isSkipUnchangedResourceTables());
+  }
+
+  /**
+   * Generates the given resource table.
+   *
+   * @param resourceTable the {@link ResourceTable}.
+   * @param skipUnchanged whether to skip generation if the resource table is unchanged.
+   * @return true if the resource table was generated, false if it was skipped.
+   */
+  private boolean generateResourceTable(ResourceTable resourceTable, boolean skipUnchanged) {
     final Clock clock = new Clock().startClock();
     final Table stagingTable = resourceTable.getTable();
     final List<Index> indexes = resourceTable.getIndexes();
     final String tableName = Table.fromStaging(stagingTable.getName());
     final ResourceTableType tableType = resourceTable.getTableType();
+    final Optional<String> populateTableSql = resourceTable.getPopulateTempTableStatement();
+    final Optional<List<Object[]>> populateTableContent =
+        populateTableSql.isPresent()
+            ? Optional.empty()
+            : resourceTable.getPopulateTempTableContent();
+    final String fingerprint =
+        skipUnchanged
+            ? getFingerprint(resourceTable, stagingTable, populateTableSql, populateTableContent)
+            : null;
+
+    if (fingerprint != null
+        && fingerprint.equals(fingerprints.get(tableName))
+        && tableExists(tableName)) {
+      log.info("Skipping unchanged resource table: '{}'", tableName);
+      return false;
+    }
 
     log.info("Generating resource table: '{}'", tableName);
 
+    fingerprints.remove(tableName);
+
     dropTable(stagingTable);
 
     createTable(stagingTable);
 
-    populateTable(resourceTable, stagingTable);
+    populateTable(stagingTable, populateTableSql, populateTableContent);
 
     invokeTableHooks(tableType);
 
@@ -85,11 +132,103 @@ public class JdbcResourceTableStore implements ResourceTableStore {
 
     analyzeTable(stagingTable);
 
-    jdbcTemplate.execute(sqlBuilder.dropTableIfExists(tableName));
+    swapTable(stagingTable, tableName);
 
-    jdbcTemplate.execute(sqlBuilder.renameTable(stagingTable, tableName));
+    if (fingerprint != null) {
+      fingerprints.put(tableName, fingerprint);
+    }
 
     log.info("Resource table update done: '{}' '{}'", tableName, clock.time());
+    return true;
+  }
+
+  /**
+   * Returns a fingerprint of the definition and source data of the given resource table. The
+   * fingerprint of a resource table populated by a statement includes the modification counters of
+   * the source tables of the statement.
+   *
+   * @param resourceTable the {@link ResourceTable}.
+   * @param table the staging {@link Table}.
+   * @param populateTableSql the optional populate table SQL statement.
+   * @param populateTableContent the optional populate table content.
+   * @return a fingerprint, or null if changes to the source data cannot be detected.
+   */
+  private String getFingerprint(
+      ResourceTable resourceTable,
+      Table table,
+      Optional<String> populateTableSql,
+      Optional<List<Object[]>> populateTableContent) {
+    String definition = table.toString();
+
+    if (populateTableSql.isPresent()) {
+      List<String> sourceTables = resourceTable.getSourceTables();
+
+      if (sourceTables.isEmpty()) {
+        return null;
+      }
+
+      long modifications = getModificationCount(sourceTables);
+
+      return modifications > 0
+          ? String.join("|", definition, populateTableSql.get(), String.valueOf(modifications))
+          : null;
+    }
+
+    int contentHash =
+        populateTableContent.map(content -> Arrays.deepHashCode(content.toArray())).orElse(0);
+
+    return String.join("|", definition, String.valueOf(contentHash));
+  }
+
+  /**
+   * Returns the total number of inserted, updated and deleted rows of the given tables as tracked
+   * by the database statistics collector.
+   *
+   * @param tableNames the table names.
+   * @return the modification count, or 0 if not available.
+   */
+  private long getModificationCount(List<String> tableNames) {
+    String sql =
+        String.format(
+            """
+            select coalesce(sum(n_tup_ins + n_tup_upd + n_tup_del), 0) \
+            from pg_stat_user_tables where relname in (%s);""",
+            sqlBuilder.singleQuotedCommaDelimited(tableNames));
+
+    try {
+      Long count = jdbcTemplate.queryForObject(sql, Long.class);
+      return count != null ? count : 0L;
+    } catch (DataAccessException ex) {
+      log.warn("Failed to retrieve table statistics: '{}'", ex.getMessage());
+      return 0L;
+    }
+  }
+
+  /**
+   * Indicates if a table with the given name exists.
+   *
+   * @param name the table name.
+   * @return true if a table with the given name exists.
+   */
+  private boolean tableExists(String name) {
+    return !jdbcTemplate.queryForList(sqlBuilder.tableExists(name)).isEmpty();
+  }
+
+  /**
+   * Replaces the main table with the given staging table. The drop and rename statements are
+   * executed as a single statement so that the main table is not missing between the two.
+   *
+   * @param stagingTable the staging {@link Table}.
+   * @param tableName the main table name.
+   */
+  private void swapTable(Table stagingTable, String tableName) {
+    String sql =
+        String.join(
+            " ",
+            sqlBuilder.dropTableIfExists(tableName),
+            sqlBuilder.renameTable(stagingTable, tableName));
+    log.debug("Swap table SQL: '{}'", sql);
+    jdbcTemplate.execute(sql);
   }
 
   /**
@@ -117,13 +256,14 @@ public class JdbcResourceTableStore implements ResourceTableStore {
   /**
    * Populates the resource table.
    *
-   * @param resourceTable the {@link ResourceTable}.
    * @param table the {@link Table}.
+   * @param populateTableSql the optional populate table SQL statement.
+   * @param populateTableContent the optional populate table content.
    */
-  private void populateTable(ResourceTable resourceTable, Table table) {
-    Optional<String> populateTableSql = resourceTable.getPopulateTempTableStatement();
-    Optional<List<Object[]>> populateTableContent = resourceTable.getPopulateTempTableContent();
-
+  private void populateTable(
+      Table table,
+      Optional<String> populateTableSql,
+      Optional<List<Object[]>> populateTableContent) {
     if (populateTableSql.isPresent()) {
       log.debug("Populate table SQL: '{}'", populateTableSql.get());
 
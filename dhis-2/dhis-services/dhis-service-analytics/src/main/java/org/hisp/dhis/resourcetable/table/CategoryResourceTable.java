@@ -107,6 +107,18 @@ public class CategoryResourceTable implements ResourceTable {
     return ResourceTableType.CATEGORY_STRUCTURE;
   }
 
+  @Override
+  public List<String> getSourceTables() {
+    return List.of(
+        "categoryoptioncombo",
+        "categoryoptioncombos_categoryoptions",
+        "categories_categoryoptions",
+        "categoryoption",
+        "categoryoptiongroup",
+        "categoryoptiongroupmembers",
+        "categoryoptiongroupsetmembers");
+  }
+
   @Override
   public Optional<String> getPopulateTempTableStatement() {
     String sql =
@@ -89,6 +89,11 @@ public class DataApprovalRemapLevelResourceTable implements ResourceTable {
     return ResourceTableType.DATA_APPROVAL_REMAP_LEVEL;
   }
 
+  @Override
+  public List<String> getSourceTables() {
+    return List.of("dataapprovalworkflowlevels", "dataapprovallevel");
+  }
+
   @Override
   public Optional<String> getPopulateTempTableStatement() {
     String sql =
@@ -90,6 +90,11 @@ public class DataSetResourceTable implements ResourceTable {
     return ResourceTableType.DATA_SET;
   }
 
+  @Override
+  public List<String> getSourceTables() {
+    return List.of("dataset");
+  }
+
   @Override
   public Optional<String> getPopulateTempTableStatement() {
     String sql =
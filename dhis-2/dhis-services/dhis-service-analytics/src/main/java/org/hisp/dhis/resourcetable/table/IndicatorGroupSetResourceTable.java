@@ -93,6 +93,12 @@ public class IndicatorGroupSetResourceTable implements ResourceTable {
     return ResourceTableType.INDICATOR_GROUP_SET_STRUCTURE;
   }
 
+  @Override
+  public List<String> getSourceTables() {
+    return List.of(
+        "indicator", "indicatorgroup", "indicatorgroupmembers", "indicatorgroupsetmembers");
+  }
+
   @Override
   public Optional<String> getPopulateTempTableStatement() {
     String sql =
@@ -115,6 +115,12 @@ public class OrganisationUnitGroupSetResourceTable implements ResourceTable {
     return ResourceTableType.ORG_UNIT_GROUP_SET_STRUCTURE;
   }
 
+  @Override
+  public List<String> getSourceTables() {
+    return List.of(
+        "organisationunit", "orgunitgroup", "orgunitgroupmembers", "orgunitgroupsetmembers");
+  }
+
   @Override
   public Optional<String> getPopulateTempTableStatement() {
     String sql =
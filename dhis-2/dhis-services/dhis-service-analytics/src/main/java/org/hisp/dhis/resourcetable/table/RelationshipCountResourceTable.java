@@ -87,6 +87,11 @@ public class RelationshipCountResourceTable implements ResourceTable {
     return ResourceTableType.TEI_RELATIONSHIP_COUNT;
   }
 
+  @Override
+  public List<String> getSourceTables() {
+    return List.of("relationship", "relationshipitem", "relationshiptype", "trackedentity");
+  }
+
   @Override
   public Optional<String> getPopulateTempTableStatement() {
     String sql =
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.analytics.analyze;
+
+import static org.hisp.dhis.external.conf.ConfigurationKey.ANALYTICS_QUERY_SLOW_LOG_SIZE;
+import static org.hisp.dhis.external.conf.ConfigurationKey.ANALYTICS_QUERY_SLOW_THRESHOLD;
+import static org.hisp.dhis.external.conf.ConfigurationKey.MONITORING_ANALYTICS_QUERIES_ENABLED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.hisp.dhis.analytics.AnalyticsTableType;
+import org.hisp.dhis.analytics.DataQueryParams;
+import org.hisp.dhis.analytics.analyze.QueryTelemetryStore.QueryTimer;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class DefaultQueryTelemetryStoreTest {
+  @Mock private DhisConfigurationProvider config;
+
+  private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private QueryTelemetryStore createStore(int threshold, int logSize) {
+    return createStore(threshold, logSize, true);
+  }
+
+  private QueryTelemetryStore createStore(int threshold, int logSize, boolean metricsEnabled) {
+    when(config.isEnabled(MONITORING_ANALYTICS_QUERIES_ENABLED)).thenReturn(metricsEnabled);
+    when(config.getIntProperty(ANALYTICS_QUERY_SLOW_THRESHOLD)).thenReturn(threshold);
+    when(config.getIntProperty(ANALYTICS_QUERY_SLOW_LOG_SIZE)).thenReturn(logSize);
+    return new DefaultQueryTelemetryStore(meterRegistry, config);
+  }
+
+  private void runQuery(QueryTelemetryStore store, AnalyticsTableType tableType, String sql) {
+    QueryTimer timer = store.startTimer(tableType, DataQueryParams.newBuilder().build(), sql);
+    timer.sqlExecuted();
+    timer.completed(5);
+  }
+
+  @Test
+  void testRecordsMeters() {
+    QueryTelemetryStore store = createStore(1000, 10);
+
+    runQuery(store, AnalyticsTableType.DATA_VALUE, "select 1");
+    runQuery(store, AnalyticsTableType.DATA_VALUE, "select 2");
+    runQuery(store, AnalyticsTableType.EVENT, "select 3");
+
+    assertEquals(
+        2, meterRegistry.get("analytics.query.sql").tag("type", "data_value").timer().count());
+    assertEquals(
+        1, meterRegistry.get("analytics.query.mapping").tag("type", "event").timer().count());
+    assertEquals(
+        10.0,
+        meterRegistry
+            .get("analytics.query.rows")
+            .tag("type", "data_value")
+            .summary()
+            .totalAmount());
+    assertTrue(store.getSlowQueries().isEmpty());
+  }
+
+  @Test
+  void testRecordsNoMetersWhenMonitoringIsDisabled() {
+    QueryTelemetryStore store = createStore(0, 10, false);
+
+    runQuery(store, AnalyticsTableType.DATA_VALUE, "select 1");
+
+    assertTrue(meterRegistry.find("analytics.query.sql").timers().isEmpty());
+    assertEquals(1, store.getSlowQueries().size());
+  }
+
+  @Test
+  void testRetainsMostRecentSlowQueries() {
+    QueryTelemetryStore store = createStore(0, 2);
+
+    runQuery(store, AnalyticsTableType.DATA_VALUE, "select 1");
+    runQuery(store, AnalyticsTableType.DATA_VALUE, "select 2");
+    runQuery(store, AnalyticsTableType.ENROLLMENT, "select 3");
+
+    Set<String> sqls =
+        store.getSlowQueries().stream().map(QueryTelemetry::getSql).collect(Collectors.toSet());
+
+    assertEquals(Set.of("select 2", "select 3"), sqls);
+    assertEquals(5, store.getSlowQueries().get(0).getRows());
+
+    store.removeSlowQueries();
+
+    assertTrue(store.getSlowQueries().isEmpty());
+  }
+}
@@ -52,6 +52,7 @@ import org.hisp.dhis.analytics.DataQueryParams;
 import org.hisp.dhis.analytics.DataType;
 import org.hisp.dhis.analytics.QueryPlanner;
 import org.hisp.dhis.analytics.analyze.ExecutionPlanStore;
+import org.hisp.dhis.analytics.analyze.QueryTelemetryStore;
 import org.hisp.dhis.common.DimensionalItemObject;
 import org.hisp.dhis.common.ListMap;
 import org.hisp.dhis.db.sql.PostgreSqlBuilder;
@@ -64,6 +65,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.mockito.Answers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
@@ -81,6 +83,9 @@ class AnalyticsManagerTest extends TestBase {
 
   @Mock private ExecutionPlanStore executionPlanStore;
 
+  @Mock(answer = Answers.RETURNS_MOCKS)
+  private QueryTelemetryStore queryTelemetryStore;
+
   @Spy private final SqlBuilder sqlBuilder = new PostgreSqlBuilder();
 
   @InjectMocks private JdbcAnalyticsManager analyticsManager;
@@ -47,6 +47,7 @@ import org.hisp.dhis.analytics.DataQueryParams;
 import org.hisp.dhis.analytics.DataType;
 import org.hisp.dhis.analytics.QueryPlanner;
 import org.hisp.dhis.analytics.analyze.ExecutionPlanStore;
+import org.hisp.dhis.analytics.analyze.QueryTelemetryStore;
 import org.hisp.dhis.analytics.partition.PartitionManager;
 import org.hisp.dhis.category.CategoryOptionCombo;
 import org.hisp.dhis.common.BaseDimensionalObject;
@@ -63,6 +64,7 @@ import org.hisp.dhis.subexpression.SubexpressionDimensionItem;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
@@ -81,6 +83,9 @@ class JdbcSubexpressionQueryGeneratorTest {
 
   @Mock private ExecutionPlanStore executionPlanStore;
 
+  @Mock(answer = Answers.RETURNS_MOCKS)
+  private QueryTelemetryStore queryTelemetryStore;
+
   @Mock private QueryPlanner queryPlanner;
 
   @Spy private SqlBuilder sqlBuilder = new PostgreSqlBuilder();
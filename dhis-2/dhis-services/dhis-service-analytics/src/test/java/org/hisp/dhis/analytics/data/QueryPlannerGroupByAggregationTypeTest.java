@@ -40,9 +40,11 @@ import static org.hisp.dhis.test.TestBase.createDataElement;
 import static org.hisp.dhis.test.TestBase.createIndicator;
 import static org.hisp.dhis.test.TestBase.createIndicatorType;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import org.hisp.dhis.analytics.AggregationType;
 import org.hisp.dhis.analytics.AnalyticsAggregationType;
 import org.hisp.dhis.analytics.AnalyticsTableType;
@@ -51,6 +53,7 @@ import org.hisp.dhis.analytics.DataQueryParams;
 import org.hisp.dhis.analytics.DataType;
 import org.hisp.dhis.analytics.QueryPlannerParams;
 import org.hisp.dhis.analytics.partition.PartitionManager;
+import org.hisp.dhis.analytics.table.model.Partitions;
 import org.hisp.dhis.category.CategoryCombo;
 import org.hisp.dhis.common.BaseDimensionalObject;
 import org.hisp.dhis.common.DimensionType;
@@ -59,6 +62,7 @@ import org.hisp.dhis.common.ValueType;
 import org.hisp.dhis.dataelement.DataElementDomain;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
 import org.hisp.dhis.period.MonthlyPeriodType;
+import org.hisp.dhis.period.YearlyPeriodType;
 import org.joda.time.DateTime;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -334,6 +338,59 @@ class QueryPlannerGroupByAggregationTypeTest {
     assertThat(dataQueryParam.getFilterOrganisationUnits(), hasSize(1));
   }
 
+  @Test
+  void verifyQueriesAreSplitByEstimatedPartitionRowCount() {
+    List<DimensionalItemObject> periods = new ArrayList<>();
+    periods.add(new MonthlyPeriodType().createPeriod(new DateTime(2014, 4, 1, 0, 0).toDate()));
+    periods.add(new YearlyPeriodType().createPeriod(new DateTime(2020, 1, 1, 0, 0).toDate()));
+
+    List<DimensionalItemObject> dataElements = new ArrayList<>();
+    for (char uniqueChar = 'A'; uniqueChar < 'A' + 18; uniqueChar++) {
+      dataElements.add(createDataElement(uniqueChar, new CategoryCombo()));
+    }
+
+    DataQueryParams queryParams =
+        DataQueryParams.newBuilder()
+            .withDimensions(
+                List.of(
+                    new BaseDimensionalObject("pe", DimensionType.PERIOD, periods),
+                    new BaseDimensionalObject(
+                        "dx",
+                        DimensionType.DATA_X,
+                        DISPLAY_NAME_DATA_X,
+                        "display name",
+                        dataElements)))
+            .withFilters(
+                List.of(
+                    new BaseDimensionalObject(
+                        "ou",
+                        DimensionType.ORGANISATION_UNIT,
+                        null,
+                        DISPLAY_NAME_ORGUNIT,
+                        List.of(new OrganisationUnit("bbb", "bbb", "OU_2", null, null, "c2")))))
+            .build();
+
+    when(partitionManager.getEstimatedRowCount("analytics", new Partitions(Set.of(2014))))
+        .thenReturn(900L);
+    when(partitionManager.getEstimatedRowCount("analytics", new Partitions(Set.of(2020))))
+        .thenReturn(100L);
+
+    DataQueryGroups dataQueryGroups =
+        subject.planQuery(
+            queryParams,
+            QueryPlannerParams.newBuilder()
+                .withOptimalQueries(10)
+                .withTableType(AnalyticsTableType.DATA_VALUE)
+                .build());
+
+    List<DataQueryParams> queries = dataQueryGroups.getAllQueries();
+
+    assertThat(
+        queries.stream().filter(q -> q.getPeriodType().equals("Monthly")).toList(), hasSize(9));
+    assertThat(
+        queries.stream().filter(q -> q.getPeriodType().equals("Yearly")).toList(), hasSize(1));
+  }
+
   private DataQueryParams createDataQueryParams(BaseDimensionalObject filterDataElements) {
     List<DimensionalItemObject> periods = new ArrayList<>();
     periods.add(new MonthlyPeriodType().createPeriod(new DateTime(2014, 4, 1, 0, 0).toDate()));
@@ -40,6 +40,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.function.Consumer;
 import org.hisp.dhis.analytics.analyze.ExecutionPlanStore;
+import org.hisp.dhis.analytics.analyze.QueryTelemetryStore;
 import org.hisp.dhis.analytics.event.data.programindicator.DefaultProgramIndicatorSubqueryBuilder;
 import org.hisp.dhis.common.QueryOperator;
 import org.hisp.dhis.common.ValueType;
@@ -54,6 +55,7 @@ import org.hisp.dhis.system.grid.ListGrid;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.Mock;
@@ -76,6 +78,9 @@ class EnrollmentAnalyticsManagerCteTest extends EventAnalyticsTest {
 
   @Mock private ExecutionPlanStore executionPlanStore;
 
+  @Mock(answer = Answers.RETURNS_MOCKS)
+  private QueryTelemetryStore queryTelemetryStore;
+
   @Mock private SqlRowSet rowSet;
 
   @Mock private ProgramIndicatorService programIndicatorService;
@@ -115,6 +120,7 @@ class EnrollmentAnalyticsManagerCteTest extends EventAnalyticsTest {
             programIndicatorSubqueryBuilder,
             enrollmentTimeFieldSqlRenderer,
             executionPlanStore,
+            queryTelemetryStore,
             systemSettingsService,
             config,
             sqlBuilder,
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.analytics.table.scheduling;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import java.util.Set;
+import org.hisp.dhis.analytics.AnalyticsTableType;
+import org.junit.jupiter.api.Test;
+
+class AnalyticsTableSnapshotJobTest {
+  @Test
+  void testGetSnapshotTablesSkipsPartitionsAndOtherTypes() {
+    Set<String> tables =
+        Set.of(
+            "analytics",
+            "analytics_2023",
+            "analytics_2024",
+            "analytics_completeness",
+            "analytics_event_ur1edk5oe2n",
+            "analytics_event_ur1edk5oe2n_2024",
+            "analytics_te_enrollment",
+            "analytics_temp");
+
+    assertEquals(
+        List.of("analytics"),
+        AnalyticsTableSnapshotJob.getSnapshotTables(AnalyticsTableType.DATA_VALUE, tables)
+            .toList());
+  }
+
+  @Test
+  void testGetSnapshotTablesIncludesTablesPerProgram() {
+    Set<String> tables =
+        Set.of(
+            "analytics_event_ur1edk5oe2n",
+            "analytics_event_ur1edk5oe2n_2023",
+            "analytics_event_ur1edk5oe2n_2024",
+            "analytics_event_ebafhtp8bnm",
+            "analytics_event_ebafhtp8bnm_2024");
+
+    assertEquals(
+        List.of("analytics_event_ebafhtp8bnm", "analytics_event_ur1edk5oe2n"),
+        AnalyticsTableSnapshotJob.getSnapshotTables(AnalyticsTableType.EVENT, tables).toList());
+  }
+}
@@ -29,7 +29,13 @@ package org.hisp.dhis.resourcetable;
 
 import static java.time.temporal.ChronoUnit.YEARS;
 import static org.hisp.dhis.period.PeriodDataProvider.PeriodSource.DATABASE;
+import static org.hisp.dhis.resourcetable.ResourceTableType.DATA_APPROVAL_MIN_LEVEL;
+import static org.hisp.dhis.resourcetable.ResourceTableType.DATA_APPROVAL_REMAP_LEVEL;
+import static org.hisp.dhis.resourcetable.ResourceTableType.DATA_SET;
+import static org.hisp.dhis.resourcetable.ResourceTableType.ORG_UNIT_GROUP_SET_STRUCTURE;
+import static org.hisp.dhis.resourcetable.ResourceTableType.ORG_UNIT_STRUCTURE;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.when;
@@ -119,4 +125,30 @@ class DefaultResourceTableServiceTest {
 
     assertDoesNotThrow(() -> defaultResourceTableService.getAndValidateAvailableDataYears());
   }
+
+  @Test
+  void getGenerationsOrdersDependentTablesAfterDependencies() {
+    List<List<ResourceTableType>> generations =
+        DefaultResourceTableService.getGenerations(
+            List.of(
+                DATA_APPROVAL_MIN_LEVEL,
+                ORG_UNIT_GROUP_SET_STRUCTURE,
+                DATA_APPROVAL_REMAP_LEVEL,
+                ORG_UNIT_STRUCTURE,
+                DATA_SET));
+
+    assertEquals(
+        List.of(
+            List.of(DATA_APPROVAL_REMAP_LEVEL, ORG_UNIT_STRUCTURE, DATA_SET),
+            List.of(DATA_APPROVAL_MIN_LEVEL, ORG_UNIT_GROUP_SET_STRUCTURE)),
+        generations);
+  }
+
+  @Test
+  void getGenerationsIgnoresDependenciesNotInList() {
+    assertEquals(
+        List.of(List.of(ORG_UNIT_GROUP_SET_STRUCTURE, DATA_SET)),
+        DefaultResourceTableService.getGenerations(
+            List.of(ORG_UNIT_GROUP_SET_STRUCTURE, DATA_SET)));
+  }
 }
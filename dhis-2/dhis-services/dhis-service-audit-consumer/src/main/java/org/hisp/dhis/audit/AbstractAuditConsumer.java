@@ -28,15 +28,46 @@
 package org.hisp.dhis.audit;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.jms.Connection;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageConsumer;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Session;
 import jakarta.jms.TextMessage;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import lombok.extern.slf4j.Slf4j;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.springframework.context.SmartLifecycle;
 
 /**
+ * Base class of the audit consumers. Messages are drained from the topic in micro-batches within a
+ * transacted JMS session. A batch is closed when it reaches the configured batch size or when the
+ * configured wait time has passed since its first message. The batch is persisted with a single
+ * JDBC batch insert, and the session is committed (acknowledging all messages of the batch) only
+ * after the insert succeeded. If the batch insert fails, the messages are persisted one by one and
+ * only the ones which still fail are sent to the dead letter queue. If none can be persisted, the
+ * session is rolled back and the broker redelivers the messages after a back-off.
+ *
  * @author Morten Olav Hansen <mortenoh@gmail.com>
  */
 @Slf4j
-public abstract class AbstractAuditConsumer implements AuditConsumer {
+public abstract class AbstractAuditConsumer implements AuditConsumer, SmartLifecycle {
+  private static final long RECEIVE_TIMEOUT = 1000;
+
+  private static final long RECONNECT_DELAY = 5000;
+
+  private static final long MIN_RETRY_DELAY = 1000;
+
+  private static final long MAX_RETRY_DELAY = 60_000;
+
+  /** Queue which the broker also uses as dead letter address for undeliverable messages. */
+  private static final String DEAD_LETTER_QUEUE = "DLQ";
+
   protected AuditService auditService;
 
   protected ObjectMapper objectMapper;
@@ -45,30 +76,272 @@ public abstract class AbstractAuditConsumer implements AuditConsumer {
 
   protected boolean isAuditDatabaseEnabled;
 
-  protected void _consume(TextMessage message) {
-    try {
-      org.hisp.dhis.artemis.audit.Audit auditMessage =
-          objectMapper.readValue(message.getText(), org.hisp.dhis.artemis.audit.Audit.class);
+  private ConnectionFactory connectionFactory;
 
-      if (auditMessage.getData() != null && !(auditMessage.getData() instanceof String)) {
-        auditMessage.setData(objectMapper.writeValueAsString(auditMessage.getData()));
+  private int batchSize;
+
+  private long batchWait;
+
+  private volatile boolean running;
+
+  /** Back-off before the next batch after a batch failed, zero after a successful batch. */
+  private long retryDelay;
+
+  private Thread worker;
+
+  protected void init(
+      AuditService auditService,
+      ObjectMapper objectMapper,
+      ConnectionFactory connectionFactory,
+      DhisConfigurationProvider dhisConfig) {
+    this.auditService = auditService;
+    this.objectMapper = objectMapper;
+    this.connectionFactory = connectionFactory;
+    this.batchSize =
+        Math.max(1, dhisConfig.getIntProperty(ConfigurationKey.AUDIT_CONSUMER_BATCH_SIZE));
+    this.batchWait =
+        Math.max(0, dhisConfig.getIntProperty(ConfigurationKey.AUDIT_CONSUMER_BATCH_WAIT));
+    this.isAuditDatabaseEnabled = dhisConfig.isEnabled(ConfigurationKey.AUDIT_DATABASE);
+  }
+
+  /**
+   * @return the name of the topic this consumer drains.
+   */
+  protected abstract String getTopicName();
+
+  @Override
+  public synchronized void start() {
+    if (running) {
+      return;
+    }
+
+    running = true;
+    worker = new Thread(this::consumeLoop, getClass().getSimpleName());
+    worker.setDaemon(true);
+    worker.start();
+  }
+
+  @Override
+  public synchronized void stop() {
+    running = false;
+
+    if (worker != null) {
+      try {
+        worker.join(RECEIVE_TIMEOUT * 2);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+
+      worker = null;
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  @Override
+  public int getPhase() {
+    // start last and stop first, same as the JMS listener containers
+    return Integer.MAX_VALUE;
+  }
+
+  private void consumeLoop() {
+    while (running) {
+      try (Connection connection = connectionFactory.createConnection();
+          Session session = connection.createSession(true, Session.SESSION_TRANSACTED);
+          MessageConsumer consumer = session.createConsumer(session.createTopic(getTopicName()))) {
+        connection.start();
+
+        while (running) {
+          consumeBatch(session, consumer);
+        }
+      } catch (JMSException e) {
+        log.error(
+            String.format(
+                "Audit consumer for topic '%s' lost its connection, reconnecting", getTopicName()),
+            e);
+
+        sleep(RECONNECT_DELAY);
+      }
+    }
+  }
+
+  /**
+   * Receives and persists one batch of messages. If the batch insert fails, the audits are
+   * persisted one by one, messages which still fail are sent to the dead letter queue and the
+   * others are acknowledged. If no audit of the batch can be persisted, the failure is most likely
+   * not caused by the messages, so the session is rolled back and the batch is redelivered after a
+   * back-off. Audits are logged only after the session is committed, so that redelivered batches
+   * are not logged twice.
+   */
+  void consumeBatch(Session session, MessageConsumer consumer) throws JMSException {
+    Message first = consumer.receive(RECEIVE_TIMEOUT);
+
+    if (first == null) {
+      return;
+    }
+
+    List<Message> messages = new ArrayList<>(batchSize);
+    messages.add(first);
+
+    long deadline = System.currentTimeMillis() + batchWait;
+
+    while (messages.size() < batchSize) {
+      long remaining = deadline - System.currentTimeMillis();
+
+      // receive(0) blocks indefinitely, so poll once the wait time is used up
+      Message message = remaining > 0 ? consumer.receive(remaining) : consumer.receiveNoWait();
+
+      if (message == null) {
+        break;
+      }
+
+      messages.add(message);
+    }
+
+    List<ReceivedAudit> audits = new ArrayList<>(messages.size());
+
+    for (Message message : messages) {
+      org.hisp.dhis.audit.Audit audit = toAudit(message);
+
+      if (audit != null) {
+        audits.add(new ReceivedAudit(message, audit));
       }
+    }
+
+    List<ReceivedAudit> failed = persist(audits);
 
-      org.hisp.dhis.audit.Audit audit = auditMessage.toAudit();
+    if (!failed.isEmpty() && failed.size() == audits.size()) {
+      session.rollback();
+      backOff();
+      return;
+    }
+
+    if (!failed.isEmpty()) {
+      sendToDeadLetterQueue(session, failed);
+    }
+
+    session.commit();
+    retryDelay = 0;
+
+    if (isAuditLogEnabled) {
+      audits.stream().filter(audit -> !failed.contains(audit)).forEach(this::logAudit);
+    }
+  }
+
+  /**
+   * Persists the given audits with a single batch insert, falling back to one insert per audit if
+   * the batch insert fails.
+   *
+   * @return the audits which could not be persisted.
+   */
+  private List<ReceivedAudit> persist(List<ReceivedAudit> audits) {
+    if (!isAuditDatabaseEnabled || audits.isEmpty()) {
+      return List.of();
+    }
 
-      if (isAuditLogEnabled) {
-        log.info(objectMapper.writeValueAsString(audit));
+    try {
+      auditService.addAudits(audits.stream().map(ReceivedAudit::audit).toList());
+      return List.of();
+    } catch (RuntimeException e) {
+      log.warn(
+          String.format(
+              "An error occurred persisting a batch of %d Audit messages from topic '%s', persisting them one by one",
+              audits.size(), getTopicName()),
+          e);
+    }
+
+    List<ReceivedAudit> failed = new ArrayList<>();
+
+    for (ReceivedAudit audit : audits) {
+      try {
+        auditService.addAudits(List.of(audit.audit()));
+      } catch (RuntimeException e) {
+        log.error(
+            String.format(
+                "An error occurred persisting an Audit message from topic '%s'", getTopicName()),
+            e);
+
+        failed.add(audit);
       }
+    }
+
+    return failed;
+  }
 
-      if (isAuditDatabaseEnabled) {
-        auditService.addAudit(audit);
+  private void sendToDeadLetterQueue(Session session, List<ReceivedAudit> audits)
+      throws JMSException {
+    try (MessageProducer producer =
+        session.createProducer(session.createQueue(DEAD_LETTER_QUEUE))) {
+      for (ReceivedAudit audit : audits) {
+        producer.send(audit.message());
       }
+    }
+
+    log.error(
+        String.format(
+            "Sent %d Audit messages from topic '%s' which could not be persisted to '%s'",
+            audits.size(), getTopicName(), DEAD_LETTER_QUEUE));
+  }
+
+  /** Waits before the next batch, doubling the wait for each consecutive failed batch. */
+  private void backOff() {
+    retryDelay = Math.min(Math.max(MIN_RETRY_DELAY, retryDelay * 2), MAX_RETRY_DELAY);
+
+    log.error(
+        String.format(
+            "No Audit message of the batch from topic '%s' could be persisted, retrying in %d ms",
+            getTopicName(), retryDelay));
+
+    sleep(retryDelay);
+  }
+
+  private void logAudit(ReceivedAudit audit) {
+    try {
+      log.info(objectMapper.writeValueAsString(audit.audit()));
     } catch (IOException e) {
+      log.error("An error occurred serializing an Audit message for the audit log", e);
+    }
+  }
+
+  /**
+   * Converts the given message to an {@link org.hisp.dhis.audit.Audit}. Messages which can not be
+   * de-serialized are logged and skipped, as redelivering them would not help.
+   */
+  private org.hisp.dhis.audit.Audit toAudit(Message message) {
+    try {
+      org.hisp.dhis.artemis.audit.Audit auditMessage =
+          objectMapper.readValue(
+              ((TextMessage) message).getText(), org.hisp.dhis.artemis.audit.Audit.class);
+
+      if (auditMessage.getData() != null && !(auditMessage.getData() instanceof String)) {
+        auditMessage.setData(objectMapper.writeValueAsString(auditMessage.getData()));
+      }
+
+      return auditMessage.toAudit();
+    } catch (IOException | JMSException | ClassCastException e) {
       log.error(
           "An error occurred de-serializing the message payload. The message can not be de-serialized to an Audit object.",
           e);
-    } catch (Exception e) {
-      log.error("An error occurred persisting an Audit message of type 'TRACKER'", e);
+
+      return null;
+    }
+  }
+
+  long getRetryDelay() {
+    return retryDelay;
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
     }
   }
+
+  /** Received message and the audit it was converted to. */
+  private record ReceivedAudit(Message message, org.hisp.dhis.audit.Audit audit) {}
 }
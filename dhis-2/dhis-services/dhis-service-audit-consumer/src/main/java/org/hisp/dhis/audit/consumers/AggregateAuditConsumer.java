@@ -28,29 +28,29 @@
 package org.hisp.dhis.audit.consumers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import jakarta.jms.TextMessage;
+import jakarta.jms.ConnectionFactory;
 import org.hisp.dhis.artemis.Topics;
 import org.hisp.dhis.audit.AbstractAuditConsumer;
 import org.hisp.dhis.audit.AuditService;
 import org.hisp.dhis.external.conf.ConfigurationKey;
 import org.hisp.dhis.external.conf.DhisConfigurationProvider;
-import org.springframework.jms.annotation.JmsListener;
 import org.springframework.stereotype.Component;
 
 /** A Aggregate object consumer. */
 @Component
 public class AggregateAuditConsumer extends AbstractAuditConsumer {
   public AggregateAuditConsumer(
-      AuditService auditService, ObjectMapper objectMapper, DhisConfigurationProvider dhisConfig) {
-    this.auditService = auditService;
-    this.objectMapper = objectMapper;
+      AuditService auditService,
+      ObjectMapper objectMapper,
+      ConnectionFactory connectionFactory,
+      DhisConfigurationProvider dhisConfig) {
+    init(auditService, objectMapper, connectionFactory, dhisConfig);
 
     this.isAuditLogEnabled = dhisConfig.isEnabled(ConfigurationKey.AUDIT_LOGGER);
-    this.isAuditDatabaseEnabled = dhisConfig.isEnabled(ConfigurationKey.AUDIT_DATABASE);
   }
 
-  @JmsListener(destination = Topics.AGGREGATE_TOPIC_NAME)
-  public void consume(TextMessage message) {
-    _consume(message);
+  @Override
+  protected String getTopicName() {
+    return Topics.AGGREGATE_TOPIC_NAME;
   }
 }
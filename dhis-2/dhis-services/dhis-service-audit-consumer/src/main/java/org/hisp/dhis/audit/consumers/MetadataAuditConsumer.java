@@ -28,13 +28,12 @@
 package org.hisp.dhis.audit.consumers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import jakarta.jms.TextMessage;
+import jakarta.jms.ConnectionFactory;
 import org.hisp.dhis.artemis.Topics;
 import org.hisp.dhis.audit.AbstractAuditConsumer;
 import org.hisp.dhis.audit.AuditService;
 import org.hisp.dhis.external.conf.ConfigurationKey;
 import org.hisp.dhis.external.conf.DhisConfigurationProvider;
-import org.springframework.jms.annotation.JmsListener;
 import org.springframework.stereotype.Component;
 
 /**
@@ -45,16 +44,17 @@ import org.springframework.stereotype.Component;
 @Component
 public class MetadataAuditConsumer extends AbstractAuditConsumer {
   public MetadataAuditConsumer(
-      AuditService auditService, ObjectMapper objectMapper, DhisConfigurationProvider dhisConfig) {
-    this.auditService = auditService;
-    this.objectMapper = objectMapper;
+      AuditService auditService,
+      ObjectMapper objectMapper,
+      ConnectionFactory connectionFactory,
+      DhisConfigurationProvider dhisConfig) {
+    init(auditService, objectMapper, connectionFactory, dhisConfig);
 
     this.isAuditLogEnabled = dhisConfig.isEnabled(ConfigurationKey.AUDIT_LOGGER);
-    this.isAuditDatabaseEnabled = dhisConfig.isEnabled(ConfigurationKey.AUDIT_DATABASE);
   }
 
-  @JmsListener(destination = Topics.METADATA_TOPIC_NAME)
-  public void consume(TextMessage message) {
-    _consume(message);
+  @Override
+  protected String getTopicName() {
+    return Topics.METADATA_TOPIC_NAME;
   }
 }
@@ -28,14 +28,13 @@
 package org.hisp.dhis.audit.consumers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import jakarta.jms.TextMessage;
+import jakarta.jms.ConnectionFactory;
 import java.util.Objects;
 import org.hisp.dhis.artemis.Topics;
 import org.hisp.dhis.audit.AbstractAuditConsumer;
 import org.hisp.dhis.audit.AuditService;
 import org.hisp.dhis.external.conf.ConfigurationKey;
 import org.hisp.dhis.external.conf.DhisConfigurationProvider;
-import org.springframework.jms.annotation.JmsListener;
 import org.springframework.stereotype.Component;
 
 /**
@@ -46,19 +45,20 @@ import org.springframework.stereotype.Component;
 @Component
 public class TrackerAuditConsumer extends AbstractAuditConsumer {
   public TrackerAuditConsumer(
-      AuditService auditService, ObjectMapper objectMapper, DhisConfigurationProvider dhisConfig) {
-    this.auditService = auditService;
-    this.objectMapper = objectMapper;
+      AuditService auditService,
+      ObjectMapper objectMapper,
+      ConnectionFactory connectionFactory,
+      DhisConfigurationProvider dhisConfig) {
+    init(auditService, objectMapper, connectionFactory, dhisConfig);
 
     // for legacy reasons we are overriding the default here and using "off"
     // for tracking logger (we don't have a specific key for tracker logger)
     this.isAuditLogEnabled =
         Objects.equals(dhisConfig.getPropertyOrDefault(ConfigurationKey.AUDIT_LOGGER, "off"), "on");
-    this.isAuditDatabaseEnabled = dhisConfig.isEnabled(ConfigurationKey.AUDIT_DATABASE);
   }
 
-  @JmsListener(destination = Topics.TRACKER_TOPIC_NAME)
-  public void consume(TextMessage message) {
-    _consume(message);
+  @Override
+  protected String getTopicName() {
+    return Topics.TRACKER_TOPIC_NAME;
   }
 }
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.audit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.JMSException;
+import jakarta.jms.MessageConsumer;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Queue;
+import jakarta.jms.Session;
+import jakarta.jms.TextMessage;
+import java.util.List;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class AbstractAuditConsumerTest {
+  @Mock private AuditService auditService;
+
+  @Mock private DhisConfigurationProvider config;
+
+  @Mock private Session session;
+
+  @Mock private MessageConsumer consumer;
+
+  private TestAuditConsumer auditConsumer;
+
+  private TextMessage messageA;
+
+  private TextMessage messageB;
+
+  @BeforeEach
+  void setUp() throws JMSException {
+    when(config.getIntProperty(ConfigurationKey.AUDIT_CONSUMER_BATCH_SIZE)).thenReturn(10);
+    when(config.getIntProperty(ConfigurationKey.AUDIT_CONSUMER_BATCH_WAIT)).thenReturn(0);
+    when(config.isEnabled(ConfigurationKey.AUDIT_DATABASE)).thenReturn(true);
+
+    auditConsumer = new TestAuditConsumer(auditService, mock(ConnectionFactory.class), config);
+
+    messageA = createMessage("uidA");
+    messageB = createMessage("uidB");
+
+    when(consumer.receive(anyLong())).thenReturn(messageA);
+    when(consumer.receiveNoWait()).thenReturn(messageB, (TextMessage) null);
+  }
+
+  @Test
+  void testCommitsPersistedBatch() throws JMSException {
+    auditConsumer.consumeBatch(session, consumer);
+
+    verify(auditService).addAudits(anyList());
+    verify(session).commit();
+    verify(session, never()).rollback();
+    verify(session, never()).createProducer(any());
+  }
+
+  @Test
+  void testSendsOnlyFailingMessagesToDeadLetterQueue() throws JMSException {
+    doAnswer(
+            invocation -> {
+              List<Audit> audits = invocation.getArgument(0);
+
+              if (audits.stream().anyMatch(audit -> "uidB".equals(audit.getUid()))) {
+                throw new IllegalStateException("Invalid audit");
+              }
+
+              return null;
+            })
+        .when(auditService)
+        .addAudits(anyList());
+
+    Queue queue = mock(Queue.class);
+    MessageProducer producer = mock(MessageProducer.class);
+    when(session.createQueue("DLQ")).thenReturn(queue);
+    when(session.createProducer(queue)).thenReturn(producer);
+
+    auditConsumer.consumeBatch(session, consumer);
+
+    verify(auditService, times(3)).addAudits(anyList());
+    verify(producer).send(messageB);
+    verify(producer, never()).send(messageA);
+    verify(session).commit();
+    verify(session, never()).rollback();
+  }
+
+  @Test
+  void testRollsBackAndBacksOffWhenNoAuditCanBePersisted() throws JMSException {
+    doThrow(new IllegalStateException("Database unavailable"))
+        .when(auditService)
+        .addAudits(anyList());
+
+    auditConsumer.consumeBatch(session, consumer);
+
+    verify(session).rollback();
+    verify(session, never()).commit();
+    verify(session, never()).createProducer(any());
+    assertEquals(1000, auditConsumer.getRetryDelay());
+  }
+
+  private TextMessage createMessage(String uid) throws JMSException {
+    TextMessage message = mock(TextMessage.class);
+    when(message.getText())
+        .thenReturn(
+            "{\"auditType\":\"CREATE\",\"auditScope\":\"METADATA\",\"klass\":\"DataElement\",\"uid\":\""
+                + uid
+                + "\"}");
+    return message;
+  }
+
+  private static class TestAuditConsumer extends AbstractAuditConsumer {
+    TestAuditConsumer(
+        AuditService auditService,
+        ConnectionFactory connectionFactory,
+        DhisConfigurationProvider dhisConfig) {
+      init(auditService, new ObjectMapper(), connectionFactory, dhisConfig);
+    }
+
+    @Override
+    protected String getTopicName() {
+      return "test";
+    }
+  }
+}
@@ -654,6 +654,22 @@ public class DefaultCategoryService implements CategoryService {
     return coc;
   }
 
+  @Override
+  @Transactional(readOnly = true)
+  public List<CategoryOptionCombo> getCategoryOptionCombosAcl(
+      IdScheme idScheme, Collection<String> ids) {
+    UserDetails currentUserDetails = CurrentUserUtil.getCurrentUserDetails();
+
+    return idObjectManager
+        .getObjects(CategoryOptionCombo.class, idScheme.getIdentifiableProperty(), ids)
+        .stream()
+        .filter(
+            coc ->
+                coc.getCategoryOptions().stream()
+                    .allMatch(option -> aclService.canDataWrite(currentUserDetails, option)))
+        .toList();
+  }
+
   @Override
   @Transactional
   public void updateCategoryOptionComboNames() {
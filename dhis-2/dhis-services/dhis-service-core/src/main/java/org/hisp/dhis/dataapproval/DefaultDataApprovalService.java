@@ -35,6 +35,7 @@ import static org.hisp.dhis.dataapproval.DataApprovalAction.UNAPPROVE;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -438,23 +439,53 @@ public class DefaultDataApprovalService implements DataApprovalService {
     return da != null && dataApprovalStore.dataApprovalExists(da);
   }
 
+  @Override
+  @Transactional(readOnly = true)
+  public Set<DataApproval> getApproved(Collection<DataApproval> dataApprovals) {
+    Map<DataApproval, DataApproval> lowestApprovals = new HashMap<>();
+
+    for (DataApproval da : dataApprovals) {
+      if (da.getWorkflow() != null) {
+        DataApproval lowest = DataApproval.getLowestApproval(da);
+
+        if (lowest != null) {
+          lowestApprovals.put(da, lowest);
+        }
+      }
+    }
+
+    if (lowestApprovals.isEmpty()) {
+      return Set.of();
+    }
+
+    Collection<DataApproval> lowest = lowestApprovals.values();
+
+    Set<DataApproval> stored =
+        new HashSet<>(
+            dataApprovalStore.getDataApprovals(
+                lowest.stream().map(DataApproval::getDataApprovalLevel).collect(Collectors.toSet()),
+                lowest.stream().map(DataApproval::getWorkflow).collect(Collectors.toSet()),
+                lowest.stream().map(DataApproval::getPeriod).collect(Collectors.toSet()),
+                lowest.stream().map(DataApproval::getOrganisationUnit).collect(Collectors.toSet()),
+                lowest.stream()
+                    .map(DataApproval::getAttributeOptionCombo)
+                    .collect(Collectors.toSet())));
+
+    return lowestApprovals.entrySet().stream()
+        .filter(e -> stored.contains(e.getValue()))
+        .map(Map.Entry::getKey)
+        .collect(Collectors.toSet());
+  }
+
   @Override
   @Transactional
   public Map<DataApproval, DataApprovalStatus> getDataApprovalStatuses(
       List<DataApproval> dataApprovalList) {
     Map<String, DataApprovalStatus> statusMap = getStatusMap(dataApprovalList);
 
-    DataApprovalPermissionsEvaluator permissionsEvaluator = makePermissionsEvaluator();
-
     Map<DataApproval, DataApprovalStatus> returnMap = new HashMap<>();
 
     for (DataApproval da : dataApprovalList) {
-      DataApprovalStatus status = statusMap.get(daKey(da));
-
-      if (status != null) {
-        permissionsEvaluator.evaluatePermissions(status, da.getWorkflow());
-      }
-
       returnMap.put(da, statusMap.get(daKey(da)));
     }
 
@@ -641,13 +672,27 @@ public class DefaultDataApprovalService implements DataApprovalService {
 
   /**
    * Returns a mapping from data approval key to data approval status for the given list of data
-   * approvals.
+   * approvals. The statuses of all data approvals sharing an organisation unit level, period and
+   * workflow are fetched with a single query.
    */
   private Map<String, DataApprovalStatus> getStatusMap(List<DataApproval> dataApprovalList) {
     Map<String, DataApprovalStatus> statusMap = new HashMap<>();
 
+    if (dataApprovalList.isEmpty()) {
+      return statusMap;
+    }
+
+    User currentUser = userService.getUserByUsername(CurrentUserUtil.getCurrentUsername());
+
+    Map<Integer, DataApprovalLevel> levelMap = dataApprovalLevelService.getDataApprovalLevelMap();
+
+    Map<DataApprovalWorkflow, List<DataApprovalLevel>> userApprovalLevels = new HashMap<>();
+
     DataApprovalPermissionsEvaluator evaluator = makePermissionsEvaluator();
 
+    Set<String> requestedKeys =
+        dataApprovalList.stream().map(this::daKey).collect(Collectors.toSet());
+
     ListMap<String, DataApproval> listMap = getIndexedListMap(dataApprovalList);
 
     for (Map.Entry<String, List<DataApproval>> entry : listMap.entrySet()) {
@@ -658,8 +703,6 @@ public class DefaultDataApprovalService implements DataApprovalService {
 
       DataApproval da = dataApprovals.get(0);
 
-      User currentUser = userService.getUserByUsername(CurrentUserUtil.getCurrentUsername());
-
       List<DataApprovalStatus> statuses =
           dataApprovalStore.getDataApprovalStatuses(
               da.getWorkflow(),
@@ -669,16 +712,22 @@ public class DefaultDataApprovalService implements DataApprovalService {
               null,
               null,
               getCategoryOptionCombos(dataApprovals),
-              dataApprovalLevelService.getUserDataApprovalLevelsOrLowestLevel(
-                  currentUser, da.getWorkflow()),
-              dataApprovalLevelService.getDataApprovalLevelMap());
+              userApprovalLevels.computeIfAbsent(
+                  da.getWorkflow(),
+                  workflow ->
+                      dataApprovalLevelService.getUserDataApprovalLevelsOrLowestLevel(
+                          currentUser, workflow)),
+              levelMap);
 
       for (DataApprovalStatus status : statuses) {
-        evaluator.evaluatePermissions(status, da.getWorkflow());
+        String key =
+            daKey(da, status.getOrganisationUnitUid(), status.getAttributeOptionComboUid());
+
+        if (requestedKeys.contains(key)) {
+          evaluator.evaluatePermissions(status, da.getWorkflow());
 
-        statusMap.put(
-            daKey(da, status.getOrganisationUnitUid(), status.getAttributeOptionComboUid()),
-            status);
+          statusMap.put(key, status);
+        }
       }
     }
 
@@ -689,9 +738,9 @@ public class DefaultDataApprovalService implements DataApprovalService {
    * Returns an indexed map where the key is based on each distinct combination of organisation unit
    * level, period, and workflow.
    *
-   * <p>If multiple attributeOptionCombo values are needed for the same combination of organisation
-   * unit level, period, and workflow, then these are fetched at the same time time, for better
-   * performance.
+   * <p>If multiple organisation unit and attributeOptionCombo values are needed for the same
+   * combination of organisation unit level, period, and workflow, then these are fetched at the
+   * same time, for better performance.
    */
   private ListMap<String, DataApproval> getIndexedListMap(List<DataApproval> dataApprovalList) {
     ListMap<String, DataApproval> map = new ListMap<>();
@@ -704,13 +753,14 @@ public class DefaultDataApprovalService implements DataApprovalService {
   }
 
   /**
-   * Returns a key consisting of organisation unit, period, and workflow. Approval status with these
-   * three values in common can be fetched in one call for many values of attributeOptionCombo.
+   * Returns a key consisting of organisation unit level, period, and workflow. Approval status with
+   * these three values in common can be fetched in one call for many values of organisation unit
+   * and attributeOptionCombo.
    */
   private String statusKey(DataApproval approval) {
     return approval == null
         ? null
-        : approval.getOrganisationUnit().getId()
+        : approval.getOrganisationUnit().getHierarchyLevel()
             + IdentifiableObjectUtils.SEPARATOR
             + approval.getPeriod().getId()
             + IdentifiableObjectUtils.SEPARATOR
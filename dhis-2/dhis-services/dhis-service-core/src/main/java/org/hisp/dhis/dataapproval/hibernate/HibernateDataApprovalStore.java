@@ -42,6 +42,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
@@ -216,7 +217,14 @@ public class HibernateDataApprovalStore extends HibernateGenericStore<DataApprov
       Collection<OrganisationUnit> organisationUnits,
       Collection<CategoryOptionCombo> attributeOptionCombos) {
     List<Period> storedPeriods =
-        periods.stream().map(p -> periodService.reloadPeriod(p)).collect(Collectors.toList());
+        periods.stream()
+            .map(p -> periodService.reloadPeriod(p))
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+
+    if (storedPeriods.isEmpty()) {
+      return new ArrayList<>();
+    }
 
     CriteriaBuilder builder = getCriteriaBuilder();
 
@@ -352,13 +360,21 @@ public class HibernateDataApprovalStore extends HibernateGenericStore<DataApprov
     }
 
     if (orgUnits != null) {
+      List<OrganisationUnit> visibleOrgUnits = new ArrayList<>();
+
       for (OrganisationUnit orgUnit : orgUnits) {
-        if (!orgUnit.isDescendant(userOrgUnits)) {
+        if (orgUnit.isDescendant(userOrgUnits)) {
+          visibleOrgUnits.add(orgUnit);
+        } else {
           log.debug("User " + currentUsername + " can't see orgUnit " + orgUnit.getName());
-
-          return new ArrayList<>(); // Unapprovable.
         }
       }
+
+      if (visibleOrgUnits.isEmpty()) {
+        return new ArrayList<>(); // Unapprovable.
+      }
+
+      orgUnits = visibleOrgUnits;
     }
 
     // ---------------------------------------------------------------------
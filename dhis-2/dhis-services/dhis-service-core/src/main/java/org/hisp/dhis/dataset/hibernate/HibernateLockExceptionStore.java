@@ -34,8 +34,10 @@ import jakarta.persistence.criteria.CriteriaBuilder;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Objects;
 import javax.annotation.Nonnull;
 import org.hisp.dhis.dataelement.DataElement;
 import org.hisp.dhis.dataset.DataSet;
@@ -113,6 +115,23 @@ public class HibernateLockExceptionStore extends HibernateGenericStore<LockExcep
         newJpaParameters().addPredicate(root -> root.get(AT_DATA_SET).in(dataSets)));
   }
 
+  @Override
+  public List<LockException> getLockExceptions(
+      Collection<DataSet> dataSets, Collection<Period> periods) {
+    List<Period> storedPeriods =
+        periods.stream().map(periodService::reloadPeriod).filter(Objects::nonNull).toList();
+
+    if (dataSets.isEmpty() || storedPeriods.isEmpty()) {
+      return List.of();
+    }
+
+    return getList(
+        getCriteriaBuilder(),
+        newJpaParameters()
+            .addPredicate(root -> root.get(AT_DATA_SET).in(dataSets))
+            .addPredicate(root -> root.get(AT_PERIOD).in(storedPeriods)));
+  }
+
   @Override
   public List<LockException> getLockExceptionCombinations() {
     final String sql = "select distinct datasetid, periodid from lockexception";
@@ -39,17 +39,19 @@ import java.util.Date;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import lombok.RequiredArgsConstructor;
 import org.hibernate.Session;
 import org.hibernate.query.Query;
 import org.hisp.dhis.attribute.Attribute;
 import org.hisp.dhis.attribute.AttributeService;
+import org.hisp.dhis.cache.Cache;
+import org.hisp.dhis.cache.CacheProvider;
 import org.hisp.dhis.common.IdentifiableObject;
 import org.hisp.dhis.schema.RelativePropertyContext;
 import org.hisp.dhis.schema.Schema;
 import org.hisp.dhis.schema.SchemaService;
 import org.hisp.dhis.security.acl.AclService;
 import org.hisp.dhis.user.CurrentUserUtil;
+import org.hisp.dhis.user.UserDetails;
 import org.hisp.dhis.user.UserService;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.UriComponentsBuilder;
@@ -58,7 +60,6 @@ import org.springframework.web.util.UriComponentsBuilder;
  * @author Jan Bernitt
  */
 @Service
-@RequiredArgsConstructor
 public class DefaultGistService implements GistService, GistBuilder.GistBuilderSupport {
   /**
    * Instead of an actual date value users may use string {@code now} to always get current moment
@@ -78,27 +79,71 @@ public class DefaultGistService implements GistService, GistBuilder.GistBuilderS
 
   private final ObjectMapper jsonMapper;
 
+  /** Planned fields by {@link GistCacheKey#ofPlan(GistQuery, String)} */
+  private final Cache<List<GistQuery.Field>> planCache;
+
+  /** Compiled queries by {@link GistCacheKey#ofQuery(GistQuery, String)} */
+  private final Cache<CompiledQuery> queryCache;
+
+  public DefaultGistService(
+      EntityManager entityManager,
+      SchemaService schemaService,
+      UserService userService,
+      AclService aclService,
+      AttributeService attributeService,
+      ObjectMapper jsonMapper,
+      CacheProvider cacheProvider) {
+    this.entityManager = entityManager;
+    this.schemaService = schemaService;
+    this.userService = userService;
+    this.aclService = aclService;
+    this.attributeService = attributeService;
+    this.jsonMapper = jsonMapper;
+    this.planCache = cacheProvider.createGistPlanCache();
+    this.queryCache = cacheProvider.createGistQueryCache();
+  }
+
+  /**
+   * The HQL and the result transformers of a query. As the builder only depends on the shape of a
+   * query it can be used for all queries with the same {@link GistCacheKey#ofQuery(GistQuery,
+   * String)} by adding the parameters of the actual query.
+   */
+  private record CompiledQuery(GistBuilder builder, String fetchHQL, String countHQL) {}
+
   private Session getSession() {
     return entityManager.unwrap(Session.class);
   }
 
   @Override
   public GistQuery plan(GistQuery query) {
-    return new GistPlanner(query, createPropertyContext(query), createGistAccessControl()).plan();
+    UserDetails user = CurrentUserUtil.getCurrentUserDetails();
+    GistPlanner planner =
+        new GistPlanner(query, createPropertyContext(query), createGistAccessControl(user));
+    String key = user == null ? null : GistCacheKey.ofPlan(query, user.getUid());
+    List<GistQuery.Field> fields = key == null ? null : planCache.getIfPresent(key).orElse(null);
+    if (fields == null) {
+      // planning may query the database, so it must not run inside the cache's mapping function
+      fields = List.copyOf(planner.planFields());
+      if (key != null) {
+        planCache.put(key, fields);
+      }
+    }
+    return query.withFields(fields).withFilters(planner.planFilters());
   }
 
   @Override
   public List<?> gist(GistQuery query) {
-    GistAccessControl access = createGistAccessControl();
+    UserDetails user = CurrentUserUtil.getCurrentUserDetails();
+    GistAccessControl access = createGistAccessControl(user);
     RelativePropertyContext context = createPropertyContext(query);
     new GistValidator(query, context, access).validateQuery();
-    GistBuilder queryBuilder = createFetchBuilder(query, context, access, this);
+    CompiledQuery compiled = getCompiledQuery(query, user, access, context);
     List<Object[]> rows =
         fetchWithParameters(
             query,
-            queryBuilder,
-            getSession().createQuery(queryBuilder.buildFetchHQL(), Object[].class));
-    return queryBuilder.transform(rows);
+            compiled.builder(),
+            getSession().createQuery(compiled.fetchHQL(), Object[].class));
+    return compiled.builder().transform(rows);
   }
 
   @Override
@@ -114,12 +159,15 @@ public class DefaultGistService implements GistService, GistBuilder.GistBuilderS
         // simply might not exist which leads to zero rows
         total = query.getPageOffset() + rows.size();
       } else {
-        GistAccessControl access = createGistAccessControl();
+        UserDetails user = CurrentUserUtil.getCurrentUserDetails();
+        GistAccessControl access = createGistAccessControl(user);
         RelativePropertyContext context = createPropertyContext(query);
-        GistBuilder countBuilder = createCountBuilder(query, context, access, this);
+        CompiledQuery compiled = getCompiledQuery(query, user, access, context);
         total =
             countWithParameters(
-                countBuilder, getSession().createQuery(countBuilder.buildCountHQL(), Long.class));
+                query,
+                compiled.builder(),
+                getSession().createQuery(compiled.countHQL(), Long.class));
       }
     }
     if (schema.hasApiEndpoint()) {
@@ -193,8 +241,36 @@ public class DefaultGistService implements GistService, GistBuilder.GistBuilderS
   }
 
   private GistAccessControl createGistAccessControl() {
-    return new DefaultGistAccessControl(
-        CurrentUserUtil.getCurrentUserDetails(), aclService, userService, this);
+    return createGistAccessControl(CurrentUserUtil.getCurrentUserDetails());
+  }
+
+  private GistAccessControl createGistAccessControl(UserDetails user) {
+    return new DefaultGistAccessControl(user, aclService, userService, this);
+  }
+
+  private CompiledQuery getCompiledQuery(
+      GistQuery query,
+      UserDetails user,
+      GistAccessControl access,
+      RelativePropertyContext context) {
+    String key = user == null ? null : GistCacheKey.ofQuery(query, user.getUid());
+    CompiledQuery compiled = key == null ? null : queryCache.getIfPresent(key).orElse(null);
+    if (compiled == null) {
+      // compiling queries the user's groups, so it must not run inside the cache's mapping function
+      compiled = compile(query, access, context);
+      if (key != null) {
+        queryCache.put(key, compiled);
+      }
+    }
+    return compiled;
+  }
+
+  private CompiledQuery compile(
+      GistQuery query, GistAccessControl access, RelativePropertyContext context) {
+    GistBuilder builder = createFetchBuilder(query, context, access, this);
+    // building the fetch HQL also adds the result transformers to the builder
+    String fetchHQL = builder.buildFetchHQL();
+    return new CompiledQuery(builder, fetchHQL, builder.buildCountHQL());
   }
 
   private RelativePropertyContext createPropertyContext(GistQuery query) {
@@ -203,15 +279,15 @@ public class DefaultGistService implements GistService, GistBuilder.GistBuilderS
 
   private <T> List<T> fetchWithParameters(
       GistQuery gistQuery, GistBuilder builder, Query<T> query) {
-    builder.addFetchParameters(query::setParameter, this::parseFilterArgument);
+    builder.addFetchParameters(gistQuery, query::setParameter, this::parseFilterArgument);
     query.setMaxResults(Math.max(1, gistQuery.getPageSize()));
     query.setFirstResult(gistQuery.getPageOffset());
     query.setCacheable(false);
     return query.list();
   }
 
-  private int countWithParameters(GistBuilder builder, Query<Long> query) {
-    builder.addCountParameters(query::setParameter, this::parseFilterArgument);
+  private int countWithParameters(GistQuery gistQuery, GistBuilder builder, Query<Long> query) {
+    builder.addCountParameters(gistQuery, query::setParameter, this::parseFilterArgument);
     query.setCacheable(false);
     return query.getSingleResult().intValue();
   }
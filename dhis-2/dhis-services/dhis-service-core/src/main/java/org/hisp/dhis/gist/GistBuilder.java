@@ -1038,7 +1038,21 @@ final class GistBuilder {
 
   public void addFetchParameters(
       BiConsumer<String, Object> dest, BiFunction<String, Class<?>, Object> argumentParser) {
-    for (Field field : query.getFields()) {
+    addFetchParameters(query, dest, argumentParser);
+  }
+
+  /**
+   * Adds the parameters of a query of the same shape as the one this builder was created for. This
+   * allows to reuse the HQL and the transformers of a builder for queries which only differ in the
+   * filter values or the owner.
+   *
+   * @param params the query providing the parameter values
+   */
+  public void addFetchParameters(
+      GistQuery params,
+      BiConsumer<String, Object> dest,
+      BiFunction<String, Class<?>, Object> argumentParser) {
+    for (Field field : params.getFields()) {
       Transform transformation = field.getTransformation();
       if (field.getTransformationArgument() != null
           && transformation != Transform.PLUCK
@@ -1046,17 +1060,23 @@ final class GistBuilder {
         dest.accept("p_" + field.getPropertyPath(), field.getTransformationArgument());
       }
     }
-    addCountParameters(dest, argumentParser);
+    addCountParameters(params, dest, argumentParser);
   }
 
+  /**
+   * @see #addFetchParameters(GistQuery, BiConsumer, BiFunction)
+   * @param params the query providing the parameter values
+   */
   public void addCountParameters(
-      BiConsumer<String, Object> dest, BiFunction<String, Class<?>, Object> argumentParser) {
-    Owner owner = query.getOwner();
+      GistQuery params,
+      BiConsumer<String, Object> dest,
+      BiFunction<String, Class<?>, Object> argumentParser) {
+    Owner owner = params.getOwner();
     if (owner != null) {
       dest.accept("OwnerId", owner.getId());
     }
     int i = 0;
-    for (Filter filter : query.getFilters()) {
+    for (Filter filter : params.getFilters()) {
       Comparison operator = filter.getOperator();
       if (!operator.isUnary() && !operator.isAccessCompare()) {
         Object value =
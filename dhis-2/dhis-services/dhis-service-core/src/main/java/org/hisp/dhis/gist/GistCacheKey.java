@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.gist;
+
+import java.util.List;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+import org.hisp.dhis.gist.GistQuery.Field;
+import org.hisp.dhis.gist.GistQuery.Filter;
+import org.hisp.dhis.gist.GistQuery.Order;
+import org.hisp.dhis.gist.GistQuery.Owner;
+import org.hisp.dhis.schema.annotation.Gist.Transform;
+
+/**
+ * Computes the keys under which {@link DefaultGistService} caches the planned fields and the
+ * compiled HQL of a {@link GistQuery}.
+ *
+ * <p>A key covers everything that affects the cached result, but not the values that are bound as
+ * HQL parameters (the filter values, the owner ID) or that only apply to execution (the page). Two
+ * queries with the same key therefore share the cached plan and only differ in their parameters.
+ *
+ * <p>Keys always include the UID of the current user as planning, the access filters and the access
+ * of the results depend on the user.
+ */
+final class GistCacheKey {
+
+  private GistCacheKey() {
+    throw new UnsupportedOperationException("util");
+  }
+
+  /**
+   * @param query an unplanned query
+   * @param userUid the UID of the current user
+   * @return the key for the fields planned by {@link GistPlanner#planFields()}
+   */
+  @Nonnull
+  static String ofPlan(@Nonnull GistQuery query, @Nonnull String userUid) {
+    StringBuilder key = new StringBuilder();
+    key.append(userUid).append('|').append(query.getElementType().getName());
+    key.append('|').append(query.getAutoType()).append('|').append(query.isReferences());
+    appendFields(key, query.getFields());
+    return key.toString();
+  }
+
+  /**
+   * @param query a planned query
+   * @param userUid the UID of the current user
+   * @return the key for the fetch and count HQL and the result transformers of the query, or null
+   *     if the query cannot be cached
+   */
+  @CheckForNull
+  static String ofQuery(@Nonnull GistQuery query, @Nonnull String userUid) {
+    // the FROM transformation uses a bean instance which cannot be shared
+    if (query.getFields().stream().anyMatch(f -> f.getTransformation() == Transform.FROM)) {
+      return null;
+    }
+    StringBuilder key = new StringBuilder();
+    key.append(userUid).append('|').append(query.getElementType().getName());
+    Owner owner = query.getOwner();
+    if (owner != null) {
+      key.append('|').append(owner.getType().getName()).append('.');
+      key.append(owner.getCollectionProperty()).append(query.isInverse() ? "!" : "");
+    }
+    key.append('|').append(query.isAnyFilter()).append(query.isReferences());
+    key.append(query.isTypedAttributeValues()).append(query.isTranslate());
+    key.append('|')
+        .append(query.getTranslationLocale())
+        .append('|')
+        .append(query.getEndpointRoot());
+    appendFields(key, query.getFields());
+    key.append("|filters");
+    for (Filter f : query.getFilters()) {
+      key.append('|').append(f.getGroup()).append(':').append(f.getPropertyPath());
+      key.append(':').append(f.getOperator()).append(f.isAttribute() ? ":a" : "");
+      String[] value = f.getValue();
+      if (f.getOperator().isAccessCompare()) {
+        // user and pattern are part of the HQL
+        key.append(':').append(String.join(",", value));
+      } else if (value.length == 1 && value[0] != null && value[0].matches("[0-9]+")) {
+        // order compare with a number compares the length of text properties
+        key.append(":n");
+      }
+    }
+    key.append("|orders");
+    for (Order o : query.getOrders()) {
+      key.append('|').append(o.getPropertyPath()).append(':').append(o.getDirection());
+    }
+    return key.toString();
+  }
+
+  private static void appendFields(StringBuilder key, List<Field> fields) {
+    key.append("|fields");
+    for (Field f : fields) {
+      key.append('|').append(f.getPropertyPath()).append(':').append(f.getTransformation());
+      key.append('(').append(f.getTransformationArgument()).append(')');
+      key.append(':').append(f.getAlias());
+      key.append(f.isTranslate() ? ":t" : "").append(f.isAttribute() ? ":a" : "");
+    }
+  }
+}
@@ -82,7 +82,11 @@ class GistPlanner {
     return query.withFields(planFields()).withFilters(planFilters());
   }
 
-  private List<Field> planFields() {
+  /**
+   * @return the expanded fields, which only depend on the requested fields, the {@link
+   *     GistQuery#getAutoType()}, {@link GistQuery#isReferences()} and the current user
+   */
+  List<Field> planFields() {
     List<Field> fields = query.getFields();
     if (fields.isEmpty()) {
       fields = singletonList(Field.ALL);
@@ -97,7 +101,7 @@ class GistPlanner {
     return fields;
   }
 
-  private List<Filter> planFilters() {
+  List<Filter> planFilters() {
     List<Filter> filters = query.getFilters();
     filters = withAttributeIdAsPropertyFilters(filters); // 1:1
     filters = withAttributeIdEqAsNotNullFilters(filters); // 1:1
@@ -39,6 +39,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Set;
 import java.util.stream.Collectors;
+import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -199,6 +200,8 @@ public class DefaultMessageService implements MessageService {
       conversation.addUserMessage(new UserMessage(params.getSender(), true));
     }
 
+    messageConversationStore.updateInboxSummaries(conversation);
+
     String footer = getMessageFooter(conversation);
 
     invokeMessageSenders(
@@ -342,6 +345,7 @@ public class DefaultMessageService implements MessageService {
   @Transactional
   public long saveMessageConversation(MessageConversation conversation) {
     messageConversationStore.save(conversation);
+    messageConversationStore.updateInboxSummaries(conversation);
     return conversation.getId();
   }
 
@@ -349,6 +353,7 @@ public class DefaultMessageService implements MessageService {
   @Transactional
   public long saveMessageConversation(MessageConversation conversation, UserDetails actingUser) {
     messageConversationStore.save(conversation, actingUser, false);
+    messageConversationStore.updateInboxSummaries(conversation);
     return conversation.getId();
   }
 
@@ -356,6 +361,7 @@ public class DefaultMessageService implements MessageService {
   @Transactional
   public void updateMessageConversation(MessageConversation conversation) {
     messageConversationStore.update(conversation);
+    messageConversationStore.updateInboxSummaries(conversation);
   }
 
   @Override
@@ -410,6 +416,34 @@ public class DefaultMessageService implements MessageService {
         currentUser, null, false, false, first, max);
   }
 
+  @Override
+  @Transactional(readOnly = true)
+  public List<MessageConversation> getMessageConversations(
+      @CheckForNull MessageConversation after, int max) {
+    User currentUser = getCurrentUserOrNull();
+    return messageConversationStore.getMessageConversations(currentUser, after, max);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<String> getMessageConversationUids() {
+    User currentUser = getCurrentUserOrNull();
+    return messageConversationStore.getMessageConversationUids(currentUser);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public List<MessageConversationInboxSummary> getInboxSummaries() {
+    User currentUser = getCurrentUserOrNull();
+    return messageConversationStore.getInboxSummaries(currentUser);
+  }
+
+  @Override
+  @Transactional
+  public void removeInboxSummaries(MessageConversation conversation) {
+    messageConversationStore.removeInboxSummaries(conversation);
+  }
+
   @Override
   @Transactional(readOnly = true)
   public List<MessageConversation> getMatchingExtId(String extMessageId) {
@@ -438,6 +472,7 @@ public class DefaultMessageService implements MessageService {
     messageConversationStore.deleteMessages(user);
     messageConversationStore.deleteUserMessages(user);
     messageConversationStore.removeUserFromMessageConversations(user);
+    messageConversationStore.updateInboxSummaries(user);
   }
 
   @Override
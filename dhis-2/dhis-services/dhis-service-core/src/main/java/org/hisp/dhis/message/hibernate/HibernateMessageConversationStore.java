@@ -30,11 +30,15 @@ package org.hisp.dhis.message.hibernate;
 import jakarta.persistence.EntityManager;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
+import javax.annotation.CheckForNull;
 import org.hibernate.query.Query;
 import org.hisp.dhis.common.hibernate.HibernateIdentifiableObjectStore;
 import org.hisp.dhis.message.Message;
 import org.hisp.dhis.message.MessageConversation;
+import org.hisp.dhis.message.MessageConversationInboxSummary;
 import org.hisp.dhis.message.MessageConversationStatus;
 import org.hisp.dhis.message.MessageConversationStore;
 import org.hisp.dhis.message.UserMessage;
@@ -124,6 +128,45 @@ public class HibernateMessageConversationStore
         .collect(Collectors.toList());
   }
 
+  @Override
+  public List<MessageConversation> getMessageConversations(
+      User user, @CheckForNull MessageConversation after, int max) {
+    Assert.notNull(user, "User must be specified");
+
+    String hql =
+        "from MessageConversation mc "
+            + "inner join mc.userMessages as um "
+            + "left join mc.createdBy as ui "
+            + "left join mc.lastSender as ls "
+            + "where um.user = :user ";
+
+    if (after != null) {
+      hql +=
+          "and (mc.lastMessage < :lastMessage "
+              + "or (mc.lastMessage = :lastMessage and mc.id < :id)) ";
+    }
+
+    hql += "order by mc.lastMessage desc, mc.id desc";
+
+    Query<?> query = getQuery(hql).setParameter("user", user).setMaxResults(max);
+
+    if (after != null) {
+      query.setParameter("lastMessage", after.getLastMessage()).setParameter("id", after.getId());
+    }
+
+    return query.list().stream().map(o -> mapRowToMessageConversations((Object[]) o)).toList();
+  }
+
+  @Override
+  public List<String> getMessageConversationUids(User user) {
+    Assert.notNull(user, "User must be specified");
+
+    String hql =
+        "select mc.uid from MessageConversation mc join mc.userMessages um where um.user = :user";
+
+    return getSession().createQuery(hql, String.class).setParameter("user", user).list();
+  }
+
   @Override
   public List<MessageConversation> getMessageConversations(Collection<String> uids) {
     return getList(
@@ -134,13 +177,156 @@ public class HibernateMessageConversationStore
   public long getUnreadUserMessageConversationCount(User user) {
     Assert.notNull(user, "User must be specified");
 
-    String hql =
-        "select count(*) from MessageConversation m join m.userMessages u where u.user = :user and u.read = false";
+    String sql = "select coalesce(sum(unread), 0) from messageconversationinbox where userid = ?";
+
+    Long count = jdbcTemplate.queryForObject(sql, Long.class, user.getId());
+    return count == null ? 0 : count;
+  }
+
+  @Override
+  public List<MessageConversationInboxSummary> getInboxSummaries(User user) {
+    Assert.notNull(user, "User must be specified");
+
+    String sql =
+        "select status, total, unread, followup from messageconversationinbox "
+            + "where userid = ? and total > 0 order by status";
+
+    return jdbcTemplate.query(
+        sql,
+        (rs, rowNum) ->
+            new MessageConversationInboxSummary(
+                MessageConversationStatus.valueOf(rs.getString(1)),
+                rs.getLong(2),
+                rs.getLong(3),
+                rs.getLong(4)),
+        user.getId());
+  }
+
+  @Override
+  public void updateInboxSummaries(MessageConversation conversation) {
+    Map<InboxKey, long[]> changes = new TreeMap<>();
+
+    if (conversation.getId() > 0) {
+      lockConversation(conversation.getId());
+      addInboxCounts(changes, conversation.getId(), -1);
+    }
+
+    getSession().flush();
+
+    addInboxCounts(changes, conversation.getId(), 1);
+    applyInboxChanges(changes);
+  }
 
-    Query<Long> query = getTypedQuery(hql);
-    query.setParameter("user", user);
+  @Override
+  public void removeInboxSummaries(MessageConversation conversation) {
+    Map<InboxKey, long[]> changes = new TreeMap<>();
+    lockConversation(conversation.getId());
+    addInboxCounts(changes, conversation.getId(), -1);
+    applyInboxChanges(changes);
+  }
 
-    return query.uniqueResult();
+  @Override
+  public void updateInboxSummaries(User user) {
+    Assert.notNull(user, "User must be specified");
+
+    getSession().flush();
+
+    jdbcTemplate.update(
+        "update messageconversationinbox set total = 0, unread = 0, followup = 0 where userid = ?",
+        user.getId());
+
+    jdbcTemplate.update(
+        "insert into messageconversationinbox (userid, status, total, unread, followup) "
+            + "select um.userid, coalesce(mc.status, 'NONE'), count(*), "
+            + "count(*) filter (where not um.isread), "
+            + "count(*) filter (where um.isfollowup) "
+            + "from usermessage um "
+            + "inner join messageconversation_usermessages mcu on mcu.usermessageid = um.usermessageid "
+            + "inner join messageconversation mc on mc.messageconversationid = mcu.messageconversationid "
+            + "where um.userid = ? "
+            + "group by um.userid, coalesce(mc.status, 'NONE') "
+            + "on conflict (userid, status) do update set total = excluded.total, "
+            + "unread = excluded.unread, followup = excluded.followup",
+        user.getId());
+  }
+
+  /**
+   * Waits for concurrent changes of the conversation to commit, so that the state read afterwards
+   * is the state which is counted in the inbox summaries.
+   */
+  private void lockConversation(long conversationId) {
+    jdbcTemplate.queryForList(
+        "select messageconversationid from messageconversation "
+            + "where messageconversationid = ? for update",
+        Long.class,
+        conversationId);
+  }
+
+  /**
+   * Adds the counts the given conversation contributes to the inbox summaries of its users, as
+   * stored in the database, multiplied by the given sign.
+   */
+  private void addInboxCounts(Map<InboxKey, long[]> changes, long conversationId, int sign) {
+    String sql =
+        "select um.userid, coalesce(mc.status, 'NONE'), um.isread, um.isfollowup "
+            + "from messageconversation mc "
+            + "inner join messageconversation_usermessages mcu on mcu.messageconversationid = mc.messageconversationid "
+            + "inner join usermessage um on um.usermessageid = mcu.usermessageid "
+            + "where mc.messageconversationid = ?";
+
+    jdbcTemplate.query(
+        sql,
+        rs -> {
+          long[] counts =
+              changes.computeIfAbsent(
+                  new InboxKey(rs.getLong(1), rs.getString(2)), key -> new long[3]);
+          counts[0] += sign;
+          counts[1] += rs.getBoolean(3) ? 0 : sign;
+          counts[2] += rs.getBoolean(4) ? sign : 0;
+        },
+        conversationId);
+  }
+
+  /**
+   * Adds the given changes to the inbox summaries. Rows are upserted in key order so that
+   * concurrent transactions lock them in the same order.
+   */
+  private void applyInboxChanges(Map<InboxKey, long[]> changes) {
+    List<Object[]> args =
+        changes.entrySet().stream()
+            .filter(e -> e.getValue()[0] != 0 || e.getValue()[1] != 0 || e.getValue()[2] != 0)
+            .map(
+                e ->
+                    new Object[] {
+                      e.getKey().userId(),
+                      e.getKey().status(),
+                      e.getValue()[0],
+                      e.getValue()[1],
+                      e.getValue()[2]
+                    })
+            .toList();
+
+    if (args.isEmpty()) {
+      return;
+    }
+
+    jdbcTemplate.batchUpdate(
+        "insert into messageconversationinbox (userid, status, total, unread, followup) "
+            + "values (?, ?, ?, ?, ?) "
+            + "on conflict (userid, status) do update set "
+            + "total = messageconversationinbox.total + excluded.total, "
+            + "unread = messageconversationinbox.unread + excluded.unread, "
+            + "followup = messageconversationinbox.followup + excluded.followup",
+        args);
+  }
+
+  /** Key of an inbox summary row. */
+  private record InboxKey(long userId, String status) implements Comparable<InboxKey> {
+    @Override
+    public int compareTo(InboxKey other) {
+      int result = Long.compare(userId, other.userId);
+      return result != 0 ? result : status.compareTo(other.status);
+    }
   }
 
   @Override
@@ -54,6 +54,7 @@ import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.BooleanUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.hibernate.Hibernate;
 import org.hisp.dhis.common.DeliveryChannel;
 import org.hisp.dhis.common.IdentifiableObjectManager;
 import org.hisp.dhis.event.EventStatus;
@@ -81,6 +82,8 @@ import org.hisp.dhis.user.UserGroup;
 import org.hisp.dhis.util.DateUtils;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -108,6 +111,15 @@ public class DefaultProgramNotificationService extends HibernateGenericStore<Eve
           NotificationTrigger.getAllApplicableToEnrollment(),
           NotificationTrigger.getAllScheduledTriggers());
 
+  /** Number of scheduled notification instances fetched and processed at a time. */
+  private static final int SCHEDULED_INSTANCES_PAGE_SIZE = 500;
+
+  /** Number of program messages handed to the {@link ProgramMessageService} at a time. */
+  private static final int PROGRAM_MESSAGES_CHUNK_SIZE = 50;
+
+  /** Number of program message chunks sent concurrently. */
+  private static final int PROGRAM_MESSAGES_PARALLELISM = 4;
+
   private final ProgramMessageService programMessageService;
 
   private final MessageService messageService;
@@ -122,6 +134,8 @@ public class DefaultProgramNotificationService extends HibernateGenericStore<Eve
 
   private final NotificationTemplateMapper notificationTemplateMapper;
 
+  private final ProgramNotificationInstanceStore notificationInstanceStore;
+
   public DefaultProgramNotificationService(
       ProgramMessageService programMessageService,
       MessageService messageService,
@@ -130,6 +144,7 @@ public class DefaultProgramNotificationService extends HibernateGenericStore<Eve
       NotificationMessageRenderer<Event> programStageNotificationRenderer,
       ProgramNotificationTemplateService notificationTemplateService,
       NotificationTemplateMapper notificationTemplateMapper,
+      ProgramNotificationInstanceStore notificationInstanceStore,
       EntityManager entityManager,
       JdbcTemplate jdbcTemplate,
       ApplicationEventPublisher publisher) {
@@ -141,6 +156,7 @@ public class DefaultProgramNotificationService extends HibernateGenericStore<Eve
     this.programStageNotificationRenderer = programStageNotificationRenderer;
     this.notificationTemplateService = notificationTemplateService;
     this.notificationTemplateMapper = notificationTemplateMapper;
+    this.notificationInstanceStore = notificationInstanceStore;
   }
 
   @Override
@@ -169,17 +185,48 @@ public class DefaultProgramNotificationService extends HibernateGenericStore<Eve
   @Override
   @Transactional
   public void sendScheduledNotifications(JobProgress progress) {
-    progress.startingStage(
-        "Fetching and filtering ProgramStageNotification messages scheduled by program rules");
+    Date today = DateUtils.removeTimeStamp(new Date());
+    Date tomorrow = DateUtils.addDays(today, 1);
+
+    AtomicInteger totalMessageCount = new AtomicInteger();
+    long afterId = 0;
+    List<ProgramNotificationInstance> instances;
+    do {
+      long lastId = afterId;
+      progress.startingStage(
+          "Fetching ProgramStageNotification messages scheduled for today after id " + lastId);
+      instances =
+          progress.runStage(
+              List.of(),
+              () ->
+                  notificationInstanceStore.getScheduledProgramNotificationInstances(
+                      today, tomorrow, lastId, SCHEDULED_INSTANCES_PAGE_SIZE));
+
+      if (instances.isEmpty()) {
+        break;
+      }
+      afterId = instances.get(instances.size() - 1).getId();
+
+      sendScheduledNotifications(instances, totalMessageCount, progress);
+
+      // instances of processed pages are no longer needed, keep the session small
+      manager.flush();
+      manager.clear();
+    } while (instances.size() == SCHEDULED_INSTANCES_PAGE_SIZE);
+
+    log.info("Created and sent {} messages scheduled by program rules", totalMessageCount.get());
+  }
+
+  private void sendScheduledNotifications(
+      List<ProgramNotificationInstance> instances,
+      AtomicInteger totalMessageCount,
+      JobProgress progress) {
     List<NotificationInstanceWithTemplate> instancesWithTemplates =
-        progress.runStage(
-            List.of(),
-            () ->
-                manager.getAll(ProgramNotificationInstance.class).stream()
-                    .map(this::withTemplate)
-                    .filter(this::hasTemplate)
-                    .filter(IS_SCHEDULED_BY_PROGRAM_RULE)
-                    .collect(toList()));
+        instances.stream()
+            .map(this::withTemplate)
+            .filter(this::hasTemplate)
+            .filter(IS_SCHEDULED_BY_PROGRAM_RULE)
+            .collect(toList());
 
     progress.startingStage(
         "Processing ProgramStageNotification messages scheduled by program rules",
@@ -190,9 +237,9 @@ public class DefaultProgramNotificationService extends HibernateGenericStore<Eve
       return;
     }
 
-    List<MessageBatch> batches =
+    MessageBatch batch =
         progress.runStage(
-            List.of(),
+            new MessageBatch(),
             () -> {
               Stream<MessageBatch> enrollmentBatches =
                   instancesWithTemplates.stream()
@@ -212,21 +259,54 @@ public class DefaultProgramNotificationService extends HibernateGenericStore<Eve
                                   iwt.getProgramNotificationTemplate(),
                                   List.of(iwt.getProgramNotificationInstance().getEvent())));
 
-              return Stream.concat(enrollmentBatches, eventBatches).collect(toList());
+              return new MessageBatch(
+                  Stream.concat(enrollmentBatches, eventBatches).toArray(MessageBatch[]::new));
             });
+    totalMessageCount.addAndGet(batch.messageCount());
 
-    progress.startingStage("Sending message batches", batches.size(), SKIP_ITEM_OUTLIER);
+    progress.startingStage("Sending DHIS messages", batch.dhisMessages.size(), SKIP_ITEM_OUTLIER);
     progress.runStage(
-        batches.stream(),
-        batch ->
-            format(
-                "Sending batch with %d DHIS messages and %d program messages",
-                batch.dhisMessages.size(), batch.programMessages.size()),
-        this::sendAll,
-        (success, failed) ->
-            format(
-                "Created and sent %d messages",
-                batches.stream().mapToInt(MessageBatch::messageCount).sum()));
+        batch.dhisMessages.stream(),
+        message -> "Sending DHIS message " + message.message.getSubject(),
+        message -> sendDhisMessages(Set.of(message)));
+
+    // program messages are sent on worker threads which neither share the session nor the
+    // security context of this thread, so everything they touch lazily is loaded upfront
+    batch.programMessages.forEach(DefaultProgramNotificationService::initializeForDispatch);
+    SecurityContext securityContext = SecurityContextHolder.getContext();
+    List<List<ProgramMessage>> chunks =
+        Lists.partition(List.copyOf(batch.programMessages), PROGRAM_MESSAGES_CHUNK_SIZE);
+
+    progress.startingStage("Sending program messages", chunks.size(), SKIP_ITEM_OUTLIER);
+    progress.runStageInParallel(
+        PROGRAM_MESSAGES_PARALLELISM,
+        chunks,
+        chunk -> format("Sending chunk with %d program messages", chunk.size()),
+        chunk -> sendProgramMessages(chunk, securityContext));
+  }
+
+  private void sendProgramMessages(List<ProgramMessage> messages, SecurityContext context) {
+    SecurityContext callerContext = SecurityContextHolder.getContext();
+    SecurityContextHolder.setContext(context);
+    try {
+      sendProgramMessages(Set.copyOf(messages));
+    } finally {
+      SecurityContextHolder.setContext(callerContext);
+    }
+  }
+
+  private static void initializeForDispatch(ProgramMessage message) {
+    if (message.hasEnrollment()) {
+      Hibernate.initialize(message.getEnrollment().getProgram());
+    }
+    if (message.hasEvent()) {
+      Hibernate.initialize(message.getEvent().getProgramStage());
+    }
+    ProgramMessageRecipients recipients = message.getRecipients();
+    if (recipients != null) {
+      Hibernate.initialize(recipients.getTrackedEntity());
+      Hibernate.initialize(recipients.getOrganisationUnit());
+    }
   }
 
   private boolean hasEvent(NotificationInstanceWithTemplate notificationInstanceWithTemplate) {
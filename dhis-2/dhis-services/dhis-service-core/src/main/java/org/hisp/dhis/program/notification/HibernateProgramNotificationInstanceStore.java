@@ -32,6 +32,7 @@ import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 import java.util.function.Function;
 import org.hisp.dhis.common.hibernate.HibernateIdentifiableObjectStore;
@@ -95,6 +96,24 @@ public class HibernateProgramNotificationInstanceStore
     return getCount(builder, jpaParameters);
   }
 
+  @Override
+  public List<ProgramNotificationInstance> getScheduledProgramNotificationInstances(
+      Date from, Date to, long afterId, int limit) {
+    String hql =
+        """
+        from ProgramNotificationInstance pni
+        where pni.scheduledAt >= :from and pni.scheduledAt < :to
+        and pni.id > :afterId
+        order by pni.id""";
+
+    return getQuery(hql)
+        .setParameter("from", from)
+        .setParameter("to", to)
+        .setParameter("afterId", afterId)
+        .setMaxResults(limit)
+        .getResultList();
+  }
+
   private List<Function<Root<ProgramNotificationInstance>, Predicate>> getPredicates(
       ProgramNotificationInstanceParam params, CriteriaBuilder builder) {
     List<Function<Root<ProgramNotificationInstance>, Predicate>> predicates = new ArrayList<>();
@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.reservedvalue;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hands out sequential values from blocks taken from the database counter (hi-lo allocation).
+ *
+ * <p>Each (owner uid, key) pair has a block of values in memory. Values are taken from the block
+ * with a compare-and-set, so only taking a new block from the database is synchronized (per pair).
+ * Taking a new block increments the counter in its own transaction, which keeps the counter row
+ * locked for as short as possible.
+ *
+ * <p>Values left in a block are returned to the counter on shutdown if no other node took values
+ * since. Otherwise, they are skipped, same as values that were reserved but never used.
+ *
+ * @see ConfigurationKey#RESERVED_VALUES_SEQUENTIAL_BLOCK_SIZE
+ */
+@Slf4j
+@Component
+public class SequentialNumberBlockAllocator {
+
+  private static final String METRIC_PREFIX = "reservedvalues.sequential";
+
+  /** Blocks never take more than this fraction of the values a segment can hold. */
+  private static final int MAX_BLOCK_SHARE = 100;
+
+  private final SequentialNumberCounterStore counterStore;
+
+  private final int blockSize;
+
+  private final Map<BlockKey, BlockSlot> slots = new ConcurrentHashMap<>();
+
+  private final Counter valuesFromBlock;
+
+  private final Counter valuesFromDatabase;
+
+  private final Counter valuesSkipped;
+
+  private final Counter valuesReleased;
+
+  private final Timer counterUpdates;
+
+  public SequentialNumberBlockAllocator(
+      SequentialNumberCounterStore counterStore,
+      DhisConfigurationProvider config,
+      MeterRegistry meterRegistry) {
+    this.counterStore = counterStore;
+    this.blockSize =
+        Math.max(1, config.getIntProperty(ConfigurationKey.RESERVED_VALUES_SEQUENTIAL_BLOCK_SIZE));
+    this.valuesFromBlock =
+        Counter.builder(METRIC_PREFIX + ".values")
+            .description("Sequential values handed out")
+            .tag("source", "block")
+            .register(meterRegistry);
+    this.valuesFromDatabase =
+        Counter.builder(METRIC_PREFIX + ".values")
+            .description("Sequential values handed out")
+            .tag("source", "database")
+            .register(meterRegistry);
+    this.valuesSkipped =
+        Counter.builder(METRIC_PREFIX + ".skipped")
+            .description("Block values that could not be handed out or returned")
+            .register(meterRegistry);
+    this.valuesReleased =
+        Counter.builder(METRIC_PREFIX + ".released")
+            .description("Block values returned to the database counter")
+            .register(meterRegistry);
+    this.counterUpdates =
+        Timer.builder(METRIC_PREFIX + ".counter.updates")
+            .description("Time spent incrementing the database counter, including waiting on it")
+            .register(meterRegistry);
+  }
+
+  /**
+   * @param uid owner of the counter
+   * @param key key of the counter
+   * @param count number of values needed
+   * @param maxValue first value the segment cannot hold
+   * @return {@code count} consecutive values
+   */
+  public List<Integer> getNextValues(String uid, String key, int count, BigInteger maxValue) {
+    int size = getBlockSize(count, maxValue);
+    if (size <= count) {
+      List<Integer> values =
+          counterUpdates.record(() -> counterStore.getNextValues(uid, key, count));
+      valuesFromDatabase.increment(count);
+      return values;
+    }
+    BlockSlot slot = slots.computeIfAbsent(new BlockKey(uid, key), k -> new BlockSlot());
+    int start = slot.block.take(count);
+    if (start < 0) {
+      start = slot.refill(uid, key, count, size);
+    } else {
+      valuesFromBlock.increment(count);
+    }
+    return IntStream.range(start, start + count).boxed().toList();
+  }
+
+  /** Forgets the blocks of a counter that is deleted. */
+  public void removeBlocks(String uid) {
+    slots.keySet().removeIf(key -> key.uid().equals(uid));
+  }
+
+  /** Returns the values left in the blocks to the counters where this is still possible. */
+  @PreDestroy
+  public void releaseBlocks() {
+    slots.forEach(
+        (key, slot) -> {
+          Block block = slot.block;
+          int from = block.drain();
+          if (from >= block.end) {
+            return;
+          }
+          try {
+            if (counterStore.releaseCounter(key.uid(), key.key(), block.end, from)) {
+              valuesReleased.increment(block.end - (double) from);
+            } else {
+              valuesSkipped.increment(block.end - (double) from);
+            }
+          } catch (RuntimeException ex) {
+            log.warn("Failed to release sequential values of counter {}", key, ex);
+          }
+        });
+    slots.clear();
+  }
+
+  private int getBlockSize(int count, BigInteger maxValue) {
+    int maxBlockSize =
+        maxValue
+            .divide(BigInteger.valueOf(MAX_BLOCK_SHARE))
+            .min(BigInteger.valueOf(Integer.MAX_VALUE))
+            .intValue();
+    return Math.max(count, Math.min(blockSize, maxBlockSize));
+  }
+
+  private record BlockKey(String uid, String key) {}
+
+  /** The values from {@code next} (inclusive) to {@code end} (exclusive) are available. */
+  static final class Block {
+    static final Block EMPTY = new Block(0, 0);
+
+    private final AtomicInteger next;
+
+    final int end;
+
+    Block(int start, int end) {
+      this.next = new AtomicInteger(start);
+      this.end = end;
+    }
+
+    /**
+     * @return the first of {@code count} consecutive values, or -1 if the block has not enough
+     *     values left
+     */
+    int take(int count) {
+      while (true) {
+        int start = next.get();
+        if ((long) start + count > end) {
+          return -1;
+        }
+        if (next.compareAndSet(start, start + count)) {
+          return start;
+        }
+      }
+    }
+
+    /**
+     * Takes all values left so that no other thread can take them anymore.
+     *
+     * @return the first value left, equal to {@code end} if none are left
+     */
+    int drain() {
+      return next.getAndSet(end);
+    }
+  }
+
+  private final class BlockSlot {
+    private volatile Block block = Block.EMPTY;
+
+    synchronized int refill(String uid, String key, int count, int size) {
+      int start = block.take(count);
+      if (start >= 0) {
+        // another thread took a new block while we were waiting
+        valuesFromBlock.increment(count);
+        return start;
+      }
+      Block used = block;
+      int from = used.drain();
+      int end = counterUpdates.record(() -> counterStore.incrementCounter(uid, key, size));
+      Block next;
+      if (end - size == used.end) {
+        // nobody else took values in between, the values left can be kept
+        next = new Block(from, end);
+      } else {
+        valuesSkipped.increment(used.end - (double) from);
+        next = new Block(end - size, end);
+      }
+      start = next.take(count);
+      block = next;
+      valuesFromDatabase.increment(count);
+      return start;
+    }
+  }
+}
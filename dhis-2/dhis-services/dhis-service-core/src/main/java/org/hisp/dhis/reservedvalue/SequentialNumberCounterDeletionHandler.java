@@ -37,12 +37,15 @@ import org.springframework.stereotype.Component;
 public class SequentialNumberCounterDeletionHandler extends DeletionHandler {
   private final SequentialNumberCounterStore sequentialNumberCounterStore;
 
+  private final SequentialNumberBlockAllocator sequentialNumberBlockAllocator;
+
   @Override
   protected void register() {
     whenDeleting(TrackedEntityAttribute.class, this::deleteTrackedEntityAttribute);
   }
 
   private void deleteTrackedEntityAttribute(TrackedEntityAttribute attribute) {
+    sequentialNumberBlockAllocator.removeBlocks(attribute.getUid());
     sequentialNumberCounterStore.deleteCounter(attribute.getUid());
   }
 }
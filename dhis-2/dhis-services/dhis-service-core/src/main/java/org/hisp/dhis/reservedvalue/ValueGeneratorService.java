@@ -43,7 +43,7 @@ import org.springframework.stereotype.Service;
 @Service
 @RequiredArgsConstructor
 public class ValueGeneratorService {
-  private final SequentialNumberCounterStore sequentialNumberCounterStore;
+  private final SequentialNumberBlockAllocator sequentialNumberBlockAllocator;
 
   public List<String> generateValues(
       TextPatternSegment segment, TextPattern textPattern, String key, int numberOfValues)
@@ -63,7 +63,8 @@ public class ValueGeneratorService {
       throws ReserveValueException {
     BigInteger maxValue = BigInteger.TEN.pow(segment.getParameter().length());
     List<Integer> generatedNumbers =
-        sequentialNumberCounterStore.getNextValues(textPattern.getOwnerUid(), key, numberOfValues);
+        sequentialNumberBlockAllocator.getNextValues(
+            textPattern.getOwnerUid(), key, numberOfValues, maxValue);
 
     boolean outOfValues = generatedNumbers.stream().anyMatch(n -> maxValue.intValue() <= n);
 
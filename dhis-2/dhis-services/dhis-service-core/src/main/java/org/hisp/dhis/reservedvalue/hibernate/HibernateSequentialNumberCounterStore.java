@@ -33,6 +33,8 @@ import java.util.stream.IntStream;
 import lombok.RequiredArgsConstructor;
 import org.hisp.dhis.reservedvalue.SequentialNumberCounterStore;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * @author Stian Sandvold
@@ -44,18 +46,42 @@ public class HibernateSequentialNumberCounterStore implements SequentialNumberCo
 
   @Override
   public List<Integer> getNextValues(String uid, String key, int length) {
-    int count =
-        (int)
-            entityManager
-                .createNativeQuery("SELECT * FROM incrementSequentialCounter(:uid, :key, :length)")
-                .setParameter("uid", uid)
-                .setParameter("key", key)
-                .setParameter("length", length)
-                .getSingleResult();
+    int count = increment(uid, key, length);
 
     return IntStream.range(count - length, length + (count - length)).boxed().toList();
   }
 
+  @Override
+  @Transactional(propagation = Propagation.REQUIRES_NEW)
+  public int incrementCounter(String uid, String key, int size) {
+    return increment(uid, key, size);
+  }
+
+  @Override
+  @Transactional
+  public boolean releaseCounter(String uid, String key, int expected, int value) {
+    return entityManager
+            .createNativeQuery(
+                "UPDATE sequentialnumbercounter SET counter = :value"
+                    + " WHERE owneruid = :uid AND key = :key AND counter = :expected")
+            .setParameter("value", value)
+            .setParameter("uid", uid)
+            .setParameter("key", key)
+            .setParameter("expected", expected)
+            .executeUpdate()
+        > 0;
+  }
+
+  private int increment(String uid, String key, int size) {
+    return (int)
+        entityManager
+            .createNativeQuery("SELECT * FROM incrementSequentialCounter(:uid, :key, :length)")
+            .setParameter("uid", uid)
+            .setParameter("key", key)
+            .setParameter("length", size)
+            .getSingleResult();
+  }
+
   @Override
   public void deleteCounter(String uid) {
     entityManager
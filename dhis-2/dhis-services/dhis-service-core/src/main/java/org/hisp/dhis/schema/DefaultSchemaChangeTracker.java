@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.schema;
+
+import jakarta.persistence.EntityManager;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.CheckForNull;
+import org.hisp.dhis.common.IdentifiableObject;
+import org.hisp.dhis.common.MetadataObject;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * {@link SchemaChangeTracker} which derives the fingerprint of a type from the maximum last updated
+ * timestamp and the number of its objects. Fingerprints are cached and read again once they are
+ * marked as changed by a committed change on this node, or once they are older than the configured
+ * time to live.
+ *
+ * <p>Fingerprints are read in a separate read-write transaction, so that they always come from the
+ * primary database and never from a read replica which may lag behind.
+ */
+@Service
+public class DefaultSchemaChangeTracker implements SchemaChangeTracker {
+  private final SchemaService schemaService;
+
+  private final EntityManager entityManager;
+
+  private final DhisConfigurationProvider config;
+
+  private final TransactionTemplate primaryTransactionTemplate;
+
+  private final Map<Class<?>, Entry> entries = new ConcurrentHashMap<>();
+
+  /** Start time, used as last modified time for changes which happened before it. */
+  private final long started = System.currentTimeMillis();
+
+  public DefaultSchemaChangeTracker(
+      SchemaService schemaService,
+      EntityManager entityManager,
+      DhisConfigurationProvider config,
+      PlatformTransactionManager transactionManager) {
+    this.schemaService = schemaService;
+    this.entityManager = entityManager;
+    this.config = config;
+    this.primaryTransactionTemplate = new TransactionTemplate(transactionManager);
+    this.primaryTransactionTemplate.setPropagationBehavior(
+        TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+  }
+
+  /**
+   * Cached fingerprint state of a type.
+   *
+   * @param lastUpdated the maximum last updated timestamp.
+   * @param count the number of objects.
+   * @param lastModified the time of the last observed change.
+   * @param expires the time after which the entry is read again.
+   */
+  private record Entry(long lastUpdated, long count, long lastModified, long expires) {
+    Fingerprint toFingerprint() {
+      return new Fingerprint(
+          Long.toHexString(lastUpdated) + "-" + Long.toHexString(count), new Date(lastModified));
+    }
+
+    Entry expire() {
+      return new Entry(lastUpdated, count, lastModified, 0L);
+    }
+  }
+
+  @CheckForNull
+  @Override
+  public Fingerprint getFingerprint(Class<?> type) {
+    if (!isTracked(type)) {
+      return null;
+    }
+
+    long now = System.currentTimeMillis();
+    Entry entry = entries.get(type);
+
+    if (entry == null || entry.expires() < now) {
+      entry = read(type, entry, now);
+      entries.put(type, entry);
+    }
+
+    return entry.toFingerprint();
+  }
+
+  @Override
+  public void changed(Class<?> type) {
+    entries.replaceAll((key, entry) -> key.isAssignableFrom(type) ? entry.expire() : entry);
+  }
+
+  @Override
+  public boolean isTracked(Class<?> type) {
+    if (!config.isEnabled(ConfigurationKey.METADATA_CHANGE_TRACKING_ENABLED)
+        || !IdentifiableObject.class.isAssignableFrom(type)
+        || !MetadataObject.class.isAssignableFrom(type)) {
+      return false;
+    }
+
+    Schema schema = schemaService.getSchema(type);
+    return schema != null && schema.isPersisted() && schema.isMetadata();
+  }
+
+  /**
+   * Reads the fingerprint state of the given type. The last modified time is kept as long as the
+   * state is unchanged, and set to now otherwise, so that deletions are also noticed.
+   */
+  private Entry read(Class<?> type, @CheckForNull Entry previous, long now) {
+    Object[] row =
+        primaryTransactionTemplate.execute(
+            status ->
+                (Object[])
+                    entityManager
+                        .createQuery("select max(lastUpdated), count(*) from " + type.getName())
+                        .getSingleResult());
+
+    long lastUpdated = row[0] instanceof Date date ? date.getTime() : 0L;
+    long count = row[1] instanceof Number number ? number.longValue() : 0L;
+    long expires =
+        now
+            + TimeUnit.SECONDS.toMillis(
+                config.getIntProperty(ConfigurationKey.METADATA_CHANGE_TRACKING_TTL));
+
+    long lastModified;
+
+    if (previous == null) {
+      lastModified = Math.max(lastUpdated, started);
+    } else if (previous.lastUpdated() == lastUpdated && previous.count() == count) {
+      lastModified = previous.lastModified();
+    } else {
+      lastModified = Math.max(lastUpdated, now);
+    }
+
+    return new Entry(lastUpdated, count, lastModified, expires);
+  }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.security.basic;
+
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceUnit;
+import java.util.Set;
+import javax.annotation.CheckForNull;
+import javax.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.internal.SessionFactoryImpl;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hisp.dhis.common.cache.Region;
+import org.hisp.dhis.common.event.CacheInvalidationEvent;
+import org.hisp.dhis.user.User;
+import org.hisp.dhis.user.UserGroup;
+import org.hisp.dhis.user.UserRole;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Invalidates entries of the {@link BasicAuthCredentialsCache} when a change to a user, user role
+ * or user group is committed that could affect the {@link org.hisp.dhis.user.UserDetails} of a user
+ * or whether its credentials are still valid.
+ *
+ * <p>Invalidation goes through {@link CacheInvalidationEvent}s so that it also reaches the other
+ * servers of a cluster when cache invalidation is enabled.
+ */
+@Component
+@RequiredArgsConstructor
+public class BasicAuthCacheEventListener
+    implements PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener,
+        PostCollectionUpdateEventListener,
+        PostCollectionRecreateEventListener,
+        PostCollectionRemoveEventListener {
+
+  /** User properties updated on every login, changing them does not affect authentication. */
+  private static final Set<String> LOGIN_PROPERTIES =
+      Set.of("lastLogin", "lastUpdated", "lastUpdatedBy");
+
+  @PersistenceUnit private EntityManagerFactory emf;
+
+  private final ApplicationEventPublisher publisher;
+
+  @PostConstruct
+  protected void init() {
+    SessionFactoryImpl sessionFactory = emf.unwrap(SessionFactoryImpl.class);
+
+    EventListenerRegistry registry =
+        sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+
+    registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+    registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    registry.appendListeners(EventType.POST_COLLECTION_UPDATE, this);
+    registry.appendListeners(EventType.POST_COLLECTION_RECREATE, this);
+    registry.appendListeners(EventType.POST_COLLECTION_REMOVE, this);
+  }
+
+  @Override
+  public void onPostUpdate(PostUpdateEvent event) {
+    if (event.getEntity() instanceof User user) {
+      if (isLoginOnly(event)) {
+        return;
+      }
+      String oldUsername = getOldUsername(event);
+      if (oldUsername != null && !oldUsername.equals(user.getUsername())) {
+        invalidate(oldUsername);
+      }
+      invalidate(user.getUsername());
+    } else if (event.getEntity() instanceof UserRole) {
+      invalidate(null);
+    }
+  }
+
+  @Override
+  public void onPostDelete(PostDeleteEvent event) {
+    if (event.getEntity() instanceof User user) {
+      invalidate(user.getUsername());
+    } else if (event.getEntity() instanceof UserRole || event.getEntity() instanceof UserGroup) {
+      invalidate(null);
+    }
+  }
+
+  @Override
+  public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+    collectionChanged(event);
+  }
+
+  @Override
+  public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+    collectionChanged(event);
+  }
+
+  @Override
+  public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+    collectionChanged(event);
+  }
+
+  @Override
+  public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    // Nothing changed
+  }
+
+  @Override
+  public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    // Nothing changed
+  }
+
+  @Override
+  public boolean requiresPostCommitHanding(EntityPersister persister) {
+    Class<?> type = persister.getMappedClass();
+    return User.class.isAssignableFrom(type)
+        || UserRole.class.isAssignableFrom(type)
+        || UserGroup.class.isAssignableFrom(type);
+  }
+
+  /**
+   * Collection events are raised on flush, the invalidation is deferred until the transaction
+   * committed so that a concurrent request cannot cache the state from before the change again.
+   */
+  private void collectionChanged(AbstractCollectionEvent event) {
+    Object owner = event.getAffectedOwnerOrNull();
+    if (owner instanceof User user) {
+      afterCommit(user.getUsername());
+    } else if (owner instanceof UserRole || owner instanceof UserGroup) {
+      afterCommit(null);
+    }
+  }
+
+  private void afterCommit(@CheckForNull String username) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      invalidate(username);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            invalidate(username);
+          }
+        });
+  }
+
+  /**
+   * @param username the user to invalidate, or null to invalidate all users
+   */
+  private void invalidate(@CheckForNull String username) {
+    publisher.publishEvent(
+        new CacheInvalidationEvent(this, Region.basicAuthCredentialsCache, username));
+  }
+
+  private static boolean isLoginOnly(PostUpdateEvent event) {
+    int[] dirty = event.getDirtyProperties();
+    if (dirty == null) {
+      return false;
+    }
+    String[] names = event.getPersister().getPropertyNames();
+    for (int i : dirty) {
+      if (!LOGIN_PROPERTIES.contains(names[i])) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @CheckForNull
+  private static String getOldUsername(PostUpdateEvent event) {
+    Object[] oldState = event.getOldState();
+    if (oldState == null) {
+      return null;
+    }
+    Object username =
+        oldState[event.getPersister().getEntityMetamodel().getPropertyIndex("username")];
+    return username instanceof String name ? name : null;
+  }
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.security.basic;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Optional;
+import javax.annotation.Nonnull;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import lombok.extern.slf4j.Slf4j;
+import org.hisp.dhis.cache.Cache;
+import org.hisp.dhis.cache.CacheProvider;
+import org.hisp.dhis.common.cache.Region;
+import org.hisp.dhis.common.event.CacheInvalidationEvent;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.user.UserDetails;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remembers HTTP Basic credentials that were successfully verified, so that repeated requests of
+ * the same client skip the password hash check and the loading of the {@link UserDetails}.
+ *
+ * <p>Passwords are never stored. Entries hold a keyed digest of username and password, the key is
+ * generated randomly on startup and never leaves this server. Entries are keyed by username and are
+ * invalidated by {@link BasicAuthCacheEventListener} when the user's credentials, roles, org units
+ * or groups change.
+ *
+ * <p>An authentication reads the user before it puts the verified credentials, an invalidation in
+ * between would be lost. Each invalidation therefore increments a generation, and credentials are
+ * only put if the generation did not change since the authentication started.
+ *
+ * <p>The cache is off by default. On a cluster it is only used when the cache invalidation over
+ * Redis is enabled, as entries would otherwise outlive changes made on the other servers.
+ */
+@Slf4j
+@Component
+public class BasicAuthCredentialsCache {
+
+  private static final String METRIC_NAME = "security.basic_auth.cache";
+
+  private static final String DIGEST_ALGORITHM = "HmacSHA256";
+
+  private record VerifiedCredentials(byte[] digest, UserDetails userDetails) {}
+
+  private final boolean enabled;
+
+  private final Cache<VerifiedCredentials> cache;
+
+  private final SecretKeySpec digestKey;
+
+  private final Counter hits;
+
+  private final Counter misses;
+
+  /** Guards the generation together with the cache entries. */
+  private final Object lock = new Object();
+
+  /** Incremented on every invalidation of the cache. */
+  private long generation;
+
+  public BasicAuthCredentialsCache(
+      CacheProvider cacheProvider, DhisConfigurationProvider config, MeterRegistry meterRegistry) {
+    this.enabled = isEnabled(config);
+    this.cache = cacheProvider.createBasicAuthCredentialsCache();
+    byte[] key = new byte[32];
+    new SecureRandom().nextBytes(key);
+    this.digestKey = new SecretKeySpec(key, DIGEST_ALGORITHM);
+    this.hits =
+        Counter.builder(METRIC_NAME)
+            .description("Basic authentication requests checked against verified credentials")
+            .tag("result", "hit")
+            .register(meterRegistry);
+    this.misses =
+        Counter.builder(METRIC_NAME)
+            .description("Basic authentication requests checked against verified credentials")
+            .tag("result", "miss")
+            .register(meterRegistry);
+  }
+
+  /**
+   * @param username the username as given in the request
+   * @param password the password as given in the request
+   * @return the user details of an earlier successful authentication with exactly these
+   *     credentials, or empty if there is none or it expired
+   */
+  public Optional<UserDetails> get(@Nonnull String username, @Nonnull String password) {
+    if (!enabled) {
+      return Optional.empty();
+    }
+    Optional<UserDetails> userDetails =
+        cache
+            .getIfPresent(username)
+            .filter(e -> MessageDigest.isEqual(e.digest(), digest(username, password)))
+            .map(VerifiedCredentials::userDetails);
+    (userDetails.isPresent() ? hits : misses).increment();
+    return userDetails;
+  }
+
+  /**
+   * @return the current generation, to be passed to {@link #put} once the credentials are verified
+   */
+  public long getGeneration() {
+    synchronized (lock) {
+      return generation;
+    }
+  }
+
+  /**
+   * Remembers credentials that were successfully verified, unless the cache was invalidated since
+   * the given generation was read.
+   *
+   * @param username the username as given in the request
+   * @param password the password as given in the request
+   * @param userDetails the user details the credentials authenticated
+   * @param generation the {@link #getGeneration()} read before the user was loaded
+   */
+  public void put(
+      @Nonnull String username,
+      @Nonnull String password,
+      @Nonnull UserDetails userDetails,
+      long generation) {
+    if (!enabled) {
+      return;
+    }
+    VerifiedCredentials credentials =
+        new VerifiedCredentials(digest(username, password), userDetails);
+    synchronized (lock) {
+      if (generation == this.generation) {
+        cache.put(username, credentials);
+      }
+    }
+  }
+
+  /**
+   * Invalidations of the region are handled here as well as by the {@link CacheProvider}, so that
+   * the generation changes together with the entries. Invalidations from other servers arrive as
+   * the same events.
+   */
+  @EventListener
+  public void handleCacheInvalidationEvent(CacheInvalidationEvent event) {
+    if (event.getRegion() != Region.basicAuthCredentialsCache) {
+      return;
+    }
+    synchronized (lock) {
+      generation++;
+      if (event.getKey() != null) {
+        cache.invalidate(event.getKey());
+      } else {
+        cache.invalidateAll();
+      }
+    }
+  }
+
+  private static boolean isEnabled(DhisConfigurationProvider config) {
+    if (!config.isEnabled(ConfigurationKey.BASIC_AUTH_CACHE_ENABLED)) {
+      return false;
+    }
+    boolean clustered =
+        config.isClusterEnabled() || config.isEnabled(ConfigurationKey.REDIS_ENABLED);
+    if (clustered && !config.isEnabled(ConfigurationKey.REDIS_CACHE_INVALIDATION_ENABLED)) {
+      log.warn(
+          "Basic authentication cache is disabled, it requires {} on a cluster",
+          ConfigurationKey.REDIS_CACHE_INVALIDATION_ENABLED.getKey());
+      return false;
+    }
+    return true;
+  }
+
+  private byte[] digest(String username, String password) {
+    try {
+      Mac mac = Mac.getInstance(DIGEST_ALGORITHM);
+      mac.init(digestKey);
+      mac.update(username.getBytes(StandardCharsets.UTF_8));
+      mac.update((byte) 0);
+      return mac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+    } catch (GeneralSecurityException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+}
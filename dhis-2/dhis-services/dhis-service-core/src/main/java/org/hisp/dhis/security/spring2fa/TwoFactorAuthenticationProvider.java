@@ -30,6 +30,7 @@ package org.hisp.dhis.security.spring2fa;
 import static org.hisp.dhis.security.twofa.TwoFactorAuthService.TWO_FACTOR_AUTH_REQUIRED_RESTRICTION_NAME;
 import static org.hisp.dhis.security.twofa.TwoFactorAuthUtils.isValid2FACode;
 
+import java.util.Optional;
 import java.util.Set;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nonnull;
@@ -40,6 +41,8 @@ import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.feedback.ConflictException;
 import org.hisp.dhis.feedback.ErrorCode;
 import org.hisp.dhis.security.ForwardedIpAwareWebAuthenticationDetails;
+import org.hisp.dhis.security.basic.BasicAuthCredentialsCache;
+import org.hisp.dhis.security.basic.HttpBasicWebAuthenticationDetails;
 import org.hisp.dhis.security.twofa.TwoFactorAuthService;
 import org.hisp.dhis.security.twofa.TwoFactorType;
 import org.hisp.dhis.user.UserDetails;
@@ -68,6 +71,7 @@ public class TwoFactorAuthenticationProvider extends DaoAuthenticationProvider {
   private UserService userService;
   private TwoFactorAuthService twoFactorAuthService;
   private DhisConfigurationProvider configurationProvider;
+  private BasicAuthCredentialsCache basicAuthCredentialsCache;
 
   @Autowired
   public TwoFactorAuthenticationProvider(
@@ -75,11 +79,13 @@ public class TwoFactorAuthenticationProvider extends DaoAuthenticationProvider {
       PasswordEncoder passwordEncoder,
       @Lazy UserService userService,
       @Lazy TwoFactorAuthService twoFactorAuthService,
-      DhisConfigurationProvider configurationProvider) {
+      DhisConfigurationProvider configurationProvider,
+      BasicAuthCredentialsCache basicAuthCredentialsCache) {
 
     this.userService = userService;
     this.twoFactorAuthService = twoFactorAuthService;
     this.configurationProvider = configurationProvider;
+    this.basicAuthCredentialsCache = basicAuthCredentialsCache;
     setUserDetailsService(detailsService);
     setPasswordEncoder(passwordEncoder);
   }
@@ -98,10 +104,41 @@ public class TwoFactorAuthenticationProvider extends DaoAuthenticationProvider {
     // Check for temporary lockout
     checkLockout(username, ip);
 
+    // Basic auth clients send the same credentials with every request, skip verifying them again
+    boolean isBasicAuth =
+        details instanceof HttpBasicWebAuthenticationDetails && auth.getCredentials() != null;
+    long generation = basicAuthCredentialsCache.getGeneration();
+    if (isBasicAuth) {
+      Optional<UserDetails> verified =
+          basicAuthCredentialsCache.get(username, auth.getCredentials().toString());
+      if (verified.isPresent()) {
+        UserDetails userDetails = verified.get();
+        // Only the password check is skipped, the account checks still run on every request
+        getPreAuthenticationChecks().check(userDetails);
+        getPostAuthenticationChecks().check(userDetails);
+        checkUser(auth, userDetails, username);
+        return new UsernamePasswordAuthenticationToken(
+            userDetails, auth.getCredentials(), userDetails.getAuthorities());
+      }
+    }
+
     // Authenticate via the parent method (which calls UserDetailsService#loadUserByUsername())
     Authentication result = super.authenticate(auth);
     UserDetails userDetails = (UserDetails) result.getPrincipal();
 
+    checkUser(auth, userDetails, username);
+
+    if (isBasicAuth) {
+      basicAuthCredentialsCache.put(
+          username, auth.getCredentials().toString(), userDetails, generation);
+    }
+
+    // Return a new authentication token with the user details.
+    return new UsernamePasswordAuthenticationToken(
+        userDetails, result.getCredentials(), result.getAuthorities());
+  }
+
+  private void checkUser(Authentication auth, UserDetails userDetails, String username) {
     // Validate that the user is not configured for external auth only
     checkExternalAuth(userDetails, username);
 
@@ -110,10 +147,6 @@ public class TwoFactorAuthenticationProvider extends DaoAuthenticationProvider {
 
     // Handle two-factor authentication validations.
     checkTwoFactorAuthentication(auth, userDetails);
-
-    // Return a new authentication token with the user details.
-    return new UsernamePasswordAuthenticationToken(
-        userDetails, result.getCredentials(), result.getAuthorities());
   }
 
   private void checkLockout(String username, String ip) {
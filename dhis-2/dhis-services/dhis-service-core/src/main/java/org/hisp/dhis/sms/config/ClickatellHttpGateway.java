@@ -50,6 +50,9 @@ import org.springframework.stereotype.Component;
 @Component("org.hisp.dhis.sms.config.ClickatellGateway")
 @RequiredArgsConstructor
 public class ClickatellHttpGateway extends SmsGateway {
+  /** Clickatell accepts up to 600 recipients per message request. */
+  private static final int MAX_RECIPIENTS_PER_REQUEST = 600;
+
   @Qualifier("tripleDesStringEncryptor")
   private final PBEStringEncryptor pbeStringEncryptor;
 
@@ -62,10 +65,15 @@ public class ClickatellHttpGateway extends SmsGateway {
     return gatewayConfig instanceof ClickatellGatewayConfig;
   }
 
+  @Override
+  public int getMaxRecipientsPerRequest() {
+    return MAX_RECIPIENTS_PER_REQUEST;
+  }
+
   @Override
   public List<OutboundMessageResponse> sendBatch(
       OutboundMessageBatch batch, SmsGatewayConfig config) {
-    return batch.getMessages().parallelStream()
+    return batch.getMessages().stream()
         .map(m -> send(m.getSubject(), m.getText(), m.getRecipients(), config))
         .collect(Collectors.toList());
   }
@@ -38,6 +38,9 @@ import org.springframework.stereotype.Component;
  */
 @Component("org.hisp.dhis.sms.config.SMPPGateway")
 public class SMPPGateway extends SmsGateway {
+  /** submit_multi takes at most 254 destination addresses. */
+  private static final int MAX_RECIPIENTS_PER_REQUEST = 254;
+
   private final SMPPClient smppClient;
 
   public SMPPGateway(SMPPClient smppClient) {
@@ -49,6 +52,11 @@ public class SMPPGateway extends SmsGateway {
     return gatewayConfig instanceof SMPPGatewayConfig;
   }
 
+  @Override
+  public int getMaxRecipientsPerRequest() {
+    return MAX_RECIPIENTS_PER_REQUEST;
+  }
+
   @Override
   public OutboundMessageResponse send(
       String subject, String text, Set<String> recipients, SmsGatewayConfig gatewayConfig) {
@@ -77,7 +77,7 @@ public class SimplisticHttpGetGateWay extends SmsGateway {
   @Override
   public List<OutboundMessageResponse> sendBatch(
       OutboundMessageBatch batch, SmsGatewayConfig gatewayConfig) {
-    return batch.getMessages().parallelStream()
+    return batch.getMessages().stream()
         .map(m -> send(m.getSubject(), m.getText(), m.getRecipients(), gatewayConfig))
         .collect(Collectors.toList());
   }
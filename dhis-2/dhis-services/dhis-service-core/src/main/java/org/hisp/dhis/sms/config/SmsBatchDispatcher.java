@@ -0,0 +1,355 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.sms.config;
+
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.RateLimiter;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.hisp.dhis.common.DeliveryChannel;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.outboundmessage.OutboundMessage;
+import org.hisp.dhis.outboundmessage.OutboundMessageBatch;
+import org.hisp.dhis.outboundmessage.OutboundMessageResponse;
+import org.hisp.dhis.sms.outbound.GatewayResponse;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sends a batch of SMS messages through a {@link SmsGateway} using as few requests as possible.
+ *
+ * <p>Messages with the same subject and text are merged, and their recipients are sliced into
+ * requests of the gateway's {@link SmsGateway#getMaxRecipientsPerRequest() native size}. Requests
+ * are sent in chunks on a shared pool, so that at most {@link
+ * ConfigurationKey#SMS_DISPATCH_CONCURRENCY} chunks are in flight, and each gateway is held to
+ * {@link ConfigurationKey#SMS_DISPATCH_RATE_LIMIT} requests per second. Requests which failed
+ * before reaching the gateway, or which the gateway rejected as busy or unavailable, are sent again
+ * with an increasing delay. Server errors and timeouts are not retried, as the gateway may already
+ * have delivered the messages.
+ */
+@Slf4j
+@Component
+public class SmsBatchDispatcher {
+
+  private static final String METRIC_PREFIX = "sms.outbound";
+
+  /** Number of requests handed to {@link SmsGateway#sendBatch} at a time. */
+  private static final int REQUESTS_PER_CHUNK = 20;
+
+  private static final long RETRY_DELAY_MILLIS = 1000;
+
+  private static final Set<GatewayResponse> SENT =
+      Set.of(
+          GatewayResponse.RESULT_CODE_0,
+          GatewayResponse.RESULT_CODE_200,
+          GatewayResponse.RESULT_CODE_202);
+
+  /** Failures for which the gateway is known not to have sent the messages. */
+  private static final Set<GatewayResponse> TEMPORARY_FAILURES =
+      Set.of(
+          GatewayResponse.SERVICE_NOT_AVAILABLE,
+          GatewayResponse.SMPP_SESSION_FAILURE,
+          GatewayResponse.RESULT_CODE_40,
+          GatewayResponse.RESULT_CODE_429,
+          GatewayResponse.RESULT_CODE_503);
+
+  private final MeterRegistry meterRegistry;
+
+  private final int maxAttempts;
+
+  private final double requestsPerSecond;
+
+  private final ExecutorService executor;
+
+  private final Map<String, RateLimiter> rateLimiters = new ConcurrentHashMap<>();
+
+  public SmsBatchDispatcher(DhisConfigurationProvider config, MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+    this.maxAttempts =
+        Math.max(1, config.getIntProperty(ConfigurationKey.SMS_DISPATCH_MAX_ATTEMPTS));
+    this.requestsPerSecond =
+        Math.max(1, config.getIntProperty(ConfigurationKey.SMS_DISPATCH_RATE_LIMIT));
+    this.executor =
+        Executors.newFixedThreadPool(
+            Math.max(1, config.getIntProperty(ConfigurationKey.SMS_DISPATCH_CONCURRENCY)),
+            new ThreadFactoryBuilder().setNameFormat("SMS-DISPATCH-%d").setDaemon(true).build());
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * Sends the messages and waits for all requests to complete.
+   *
+   * @param gateway the gateway to send with
+   * @param config the configuration of the gateway
+   * @param messages the messages to send
+   * @return one response per message, in the order of the messages. A message counts as sent when
+   *     all requests carrying its recipients were sent, otherwise its response is that of the first
+   *     failed request
+   */
+  public List<OutboundMessageResponse> dispatch(
+      SmsGateway gateway, SmsGatewayConfig config, List<OutboundMessage> messages) {
+    List<GatewayRequest> requests =
+        createRequests(messages, Math.max(1, gateway.getMaxRecipientsPerRequest()));
+
+    String gatewayName = gateway.getClass().getSimpleName();
+    List<GatewayRequest> pending = requests;
+
+    for (int attempt = 1; !pending.isEmpty(); attempt++) {
+      if (attempt > 1) {
+        log.info(
+            "Retrying {} SMS requests to {}, attempt {} of {}",
+            pending.size(),
+            gatewayName,
+            attempt,
+            maxAttempts);
+
+        if (!sleep(RETRY_DELAY_MILLIS << (attempt - 2))) {
+          break;
+        }
+      }
+
+      send(gateway, gatewayName, config, pending);
+
+      boolean lastAttempt = attempt >= maxAttempts;
+      pending = pending.stream().filter(r -> !lastAttempt && r.isTemporaryFailure()).toList();
+    }
+
+    return getMessageResponses(messages, requests);
+  }
+
+  // -------------------------------------------------------------------------
+  // Supportive methods
+  // -------------------------------------------------------------------------
+
+  private void send(
+      SmsGateway gateway,
+      String gatewayName,
+      SmsGatewayConfig config,
+      List<GatewayRequest> requests) {
+    RateLimiter rateLimiter =
+        rateLimiters.computeIfAbsent(
+            String.valueOf(config.getUid()), key -> RateLimiter.create(requestsPerSecond));
+    Timer timer =
+        Timer.builder(METRIC_PREFIX + ".requests")
+            .description("Time spent sending chunks of SMS gateway requests")
+            .tag("gateway", gatewayName)
+            .register(meterRegistry);
+
+    CompletableFuture<?>[] chunks =
+        Lists.partition(requests, REQUESTS_PER_CHUNK).stream()
+            .map(
+                chunk ->
+                    CompletableFuture.runAsync(
+                        () -> {
+                          rateLimiter.acquire(chunk.size());
+                          timer.record(() -> send(gateway, config, chunk));
+                          countRecipients(gatewayName, chunk);
+                        },
+                        executor))
+            .toArray(CompletableFuture[]::new);
+
+    CompletableFuture.allOf(chunks).join();
+  }
+
+  private void send(SmsGateway gateway, SmsGatewayConfig config, List<GatewayRequest> chunk) {
+    List<OutboundMessage> messages = chunk.stream().map(GatewayRequest::getMessage).toList();
+    List<OutboundMessageResponse> responses = List.of();
+    GatewayResponse failure = GatewayResponse.FAILED;
+
+    try {
+      responses =
+          gateway.sendBatch(new OutboundMessageBatch(messages, DeliveryChannel.SMS), config);
+    } catch (RuntimeException ex) {
+      log.error("SMS gateway request failed", ex);
+
+      if (SmsGateway.isConnectFailure(ex)) {
+        failure = GatewayResponse.SERVICE_NOT_AVAILABLE;
+      }
+    }
+
+    for (int i = 0; i < chunk.size(); i++) {
+      chunk
+          .get(i)
+          .setResponse(
+              responses != null && i < responses.size()
+                  ? responses.get(i)
+                  : new OutboundMessageResponse(failure.getResponseMessage(), failure, false));
+    }
+  }
+
+  private void countRecipients(String gatewayName, List<GatewayRequest> chunk) {
+    for (GatewayRequest request : chunk) {
+      String result = request.isSent() ? "sent" : request.isTemporaryFailure() ? "retry" : "failed";
+
+      Counter.builder(METRIC_PREFIX + ".recipients")
+          .description("SMS recipients handed to gateways")
+          .tag("gateway", gatewayName)
+          .tag("result", result)
+          .register(meterRegistry)
+          .increment(request.getMessage().getRecipients().size());
+    }
+  }
+
+  /**
+   * Merges messages with the same subject and text and slices their recipients into requests of at
+   * most the given size.
+   */
+  private static List<GatewayRequest> createRequests(
+      List<OutboundMessage> messages, int maxRecipients) {
+    Map<List<String>, List<Integer>> messagesByContent = new LinkedHashMap<>();
+
+    for (int i = 0; i < messages.size(); i++) {
+      OutboundMessage message = messages.get(i);
+      messagesByContent
+          .computeIfAbsent(
+              Lists.newArrayList(message.getSubject(), message.getText()), key -> new ArrayList<>())
+          .add(i);
+    }
+
+    List<GatewayRequest> requests = new ArrayList<>();
+
+    for (List<Integer> indexes : messagesByContent.values()) {
+      OutboundMessage first = messages.get(indexes.get(0));
+      GatewayRequest request = null;
+
+      for (int index : indexes) {
+        for (String recipient : messages.get(index).getRecipients()) {
+          if (request == null || request.isFull(maxRecipients)) {
+            request = new GatewayRequest(first.getSubject(), first.getText());
+            requests.add(request);
+          }
+
+          request.add(index, recipient);
+        }
+      }
+    }
+
+    return requests;
+  }
+
+  private static List<OutboundMessageResponse> getMessageResponses(
+      List<OutboundMessage> messages, List<GatewayRequest> requests) {
+    List<OutboundMessageResponse> responses = new ArrayList<>(messages.size());
+
+    for (int i = 0; i < messages.size(); i++) {
+      responses.add(null);
+    }
+
+    for (GatewayRequest request : requests) {
+      for (int index : request.getMessageIndexes()) {
+        OutboundMessageResponse current = responses.get(index);
+
+        if (current == null || (isSent(current) && !request.isSent())) {
+          responses.set(index, request.getResponse());
+        }
+      }
+    }
+
+    for (int i = 0; i < messages.size(); i++) {
+      if (responses.get(i) == null) {
+        responses.set(
+            i,
+            new OutboundMessageResponse(
+                GatewayResponse.NO_RECIPIENT.getResponseMessage(),
+                GatewayResponse.NO_RECIPIENT,
+                false));
+      }
+    }
+
+    return responses;
+  }
+
+  private static boolean isSent(OutboundMessageResponse response) {
+    return response != null
+        && response.getResponseObject() instanceof GatewayResponse gatewayResponse
+        && SENT.contains(gatewayResponse);
+  }
+
+  private static boolean sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+      return true;
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  /** The recipients of one gateway request and the messages they were taken from. */
+  @Getter
+  private static final class GatewayRequest {
+    private final OutboundMessage message;
+
+    private final Set<Integer> messageIndexes = new LinkedHashSet<>();
+
+    @Setter private volatile OutboundMessageResponse response;
+
+    GatewayRequest(String subject, String text) {
+      this.message = new OutboundMessage(subject, text, new LinkedHashSet<>());
+    }
+
+    void add(int messageIndex, String recipient) {
+      message.getRecipients().add(recipient);
+      messageIndexes.add(messageIndex);
+    }
+
+    boolean isFull(int maxRecipients) {
+      return message.getRecipients().size() >= maxRecipients;
+    }
+
+    boolean isSent() {
+      return SmsBatchDispatcher.isSent(response);
+    }
+
+    boolean isTemporaryFailure() {
+      return response != null
+          && response.getResponseObject() instanceof GatewayResponse gatewayResponse
+          && TEMPORARY_FAILURES.contains(gatewayResponse);
+    }
+  }
+}
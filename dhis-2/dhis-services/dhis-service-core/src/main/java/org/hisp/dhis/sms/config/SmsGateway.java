@@ -28,10 +28,14 @@
 package org.hisp.dhis.sms.config;
 
 import com.google.common.collect.ImmutableMap;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
 import java.util.Base64;
 import java.util.List;
 import java.util.Set;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.hisp.dhis.outboundmessage.OutboundMessageBatch;
 import org.hisp.dhis.outboundmessage.OutboundMessageResponse;
 import org.hisp.dhis.sms.outbound.GatewayResponse;
@@ -47,6 +51,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
 /**
@@ -64,6 +69,9 @@ public abstract class SmsGateway {
 
   public static final String KEY_RECIPIENT = "recipients";
 
+  /** Number of recipients sent in a single request to gateways without a known limit. */
+  public static final int DEFAULT_MAX_RECIPIENTS_PER_REQUEST = 200;
+
   public static final Set<HttpStatus> OK_CODES =
       Set.of(HttpStatus.OK, HttpStatus.ACCEPTED, HttpStatus.CREATED);
 
@@ -79,6 +87,7 @@ public abstract class SmsGateway {
           .put(HttpStatus.NOT_FOUND, GatewayResponse.RESULT_CODE_404)
           .put(HttpStatus.METHOD_NOT_ALLOWED, GatewayResponse.RESULT_CODE_405)
           .put(HttpStatus.GONE, GatewayResponse.RESULT_CODE_410)
+          .put(HttpStatus.TOO_MANY_REQUESTS, GatewayResponse.RESULT_CODE_429)
           .put(HttpStatus.SERVICE_UNAVAILABLE, GatewayResponse.RESULT_CODE_503)
           .put(HttpStatus.FORBIDDEN, GatewayResponse.RESULT_CODE_403)
           .put(HttpStatus.INTERNAL_SERVER_ERROR, GatewayResponse.RESULT_CODE_504)
@@ -98,6 +107,13 @@ public abstract class SmsGateway {
   protected abstract OutboundMessageResponse send(
       String subject, String text, Set<String> recipients, SmsGatewayConfig gatewayConfig);
 
+  /**
+   * @return the maximum number of recipients the gateway accepts in a single request
+   */
+  public int getMaxRecipientsPerRequest() {
+    return DEFAULT_MAX_RECIPIENTS_PER_REQUEST;
+  }
+
   public HttpStatus send(
       String urlTemplate, HttpEntity<?> request, HttpMethod httpMethod, Class<?> klass) {
     ResponseEntity<?> response;
@@ -115,6 +131,11 @@ public abstract class SmsGateway {
       log.error("Sms request server error", ex);
 
       statusCode = HttpUtils.resolve(ex.getStatusCode());
+    } catch (ResourceAccessException ex) {
+      log.error("Sms request I/O error", ex);
+
+      statusCode =
+          isConnectFailure(ex) ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.INTERNAL_SERVER_ERROR;
     } catch (Exception ex) {
       log.error("Sms request error", ex);
 
@@ -126,6 +147,23 @@ public abstract class SmsGateway {
     return statusCode;
   }
 
+  /**
+   * Indicates whether the given exception was caused by a failure to connect to the gateway, in
+   * which case the request was never sent and can safely be sent again. Timeouts and other I/O
+   * errors are not connect failures, as the gateway may have accepted the request.
+   *
+   * @param ex the exception
+   * @return true if the exception was caused by a failure to connect
+   */
+  static boolean isConnectFailure(Throwable ex) {
+    return ExceptionUtils.getThrowableList(ex).stream()
+        .anyMatch(
+            t ->
+                t instanceof ConnectException
+                    || t instanceof NoRouteToHostException
+                    || t instanceof UnknownHostException);
+  }
+
   public OutboundMessageResponse wrapHttpStatus(HttpStatus httpStatus) {
     GatewayResponse gatewayResponse;
 
@@ -45,7 +45,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 import org.hisp.dhis.common.DeliveryChannel;
 import org.hisp.dhis.message.MessageSender;
-import org.hisp.dhis.outboundmessage.OutboundMessage;
 import org.hisp.dhis.outboundmessage.OutboundMessageBatch;
 import org.hisp.dhis.outboundmessage.OutboundMessageBatchStatus;
 import org.hisp.dhis.outboundmessage.OutboundMessageResponse;
@@ -88,6 +87,7 @@ public class SmsMessageSender implements MessageSender {
   private final OutboundSmsService outboundSmsService;
   private final SystemSettingsProvider settingsProvider;
   private final AuthenticationService authenticationService;
+  private final SmsBatchDispatcher smsBatchDispatcher;
 
   @Override
   public OutboundMessageResponse sendMessage(
@@ -173,11 +173,10 @@ public class SmsMessageSender implements MessageSender {
         .getMessages()
         .forEach(item -> item.setRecipients(normalizePhoneNumbers(item.getRecipients())));
 
-    sliceBatchMessages(batch);
-
     for (SmsGateway smsGateway : smsGateways) {
       if (smsGateway.accept(defaultGateway)) {
-        List<OutboundMessageResponse> responses = smsGateway.sendBatch(batch, defaultGateway);
+        List<OutboundMessageResponse> responses =
+            smsBatchDispatcher.dispatch(smsGateway, defaultGateway, batch.getMessages());
 
         return generateSummary(responses, batch);
       }
@@ -244,27 +243,6 @@ public class SmsMessageSender implements MessageSender {
     return to.stream().map(SmsUtils::removePhoneNumberPrefix).collect(Collectors.toSet());
   }
 
-  private void sliceBatchMessages(OutboundMessageBatch batch) {
-    List<OutboundMessage> messages;
-
-    messages =
-        batch.getMessages().stream()
-            .flatMap(m -> sliceMessageRecipients(m).stream())
-            .collect(Collectors.toList());
-
-    batch.setMessages(messages);
-  }
-
-  private List<OutboundMessage> sliceMessageRecipients(OutboundMessage message) {
-    List<String> temp = new ArrayList<>(message.getRecipients());
-
-    List<List<String>> slices = Lists.partition(temp, MAX_RECIPIENTS_ALLOWED);
-
-    return slices.stream()
-        .map(to -> new OutboundMessage(message.getSubject(), message.getText(), new HashSet<>(to)))
-        .collect(Collectors.toList());
-  }
-
   private void handleResponse(OutboundMessageResponse status, OutboundSms sms) {
     Set<GatewayResponse> okCodes =
         Sets.newHashSet(
@@ -29,12 +29,14 @@ package org.hisp.dhis.sms.hibernate;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.criteria.CriteriaBuilder;
+import java.util.Date;
 import java.util.List;
 import org.hisp.dhis.common.hibernate.HibernateIdentifiableObjectStore;
 import org.hisp.dhis.hibernate.JpaQueryParameters;
 import org.hisp.dhis.query.JpaQueryUtils;
 import org.hisp.dhis.security.acl.AclService;
 import org.hisp.dhis.sms.incoming.IncomingSms;
+import org.hisp.dhis.sms.incoming.IncomingSmsClaim;
 import org.hisp.dhis.sms.incoming.IncomingSmsStore;
 import org.hisp.dhis.sms.incoming.SmsMessageStatus;
 import org.springframework.context.ApplicationEventPublisher;
@@ -137,4 +139,52 @@ public class HibernateIncomingSmsStore extends HibernateIdentifiableObjectStore<
 
     return getList(builder, parameters);
   }
+
+  @Override
+  public List<IncomingSmsClaim> claimIncomingSms(
+      int limit, String createdBy, Date staleClaimBefore) {
+    String sql =
+        """
+        with claimed as (
+          update incomingsms set status = ?, claimed = now()
+          where id in (
+            select id from incomingsms
+            where (status = ? or (status = ? and claimed < ?))
+            and (userid is null or userid = (select userinfoid from userinfo where uid = ?))
+            order by id limit ? for update skip locked)
+          returning id, originator, userid)
+        select c.id, c.originator, u.uid
+        from claimed c
+        left join userinfo u on u.userinfoid = c.userid
+        order by c.id""";
+
+    return jdbcTemplate.query(
+        sql,
+        (rs, rowNum) -> new IncomingSmsClaim(rs.getLong(1), rs.getString(2), rs.getString(3)),
+        SmsMessageStatus.PROCESSING.ordinal(),
+        SmsMessageStatus.INCOMING.ordinal(),
+        SmsMessageStatus.PROCESSING.ordinal(),
+        staleClaimBefore,
+        createdBy,
+        limit);
+  }
+
+  @Override
+  public int expireIncomingSms(Date receivedBefore) {
+    return jdbcTemplate.update(
+        "update incomingsms set status = ? where status = ? and receiveddate < ?",
+        SmsMessageStatus.UNHANDLED.ordinal(),
+        SmsMessageStatus.INCOMING.ordinal(),
+        receivedBefore);
+  }
+
+  @Override
+  public long countIncomingSms() {
+    Long count =
+        jdbcTemplate.queryForObject(
+            "select count(*) from incomingsms where status = ?",
+            Long.class,
+            SmsMessageStatus.INCOMING.ordinal());
+    return count == null ? 0 : count;
+  }
 }
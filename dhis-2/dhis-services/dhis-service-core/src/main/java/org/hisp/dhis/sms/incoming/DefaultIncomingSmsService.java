@@ -124,4 +124,23 @@ public class DefaultIncomingSmsService implements IncomingSmsService {
   public List<IncomingSms> getAllUnparsedMessages() {
     return incomingSmsStore.getAllUnparsedMessages();
   }
+
+  @Override
+  @Transactional
+  public List<IncomingSmsClaim> claimIncomingSms(
+      int limit, String createdBy, Date staleClaimBefore) {
+    return incomingSmsStore.claimIncomingSms(limit, createdBy, staleClaimBefore);
+  }
+
+  @Override
+  @Transactional
+  public int expireIncomingSms(Date receivedBefore) {
+    return incomingSmsStore.expireIncomingSms(receivedBefore);
+  }
+
+  @Override
+  @Transactional(readOnly = true)
+  public long countIncomingSms() {
+    return incomingSmsStore.countIncomingSms();
+  }
 }
@@ -27,32 +27,25 @@
  */
 package org.hisp.dhis.sms.job;
 
-import java.util.List;
 import lombok.RequiredArgsConstructor;
-import org.hisp.dhis.message.MessageSender;
 import org.hisp.dhis.scheduling.Job;
 import org.hisp.dhis.scheduling.JobConfiguration;
 import org.hisp.dhis.scheduling.JobProgress;
 import org.hisp.dhis.scheduling.JobType;
 import org.hisp.dhis.scheduling.parameters.SmsInboundProcessingJobParameters;
-import org.hisp.dhis.sms.incoming.IncomingSms;
-import org.hisp.dhis.sms.incoming.IncomingSmsListener;
-import org.hisp.dhis.sms.incoming.IncomingSmsService;
-import org.hisp.dhis.sms.incoming.SmsMessageStatus;
 import org.hisp.dhis.user.CurrentUserUtil;
 import org.hisp.dhis.user.UserDetails;
-import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 
+/**
+ * Started for each received SMS as the user the SMS was received for, but processes all SMS of that
+ * user waiting at that time using the {@link InboundSmsProcessor}. Jobs started for SMS that were
+ * already processed by an earlier job complete without doing any work.
+ */
 @Component
 @RequiredArgsConstructor
 public class InboundSmsProcessingJob implements Job {
-  private final IncomingSmsService incomingSmsService;
-
-  private final List<IncomingSmsListener> listeners;
-
-  @Qualifier("smsMessageSender")
-  private final MessageSender smsSender;
+  private final InboundSmsProcessor inboundSmsProcessor;
 
   @Override
   public JobType getJobType() {
@@ -63,48 +56,13 @@ public class InboundSmsProcessingJob implements Job {
   public void execute(JobConfiguration config, JobProgress progress) {
     SmsInboundProcessingJobParameters params =
         (SmsInboundProcessingJobParameters) config.getJobParameters();
-    progress.startingProcess("Process incoming SMS with UID {}", params.getSms());
-
-    IncomingSms sms = incomingSmsService.get(params.getSms());
-    if (sms == null) {
-      progress.failedProcess("No incoming SMS found for UID {}", params.getSms());
-      return;
-    }
-
-    UserDetails smsCreatedBy = CurrentUserUtil.getCurrentUserDetails();
-    if (sms.getCreatedBy() == null || !smsCreatedBy.getId().equals(sms.getCreatedBy().getId())) {
-      sms.setStatus(SmsMessageStatus.FAILED);
-      sms.setParsed(false);
-      incomingSmsService.update(sms);
-
-      progress.failedProcess(
-          "IncomingSms createdBy user {} does not match user {} running job {}",
-          sms.getCreatedBy(),
-          smsCreatedBy.getId(),
-          params.getSms());
-      return;
-    }
-
-    try {
-      for (IncomingSmsListener listener : listeners) {
-        if (listener.accept(sms)) {
-          listener.receive(sms, smsCreatedBy);
-          progress.completedProcess("Processed SMS with UID {}", params.getSms());
-          return;
-        }
-      }
-
-      sms.setStatus(SmsMessageStatus.UNHANDLED);
-      incomingSmsService.update(sms);
-      smsSender.sendMessage(null, "No command found", sms.getOriginator());
+    progress.startingProcess(
+        "Process incoming SMS received up to SMS with UID {}", params.getSms());
 
-      progress.failedProcess("No command found for SMS with UID {}", params.getSms());
-    } catch (Exception e) {
-      sms.setStatus(SmsMessageStatus.FAILED);
-      sms.setParsed(false);
-      incomingSmsService.update(sms);
+    UserDetails user = CurrentUserUtil.getCurrentUserDetails();
+    progress.startingStage("Processing incoming SMS of user {}", user.getUsername());
+    int processed = progress.runStage(0, () -> inboundSmsProcessor.processBacklog(user));
 
-      progress.failedProcess(e);
-    }
+    progress.completedProcess("Processed {} incoming SMS", processed);
   }
 }
@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.sms.job;
+
+import static java.util.stream.Collectors.groupingBy;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.message.MessageSender;
+import org.hisp.dhis.sms.incoming.IncomingSms;
+import org.hisp.dhis.sms.incoming.IncomingSmsClaim;
+import org.hisp.dhis.sms.incoming.IncomingSmsListener;
+import org.hisp.dhis.sms.incoming.IncomingSmsService;
+import org.hisp.dhis.sms.incoming.SmsMessageStatus;
+import org.hisp.dhis.user.AuthenticationService;
+import org.hisp.dhis.user.UserDetails;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Processes the backlog of {@link SmsMessageStatus#INCOMING} SMS of a user.
+ *
+ * <p>Messages are claimed in batches, so several nodes can work on the backlog at the same time
+ * without processing a message twice. Each batch is partitioned by originator: the messages of one
+ * sender are processed one after another in the order they were received, while different senders
+ * are processed concurrently on a pool of {@link ConfigurationKey#SMS_INBOUND_PARALLELISM} threads.
+ * This order is only guaranteed within a batch. Messages of the same sender claimed by different
+ * batches, on another node or by a concurrent job, can be processed in parallel.
+ *
+ * <p>Only the messages received for the user running the backlog are claimed and they are processed
+ * with the authority of that user. Messages received for other users are left for the jobs started
+ * for them. Claimed messages without a user, or, should this ever happen, of another user, are
+ * marked {@link SmsMessageStatus#FAILED}.
+ *
+ * <p>Messages received more than {@link ConfigurationKey#SMS_INBOUND_MAX_AGE} hours ago are marked
+ * {@link SmsMessageStatus#UNHANDLED} without processing them, so that senders are not answered for
+ * messages they sent long ago. Messages still {@link SmsMessageStatus#PROCESSING} an hour after
+ * they were claimed, because the node processing them stopped, are claimed and processed again.
+ */
+@Slf4j
+@Component
+public class InboundSmsProcessor {
+
+  private static final String METRIC_PREFIX = "sms.inbound";
+
+  private static final int CLAIM_BATCH_SIZE = 200;
+
+  private static final Duration CLAIM_LEASE = Duration.ofHours(1);
+
+  private final IncomingSmsService incomingSmsService;
+
+  private final List<IncomingSmsListener> listeners;
+
+  private final MessageSender smsSender;
+
+  private final AuthenticationService authenticationService;
+
+  private final Duration maxAge;
+
+  private final ExecutorService executor;
+
+  private final AtomicLong backlog = new AtomicLong();
+
+  private final Timer processingTimer;
+
+  private final Counter expiredCounter;
+
+  public InboundSmsProcessor(
+      IncomingSmsService incomingSmsService,
+      List<IncomingSmsListener> listeners,
+      @Qualifier("smsMessageSender") MessageSender smsSender,
+      AuthenticationService authenticationService,
+      DhisConfigurationProvider config,
+      MeterRegistry meterRegistry) {
+    this.incomingSmsService = incomingSmsService;
+    this.listeners = listeners;
+    this.smsSender = smsSender;
+    this.authenticationService = authenticationService;
+    this.maxAge =
+        Duration.ofHours(Math.max(1, config.getIntProperty(ConfigurationKey.SMS_INBOUND_MAX_AGE)));
+    this.executor =
+        Executors.newFixedThreadPool(
+            Math.max(1, config.getIntProperty(ConfigurationKey.SMS_INBOUND_PARALLELISM)),
+            new ThreadFactoryBuilder().setNameFormat("SMS-INBOUND-%d").setDaemon(true).build());
+    this.processingTimer =
+        Timer.builder(METRIC_PREFIX + ".processing")
+            .description("Time spent processing a single incoming SMS")
+            .register(meterRegistry);
+    this.expiredCounter =
+        Counter.builder(METRIC_PREFIX + ".expired")
+            .description("Incoming SMS marked unhandled because they were too old to be processed")
+            .register(meterRegistry);
+    Gauge.builder(METRIC_PREFIX + ".backlog", backlog, AtomicLong::get)
+        .description("Incoming SMS of all users waiting to be processed")
+        .register(meterRegistry);
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * Processes incoming SMS of the given user until none are left to claim.
+   *
+   * @param user the user running the backlog, only messages received for this user are processed
+   * @return number of SMS processed by this call
+   */
+  public int processBacklog(UserDetails user) {
+    expire();
+
+    int processed = 0;
+    List<IncomingSmsClaim> batch = claim(user);
+
+    while (!batch.isEmpty()) {
+      backlog.set(incomingSmsService.countIncomingSms());
+
+      CompletableFuture<?>[] senders =
+          batch.stream()
+              .collect(
+                  groupingBy(IncomingSmsClaim::originator, LinkedHashMap::new, Collectors.toList()))
+              .values()
+              .stream()
+              .map(
+                  messages ->
+                      CompletableFuture.runAsync(
+                          () -> messages.forEach(claim -> process(claim, user)), executor))
+              .toArray(CompletableFuture[]::new);
+      CompletableFuture.allOf(senders).join();
+
+      processed += batch.size();
+      batch = claim(user);
+    }
+
+    backlog.set(incomingSmsService.countIncomingSms());
+    return processed;
+  }
+
+  // -------------------------------------------------------------------------
+  // Supportive methods
+  // -------------------------------------------------------------------------
+
+  private void expire() {
+    int expired = incomingSmsService.expireIncomingSms(Date.from(Instant.now().minus(maxAge)));
+    if (expired > 0) {
+      expiredCounter.increment(expired);
+      log.warn(
+          "Marked {} incoming SMS received more than {} hours ago as {} without processing them",
+          expired,
+          maxAge.toHours(),
+          SmsMessageStatus.UNHANDLED);
+    }
+  }
+
+  private List<IncomingSmsClaim> claim(UserDetails user) {
+    return incomingSmsService.claimIncomingSms(
+        CLAIM_BATCH_SIZE, user.getUid(), Date.from(Instant.now().minus(CLAIM_LEASE)));
+  }
+
+  private void process(IncomingSmsClaim claim, UserDetails user) {
+    processingTimer.record(
+        () -> {
+          try {
+            process(claim, user, incomingSmsService.get(claim.id()));
+          } catch (Exception ex) {
+            log.error("Failed to process incoming SMS with ID {}", claim.id(), ex);
+          } finally {
+            authenticationService.clearAuthentication();
+          }
+        });
+  }
+
+  private void process(IncomingSmsClaim claim, UserDetails user, IncomingSms sms) throws Exception {
+    if (sms == null) {
+      return;
+    }
+
+    if (claim.createdBy() == null) {
+      log.warn("Incoming SMS with UID {} has no user and cannot be processed", sms.getUid());
+      markFailed(sms);
+      return;
+    }
+
+    if (!claim.createdBy().equals(user.getUid())) {
+      log.warn(
+          "Incoming SMS with UID {} was received for user {} but not user {} processing it",
+          sms.getUid(),
+          claim.createdBy(),
+          user.getUid());
+      markFailed(sms);
+      return;
+    }
+
+    try {
+      // the worker thread has no security context of its own, it runs as the job's user
+      authenticationService.obtainAuthentication(user.getUid());
+
+      for (IncomingSmsListener listener : listeners) {
+        if (listener.accept(sms)) {
+          listener.receive(sms, user);
+          return;
+        }
+      }
+
+      sms.setStatus(SmsMessageStatus.UNHANDLED);
+      incomingSmsService.update(sms);
+      smsSender.sendMessage(null, "No command found", sms.getOriginator());
+    } catch (Exception ex) {
+      markFailed(sms);
+      throw ex;
+    }
+  }
+
+  private void markFailed(IncomingSms sms) {
+    sms.setStatus(SmsMessageStatus.FAILED);
+    sms.setParsed(false);
+    incomingSmsService.update(sms);
+  }
+}
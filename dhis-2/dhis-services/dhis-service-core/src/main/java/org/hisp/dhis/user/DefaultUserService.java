@@ -46,7 +46,6 @@ import java.util.Calendar;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
@@ -70,6 +69,8 @@ import org.hisp.dhis.common.IdentifiableObject;
 import org.hisp.dhis.common.PasswordGenerator;
 import org.hisp.dhis.common.UID;
 import org.hisp.dhis.common.UserOrgUnitType;
+import org.hisp.dhis.common.cache.Region;
+import org.hisp.dhis.common.event.CacheInvalidationEvent;
 import org.hisp.dhis.dataset.DataSet;
 import org.hisp.dhis.email.EmailResponse;
 import org.hisp.dhis.feedback.ConflictException;
@@ -92,10 +93,15 @@ import org.hisp.dhis.system.velocity.VelocityManager;
 import org.hisp.dhis.util.DateUtils;
 import org.hisp.dhis.util.ObjectUtils;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
 import org.springframework.security.core.session.SessionInformation;
 import org.springframework.security.core.session.SessionRegistry;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.client.RestTemplate;
@@ -128,6 +134,16 @@ public class DefaultUserService implements UserService {
   private final Cache<Integer> userFailedLoginAttemptCache;
   private final Cache<Integer> userAccountRecoverAttemptCache;
   private final Cache<Integer> twoFaDisableFailedAttemptCache;
+  private final Cache<UserOrgUnitIds> userOrgUnitIdsCache;
+
+  /** Loads cached state in its own read-write transaction so that it is read from the primary. */
+  private final TransactionTemplate primaryTransactionTemplate;
+
+  /** Guards the generation together with the {@link #userOrgUnitIdsCache} entries. */
+  private final Object userOrgUnitIdsLock = new Object();
+
+  /** Incremented on every invalidation of the {@link #userOrgUnitIdsCache}. */
+  private long userOrgUnitIdsGeneration;
 
   public DefaultUserService(
       UserSettingsService userSettingsService,
@@ -143,7 +159,8 @@ public class DefaultUserService implements UserService {
       PasswordManager passwordManager,
       AclService aclService,
       OrganisationUnitService organisationUnitService,
-      SessionRegistry sessionRegistry) {
+      SessionRegistry sessionRegistry,
+      PlatformTransactionManager transactionManager) {
 
     checkNotNull(userStore);
     checkNotNull(userGroupService);
@@ -159,6 +176,7 @@ public class DefaultUserService implements UserService {
     checkNotNull(emailMessageSender);
     checkNotNull(i18nManager);
     checkNotNull(jsonMapper);
+    checkNotNull(transactionManager);
 
     this.userStore = userStore;
     this.userGroupService = userGroupService;
@@ -166,6 +184,7 @@ public class DefaultUserService implements UserService {
     this.settingsProvider = settingsProvider;
     this.passwordManager = passwordManager;
     this.userDisplayNameCache = cacheProvider.createUserDisplayNameCache();
+    this.userOrgUnitIdsCache = cacheProvider.createUserOrgUnitIdsCache();
     this.aclService = aclService;
     this.organisationUnitService = organisationUnitService;
     this.sessionRegistry = sessionRegistry;
@@ -178,6 +197,9 @@ public class DefaultUserService implements UserService {
     this.userFailedLoginAttemptCache = cacheProvider.createUserFailedLoginAttemptCache(0);
     this.userAccountRecoverAttemptCache = cacheProvider.createUserAccountRecoverAttemptCache(0);
     this.twoFaDisableFailedAttemptCache = cacheProvider.createDisable2FAFailedAttemptCache(0);
+    this.primaryTransactionTemplate = new TransactionTemplate(transactionManager);
+    this.primaryTransactionTemplate.setPropagationBehavior(
+        TransactionDefinition.PROPAGATION_REQUIRES_NEW);
   }
 
   @Override
@@ -883,20 +905,72 @@ public class DefaultUserService implements UserService {
               username, enabled, accountNonExpired, credentialsNonExpired, accountNonLocked));
     }
 
-    List<String> organisationUnitsUidsByUser =
-        organisationUnitService.getOrganisationUnitsUidsByUser(user.getUsername());
-    List<String> searchOrganisationUnitsUidsByUser =
-        organisationUnitService.getSearchOrganisationUnitsUidsByUser(user.getUsername());
-    List<String> dataViewOrganisationUnitsUidsByUser =
-        organisationUnitService.getDataViewOrganisationUnitsUidsByUser(user.getUsername());
-
     return UserDetails.createUserDetails(
-        user,
-        accountNonLocked,
-        credentialsNonExpired,
-        new HashSet<>(organisationUnitsUidsByUser),
-        new HashSet<>(searchOrganisationUnitsUidsByUser),
-        new HashSet<>(dataViewOrganisationUnitsUidsByUser));
+        user, accountNonLocked, credentialsNonExpired, getUserOrgUnitIds(username));
+  }
+
+  /**
+   * The org unit IDs are cached for all requests of the user. Only committed state read from the
+   * primary is cached, as a read replica may lag behind an invalidation. Within a read-write
+   * transaction the IDs are loaded but not cached, as they may include uncommitted changes.
+   *
+   * <p>An invalidation while the IDs are loaded would be lost if the loaded IDs were put
+   * afterwards. Each invalidation therefore increments a generation, and the IDs are only put if
+   * the generation did not change since the load started.
+   */
+  @Override
+  @Nonnull
+  public UserOrgUnitIds getUserOrgUnitIds(@Nonnull String username) {
+    UserOrgUnitIds cached = userOrgUnitIdsCache.getIfPresent(username).orElse(null);
+
+    if (cached != null) {
+      return cached;
+    }
+
+    if (TransactionSynchronizationManager.isActualTransactionActive()
+        && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+      return loadUserOrgUnitIds(username);
+    }
+
+    long generation;
+    synchronized (userOrgUnitIdsLock) {
+      generation = userOrgUnitIdsGeneration;
+    }
+    UserOrgUnitIds loaded =
+        primaryTransactionTemplate.execute(status -> loadUserOrgUnitIds(username));
+    synchronized (userOrgUnitIdsLock) {
+      if (generation == userOrgUnitIdsGeneration) {
+        userOrgUnitIdsCache.put(username, loaded);
+      }
+    }
+    return loaded;
+  }
+
+  /**
+   * Invalidations of the region are handled here as well as by the {@link CacheProvider}, so that
+   * the generation changes together with the entries. Invalidations from other servers arrive as
+   * the same events.
+   */
+  @EventListener
+  public void handleCacheInvalidationEvent(CacheInvalidationEvent event) {
+    if (event.getRegion() != Region.userOrgUnitIdsCache) {
+      return;
+    }
+    synchronized (userOrgUnitIdsLock) {
+      userOrgUnitIdsGeneration++;
+      if (event.getKey() != null) {
+        userOrgUnitIdsCache.invalidate(event.getKey());
+      } else {
+        userOrgUnitIdsCache.invalidateAll();
+      }
+    }
+  }
+
+  private UserOrgUnitIds loadUserOrgUnitIds(String username) {
+    return UserOrgUnitIds.of(
+        organisationUnitService.getOrganisationUnitsUidsByUser(username),
+        organisationUnitService.getSearchOrganisationUnitsUidsByUser(username),
+        organisationUnitService.getDataViewOrganisationUnitsUidsByUser(username));
   }
 
   @Override
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.dataapproval;
+
+import static org.hisp.dhis.test.TestBase.createCategoryOptionCombo;
+import static org.hisp.dhis.test.TestBase.createOrganisationUnit;
+import static org.hisp.dhis.test.TestBase.createPeriod;
+import static org.hisp.dhis.test.TestBase.injectSecurityContextNoSettings;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.hisp.dhis.category.CategoryOptionCombo;
+import org.hisp.dhis.common.IdentifiableObjectManager;
+import org.hisp.dhis.organisationunit.OrganisationUnit;
+import org.hisp.dhis.period.Period;
+import org.hisp.dhis.setting.SystemSettings;
+import org.hisp.dhis.setting.SystemSettingsProvider;
+import org.hisp.dhis.user.User;
+import org.hisp.dhis.user.UserDetails;
+import org.hisp.dhis.user.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class DefaultDataApprovalServiceTest {
+  @Mock private DataApprovalStore dataApprovalStore;
+
+  @Mock private DataApprovalAuditStore dataApprovalAuditStore;
+
+  @Mock private DataApprovalWorkflowStore workflowStore;
+
+  @Mock private DataApprovalLevelService dataApprovalLevelService;
+
+  @Mock private IdentifiableObjectManager idObjectManager;
+
+  @Mock private SystemSettingsProvider settingsProvider;
+
+  @Mock private SystemSettings settings;
+
+  @Mock private UserService userService;
+
+  @InjectMocks private DefaultDataApprovalService service;
+
+  private final DataApprovalWorkflow workflow = new DataApprovalWorkflow("Workflow");
+
+  private final Period period = createPeriod("202401");
+
+  private final CategoryOptionCombo aocA = createCategoryOptionCombo('C', 'A');
+
+  private final CategoryOptionCombo aocB = createCategoryOptionCombo('C', 'B');
+
+  private OrganisationUnit parent;
+
+  private OrganisationUnit childA;
+
+  private OrganisationUnit childB;
+
+  private OrganisationUnit childC;
+
+  @BeforeEach
+  void setUp() {
+    User user = new User();
+    user.setUsername("admin");
+    injectSecurityContextNoSettings(UserDetails.fromUser(user));
+
+    when(userService.getUserByUsername(anyString())).thenReturn(user);
+    when(settingsProvider.getCurrentSettings()).thenReturn(settings);
+
+    parent = createOrganisationUnit('P');
+    childA = createOrganisationUnit('A', parent);
+    childB = createOrganisationUnit('B', parent);
+    childC = createOrganisationUnit('C', parent);
+
+    when(dataApprovalStore.getDataApprovalStatuses(
+            eq(workflow), eq(period), any(), anyInt(), any(), any(), any(), any(), any()))
+        .thenAnswer(
+            invocation -> {
+              Collection<OrganisationUnit> orgUnits = invocation.getArgument(2);
+              Set<CategoryOptionCombo> aocs = invocation.getArgument(6);
+              List<DataApprovalStatus> statuses = new ArrayList<>();
+              for (OrganisationUnit orgUnit : orgUnits) {
+                for (CategoryOptionCombo aoc : aocs) {
+                  statuses.add(
+                      DataApprovalStatus.builder()
+                          .state(DataApprovalState.UNAPPROVED_READY)
+                          .organisationUnitUid(orgUnit.getUid())
+                          .attributeOptionComboUid(aoc.getUid())
+                          .build());
+                }
+              }
+              return statuses;
+            });
+  }
+
+  @Test
+  void testGetDataApprovalStatusesFetchesOnceForEachOrgUnitLevel() {
+    List<DataApproval> approvals =
+        List.of(
+            new DataApproval(null, workflow, period, childA, aocA),
+            new DataApproval(null, workflow, period, childB, aocA),
+            new DataApproval(null, workflow, period, childC, aocB),
+            new DataApproval(null, workflow, period, parent, aocA));
+
+    Map<DataApproval, DataApprovalStatus> statuses = service.getDataApprovalStatuses(approvals);
+
+    assertEquals(4, statuses.size());
+    for (DataApproval approval : approvals) {
+      DataApprovalStatus status = statuses.get(approval);
+      assertEquals(approval.getOrganisationUnit().getUid(), status.getOrganisationUnitUid());
+      assertEquals(
+          approval.getAttributeOptionCombo().getUid(), status.getAttributeOptionComboUid());
+      assertEquals(DataApprovalState.UNAPPROVED_READY, status.getState());
+    }
+
+    verify(dataApprovalStore, times(1))
+        .getDataApprovalStatuses(
+            eq(workflow),
+            eq(period),
+            eq(Set.of(childA, childB, childC)),
+            eq(2),
+            any(),
+            any(),
+            eq(Set.of(aocA, aocB)),
+            any(),
+            any());
+    verify(dataApprovalStore, times(1))
+        .getDataApprovalStatuses(
+            eq(workflow),
+            eq(period),
+            eq(Set.of(parent)),
+            eq(1),
+            any(),
+            any(),
+            eq(Set.of(aocA)),
+            any(),
+            any());
+    verify(userService, times(2)).getUserByUsername(anyString());
+  }
+
+  @Test
+  void testGetDataApprovalStatusesLeavesOutUnrequestedCombinations() {
+    DataApproval approvalA = new DataApproval(null, workflow, period, childA, aocA);
+    DataApproval approvalB = new DataApproval(null, workflow, period, childB, aocB);
+
+    Map<DataApproval, DataApprovalStatus> statuses =
+        service.getDataApprovalStatuses(List.of(approvalA, approvalB));
+
+    assertEquals(aocA.getUid(), statuses.get(approvalA).getAttributeOptionComboUid());
+    assertEquals(aocB.getUid(), statuses.get(approvalB).getAttributeOptionComboUid());
+    assertNull(statuses.get(new DataApproval(null, workflow, period, childA, aocB)));
+  }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.gist;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hisp.dhis.attribute.Attribute;
+import org.hisp.dhis.common.cache.Region;
+import org.hisp.dhis.common.event.CacheInvalidationEvent;
+import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.user.User;
+import org.hisp.dhis.user.UserGroup;
+import org.hisp.dhis.user.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+@ExtendWith(MockitoExtension.class)
+class GistCacheEventListenerTest {
+
+  @Mock private ApplicationEventPublisher publisher;
+
+  @Mock private EntityPersister persister;
+
+  private GistCacheEventListener listener;
+
+  @BeforeEach
+  void setUp() {
+    listener = new GistCacheEventListener(publisher);
+  }
+
+  @Test
+  void testRequiresPostCommitHandlingOnlyForAccessAndAttributes() {
+    assertTrue(requiresPostCommitHandling(Attribute.class));
+    assertTrue(requiresPostCommitHandling(User.class));
+    assertTrue(requiresPostCommitHandling(UserRole.class));
+    assertTrue(requiresPostCommitHandling(UserGroup.class));
+    assertFalse(requiresPostCommitHandling(DataElement.class));
+  }
+
+  @Test
+  void testAttributeChangesInvalidateAll() {
+    Attribute attribute = new Attribute();
+    listener.onPostInsert(new PostInsertEvent(attribute, 1L, null, persister, null));
+    listener.onPostUpdate(new PostUpdateEvent(attribute, 1L, null, null, null, persister, null));
+    listener.onPostDelete(new PostDeleteEvent(attribute, 1L, null, persister, null));
+
+    assertInvalidatedAll(3);
+  }
+
+  @Test
+  void testUserUpdateDoesNotInvalidate() {
+    listener.onPostUpdate(new PostUpdateEvent(new User(), 1L, null, null, null, persister, null));
+
+    verify(publisher, never()).publishEvent(any(CacheInvalidationEvent.class));
+  }
+
+  @Test
+  void testUserGroupDeleteInvalidatesAll() {
+    listener.onPostDelete(new PostDeleteEvent(new UserGroup(), 1L, null, persister, null));
+
+    assertInvalidatedAll(1);
+  }
+
+  @Test
+  void testUserGroupMembersChangeInvalidatesAll() {
+    listener.onPostUpdateCollection(collectionUpdate(new UserGroup()));
+
+    assertInvalidatedAll(1);
+  }
+
+  @Test
+  void testOtherCollectionChangesDoNotInvalidate() {
+    listener.onPostUpdateCollection(collectionUpdate(new DataElement()));
+
+    verify(publisher, never()).publishEvent(any(CacheInvalidationEvent.class));
+  }
+
+  private boolean requiresPostCommitHandling(Class<?> type) {
+    when(persister.getMappedClass()).thenReturn((Class) type);
+    return listener.requiresPostCommitHanding(persister);
+  }
+
+  private static PostCollectionUpdateEvent collectionUpdate(Object owner) {
+    PostCollectionUpdateEvent event = mock(PostCollectionUpdateEvent.class);
+    when(event.getAffectedOwnerOrNull()).thenReturn(owner);
+    return event;
+  }
+
+  private void assertInvalidatedAll(int times) {
+    ArgumentCaptor<CacheInvalidationEvent> events =
+        ArgumentCaptor.forClass(CacheInvalidationEvent.class);
+    verify(publisher, times(times * 2)).publishEvent(events.capture());
+    List<Region> regions =
+        events.getAllValues().stream().map(CacheInvalidationEvent::getRegion).toList();
+    for (int i = 0; i < times; i++) {
+      assertEquals(Region.gistPlanCache, regions.get(2 * i));
+      assertEquals(Region.gistQueryCache, regions.get(2 * i + 1));
+    }
+    events.getAllValues().forEach(event -> assertNull(event.getKey()));
+  }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.gist;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.dataelement.DataElementGroup;
+import org.hisp.dhis.gist.GistQuery.Field;
+import org.hisp.dhis.gist.GistQuery.Filter;
+import org.hisp.dhis.gist.GistQuery.Order;
+import org.hisp.dhis.gist.GistQuery.Owner;
+import org.junit.jupiter.api.Test;
+
+/** Tests which {@link GistQuery} properties are part of the {@link GistCacheKey}s. */
+class GistCacheKeyTest {
+
+  @Test
+  void testOfQuery_SameShapeDifferentValues() {
+    assertEquals(
+        GistCacheKey.ofQuery(query("name:like:a", "de1"), "user1"),
+        GistCacheKey.ofQuery(query("name:like:b", "de2"), "user1"));
+  }
+
+  @Test
+  void testOfQuery_DifferentUser() {
+    assertNotEquals(
+        GistCacheKey.ofQuery(query("name:like:a", "de1"), "user1"),
+        GistCacheKey.ofQuery(query("name:like:a", "de1"), "user2"));
+  }
+
+  @Test
+  void testOfQuery_DifferentOperator() {
+    assertNotEquals(
+        GistCacheKey.ofQuery(query("name:like:a", "de1"), "user1"),
+        GistCacheKey.ofQuery(query("name:ilike:a", "de1"), "user1"));
+  }
+
+  @Test
+  void testOfQuery_DifferentFields() {
+    GistQuery query = query("name:like:a", "de1");
+    assertNotEquals(
+        GistCacheKey.ofQuery(query, "user1"),
+        GistCacheKey.ofQuery(query.withFields(List.of(Field.parse("code"))), "user1"));
+  }
+
+  @Test
+  void testOfQuery_NumericOrderCompare() {
+    assertNotEquals(
+        GistCacheKey.ofQuery(query("name:gt:5", "de1"), "user1"),
+        GistCacheKey.ofQuery(query("name:gt:b", "de1"), "user1"));
+  }
+
+  @Test
+  void testOfQuery_AccessFilterValues() {
+    assertNotEquals(
+        GistCacheKey.ofQuery(query("sharing:canRead:user1", "de1"), "user1"),
+        GistCacheKey.ofQuery(query("sharing:canRead:user2", "de1"), "user1"));
+  }
+
+  @Test
+  void testOfQuery_FromTransformation() {
+    GistQuery query = query("name:like:a", "de1");
+    assertNull(
+        GistCacheKey.ofQuery(
+            query.withFields(List.of(Field.parse("displayName~from(name,shortName)"))), "user1"));
+  }
+
+  @Test
+  void testOfPlan_SameFields() {
+    assertEquals(
+        GistCacheKey.ofPlan(query("name:like:a", "de1"), "user1"),
+        GistCacheKey.ofPlan(query("code:eq:b", "de2"), "user1"));
+    assertNotEquals(
+        GistCacheKey.ofPlan(query("name:like:a", "de1"), "user1"),
+        GistCacheKey.ofPlan(query("name:like:a", "de1"), "user2"));
+  }
+
+  private static GistQuery query(String filter, String ownerId) {
+    return GistQuery.builder()
+        .elementType(DataElement.class)
+        .owner(new Owner(DataElementGroup.class, ownerId, "members"))
+        .fields(List.of(Field.parse("id"), Field.parse("name")))
+        .filters(List.of(Filter.parse(filter)))
+        .orders(List.of(Order.parse("name")))
+        .build();
+  }
+}
@@ -32,6 +32,7 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyInt;
 import static org.mockito.Mockito.anyList;
 import static org.mockito.Mockito.anyLong;
 import static org.mockito.Mockito.never;
@@ -118,6 +119,8 @@ class ProgramNotificationServiceTest extends TestBase {
 
   @Mock private ProgramNotificationTemplateService notificationTemplateService;
 
+  @Mock private ProgramNotificationInstanceStore notificationInstanceStore;
+
   @Mock private EntityManager entityManager;
 
   @Mock private JdbcTemplate jdbcTemplate;
@@ -186,6 +189,7 @@ class ProgramNotificationServiceTest extends TestBase {
             this.programStageNotificationRenderer,
             notificationTemplateService,
             notificationTemplateMapper,
+            notificationInstanceStore,
             entityManager,
             jdbcTemplate,
             applicationEventPublisher);
@@ -607,7 +611,8 @@ class ProgramNotificationServiceTest extends TestBase {
               return new BatchResponseStatus(Collections.emptyList());
             });
 
-    when(manager.getAll(ProgramNotificationInstance.class))
+    when(notificationInstanceStore.getScheduledProgramNotificationInstances(
+            any(Date.class), any(Date.class), anyLong(), anyInt()))
         .thenReturn(Collections.singletonList(programNotificationInstaceForToday));
 
     when(programNotificationRenderer.render(any(Enrollment.class), any(NotificationTemplate.class)))
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.reservedvalue;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class SequentialNumberBlockAllocatorTest {
+
+  private static final BigInteger MAX_VALUE = BigInteger.TEN.pow(6);
+
+  @Mock private SequentialNumberCounterStore counterStore;
+
+  @Mock private DhisConfigurationProvider config;
+
+  private final AtomicInteger counter = new AtomicInteger(1);
+
+  private SequentialNumberBlockAllocator allocator;
+
+  @BeforeEach
+  void setUp() {
+    when(config.getIntProperty(ConfigurationKey.RESERVED_VALUES_SEQUENTIAL_BLOCK_SIZE))
+        .thenReturn(100);
+    allocator = new SequentialNumberBlockAllocator(counterStore, config, new SimpleMeterRegistry());
+  }
+
+  @Test
+  void testGetNextValues_FromBlock() {
+    mockIncrementCounter();
+
+    assertEquals(List.of(1, 2, 3), allocator.getNextValues("uid", "key", 3, MAX_VALUE));
+    assertEquals(List.of(4, 5), allocator.getNextValues("uid", "key", 2, MAX_VALUE));
+
+    verify(counterStore, times(1)).incrementCounter("uid", "key", 100);
+  }
+
+  @Test
+  void testGetNextValues_KeepsLeftoverOfContiguousBlock() {
+    mockIncrementCounter();
+
+    allocator.getNextValues("uid", "key", 98, MAX_VALUE);
+    assertEquals(List.of(99, 100, 101), allocator.getNextValues("uid", "key", 3, MAX_VALUE));
+  }
+
+  @Test
+  void testGetNextValues_SkipsLeftoverWhenOthersTookValues() {
+    mockIncrementCounter();
+
+    allocator.getNextValues("uid", "key", 98, MAX_VALUE);
+    counter.addAndGet(10); // another node
+    assertEquals(List.of(111, 112, 113), allocator.getNextValues("uid", "key", 3, MAX_VALUE));
+  }
+
+  @Test
+  void testGetNextValues_SmallSegmentsDoNotUseBlocks() {
+    when(counterStore.getNextValues("uid", "key", 2)).thenReturn(List.of(1, 2));
+
+    assertEquals(List.of(1, 2), allocator.getNextValues("uid", "key", 2, BigInteger.valueOf(100)));
+  }
+
+  @Test
+  void testGetNextValues_Concurrent() throws InterruptedException {
+    mockIncrementCounter();
+    Set<Integer> values = ConcurrentHashMap.newKeySet();
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    IntStream.range(0, 400)
+        .forEach(
+            i ->
+                executor.execute(
+                    () -> values.addAll(allocator.getNextValues("uid", "key", 3, MAX_VALUE))));
+    executor.shutdown();
+    executor.awaitTermination(10, TimeUnit.SECONDS);
+
+    assertEquals(1200, values.size());
+  }
+
+  @Test
+  void testReleaseBlocks() {
+    mockIncrementCounter();
+    when(counterStore.releaseCounter("uid", "key", 101, 4)).thenReturn(true);
+
+    allocator.getNextValues("uid", "key", 3, MAX_VALUE);
+    allocator.releaseBlocks();
+
+    verify(counterStore).releaseCounter("uid", "key", 101, 4);
+  }
+
+  private void mockIncrementCounter() {
+    when(counterStore.incrementCounter(anyString(), eq("key"), anyInt()))
+        .thenAnswer(call -> counter.addAndGet(call.getArgument(2, Integer.class)));
+  }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.schema;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import java.util.Date;
+import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.schema.SchemaChangeTracker.Fingerprint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class DefaultSchemaChangeTrackerTest {
+  @Mock private SchemaService schemaService;
+
+  @Mock private EntityManager entityManager;
+
+  @Mock private DhisConfigurationProvider config;
+
+  @Mock private PlatformTransactionManager transactionManager;
+
+  @Mock private Query query;
+
+  private DefaultSchemaChangeTracker tracker;
+
+  private final Date lastUpdated = new Date(1_000_000L);
+
+  @BeforeEach
+  void setUp() {
+    Schema schema = new Schema(DataElement.class, "dataElement", "dataElements");
+    schema.setPersisted(true);
+
+    when(config.isEnabled(ConfigurationKey.METADATA_CHANGE_TRACKING_ENABLED)).thenReturn(true);
+    when(config.getIntProperty(ConfigurationKey.METADATA_CHANGE_TRACKING_TTL)).thenReturn(60);
+    when(schemaService.getSchema(DataElement.class)).thenReturn(schema);
+    when(entityManager.createQuery(anyString())).thenReturn(query);
+
+    tracker =
+        new DefaultSchemaChangeTracker(schemaService, entityManager, config, transactionManager);
+  }
+
+  @Test
+  void testFingerprintIsCached() {
+    when(query.getSingleResult()).thenReturn(new Object[] {lastUpdated, 5L});
+
+    Fingerprint first = tracker.getFingerprint(DataElement.class);
+    Fingerprint second = tracker.getFingerprint(DataElement.class);
+
+    assertEquals(first, second);
+    verify(query, times(1)).getSingleResult();
+  }
+
+  @Test
+  void testFingerprintIsReadInReadWriteTransaction() {
+    when(query.getSingleResult()).thenReturn(new Object[] {lastUpdated, 5L});
+
+    tracker.getFingerprint(DataElement.class);
+
+    verify(transactionManager)
+        .getTransaction(
+            argThat(
+                definition ->
+                    !definition.isReadOnly()
+                        && definition.getPropagationBehavior()
+                            == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+  }
+
+  @Test
+  void testFingerprintChangesOnDelete() {
+    when(query.getSingleResult())
+        .thenReturn(new Object[] {lastUpdated, 5L})
+        .thenReturn(new Object[] {lastUpdated, 4L});
+
+    Fingerprint before = tracker.getFingerprint(DataElement.class);
+    tracker.changed(DataElement.class);
+    Fingerprint after = tracker.getFingerprint(DataElement.class);
+
+    assertNotEquals(before.version(), after.version());
+    assertTrue(after.lastModified().after(lastUpdated));
+  }
+
+  @Test
+  void testFingerprintKeptWhenUnchanged() {
+    when(query.getSingleResult()).thenReturn(new Object[] {lastUpdated, 5L});
+
+    Fingerprint before = tracker.getFingerprint(DataElement.class);
+    tracker.changed(DataElement.class);
+    Fingerprint after = tracker.getFingerprint(DataElement.class);
+
+    assertEquals(before, after);
+    verify(query, times(2)).getSingleResult();
+  }
+
+  @Test
+  void testUntrackedType() {
+    assertNull(tracker.getFingerprint(String.class));
+    assertFalse(tracker.isTracked(String.class));
+    assertTrue(tracker.isTracked(DataElement.class));
+  }
+
+  @Test
+  void testDisabled() {
+    when(config.isEnabled(ConfigurationKey.METADATA_CHANGE_TRACKING_ENABLED)).thenReturn(false);
+
+    assertNull(tracker.getFingerprint(DataElement.class));
+    assertFalse(tracker.isTracked(DataElement.class));
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.security.basic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.tuple.entity.EntityMetamodel;
+import org.hisp.dhis.common.cache.Region;
+import org.hisp.dhis.common.event.CacheInvalidationEvent;
+import org.hisp.dhis.dataelement.DataElement;
+import org.hisp.dhis.user.User;
+import org.hisp.dhis.user.UserGroup;
+import org.hisp.dhis.user.UserRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+@ExtendWith(MockitoExtension.class)
+class BasicAuthCacheEventListenerTest {
+
+  private static final String[] PROPERTY_NAMES = {"username", "lastLogin", "disabled"};
+
+  @Mock private ApplicationEventPublisher publisher;
+
+  @Mock private EntityPersister persister;
+
+  @Mock private EntityMetamodel entityMetamodel;
+
+  private BasicAuthCacheEventListener listener;
+
+  @BeforeEach
+  void setUp() {
+    listener = new BasicAuthCacheEventListener(publisher);
+    lenient().when(persister.getPropertyNames()).thenReturn(PROPERTY_NAMES);
+    lenient().when(persister.getEntityMetamodel()).thenReturn(entityMetamodel);
+    lenient().when(entityMetamodel.getPropertyIndex("username")).thenReturn(0);
+  }
+
+  @Test
+  void testRequiresPostCommitHandlingOnlyForUsersRolesAndGroups() {
+    assertTrue(requiresPostCommitHandling(User.class));
+    assertTrue(requiresPostCommitHandling(UserRole.class));
+    assertTrue(requiresPostCommitHandling(UserGroup.class));
+    assertFalse(requiresPostCommitHandling(DataElement.class));
+  }
+
+  @Test
+  void testUserUpdateInvalidatesUser() {
+    listener.onPostUpdate(userUpdate("admin", "admin", 2));
+
+    assertEquals(List.of("admin"), getInvalidatedKeys());
+  }
+
+  @Test
+  void testUsernameChangeInvalidatesOldAndNewUsername() {
+    listener.onPostUpdate(userUpdate("admin", "root", 0));
+
+    assertEquals(List.of("admin", "root"), getInvalidatedKeys());
+  }
+
+  @Test
+  void testLoginOnlyUpdateDoesNotInvalidate() {
+    listener.onPostUpdate(userUpdate("admin", "admin", 1));
+
+    verify(publisher, never()).publishEvent(any(CacheInvalidationEvent.class));
+  }
+
+  @Test
+  void testUserRoleDeleteInvalidatesAllUsers() {
+    listener.onPostDelete(new PostDeleteEvent(new UserRole(), 1L, null, persister, null));
+
+    List<CacheInvalidationEvent> events = getInvalidations();
+    assertEquals(1, events.size());
+    assertNull(events.get(0).getKey());
+  }
+
+  private boolean requiresPostCommitHandling(Class<?> type) {
+    when(persister.getMappedClass()).thenReturn((Class) type);
+    return listener.requiresPostCommitHanding(persister);
+  }
+
+  private PostUpdateEvent userUpdate(String oldUsername, String username, int dirtyProperty) {
+    User user = new User();
+    user.setUsername(username);
+    Object[] oldState = {oldUsername, null, false};
+    Object[] state = {username, null, false};
+    return new PostUpdateEvent(
+        user, 1L, state, oldState, new int[] {dirtyProperty}, persister, null);
+  }
+
+  private List<CacheInvalidationEvent> getInvalidations() {
+    ArgumentCaptor<CacheInvalidationEvent> events =
+        ArgumentCaptor.forClass(CacheInvalidationEvent.class);
+    verify(publisher, atLeastOnce()).publishEvent(events.capture());
+    return events.getAllValues().stream()
+        .filter(event -> event.getRegion() == Region.basicAuthCredentialsCache)
+        .toList();
+  }
+
+  private List<String> getInvalidatedKeys() {
+    return getInvalidations().stream().map(CacheInvalidationEvent::getKey).toList();
+  }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.security.basic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hisp.dhis.cache.CacheProvider;
+import org.hisp.dhis.common.cache.Region;
+import org.hisp.dhis.common.event.CacheInvalidationEvent;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.test.cache.TestCache;
+import org.hisp.dhis.user.UserDetails;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class BasicAuthCredentialsCacheTest {
+
+  @Mock private CacheProvider cacheProvider;
+
+  @Mock private DhisConfigurationProvider config;
+
+  @Mock private UserDetails userDetails;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private final TestCache<Object> cache = new TestCache<>();
+
+  @BeforeEach
+  void setUp() {
+    when(cacheProvider.createBasicAuthCredentialsCache()).thenReturn(cache);
+  }
+
+  @Test
+  void testGet_SameCredentials() {
+    BasicAuthCredentialsCache credentialsCache = createCache(true);
+    credentialsCache.put("admin", "district", userDetails, 0);
+
+    assertSame(userDetails, credentialsCache.get("admin", "district").orElseThrow());
+    assertEquals(1, count("hit"));
+  }
+
+  @Test
+  void testGet_OtherPassword() {
+    BasicAuthCredentialsCache credentialsCache = createCache(true);
+    credentialsCache.put("admin", "district", userDetails, 0);
+
+    assertTrue(credentialsCache.get("admin", "District").isEmpty());
+    assertTrue(credentialsCache.get("admin", "").isEmpty());
+    assertEquals(2, count("miss"));
+  }
+
+  @Test
+  void testGet_Invalidated() {
+    BasicAuthCredentialsCache credentialsCache = createCache(true);
+    credentialsCache.put("admin", "district", userDetails, 0);
+    cache.invalidate("admin");
+
+    assertTrue(credentialsCache.get("admin", "district").isEmpty());
+  }
+
+  @Test
+  void testPut_InvalidatedDuringAuthentication() {
+    BasicAuthCredentialsCache credentialsCache = createCache(true);
+    long generation = credentialsCache.getGeneration();
+    credentialsCache.handleCacheInvalidationEvent(
+        new CacheInvalidationEvent(this, Region.basicAuthCredentialsCache, "admin"));
+    credentialsCache.put("admin", "district", userDetails, generation);
+
+    assertTrue(credentialsCache.get("admin", "district").isEmpty());
+
+    credentialsCache.put("admin", "district", userDetails, credentialsCache.getGeneration());
+
+    assertSame(userDetails, credentialsCache.get("admin", "district").orElseThrow());
+  }
+
+  @Test
+  void testHandleCacheInvalidationEvent_OtherRegion() {
+    BasicAuthCredentialsCache credentialsCache = createCache(true);
+    long generation = credentialsCache.getGeneration();
+    credentialsCache.handleCacheInvalidationEvent(
+        new CacheInvalidationEvent(this, Region.apiTokensCache, null));
+
+    assertEquals(generation, credentialsCache.getGeneration());
+  }
+
+  @Test
+  void testGet_ClusterWithoutCacheInvalidation() {
+    when(config.isClusterEnabled()).thenReturn(true);
+    BasicAuthCredentialsCache credentialsCache = createCache(true);
+    credentialsCache.put("admin", "district", userDetails, 0);
+
+    assertTrue(credentialsCache.get("admin", "district").isEmpty());
+  }
+
+  @Test
+  void testGet_Disabled() {
+    BasicAuthCredentialsCache credentialsCache = createCache(false);
+    credentialsCache.put("admin", "district", userDetails, 0);
+
+    assertTrue(credentialsCache.get("admin", "district").isEmpty());
+    assertTrue(cache.getAll().findAny().isEmpty());
+  }
+
+  private BasicAuthCredentialsCache createCache(boolean enabled) {
+    when(config.isEnabled(ConfigurationKey.BASIC_AUTH_CACHE_ENABLED)).thenReturn(enabled);
+    return new BasicAuthCredentialsCache(cacheProvider, config, meterRegistry);
+  }
+
+  private double count(String result) {
+    return meterRegistry.counter("security.basic_auth.cache", "result", result).count();
+  }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.security.spring2fa;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.hisp.dhis.cache.CacheProvider;
+import org.hisp.dhis.common.cache.Region;
+import org.hisp.dhis.common.event.CacheInvalidationEvent;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.security.basic.BasicAuthCredentialsCache;
+import org.hisp.dhis.security.basic.HttpBasicWebAuthenticationDetails;
+import org.hisp.dhis.security.twofa.TwoFactorAuthService;
+import org.hisp.dhis.test.cache.TestCache;
+import org.hisp.dhis.user.UserDetails;
+import org.hisp.dhis.user.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+@ExtendWith(MockitoExtension.class)
+class TwoFactorAuthenticationProviderTest {
+
+  @Mock private UserDetailsService userDetailsService;
+
+  @Mock private PasswordEncoder passwordEncoder;
+
+  @Mock private UserService userService;
+
+  @Mock private TwoFactorAuthService twoFactorAuthService;
+
+  @Mock private DhisConfigurationProvider config;
+
+  @Mock private CacheProvider cacheProvider;
+
+  @Mock private UserDetails userDetails;
+
+  private BasicAuthCredentialsCache credentialsCache;
+
+  private TwoFactorAuthenticationProvider provider;
+
+  @BeforeEach
+  void setUp() {
+    when(cacheProvider.createBasicAuthCredentialsCache()).thenReturn(new TestCache<>());
+    when(config.isEnabled(ConfigurationKey.BASIC_AUTH_CACHE_ENABLED)).thenReturn(true);
+    credentialsCache =
+        new BasicAuthCredentialsCache(cacheProvider, config, new SimpleMeterRegistry());
+    provider =
+        new TwoFactorAuthenticationProvider(
+            userDetailsService,
+            passwordEncoder,
+            userService,
+            twoFactorAuthService,
+            config,
+            credentialsCache);
+
+    lenient().when(userDetails.getUsername()).thenReturn("admin");
+    lenient().when(userDetails.getPassword()).thenReturn("hash");
+    lenient().when(userDetails.isAccountNonLocked()).thenReturn(true);
+    lenient().when(userDetails.isAccountNonExpired()).thenReturn(true);
+    lenient().when(userDetails.isCredentialsNonExpired()).thenReturn(true);
+    lenient().when(userDetails.isEnabled()).thenReturn(true);
+    lenient().when(userDetailsService.loadUserByUsername("admin")).thenReturn(userDetails);
+    lenient().when(passwordEncoder.matches("district", "hash")).thenReturn(true);
+  }
+
+  @Test
+  void testBasicAuthSkipsUserLookupForVerifiedCredentials() {
+    assertSame(userDetails, provider.authenticate(basicAuth("district")).getPrincipal());
+    assertSame(userDetails, provider.authenticate(basicAuth("district")).getPrincipal());
+
+    verify(userDetailsService, times(1)).loadUserByUsername("admin");
+    verify(passwordEncoder, times(1)).matches(anyString(), anyString());
+    verify(userService, times(2)).isLocked("admin");
+  }
+
+  @Test
+  void testBasicAuthChecksAccountForVerifiedCredentials() {
+    provider.authenticate(basicAuth("district"));
+    when(userDetails.isEnabled()).thenReturn(false);
+
+    Authentication auth = basicAuth("district");
+    assertThrows(DisabledException.class, () -> provider.authenticate(auth));
+  }
+
+  @Test
+  void testBasicAuthDoesNotRememberCredentialsInvalidatedDuringAuthentication() {
+    when(userDetailsService.loadUserByUsername("admin"))
+        .thenAnswer(
+            invocation -> {
+              credentialsCache.handleCacheInvalidationEvent(
+                  new CacheInvalidationEvent(this, Region.basicAuthCredentialsCache, "admin"));
+              return userDetails;
+            })
+        .thenReturn(userDetails);
+
+    provider.authenticate(basicAuth("district"));
+    provider.authenticate(basicAuth("district"));
+
+    verify(userDetailsService, times(2)).loadUserByUsername("admin");
+  }
+
+  @Test
+  void testFormLoginDoesNotRememberCredentials() {
+    provider.authenticate(UsernamePasswordAuthenticationToken.unauthenticated("admin", "district"));
+    provider.authenticate(basicAuth("district"));
+
+    verify(userDetailsService, times(2)).loadUserByUsername("admin");
+  }
+
+  private static Authentication basicAuth(String password) {
+    UsernamePasswordAuthenticationToken auth =
+        UsernamePasswordAuthenticationToken.unauthenticated("admin", password);
+    auth.setDetails(new HttpBasicWebAuthenticationDetails(mock(HttpServletRequest.class)));
+    return auth;
+  }
+}
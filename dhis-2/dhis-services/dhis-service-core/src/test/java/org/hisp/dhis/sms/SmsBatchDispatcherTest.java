@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.sms;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.outboundmessage.OutboundMessage;
+import org.hisp.dhis.outboundmessage.OutboundMessageResponse;
+import org.hisp.dhis.sms.config.BulkSmsGatewayConfig;
+import org.hisp.dhis.sms.config.SmsBatchDispatcher;
+import org.hisp.dhis.sms.config.SmsGatewayConfig;
+import org.hisp.dhis.sms.outbound.GatewayResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.client.ResourceAccessException;
+
+@ExtendWith(MockitoExtension.class)
+class SmsBatchDispatcherTest {
+  @Mock private DhisConfigurationProvider config;
+
+  private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private final SmsGatewayConfig gatewayConfig = new BulkSmsGatewayConfig();
+
+  private SmsBatchDispatcher dispatcher;
+
+  @BeforeEach
+  void setUp() {
+    when(config.getIntProperty(ConfigurationKey.SMS_DISPATCH_CONCURRENCY)).thenReturn(4);
+    when(config.getIntProperty(ConfigurationKey.SMS_DISPATCH_RATE_LIMIT)).thenReturn(1000);
+    when(config.getIntProperty(ConfigurationKey.SMS_DISPATCH_MAX_ATTEMPTS)).thenReturn(2);
+
+    dispatcher = new SmsBatchDispatcher(config, meterRegistry);
+    gatewayConfig.setUid("gateway");
+  }
+
+  @AfterEach
+  void tearDown() {
+    dispatcher.shutdown();
+  }
+
+  @Test
+  void testDispatchMergesMessagesWithSameText() {
+    StubSmsGateway gateway = new StubSmsGateway(10);
+
+    List<OutboundMessageResponse> responses =
+        dispatcher.dispatch(
+            gateway,
+            gatewayConfig,
+            List.of(
+                new OutboundMessage("subject", "text", Set.of("1", "2")),
+                new OutboundMessage("subject", "text", Set.of("2", "3")),
+                new OutboundMessage("subject", "other", Set.of("4"))));
+
+    assertEquals(3, responses.size());
+    assertTrue(responses.stream().allMatch(OutboundMessageResponse::isOk));
+    assertEquals(2, gateway.getRequests().size());
+    assertEquals(Set.of("1", "2", "3"), gateway.getRequests().get(0).getRecipients());
+    assertEquals(Set.of("4"), gateway.getRequests().get(1).getRecipients());
+  }
+
+  @Test
+  void testDispatchSlicesRecipientsByGatewayLimit() {
+    StubSmsGateway gateway = new StubSmsGateway(100);
+
+    List<OutboundMessageResponse> responses =
+        dispatcher.dispatch(
+            gateway,
+            gatewayConfig,
+            List.of(new OutboundMessage("subject", "text", recipients(1050))));
+
+    assertEquals(1, responses.size());
+    assertTrue(responses.get(0).isOk());
+    assertEquals(11, gateway.getRequests().size());
+    assertTrue(gateway.getRequests().stream().allMatch(r -> r.getRecipients().size() <= 100));
+    assertEquals(
+        1050, gateway.getRequests().stream().mapToInt(r -> r.getRecipients().size()).sum());
+    assertEquals(
+        1050, meterRegistry.get("sms.outbound.recipients").tag("result", "sent").counter().count());
+  }
+
+  @Test
+  void testDispatchRetriesTemporaryFailures() {
+    StubSmsGateway gateway = new StubSmsGateway(10).respondWith(GatewayResponse.RESULT_CODE_503);
+
+    List<OutboundMessageResponse> responses =
+        dispatcher.dispatch(
+            gateway, gatewayConfig, List.of(new OutboundMessage("subject", "text", Set.of("1"))));
+
+    assertTrue(responses.get(0).isOk());
+    assertEquals(2, gateway.getRequests().size());
+  }
+
+  @Test
+  void testDispatchDoesNotRetryPermanentFailures() {
+    StubSmsGateway gateway = new StubSmsGateway(10).respondWith(GatewayResponse.RESULT_CODE_401);
+
+    List<OutboundMessageResponse> responses =
+        dispatcher.dispatch(
+            gateway, gatewayConfig, List.of(new OutboundMessage("subject", "text", Set.of("1"))));
+
+    assertFalse(responses.get(0).isOk());
+    assertEquals(GatewayResponse.RESULT_CODE_401, responses.get(0).getResponseObject());
+    assertEquals(1, gateway.getRequests().size());
+  }
+
+  @Test
+  void testDispatchDoesNotRetryServerErrors() {
+    StubSmsGateway gateway = new StubSmsGateway(10).respondWith(GatewayResponse.RESULT_CODE_504);
+
+    List<OutboundMessageResponse> responses =
+        dispatcher.dispatch(
+            gateway, gatewayConfig, List.of(new OutboundMessage("subject", "text", Set.of("1"))));
+
+    assertFalse(responses.get(0).isOk());
+    assertEquals(GatewayResponse.RESULT_CODE_504, responses.get(0).getResponseObject());
+    assertEquals(1, gateway.getRequests().size());
+  }
+
+  @Test
+  void testDispatchDoesNotRetryTimeouts() {
+    StubSmsGateway gateway =
+        new StubSmsGateway(10)
+            .failWith(
+                new ResourceAccessException(
+                    "timeout", new SocketTimeoutException("Read timed out")));
+
+    List<OutboundMessageResponse> responses =
+        dispatcher.dispatch(
+            gateway, gatewayConfig, List.of(new OutboundMessage("subject", "text", Set.of("1"))));
+
+    assertFalse(responses.get(0).isOk());
+    assertEquals(GatewayResponse.FAILED, responses.get(0).getResponseObject());
+    assertEquals(1, gateway.getRequests().size());
+  }
+
+  @Test
+  void testDispatchRetriesConnectFailures() {
+    StubSmsGateway gateway =
+        new StubSmsGateway(10)
+            .failWith(
+                new ResourceAccessException("refused", new ConnectException("Connection refused")));
+
+    List<OutboundMessageResponse> responses =
+        dispatcher.dispatch(
+            gateway, gatewayConfig, List.of(new OutboundMessage("subject", "text", Set.of("1"))));
+
+    assertTrue(responses.get(0).isOk());
+    assertEquals(2, gateway.getRequests().size());
+  }
+
+  private static Set<String> recipients(int count) {
+    return IntStream.range(0, count).mapToObj(i -> "4740" + i).collect(Collectors.toSet());
+  }
+}
@@ -43,6 +43,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.common.collect.Sets;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
@@ -52,6 +53,8 @@ import java.util.stream.Collectors;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.hisp.dhis.common.DeliveryChannel;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.message.MessageSender;
 import org.hisp.dhis.outboundmessage.OutboundMessage;
 import org.hisp.dhis.outboundmessage.OutboundMessageBatch;
@@ -64,6 +67,7 @@ import org.hisp.dhis.setting.UserSettings;
 import org.hisp.dhis.sms.config.BulkSmsGatewayConfig;
 import org.hisp.dhis.sms.config.BulkSmsHttpGateway;
 import org.hisp.dhis.sms.config.GatewayAdministrationService;
+import org.hisp.dhis.sms.config.SmsBatchDispatcher;
 import org.hisp.dhis.sms.config.SmsGateway;
 import org.hisp.dhis.sms.config.SmsGatewayConfig;
 import org.hisp.dhis.sms.config.SmsMessageSender;
@@ -107,6 +111,8 @@ class SmsMessageSenderTest {
 
   @Mock private AuthenticationService authenticationService;
 
+  @Mock private DhisConfigurationProvider config;
+
   private SmsGatewayConfig smsGatewayConfig;
 
   private OutboundMessageResponse okStatus;
@@ -141,6 +147,10 @@ class SmsMessageSenderTest {
 
     setUp();
 
+    when(config.getIntProperty(ConfigurationKey.SMS_DISPATCH_CONCURRENCY)).thenReturn(2);
+    when(config.getIntProperty(ConfigurationKey.SMS_DISPATCH_RATE_LIMIT)).thenReturn(1000);
+    when(config.getIntProperty(ConfigurationKey.SMS_DISPATCH_MAX_ATTEMPTS)).thenReturn(1);
+
     ArrayList<SmsGateway> smsGateways = new ArrayList<>();
 
     smsGateways.add(bulkSmsGateway);
@@ -152,12 +162,16 @@ class SmsMessageSenderTest {
             userSettingsService,
             outboundSmsService,
             settingsProvider,
-            authenticationService);
+            authenticationService,
+            new SmsBatchDispatcher(config, new SimpleMeterRegistry()));
   }
 
   private void mockGateway() {
     // stub for SmsGateways
     when(bulkSmsGateway.accept(any())).thenReturn(true);
+    Mockito.lenient()
+        .when(bulkSmsGateway.getMaxRecipientsPerRequest())
+        .thenReturn(MAX_ALLOWED_RECIPIENTS);
     Mockito.lenient()
         .when(
             bulkSmsGateway.send(
@@ -410,9 +424,10 @@ class SmsMessageSenderTest {
     assertEquals(OutboundMessageBatchStatus.COMPLETED, summary.getBatchStatus());
 
     verify(bulkSmsGateway, times(1)).sendBatch(argumentCaptor.capture(), any());
-    assertEquals(batch, argumentCaptor.getValue());
 
-    assertEquals(4, argumentCaptor.getValue().size());
+    assertEquals(1, argumentCaptor.getValue().size());
+    assertEquals(
+        recipientsNormalized, argumentCaptor.getValue().getMessages().get(0).getRecipients());
 
     assertEquals(4, summary.getSent());
     assertEquals(4, summary.getTotal());
@@ -425,7 +440,21 @@ class SmsMessageSenderTest {
     when(gatewayAdministrationService.getDefaultGateway()).thenReturn(smsGatewayConfig);
     mockGateway();
 
-    responseForFailedBatch();
+    when(bulkSmsGateway.sendBatch(any(), isA(BulkSmsGatewayConfig.class)))
+        .then(
+            invocation ->
+                invocation.<OutboundMessageBatch>getArgument(0).getMessages().stream()
+                    .map(
+                        message ->
+                            text.equals(message.getText())
+                                ? okStatus
+                                : new OutboundMessageResponse(
+                                    GatewayResponse.FAILED.getResponseMessage(),
+                                    GatewayResponse.FAILED,
+                                    false))
+                    .toList());
+
+    outboundMessages.get(3).setText("another text message");
 
     OutboundMessageBatch batch = new OutboundMessageBatch(outboundMessages, DeliveryChannel.SMS);
 
@@ -438,8 +467,7 @@ class SmsMessageSenderTest {
     assertEquals(OutboundMessageBatchStatus.FAILED, summary.getBatchStatus());
 
     verify(bulkSmsGateway, times(1)).sendBatch(argumentCaptor.capture(), any());
-    assertEquals(batch, argumentCaptor.getValue());
-    assertEquals(4, argumentCaptor.getValue().size());
+    assertEquals(2, argumentCaptor.getValue().size());
 
     assertEquals(3, summary.getSent());
     assertEquals(4, summary.getTotal());
@@ -484,11 +512,14 @@ class SmsMessageSenderTest {
     assertEquals(OutboundMessageBatchStatus.COMPLETED, summary.getBatchStatus());
 
     verify(bulkSmsGateway, times(1)).sendBatch(argumentCaptor.capture(), any());
-    assertEquals(batch, argumentCaptor.getValue());
 
-    assertEquals(6, argumentCaptor.getValue().size());
-    assertEquals(6, summary.getSent());
-    assertEquals(6, summary.getTotal());
+    assertEquals(3, argumentCaptor.getValue().size());
+    argumentCaptor
+        .getValue()
+        .getMessages()
+        .forEach(m -> assertTrue(m.getRecipients().size() <= MAX_ALLOWED_RECIPIENTS));
+    assertEquals(4, summary.getSent());
+    assertEquals(4, summary.getTotal());
     assertEquals(0, summary.getFailed());
     assertEquals(0, summary.getPending());
   }
@@ -513,9 +544,8 @@ class SmsMessageSenderTest {
     assertEquals(OutboundMessageBatchStatus.COMPLETED, summary.getBatchStatus());
 
     verify(bulkSmsGateway, times(1)).sendBatch(argumentCaptor.capture(), any());
-    assertEquals(batch, argumentCaptor.getValue());
 
-    assertEquals(4, argumentCaptor.getValue().size());
+    assertEquals(1, argumentCaptor.getValue().size());
   }
 
   @Test
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.sms;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.hisp.dhis.outboundmessage.OutboundMessage;
+import org.hisp.dhis.outboundmessage.OutboundMessageBatch;
+import org.hisp.dhis.outboundmessage.OutboundMessageResponse;
+import org.hisp.dhis.sms.config.SmsGateway;
+import org.hisp.dhis.sms.config.SmsGatewayConfig;
+import org.hisp.dhis.sms.outbound.GatewayResponse;
+
+/**
+ * A {@link SmsGateway} which sends nothing. It accepts any configuration, records the requests it
+ * receives and answers them with the queued responses, or with success once the queue is empty.
+ * Queued exceptions are thrown by whole batches before any response is given.
+ */
+public class StubSmsGateway extends SmsGateway {
+  private final int maxRecipientsPerRequest;
+
+  private final Queue<GatewayResponse> responses = new ConcurrentLinkedQueue<>();
+
+  private final Queue<RuntimeException> failures = new ConcurrentLinkedQueue<>();
+
+  private final List<OutboundMessage> requests = Collections.synchronizedList(new ArrayList<>());
+
+  public StubSmsGateway(int maxRecipientsPerRequest) {
+    this.maxRecipientsPerRequest = maxRecipientsPerRequest;
+  }
+
+  /** Queues the responses given to the next requests, in order. */
+  public StubSmsGateway respondWith(GatewayResponse... gatewayResponses) {
+    Collections.addAll(responses, gatewayResponses);
+    return this;
+  }
+
+  /** Queues the exceptions thrown by the next batches, in order. */
+  public StubSmsGateway failWith(RuntimeException... exceptions) {
+    Collections.addAll(failures, exceptions);
+    return this;
+  }
+
+  public List<OutboundMessage> getRequests() {
+    return requests;
+  }
+
+  @Override
+  public int getMaxRecipientsPerRequest() {
+    return maxRecipientsPerRequest;
+  }
+
+  @Override
+  public boolean accept(SmsGatewayConfig gatewayConfig) {
+    return true;
+  }
+
+  @Override
+  public List<OutboundMessageResponse> sendBatch(
+      OutboundMessageBatch batch, SmsGatewayConfig gatewayConfig) {
+    RuntimeException failure = failures.poll();
+
+    if (failure != null) {
+      requests.addAll(batch.getMessages());
+      throw failure;
+    }
+
+    return batch.getMessages().stream()
+        .map(m -> send(m.getSubject(), m.getText(), m.getRecipients(), gatewayConfig))
+        .toList();
+  }
+
+  @Override
+  public OutboundMessageResponse send(
+      String subject, String text, Set<String> recipients, SmsGatewayConfig gatewayConfig) {
+    requests.add(new OutboundMessage(subject, text, new HashSet<>(recipients)));
+
+    GatewayResponse response = responses.poll();
+
+    if (response == null) {
+      response = GatewayResponse.RESULT_CODE_0;
+    }
+
+    return new OutboundMessageResponse(
+        response.getResponseMessage(), response, response == GatewayResponse.RESULT_CODE_0);
+  }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.sms.job;
+
+import static org.hisp.dhis.test.TestBase.injectSecurityContextNoSettings;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.hisp.dhis.message.MessageSender;
+import org.hisp.dhis.sms.incoming.IncomingSms;
+import org.hisp.dhis.sms.incoming.IncomingSmsClaim;
+import org.hisp.dhis.sms.incoming.IncomingSmsListener;
+import org.hisp.dhis.sms.incoming.IncomingSmsService;
+import org.hisp.dhis.sms.incoming.SmsMessageStatus;
+import org.hisp.dhis.user.AuthenticationService;
+import org.hisp.dhis.user.User;
+import org.hisp.dhis.user.UserDetails;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class InboundSmsProcessorTest {
+  @Mock private IncomingSmsService incomingSmsService;
+
+  @Mock private IncomingSmsListener listener;
+
+  @Mock private MessageSender smsSender;
+
+  @Mock private AuthenticationService authenticationService;
+
+  @Mock private DhisConfigurationProvider config;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private UserDetails user;
+
+  private InboundSmsProcessor processor;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    when(config.getIntProperty(ConfigurationKey.SMS_INBOUND_PARALLELISM)).thenReturn(4);
+    when(config.getIntProperty(ConfigurationKey.SMS_INBOUND_MAX_AGE)).thenReturn(24);
+
+    processor =
+        new InboundSmsProcessor(
+            incomingSmsService,
+            List.of(listener),
+            smsSender,
+            authenticationService,
+            config,
+            meterRegistry);
+
+    User sms = new User();
+    sms.setUid("user");
+    sms.setUsername("sms");
+    user = UserDetails.fromUser(sms);
+    lenient()
+        .doAnswer(
+            invocation -> {
+              injectSecurityContextNoSettings(user);
+              return null;
+            })
+        .when(authenticationService)
+        .obtainAuthentication(anyString());
+    lenient()
+        .when(incomingSmsService.get(anyLong()))
+        .then(invocation -> createSms(invocation.getArgument(0)));
+  }
+
+  @AfterEach
+  void tearDown() {
+    processor.shutdown();
+  }
+
+  @Test
+  void testProcessBacklogKeepsOrderPerOriginator() {
+    when(incomingSmsService.claimIncomingSms(anyInt(), any(), any()))
+        .thenReturn(
+            List.of(
+                new IncomingSmsClaim(1, "A", "user"),
+                new IncomingSmsClaim(2, "B", "user"),
+                new IncomingSmsClaim(3, "A", "user"),
+                new IncomingSmsClaim(4, "A", "user")))
+        .thenReturn(List.of(new IncomingSmsClaim(5, "A", "user")))
+        .thenReturn(List.of());
+
+    List<String> received = Collections.synchronizedList(new ArrayList<>());
+    when(listener.accept(any())).thenReturn(true);
+    doAnswer(
+            invocation -> {
+              received.add(invocation.<IncomingSms>getArgument(0).getUid());
+              return null;
+            })
+        .when(listener)
+        .receive(any(), any());
+
+    assertEquals(5, processor.processBacklog(user));
+
+    assertEquals(5, received.size());
+    assertEquals(
+        List.of("sms00000001", "sms00000003", "sms00000004", "sms00000005"),
+        received.stream().filter(uid -> !uid.equals("sms00000002")).toList());
+    verify(authenticationService, times(5)).clearAuthentication();
+  }
+
+  @Test
+  void testProcessBacklogFailsSmsWithoutUser() {
+    when(incomingSmsService.claimIncomingSms(anyInt(), any(), any()))
+        .thenReturn(List.of(new IncomingSmsClaim(1, "A", null)))
+        .thenReturn(List.of());
+
+    assertEquals(1, processor.processBacklog(user));
+
+    verify(incomingSmsService).update(argThat(sms -> sms.getStatus() == SmsMessageStatus.FAILED));
+  }
+
+  @Test
+  void testProcessBacklogFailsSmsOfOtherUser() throws Exception {
+    when(incomingSmsService.claimIncomingSms(anyInt(), any(), any()))
+        .thenReturn(List.of(new IncomingSmsClaim(1, "A", "other")))
+        .thenReturn(List.of());
+
+    assertEquals(1, processor.processBacklog(user));
+
+    verify(incomingSmsService).update(argThat(sms -> sms.getStatus() == SmsMessageStatus.FAILED));
+    verify(authenticationService, never()).obtainAuthentication(anyString());
+    verify(listener, never()).receive(any(), any());
+  }
+
+  @Test
+  void testProcessBacklogRepliesWhenNoListenerAccepts() {
+    when(incomingSmsService.claimIncomingSms(anyInt(), any(), any()))
+        .thenReturn(List.of(new IncomingSmsClaim(1, "A", "user")))
+        .thenReturn(List.of());
+    when(listener.accept(any())).thenReturn(false);
+
+    assertEquals(1, processor.processBacklog(user));
+
+    verify(smsSender).sendMessage(null, "No command found", "A");
+  }
+
+  @Test
+  void testProcessBacklogClaimsMessagesOfUserAndStaleClaims() {
+    when(incomingSmsService.claimIncomingSms(anyInt(), any(), any())).thenReturn(List.of());
+
+    Instant start = Instant.now();
+    assertEquals(0, processor.processBacklog(user));
+
+    ArgumentCaptor<Date> staleClaimBefore = ArgumentCaptor.forClass(Date.class);
+    verify(incomingSmsService).claimIncomingSms(anyInt(), eq("user"), staleClaimBefore.capture());
+    assertWithin(start.minus(Duration.ofHours(1)), staleClaimBefore.getValue());
+  }
+
+  @Test
+  void testProcessBacklogExpiresOldMessages() {
+    when(incomingSmsService.expireIncomingSms(any())).thenReturn(3);
+    when(incomingSmsService.claimIncomingSms(anyInt(), any(), any())).thenReturn(List.of());
+
+    Instant start = Instant.now();
+    assertEquals(0, processor.processBacklog(user));
+
+    ArgumentCaptor<Date> receivedBefore = ArgumentCaptor.forClass(Date.class);
+    verify(incomingSmsService).expireIncomingSms(receivedBefore.capture());
+    assertWithin(start.minus(Duration.ofHours(24)), receivedBefore.getValue());
+    assertEquals(3d, meterRegistry.counter("sms.inbound.expired").count());
+  }
+
+  private static void assertWithin(Instant expected, Date actual) {
+    assertTrue(Math.abs(Duration.between(expected, actual.toInstant()).toSeconds()) < 60);
+  }
+
+  private static IncomingSms createSms(long id) {
+    IncomingSms sms = new IncomingSms();
+    sms.setId(id);
+    sms.setUid("sms%08d".formatted(id));
+    sms.setOriginator(id == 2 ? "B" : "A");
+    return sms;
+  }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import java.util.Set;
+import org.hisp.dhis.cache.CacheProvider;
+import org.hisp.dhis.common.cache.Region;
+import org.hisp.dhis.common.event.CacheInvalidationEvent;
+import org.hisp.dhis.i18n.I18nManager;
+import org.hisp.dhis.message.MessageSender;
+import org.hisp.dhis.organisationunit.OrganisationUnitService;
+import org.hisp.dhis.security.PasswordManager;
+import org.hisp.dhis.security.acl.AclService;
+import org.hisp.dhis.setting.SystemSettingsProvider;
+import org.hisp.dhis.test.cache.TestCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.session.SessionRegistry;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.client.RestTemplate;
+
+/** Unit tests for the shared {@link UserOrgUnitIds} of {@link DefaultUserService}. */
+@ExtendWith(MockitoExtension.class)
+class DefaultUserServiceTest {
+
+  @Mock private UserSettingsService userSettingsService;
+
+  @Mock private RestTemplate restTemplate;
+
+  @Mock private MessageSender emailMessageSender;
+
+  @Mock private I18nManager i18nManager;
+
+  @Mock private UserStore userStore;
+
+  @Mock private UserGroupService userGroupService;
+
+  @Mock private UserRoleStore userRoleStore;
+
+  @Mock private SystemSettingsProvider settingsProvider;
+
+  @Mock private CacheProvider cacheProvider;
+
+  @Mock private PasswordManager passwordManager;
+
+  @Mock private AclService aclService;
+
+  @Mock private OrganisationUnitService organisationUnitService;
+
+  @Mock private SessionRegistry sessionRegistry;
+
+  @Mock private PlatformTransactionManager transactionManager;
+
+  private final TestCache<UserOrgUnitIds> userOrgUnitIdsCache = new TestCache<>();
+
+  private DefaultUserService userService;
+
+  @BeforeEach
+  void setUp() {
+    when(cacheProvider.<UserOrgUnitIds>createUserOrgUnitIdsCache()).thenReturn(userOrgUnitIdsCache);
+    userService =
+        new DefaultUserService(
+            userSettingsService,
+            restTemplate,
+            emailMessageSender,
+            i18nManager,
+            new ObjectMapper(),
+            userStore,
+            userGroupService,
+            userRoleStore,
+            settingsProvider,
+            cacheProvider,
+            passwordManager,
+            aclService,
+            organisationUnitService,
+            sessionRegistry,
+            transactionManager);
+
+    when(organisationUnitService.getOrganisationUnitsUidsByUser("admin"))
+        .thenReturn(List.of("ouA", "ouB"));
+    when(organisationUnitService.getSearchOrganisationUnitsUidsByUser("admin"))
+        .thenReturn(List.of("ouC"));
+    when(organisationUnitService.getDataViewOrganisationUnitsUidsByUser("admin"))
+        .thenReturn(List.of());
+  }
+
+  @AfterEach
+  void tearDown() {
+    TransactionSynchronizationManager.setActualTransactionActive(false);
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+  }
+
+  @Test
+  void testUserOrgUnitIdsAreSharedBetweenRequests() {
+    UserOrgUnitIds first = userService.getUserOrgUnitIds("admin");
+    UserOrgUnitIds second = userService.getUserOrgUnitIds("admin");
+
+    assertSame(first, second);
+    assertEquals(2, first.orgUnitIds().size());
+    assertTrue(first.orgUnitIds().contains("ouB"));
+    verify(organisationUnitService, times(1)).getOrganisationUnitsUidsByUser("admin");
+    verify(transactionManager, times(1)).getTransaction(any());
+  }
+
+  @Test
+  void testUserDetailsShareOrgUnitIds() {
+    User user = new User();
+    user.setUsername("admin");
+
+    UserDetails first =
+        UserDetails.createUserDetails(user, true, true, userService.getUserOrgUnitIds("admin"));
+    UserDetails second =
+        UserDetails.createUserDetails(user, true, true, userService.getUserOrgUnitIds("admin"));
+
+    assertNotSame(first, second);
+    assertSame(first.getUserOrgUnitIds(), second.getUserOrgUnitIds());
+    assertSame(first.getUserSearchOrgUnitIds(), second.getUserSearchOrgUnitIds());
+  }
+
+  @Test
+  void testUserOrgUnitIdsAreLoadedAgainAfterInvalidation() {
+    UserOrgUnitIds first = userService.getUserOrgUnitIds("admin");
+
+    userOrgUnitIdsCache.invalidate("admin");
+    UserOrgUnitIds second = userService.getUserOrgUnitIds("admin");
+
+    assertNotSame(first, second);
+    assertEquals(first.orgUnitIds(), second.orgUnitIds());
+    verify(organisationUnitService, times(2)).getOrganisationUnitsUidsByUser("admin");
+  }
+
+  @Test
+  void testUserOrgUnitIdsAreNotCachedWhenInvalidatedDuringLoad() {
+    when(organisationUnitService.getOrganisationUnitsUidsByUser("admin"))
+        .then(
+            invocation -> {
+              userService.handleCacheInvalidationEvent(
+                  new CacheInvalidationEvent(this, Region.userOrgUnitIdsCache, "admin"));
+              return List.of("ouA", "ouB");
+            })
+        .thenReturn(List.of("ouA"));
+
+    userService.getUserOrgUnitIds("admin");
+    assertTrue(userOrgUnitIdsCache.getIfPresent("admin").isEmpty());
+
+    UserOrgUnitIds reloaded = userService.getUserOrgUnitIds("admin");
+    assertEquals(Set.of("ouA"), reloaded.orgUnitIds());
+    assertSame(reloaded, userOrgUnitIdsCache.getIfPresent("admin").orElse(null));
+  }
+
+  @Test
+  void testUserOrgUnitIdsAreInvalidatedByEvent() {
+    userService.getUserOrgUnitIds("admin");
+
+    userService.handleCacheInvalidationEvent(
+        new CacheInvalidationEvent(this, Region.userOrgUnitIdsCache, null));
+
+    assertTrue(userOrgUnitIdsCache.getIfPresent("admin").isEmpty());
+  }
+
+  @Test
+  void testUserOrgUnitIdsAreNotCachedInReadWriteTransaction() {
+    TransactionSynchronizationManager.setActualTransactionActive(true);
+
+    userService.getUserOrgUnitIds("admin");
+
+    assertTrue(userOrgUnitIdsCache.getIfPresent("admin").isEmpty());
+    verify(transactionManager, never()).getTransaction(any());
+  }
+
+  @Test
+  void testUserOrgUnitIdsAreCachedInReadOnlyTransaction() {
+    TransactionSynchronizationManager.setActualTransactionActive(true);
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+    UserOrgUnitIds ids = userService.getUserOrgUnitIds("admin");
+
+    assertSame(ids, userOrgUnitIdsCache.getIfPresent("admin").orElse(null));
+    verify(transactionManager, times(1)).getTransaction(any());
+  }
+}
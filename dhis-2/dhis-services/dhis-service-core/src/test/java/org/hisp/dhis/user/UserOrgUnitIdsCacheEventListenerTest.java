@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import org.hibernate.collection.spi.PersistentCollection;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.tuple.entity.EntityMetamodel;
+import org.hisp.dhis.common.cache.Region;
+import org.hisp.dhis.common.event.CacheInvalidationEvent;
+import org.hisp.dhis.dataelement.DataElement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+@ExtendWith(MockitoExtension.class)
+class UserOrgUnitIdsCacheEventListenerTest {
+
+  private static final String[] PROPERTY_NAMES = {"username", "lastLogin"};
+
+  @Mock private ApplicationEventPublisher publisher;
+
+  @Mock private EntityPersister persister;
+
+  @Mock private EntityMetamodel entityMetamodel;
+
+  private UserOrgUnitIdsCacheEventListener listener;
+
+  @BeforeEach
+  void setUp() {
+    listener = new UserOrgUnitIdsCacheEventListener(publisher);
+    lenient().when(persister.getEntityMetamodel()).thenReturn(entityMetamodel);
+    lenient().when(entityMetamodel.getPropertyIndex("username")).thenReturn(0);
+  }
+
+  @Test
+  void testRequiresPostCommitHandlingOnlyForUsers() {
+    assertTrue(requiresPostCommitHandling(User.class));
+    assertFalse(requiresPostCommitHandling(UserGroup.class));
+    assertFalse(requiresPostCommitHandling(DataElement.class));
+  }
+
+  @Test
+  void testUsernameChangeInvalidatesOldAndNewUsername() {
+    listener.onPostUpdate(userUpdate("admin", "root"));
+
+    assertEquals(List.of("admin", "root"), getInvalidatedKeys());
+  }
+
+  @Test
+  void testUserUpdateWithoutUsernameChangeDoesNotInvalidate() {
+    listener.onPostUpdate(userUpdate("admin", "admin"));
+
+    verify(publisher, never()).publishEvent(any(CacheInvalidationEvent.class));
+  }
+
+  @Test
+  void testUserDeleteInvalidatesUser() {
+    listener.onPostDelete(new PostDeleteEvent(user("admin"), 1L, null, persister, null));
+
+    assertEquals(List.of("admin"), getInvalidatedKeys());
+  }
+
+  @Test
+  void testOrgUnitCollectionChangesInvalidateOwner() {
+    listener.onPostUpdateCollection(collectionUpdate(user("admin"), "organisationUnits"));
+    listener.onPostUpdateCollection(collectionUpdate(user("tom"), "dataViewOrganisationUnits"));
+    listener.onPostUpdateCollection(collectionUpdate(user("ann"), "teiSearchOrganisationUnits"));
+
+    assertEquals(List.of("admin", "tom", "ann"), getInvalidatedKeys());
+  }
+
+  @Test
+  void testOtherCollectionChangesDoNotInvalidate() {
+    listener.onPostUpdateCollection(collectionUpdate(user("admin"), "userRoles"));
+    listener.onPostUpdateCollection(collectionUpdate(new UserGroup(), "organisationUnits"));
+
+    verify(publisher, never()).publishEvent(any(CacheInvalidationEvent.class));
+  }
+
+  private boolean requiresPostCommitHandling(Class<?> type) {
+    when(persister.getMappedClass()).thenReturn((Class) type);
+    return listener.requiresPostCommitHanding(persister);
+  }
+
+  private static User user(String username) {
+    User user = new User();
+    user.setUsername(username);
+    return user;
+  }
+
+  private PostUpdateEvent userUpdate(String oldUsername, String username) {
+    Object[] oldState = {oldUsername, null};
+    Object[] state = {username, null};
+    return new PostUpdateEvent(user(username), 1L, state, oldState, new int[] {1}, persister, null);
+  }
+
+  private static PostCollectionUpdateEvent collectionUpdate(Object owner, String property) {
+    PersistentCollection collection = mock(PersistentCollection.class);
+    lenient().when(collection.getRole()).thenReturn(owner.getClass().getName() + "." + property);
+    PostCollectionUpdateEvent event = mock(PostCollectionUpdateEvent.class);
+    when(event.getAffectedOwnerOrNull()).thenReturn(owner);
+    lenient().when(event.getCollection()).thenReturn(collection);
+    return event;
+  }
+
+  private List<String> getInvalidatedKeys() {
+    ArgumentCaptor<CacheInvalidationEvent> events =
+        ArgumentCaptor.forClass(CacheInvalidationEvent.class);
+    verify(publisher, atLeastOnce()).publishEvent(events.capture());
+    return events.getAllValues().stream()
+        .peek(event -> assertEquals(Region.userOrgUnitIdsCache, event.getRegion()))
+        .map(CacheInvalidationEvent::getKey)
+        .toList();
+  }
+}
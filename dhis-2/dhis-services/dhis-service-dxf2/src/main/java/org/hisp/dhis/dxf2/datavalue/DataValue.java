@@ -98,4 +98,25 @@ public final class DataValue implements DataValueEntry {
   public boolean getFollowup() {
     return followup;
   }
+
+  /**
+   * @param entry the entry to copy
+   * @return a detached copy of the given entry, for entries which are cursors of a streaming reader
+   */
+  public static DataValue copyOf(DataValueEntry entry) {
+    DataValue copy = new DataValue();
+    copy.setDataElement(entry.getDataElement());
+    copy.setPeriod(entry.getPeriod());
+    copy.setOrgUnit(entry.getOrgUnit());
+    copy.setCategoryOptionCombo(entry.getCategoryOptionCombo());
+    copy.setAttributeOptionCombo(entry.getAttributeOptionCombo());
+    copy.setValue(entry.getValue());
+    copy.setStoredBy(entry.getStoredBy());
+    copy.setCreated(entry.getCreated());
+    copy.setLastUpdated(entry.getLastUpdated());
+    copy.setComment(entry.getComment());
+    copy.setFollowup(entry.getFollowup());
+    copy.setDeleted(entry.getDeleted());
+    return copy;
+  }
 }
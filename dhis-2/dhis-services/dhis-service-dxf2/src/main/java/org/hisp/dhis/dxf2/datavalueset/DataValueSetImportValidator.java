@@ -32,7 +32,10 @@ import static org.apache.commons.lang3.StringUtils.trimToNull;
 
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Consumer;
 import javax.annotation.PostConstruct;
@@ -42,10 +45,12 @@ import org.hisp.dhis.category.CategoryOption;
 import org.hisp.dhis.category.CategoryOptionCombo;
 import org.hisp.dhis.common.DateRange;
 import org.hisp.dhis.common.ValueType;
+import org.hisp.dhis.dataapproval.DataApproval;
 import org.hisp.dhis.dataapproval.DataApprovalService;
 import org.hisp.dhis.dataapproval.DataApprovalWorkflow;
 import org.hisp.dhis.dataelement.DataElement;
 import org.hisp.dhis.dataset.DataSet;
+import org.hisp.dhis.dataset.LockException;
 import org.hisp.dhis.dataset.LockExceptionStore;
 import org.hisp.dhis.datavalue.DataValueService;
 import org.hisp.dhis.dxf2.datavalue.DataValue;
@@ -212,6 +217,108 @@ public class DataValueSetImportValidator {
     }
   }
 
+  /*
+   * Prefetching
+   */
+
+  /**
+   * Resolves the data set locks and approvals needed to validate the given values with a few
+   * set-based queries and stores the results in the caches of the {@link ImportContext}, so that
+   * the value-by-value validation does not need to query them one key at a time.
+   *
+   * @param context the import context
+   * @param dataSetContext the data set context
+   * @param valueContexts the contexts of the values about to be validated; contexts with unresolved
+   *     data element, period, organisation unit or attribute option combo are ignored
+   */
+  public void prefetch(
+      ImportContext context, DataSetContext dataSetContext, List<DataValueContext> valueContexts) {
+    if (context.isForceDataInput()) {
+      return; // data set validations are skipped
+    }
+
+    UserDetails user = UserDetails.fromUser(context.getCurrentUser());
+    Map<String, DataSet> lockCandidates = new HashMap<>();
+    Map<String, DataValueContext> lockContexts = new HashMap<>();
+    Map<String, DataApproval> approvals = new HashMap<>();
+
+    for (DataValueContext valueContext : valueContexts) {
+      if (valueContext.getDataElement() == null
+          || valueContext.getPeriod() == null
+          || valueContext.getOrgUnit() == null
+          || valueContext.getAttrOptionCombo() == null) {
+        continue;
+      }
+      Period period = valueContext.getPeriod();
+      OrganisationUnit orgUnit = valueContext.getOrgUnit();
+      for (DataSet dataSet : context.getTargetDataSets(dataSetContext, valueContext)) {
+        String lockKey = ImportContext.getDataSetLockedKey(dataSet, period, orgUnit);
+        if (!context.getDataSetLockedMap().containsKey(lockKey)
+            && !lockContexts.containsKey(lockKey)) {
+          lockContexts.put(lockKey, valueContext);
+          if (dataSet.isLocked(user, period, null)) {
+            lockCandidates.put(lockKey, dataSet);
+          } else {
+            context.getDataSetLockedMap().put(lockKey, false);
+          }
+        }
+        DataApprovalWorkflow workflow = dataSet.getWorkflow();
+        if (workflow != null) {
+          String approvalKey =
+              ImportContext.getApprovalKey(
+                  workflow, period, orgUnit, valueContext.getAttrOptionCombo());
+          if (!context.getApprovalMap().containsKey(approvalKey)) {
+            approvals.putIfAbsent(
+                approvalKey,
+                new DataApproval(
+                    null, workflow, period, orgUnit, valueContext.getAttrOptionCombo()));
+          }
+        }
+      }
+    }
+
+    prefetchLocks(context, lockCandidates, lockContexts);
+    prefetchApprovals(context, approvals);
+  }
+
+  private void prefetchLocks(
+      ImportContext context,
+      Map<String, DataSet> lockCandidates,
+      Map<String, DataValueContext> lockContexts) {
+    if (lockCandidates.isEmpty()) {
+      return;
+    }
+    Set<String> exceptions = new HashSet<>();
+    if (!context.isSkipLockExceptionCheck()) {
+      Set<Period> periods = new HashSet<>();
+      lockCandidates.keySet().forEach(key -> periods.add(lockContexts.get(key).getPeriod()));
+      for (LockException exception :
+          lockExceptionStore.getLockExceptions(new HashSet<>(lockCandidates.values()), periods)) {
+        exceptions.add(
+            exception.getDataSet().getUid()
+                + exception.getPeriod().getIsoDate()
+                + exception.getOrganisationUnit().getUid());
+      }
+    }
+    lockCandidates.forEach(
+        (key, dataSet) -> {
+          DataValueContext valueContext = lockContexts.get(key);
+          String exceptionKey =
+              dataSet.getUid()
+                  + valueContext.getPeriod().getIsoDate()
+                  + valueContext.getOrgUnit().getUid();
+          context.getDataSetLockedMap().put(key, !exceptions.contains(exceptionKey));
+        });
+  }
+
+  private void prefetchApprovals(ImportContext context, Map<String, DataApproval> approvals) {
+    if (approvals.isEmpty()) {
+      return;
+    }
+    Set<DataApproval> approved = approvalService.getApproved(approvals.values());
+    approvals.forEach((key, da) -> context.getApprovalMap().put(key, approved.contains(da)));
+  }
+
   /*
    * DataValue validation
    */
@@ -292,7 +399,7 @@ public class DataValueSetImportValidator {
       DataValueContext valueContext) {
     if (valueContext.getCategoryOptionCombo() != null) {
       for (CategoryOption option : valueContext.getCategoryOptionCombo().getCategoryOptions()) {
-        if (!aclService.canDataWrite(context.getCurrentUser(), option)) {
+        if (!canDataWrite(context, option)) {
           context.addConflict(
               valueContext.getIndex(),
               DataValueImportConflict.CATEGORY_OPTION_COMBO_NOT_ACCESSIBLE,
@@ -324,7 +431,7 @@ public class DataValueSetImportValidator {
       DataValueContext valueContext) {
     if (valueContext.getAttrOptionCombo() != null) {
       for (CategoryOption option : valueContext.getAttrOptionCombo().getCategoryOptions()) {
-        if (!aclService.canDataWrite(context.getCurrentUser(), option)) {
+        if (!canDataWrite(context, option)) {
           context.addConflict(
               valueContext.getIndex(),
               DataValueImportConflict.ATTR_OPTION_COMBO_NOT_ACCESSIBLE,
@@ -685,9 +792,8 @@ public class DataValueSetImportValidator {
         context.isStrictDataSetLocking(),
         dataSet -> {
           String key =
-              dataSet.getUid()
-                  + valueContext.getPeriod().getUid()
-                  + valueContext.getOrgUnit().getUid();
+              ImportContext.getDataSetLockedKey(
+                  dataSet, valueContext.getPeriod(), valueContext.getOrgUnit());
           if (context
               .getDataSetLockedMap()
               .get(
@@ -753,15 +859,14 @@ public class DataValueSetImportValidator {
           // is the dataset not already approved?
           DataApprovalWorkflow workflow = dataSet.getWorkflow();
           if (workflow != null) { // no workflow => approval not used => OK to add data
-            final String workflowPeriodAoc =
-                workflow.getUid()
-                    + valueContext.getPeriod().getUid()
-                    + valueContext.getAttrOptionCombo().getUid();
-
             if (context
                 .getApprovalMap()
                 .get(
-                    valueContext.getOrgUnit().getUid() + workflowPeriodAoc,
+                    ImportContext.getApprovalKey(
+                        workflow,
+                        valueContext.getPeriod(),
+                        valueContext.getOrgUnit(),
+                        valueContext.getAttrOptionCombo()),
                     () ->
                         approvalService.isApproved(
                             workflow,
@@ -839,6 +944,12 @@ public class DataValueSetImportValidator {
     }
   }
 
+  private boolean canDataWrite(ImportContext context, CategoryOption option) {
+    return context
+        .getCategoryOptionDataWriteMap()
+        .get(option.getUid(), () -> aclService.canDataWrite(context.getCurrentUser(), option));
+  }
+
   /**
    * Checks whether the given data set is locked.
    *
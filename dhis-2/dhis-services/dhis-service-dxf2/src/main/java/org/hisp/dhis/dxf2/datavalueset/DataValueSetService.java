@@ -85,6 +85,8 @@ public interface DataValueSetService {
 
   void exportDataValueSetCsv(DataExportParams params, Writer writer);
 
+  void exportDataValueSetParquet(DataExportParams params, OutputStream out);
+
   RootNode getDataValueSetTemplate(
       DataSet dataSet,
       Period period,
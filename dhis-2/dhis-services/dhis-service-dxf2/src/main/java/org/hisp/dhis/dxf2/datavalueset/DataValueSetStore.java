@@ -43,6 +43,8 @@ public interface DataValueSetStore {
 
   void exportDataValueSetCsv(DataExportParams params, Date completeDate, Writer writer);
 
+  void exportDataValueSetParquet(DataExportParams params, Date completeDate, OutputStream out);
+
   /**
    * Query for {@link DataValueSet DataValueSets} and write result as JSON.
    *
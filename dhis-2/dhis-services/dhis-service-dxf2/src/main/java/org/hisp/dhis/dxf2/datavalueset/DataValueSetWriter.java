@@ -45,6 +45,7 @@ package org.hisp.dhis.dxf2.datavalueset;
  * @see XmlDataValueSetWriter
  * @see JsonDataValueSetWriter
  * @see CsvDataValueSetWriter
+ * @see ParquetDataValueSetWriter
  */
 public interface DataValueSetWriter extends AutoCloseable {
   /**
@@ -46,6 +46,7 @@ import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.function.Function;
 import javax.annotation.Nonnull;
@@ -59,9 +60,11 @@ import org.hisp.dhis.category.CategoryService;
 import org.hisp.dhis.common.DxfNamespaces;
 import org.hisp.dhis.common.IdScheme;
 import org.hisp.dhis.common.IdSchemes;
+import org.hisp.dhis.common.IdentifiableObject;
 import org.hisp.dhis.common.IdentifiableObjectManager;
 import org.hisp.dhis.common.IdentifiableProperty;
 import org.hisp.dhis.common.IllegalQueryException;
+import org.hisp.dhis.commons.collection.CachingMap;
 import org.hisp.dhis.commons.util.DebugUtils;
 import org.hisp.dhis.dataelement.DataElement;
 import org.hisp.dhis.dataelement.DataElementGroup;
@@ -133,6 +136,8 @@ public class DefaultDataValueSetService implements DataValueSetService {
 
   private static final int CACHE_MISS_THRESHOLD = 250;
 
+  private static final int PREFETCH_BATCH_SIZE = 2000;
+
   private final IdentifiableObjectManager identifiableObjectManager;
 
   private final CategoryService categoryService;
@@ -399,6 +404,15 @@ public class DefaultDataValueSetService implements DataValueSetService {
     dataValueSetStore.exportDataValueSetCsv(params, getCompleteDate(params), writer);
   }
 
+  @Override
+  @Transactional
+  public void exportDataValueSetParquet(DataExportParams params, OutputStream out) {
+    decideAccess(params);
+    validate(params);
+
+    dataValueSetStore.exportDataValueSetParquet(params, getCompleteDate(params), out);
+  }
+
   private Date getCompleteDate(DataExportParams params) {
     if (params.isSingleDataValueSet()) {
       CategoryOptionCombo optionCombo = categoryService.getDefaultCategoryOptionCombo(); // TODO
@@ -726,10 +740,10 @@ public class DefaultDataValueSetService implements DataValueSetService {
       int size = values.size();
       progress.startingStage("Importing values (list)", Math.ceil(size / 100d));
       progress.setWorkItemBucketing(100);
-      for (DataValueEntry dataValue : values) {
-        progress.startingWorkItem(index);
-        importDataValue(context, dataSetContext, importCount, now, index++, dataValue);
-        progress.completedWorkItem(null);
+      for (int from = 0; from < size; from += PREFETCH_BATCH_SIZE) {
+        List<? extends DataValueEntry> batch =
+            values.subList(from, Math.min(size, from + PREFETCH_BATCH_SIZE));
+        index = importDataValues(context, dataSetContext, importCount, now, index, batch, progress);
       }
       progress.completedStage("Import summary: " + importCount);
     }
@@ -737,11 +751,15 @@ public class DefaultDataValueSetService implements DataValueSetService {
     boolean hasItems = dataValue != null;
     if (hasItems) progress.startingStage("Importing values (iterator)");
     progress.setWorkItemBucketing(100);
+    List<DataValueEntry> batch = new ArrayList<>();
     while (dataValue != null) {
-      progress.startingWorkItem(index);
-      importDataValue(context, dataSetContext, importCount, now, index++, dataValue);
-      progress.completedWorkItem(null);
+      // streaming readers return themselves as entry, so it must be copied
+      batch.add(org.hisp.dhis.dxf2.datavalue.DataValue.copyOf(dataValue));
       dataValue = reader.readNext();
+      if (batch.size() == PREFETCH_BATCH_SIZE || dataValue == null) {
+        index = importDataValues(context, dataSetContext, importCount, now, index, batch, progress);
+        batch.clear();
+      }
     }
     if (hasItems) progress.completedStage("Import summary: " + importCount);
 
@@ -765,6 +783,117 @@ public class DefaultDataValueSetService implements DataValueSetService {
     return date;
   }
 
+  /**
+   * Imports a batch of values. Before the values are validated and imported one by one, the
+   * metadata, data set locks and approvals referenced by the batch are resolved with a few
+   * set-based queries.
+   *
+   * @return the index of the value following the batch
+   */
+  private int importDataValues(
+      ImportContext context,
+      DataSetContext dataSetContext,
+      ImportCount importCount,
+      Date now,
+      int index,
+      List<? extends DataValueEntry> batch,
+      JobProgress progress) {
+    prefetch(context, dataSetContext, index, batch);
+
+    for (DataValueEntry dataValue : batch) {
+      progress.startingWorkItem(index);
+      importDataValue(context, dataSetContext, importCount, now, index++, dataValue);
+      progress.completedWorkItem(null);
+    }
+    return index;
+  }
+
+  private void prefetch(
+      ImportContext context,
+      DataSetContext dataSetContext,
+      int index,
+      List<? extends DataValueEntry> batch) {
+    prefetchObjects(
+        context.getDataElementMap(),
+        context.getDataElementIdScheme(),
+        batch,
+        DataValueEntry::getDataElement,
+        ids ->
+            identifiableObjectManager.getObjects(
+                DataElement.class,
+                context.getDataElementIdScheme().getIdentifiableProperty(),
+                ids));
+    if (dataSetContext.getOuterOrgUnit() == null) {
+      prefetchObjects(
+          context.getOrgUnitMap(),
+          context.getOrgUnitIdScheme(),
+          batch,
+          DataValueEntry::getOrgUnit,
+          ids ->
+              identifiableObjectManager.getObjects(
+                  OrganisationUnit.class,
+                  context.getOrgUnitIdScheme().getIdentifiableProperty(),
+                  ids));
+    }
+    prefetchObjects(
+        context.getOptionComboMap(),
+        context.getCategoryOptComboIdScheme(),
+        batch,
+        DataValueEntry::getCategoryOptionCombo,
+        ids ->
+            categoryService.getCategoryOptionCombosAcl(context.getCategoryOptComboIdScheme(), ids));
+    if (dataSetContext.getOuterAttrOptionCombo() == null) {
+      prefetchObjects(
+          context.getOptionComboMap(),
+          context.getCategoryOptComboIdScheme(),
+          batch,
+          DataValueEntry::getAttributeOptionCombo,
+          ids ->
+              categoryService.getCategoryOptionCombosAcl(
+                  context.getCategoryOptComboIdScheme(), ids));
+    }
+
+    List<ImportContext.DataValueContext> valueContexts = new ArrayList<>(batch.size());
+    for (DataValueEntry dataValue : batch) {
+      ImportContext.DataValueContext valueContext =
+          createDataValueContext(index++, dataValue, context, dataSetContext);
+      if (valueContext.getAttrOptionCombo() == null
+          && trimToNull(dataValue.getAttributeOptionCombo()) == null) {
+        valueContext.setAttrOptionCombo(dataSetContext.getFallbackCategoryOptionCombo());
+      }
+      valueContexts.add(valueContext);
+    }
+    importValidator.prefetch(context, dataSetContext, valueContexts);
+  }
+
+  /**
+   * Loads the objects referenced by the given batch which are not yet cached with a single query
+   * into the given cache. Only {@link IdScheme#UID} and {@link IdScheme#CODE} are supported.
+   * Identifiers without a match and other id schemes are left to the one by one lookup of the
+   * {@link ImportContext} callables.
+   */
+  private static <T extends IdentifiableObject> void prefetchObjects(
+      CachingMap<String, T> cache,
+      IdScheme idScheme,
+      List<? extends DataValueEntry> batch,
+      Function<DataValueEntry, String> getId,
+      Function<Set<String>, List<T>> fetch) {
+    if (!idScheme.is(IdentifiableProperty.UID) && !idScheme.is(IdentifiableProperty.CODE)) {
+      return;
+    }
+    Set<String> ids = new HashSet<>();
+    for (DataValueEntry dataValue : batch) {
+      String id = trimToNull(getId.apply(dataValue));
+      if (id != null && !cache.containsKey(id)) {
+        ids.add(id);
+      }
+    }
+    if (ids.isEmpty()) {
+      return;
+    }
+    cache.load(fetch.apply(ids), o -> o.getPropertyValue(idScheme));
+  }
+
   private void importDataValue(
       ImportContext context,
       DataSetContext dataSetContext,
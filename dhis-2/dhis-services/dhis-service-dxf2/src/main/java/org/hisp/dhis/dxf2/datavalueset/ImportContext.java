@@ -44,6 +44,7 @@ import org.hisp.dhis.common.DateRange;
 import org.hisp.dhis.common.IdScheme;
 import org.hisp.dhis.common.IdentifiableObject;
 import org.hisp.dhis.commons.collection.CachingMap;
+import org.hisp.dhis.dataapproval.DataApprovalWorkflow;
 import org.hisp.dhis.dataelement.DataElement;
 import org.hisp.dhis.dataset.DataSet;
 import org.hisp.dhis.datavalue.DataValueAudit;
@@ -181,6 +182,8 @@ public final class ImportContext {
 
   private final CachingMap<String, Boolean> periodOpenForDataElement = new CachingMap<>();
 
+  private final CachingMap<String, Boolean> categoryOptionDataWriteMap = new CachingMap<>();
+
   /*
    * Data fetching and processing
    */
@@ -303,6 +306,27 @@ public final class ImportContext {
                     .collect(toUnmodifiableList()));
   }
 
+  /**
+   * @return the key of the {@link #getDataSetLockedMap()} for the given data set, period and
+   *     organisation unit
+   */
+  public static String getDataSetLockedKey(
+      DataSet dataSet, Period period, OrganisationUnit orgUnit) {
+    return dataSet.getUid() + period.getUid() + orgUnit.getUid();
+  }
+
+  /**
+   * @return the key of the {@link #getApprovalMap()} for the given workflow, period, organisation
+   *     unit and attribute option combo
+   */
+  public static String getApprovalKey(
+      DataApprovalWorkflow workflow,
+      Period period,
+      OrganisationUnit orgUnit,
+      CategoryOptionCombo attrOptionCombo) {
+    return orgUnit.getUid() + workflow.getUid() + period.getUid() + attrOptionCombo.getUid();
+  }
+
   /**
    * The existing persisted objects in the context of a {@link DataValueSet} import.
    *
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.dxf2.datavalueset;
+
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.List;
+import org.hisp.dhis.system.parquet.ParquetColumn;
+import org.hisp.dhis.system.parquet.ParquetType;
+import org.hisp.dhis.system.parquet.ParquetWriter;
+import org.hisp.dhis.util.DateUtils;
+
+/**
+ * Write {@link DataValueSet}s as Apache Parquet data, with the same columns as {@link
+ * CsvDataValueSetWriter} but typed.
+ */
+final class ParquetDataValueSetWriter implements DataValueSetWriter {
+
+  private static final List<ParquetColumn> COLUMNS =
+      List.of(
+          new ParquetColumn("dataelement", ParquetType.STRING),
+          new ParquetColumn("period", ParquetType.STRING),
+          new ParquetColumn("orgunit", ParquetType.STRING),
+          new ParquetColumn("categoryoptioncombo", ParquetType.STRING),
+          new ParquetColumn("attributeoptioncombo", ParquetType.STRING),
+          new ParquetColumn("value", ParquetType.STRING),
+          new ParquetColumn("storedby", ParquetType.STRING),
+          new ParquetColumn("lastupdated", ParquetType.TIMESTAMP),
+          new ParquetColumn("comment", ParquetType.STRING),
+          new ParquetColumn("followup", ParquetType.BOOLEAN),
+          new ParquetColumn("deleted", ParquetType.BOOLEAN));
+
+  private final ParquetWriter writer;
+
+  ParquetDataValueSetWriter(OutputStream out) {
+    this.writer = new ParquetWriter(out, COLUMNS);
+  }
+
+  @Override
+  public void writeHeader() {
+    // columns are fixed when the writer is created
+  }
+
+  @Override
+  public void writeHeader(
+      String dataSetId, String completeDate, String isoPeriod, String orgUnitId) {
+    // columns are fixed when the writer is created
+  }
+
+  @Override
+  public void writeValue(DataValueEntry entry) {
+    writer.writeRow(
+        Arrays.asList(
+            entry.getDataElement(),
+            entry.getPeriod(),
+            entry.getOrgUnit(),
+            entry.getCategoryOptionCombo(),
+            entry.getAttributeOptionCombo(),
+            entry.getValue(),
+            entry.getStoredBy(),
+            entry.hasLastUpdated() ? DateUtils.parseDate(entry.getLastUpdated()) : null,
+            entry.getComment(),
+            entry.getFollowup(),
+            entry.getDeleted()));
+  }
+
+  /**
+   * Marks the file as incomplete, so that {@link #close()} does not write the footer of a file
+   * which is missing rows.
+   */
+  void abort() {
+    writer.abort();
+  }
+
+  @Override
+  public void close() {
+    writer.close();
+  }
+}
@@ -105,6 +105,21 @@ public class SpringDataValueSetStore implements DataValueSetStore {
     }
   }
 
+  @Override
+  public void exportDataValueSetParquet(
+      DataExportParams params, Date completeDate, OutputStream out) {
+    ParquetDataValueSetWriter writer = new ParquetDataValueSetWriter(out);
+    try (writer) {
+      try {
+        exportDataValueSet(getDataValueSql(params), params, completeDate, writer);
+      } catch (RuntimeException | Error ex) {
+        // a file with footer but missing rows would look complete to the client
+        writer.abort();
+        throw ex;
+      }
+    }
+  }
+
   @Override
   public void exportDataValueSetJson(Date lastUpdated, OutputStream out, IdSchemes idSchemes) {
     try (DataValueSetWriter writer = new JsonDataValueSetWriter(out)) {
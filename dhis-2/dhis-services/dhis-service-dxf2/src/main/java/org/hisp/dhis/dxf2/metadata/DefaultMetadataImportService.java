@@ -114,6 +114,7 @@ public class DefaultMetadataImportService implements MetadataImportService {
     report.setImportParams(params);
     report.setStatus(Status.OK);
     report.addTypeReports(validationReport);
+    report.setValidationDurations(validationReport.getCheckDurations());
 
     if (!validationReport.hasErrorReports() || AtomicMode.NONE == bundle.getAtomicMode()) {
       Timer commitTimer = new SystemTimer().start();
@@ -80,6 +80,10 @@ public class DefaultObjectBundleValidationService implements ObjectBundleValidat
     bundle.setObjectBundleStatus(ObjectBundleStatus.VALIDATED);
 
     log.info("(" + bundle.getUsername() + ") Import:Validation took " + timer.toString());
+    log.debug(
+        "({}) Import:Validation check durations (ms): {}",
+        bundle.getUsername(),
+        validation.getCheckDurations());
 
     return validation;
   }
@@ -93,8 +97,8 @@ public class DefaultObjectBundleValidationService implements ObjectBundleValidat
     cleanDefaults(bundle.getPreheat(), persistedObjects);
 
     // Validate the bundle by running the validation checks chain
-    validation.addTypeReport(
-        validationFactory.validateBundle(bundle, klass, persistedObjects, nonPersistedObjects));
+    validationFactory.validateBundle(
+        bundle, klass, persistedObjects, nonPersistedObjects, validation);
   }
 
   private void cleanDefaults(Preheat preheat, List<? extends IdentifiableObject> objects) {
@@ -227,9 +227,10 @@ public class ObjectBundle implements ObjectIndexProvider {
     return preheat;
   }
 
+  /** Synchronized as object reports are also created by validation checks running concurrently. */
   @Nonnull
   @Override
-  public Integer mergeObjectIndex(@Nonnull IdentifiableObject object) {
+  public synchronized Integer mergeObjectIndex(@Nonnull IdentifiableObject object) {
     return typedIndexedObjectContainer.mergeObjectIndex(object);
   }
 
@@ -240,7 +241,7 @@ public class ObjectBundle implements ObjectIndexProvider {
    * @return <code>true</code> if this object container contains the specified object, <code>false
    *     </code> otherwise.
    */
-  public boolean containsObject(@Nullable IdentifiableObject object) {
+  public synchronized boolean containsObject(@Nullable IdentifiableObject object) {
     if (object == null) {
       return false;
     }
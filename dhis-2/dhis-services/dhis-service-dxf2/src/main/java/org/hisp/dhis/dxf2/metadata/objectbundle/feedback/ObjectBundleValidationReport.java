@@ -30,7 +30,9 @@ package org.hisp.dhis.dxf2.metadata.objectbundle.feedback;
 import com.google.common.base.MoreObjects;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import org.hisp.dhis.feedback.ErrorCode;
@@ -44,6 +46,8 @@ import org.hisp.dhis.feedback.TypeReport;
 public class ObjectBundleValidationReport implements ErrorReportContainer, Iterable<TypeReport> {
   private final Map<Class<?>, TypeReport> typeReportMap = new HashMap<>();
 
+  private final Map<String, Long> checkDurations = new LinkedHashMap<>();
+
   // -----------------------------------------------------------------------------------
   // Utility Methods
   // -----------------------------------------------------------------------------------
@@ -68,6 +72,14 @@ public class ObjectBundleValidationReport implements ErrorReportContainer, Itera
         });
   }
 
+  /**
+   * @param check the name of the validation check
+   * @param nanos the time spent in the check in nanoseconds, added to the time already recorded
+   */
+  public void addCheckDuration(String check, long nanos) {
+    checkDurations.merge(check, nanos, Long::sum);
+  }
+
   // -----------------------------------------------------------------------------------
   // Getters and Setters
   // -----------------------------------------------------------------------------------
@@ -85,6 +97,17 @@ public class ObjectBundleValidationReport implements ErrorReportContainer, Itera
     return typeReportMap.get(klass);
   }
 
+  /**
+   * @return the time spent in each validation check for all object types in milliseconds, by check
+   *     name in order of execution
+   */
+  public Map<String, Long> getCheckDurations() {
+    Map<String, Long> millis = new LinkedHashMap<>();
+    checkDurations.forEach(
+        (check, nanos) -> millis.put(check, TimeUnit.NANOSECONDS.toMillis(nanos)));
+    return millis;
+  }
+
   @Override
   public int getErrorReportsCount() {
     return typeReportMap.values().stream().mapToInt(TypeReport::getErrorReportsCount).sum();
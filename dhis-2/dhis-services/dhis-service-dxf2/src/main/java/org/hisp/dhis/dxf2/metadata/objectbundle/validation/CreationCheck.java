@@ -44,6 +44,11 @@ import org.springframework.stereotype.Component;
  */
 @Component
 public class CreationCheck implements ObjectValidationCheck {
+  @Override
+  public boolean isConcurrent() {
+    return true;
+  }
+
   @Override
   public <T extends IdentifiableObject> void check(
       ObjectBundle bundle,
@@ -47,6 +47,11 @@ import org.springframework.stereotype.Component;
 @Component
 public class DuplicateIdsCheck implements ObjectValidationCheck {
 
+  @Override
+  public boolean isConcurrent() {
+    return true;
+  }
+
   @Override
   public <T extends IdentifiableObject> void check(
       ObjectBundle bundle,
@@ -74,6 +74,11 @@ import org.springframework.stereotype.Component;
 public class GeoJsonAttributesCheck implements ObjectValidationCheck {
   private final ObjectMapper objectMapper = new ObjectMapper();
 
+  @Override
+  public boolean isConcurrent() {
+    return true;
+  }
+
   @Override
   public <T extends IdentifiableObject> void check(
       ObjectBundle bundle,
@@ -49,6 +49,11 @@ import org.springframework.stereotype.Component;
  */
 @Component
 public class MandatoryAttributesCheck implements ObjectValidationCheck {
+  @Override
+  public boolean isConcurrent() {
+    return true;
+  }
+
   @Override
   public <T extends IdentifiableObject> void check(
       ObjectBundle bundle,
@@ -50,6 +50,11 @@ import org.springframework.stereotype.Component;
  */
 @Component
 public class TranslationsCheck implements ObjectValidationCheck {
+  @Override
+  public boolean isConcurrent() {
+    return true;
+  }
+
   @Override
   public <T extends IdentifiableObject> void check(
       ObjectBundle bundle,
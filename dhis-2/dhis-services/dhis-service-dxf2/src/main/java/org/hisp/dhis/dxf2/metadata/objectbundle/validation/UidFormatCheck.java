@@ -43,6 +43,11 @@ import org.springframework.stereotype.Component;
 /** Validate UID format for creation of new object only. */
 @Component
 public class UidFormatCheck implements ObjectValidationCheck {
+  @Override
+  public boolean isConcurrent() {
+    return true;
+  }
+
   @Override
   public <T extends IdentifiableObject> void check(
       ObjectBundle bundle,
@@ -53,6 +53,11 @@ import org.springframework.stereotype.Component;
  */
 @Component
 public class UniqueAttributesCheck implements ObjectValidationCheck {
+  @Override
+  public boolean isConcurrent() {
+    return true;
+  }
+
   @Override
   public <T extends IdentifiableObject> void check(
       ObjectBundle bundle,
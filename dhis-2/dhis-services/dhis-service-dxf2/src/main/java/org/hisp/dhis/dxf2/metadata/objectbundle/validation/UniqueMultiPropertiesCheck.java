@@ -48,6 +48,11 @@ import org.springframework.stereotype.Component;
 
 @Component
 public class UniqueMultiPropertiesCheck implements ObjectValidationCheck {
+  @Override
+  public boolean isConcurrent() {
+    return true;
+  }
+
   @Override
   public <T extends IdentifiableObject> void check(
       ObjectBundle bundle,
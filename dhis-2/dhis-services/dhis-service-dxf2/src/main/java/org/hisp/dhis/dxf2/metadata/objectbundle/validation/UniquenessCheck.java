@@ -55,6 +55,11 @@ import org.springframework.stereotype.Component;
  */
 @Component
 public class UniquenessCheck implements ObjectValidationCheck {
+  @Override
+  public boolean isConcurrent() {
+    return true;
+  }
+
   @Override
   public <T extends IdentifiableObject> void check(
       ObjectBundle bundle,
@@ -60,6 +60,17 @@ public interface ValidationCheck {
       ImportStrategy importStrategy,
       ValidationContext context);
 
+  /**
+   * Checks which only read the bundle, its preheat and the schemas can run concurrently with other
+   * checks on a different thread. Such checks must not use the database session, the current user
+   * or any state written by other checks.
+   *
+   * @return true, if this check can run concurrently on a thread other than the importing one
+   */
+  default boolean isConcurrent() {
+    return false;
+  }
+
   default <T extends IdentifiableObject> List<T> selectObjectsBasedOnImportStrategy(
       List<T> persistedObjects, List<T> nonPersistedObjects, ImportStrategy importStrategy) {
 
@@ -28,7 +28,10 @@
 package org.hisp.dhis.dxf2.metadata.objectbundle.validation;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import lombok.AllArgsConstructor;
 import org.hisp.dhis.common.IdentifiableObject;
 import org.hisp.dhis.dxf2.metadata.objectbundle.ObjectBundleHooks;
@@ -52,7 +55,10 @@ public class ValidationContext {
 
   private final SchemaService schemaService;
 
-  private final List<IdentifiableObject> markedForRemoval = new ArrayList<>();
+  private final List<IdentifiableObject> markedForRemoval =
+      Collections.synchronizedList(new ArrayList<>());
+
+  private final Map<String, Long> checkDurations = new LinkedHashMap<>();
 
   public ObjectBundleHooks getObjectBundleHooks() {
     return objectBundleHooks;
@@ -81,4 +87,15 @@ public class ValidationContext {
   public List<? extends IdentifiableObject> getMarkedForRemoval() {
     return markedForRemoval;
   }
+
+  public void addCheckDuration(ValidationCheck check, long nanos) {
+    checkDurations.merge(check.getClass().getSimpleName(), nanos, Long::sum);
+  }
+
+  /**
+   * @return the time spent in each check in nanoseconds, by check name in order of execution
+   */
+  public Map<String, Long> getCheckDurations() {
+    return checkDurations;
+  }
 }
@@ -32,6 +32,7 @@ import lombok.AllArgsConstructor;
 import org.hisp.dhis.common.IdentifiableObject;
 import org.hisp.dhis.dxf2.metadata.objectbundle.ObjectBundle;
 import org.hisp.dhis.dxf2.metadata.objectbundle.ObjectBundleHooks;
+import org.hisp.dhis.dxf2.metadata.objectbundle.feedback.ObjectBundleValidationReport;
 import org.hisp.dhis.feedback.TypeReport;
 import org.hisp.dhis.schema.SchemaService;
 import org.hisp.dhis.schema.validation.SchemaValidator;
@@ -64,10 +65,15 @@ public class ValidationFactory {
    * @param klass the Class type that is getting validated
    * @param persistedObjects a List of IdentifiableObject
    * @param nonPersistedObjects a List of IdentifiableObject
-   * @return a {@see TypeReport} containing the outcome of the validation
+   * @param validation the {@see ObjectBundleValidationReport} to add the outcome of the validation
+   *     and the time spent in each check to
    */
-  public <T extends IdentifiableObject> TypeReport validateBundle(
-      ObjectBundle bundle, Class<T> klass, List<T> persistedObjects, List<T> nonPersistedObjects) {
+  public <T extends IdentifiableObject> void validateBundle(
+      ObjectBundle bundle,
+      Class<T> klass,
+      List<T> persistedObjects,
+      List<T> nonPersistedObjects,
+      ObjectBundleValidationReport validation) {
     ValidationContext ctx = getContext();
     TypeReport typeReport =
         validationRunner.executeValidationChain(
@@ -76,7 +82,9 @@ public class ValidationFactory {
     // Remove invalid objects from the bundle
     removeFromBundle(klass, ctx, bundle);
 
-    return addStatistics(typeReport, bundle, persistedObjects, nonPersistedObjects);
+    validation.addTypeReport(
+        addStatistics(typeReport, bundle, persistedObjects, nonPersistedObjects));
+    ctx.getCheckDurations().forEach(validation::addCheckDuration);
   }
 
   private <T extends IdentifiableObject> TypeReport addStatistics(
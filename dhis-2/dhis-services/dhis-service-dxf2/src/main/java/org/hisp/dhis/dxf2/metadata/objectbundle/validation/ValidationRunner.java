@@ -27,21 +27,70 @@
  */
 package org.hisp.dhis.dxf2.metadata.objectbundle.validation;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import lombok.RequiredArgsConstructor;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 import org.hisp.dhis.common.IdentifiableObject;
 import org.hisp.dhis.dxf2.metadata.objectbundle.ObjectBundle;
+import org.hisp.dhis.external.conf.ConfigurationKey;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.feedback.TypeReport;
 import org.hisp.dhis.importexport.ImportStrategy;
+import org.hisp.dhis.setting.ThreadUserSettings;
+import org.hisp.dhis.setting.UserSettings;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Component;
 
+/**
+ * Runs the chain of {@link ValidationCheck}s for an {@link ImportStrategy}.
+ *
+ * <p>Up to {@link ConfigurationKey#METADATA_IMPORT_VALIDATION_PARALLELISM} checks which are {@link
+ * ValidationCheck#isConcurrent()} are handed to the shared task executor while the other checks run
+ * one after another on the calling thread, which holds the database session. Checks on the executor
+ * run with the security context and {@link UserSettings} of the calling thread. A check the
+ * executor has not started by the time its report is needed runs on the calling thread instead, so
+ * a busy executor cannot stall an import. The reports are merged in the order of the chain, so the
+ * outcome does not depend on which check finishes first.
+ */
 @Component
-@RequiredArgsConstructor
 class ValidationRunner {
 
   private final Map<ImportStrategy, List<ValidationCheck>> validatorsByImportStrategy;
 
+  private final Executor executor;
+
+  private final int parallelism;
+
+  @Autowired
+  ValidationRunner(
+      Map<ImportStrategy, List<ValidationCheck>> validatorsByImportStrategy,
+      DhisConfigurationProvider config,
+      @Qualifier("taskScheduler") TaskExecutor taskExecutor) {
+    this(
+        validatorsByImportStrategy,
+        taskExecutor,
+        config.getIntProperty(ConfigurationKey.METADATA_IMPORT_VALIDATION_PARALLELISM));
+  }
+
+  ValidationRunner(
+      Map<ImportStrategy, List<ValidationCheck>> validatorsByImportStrategy,
+      Executor executor,
+      int parallelism) {
+    this.validatorsByImportStrategy = validatorsByImportStrategy;
+    this.executor = executor;
+    this.parallelism = parallelism;
+  }
+
   public <T extends IdentifiableObject> TypeReport executeValidationChain(
       ObjectBundle bundle,
       Class<T> klass,
@@ -54,13 +103,129 @@ class ValidationRunner {
 
     List<ValidationCheck> validationChecks = validatorsByImportStrategy.get(importMode);
 
-    for (ValidationCheck validationCheck : validationChecks) {
-      TypeReport check =
-          validationCheck.check(
-              bundle, klass, persistedObjects, nonPersistedObjects, importMode, ctx);
-      typeReport.merge(check);
+    List<ConcurrentCheck> concurrentChecks = new ArrayList<>();
+
+    if (parallelism > 1) {
+      SecurityContext securityContext = SecurityContextHolder.getContext();
+      UserSettings settings = UserSettings.getCurrentSettings();
+
+      for (ValidationCheck validationCheck : validationChecks) {
+        if (validationCheck.isConcurrent() && concurrentChecks.size() < parallelism) {
+          concurrentChecks.add(
+              submit(
+                  () ->
+                      runCheck(
+                          validationCheck,
+                          bundle,
+                          klass,
+                          persistedObjects,
+                          nonPersistedObjects,
+                          importMode,
+                          ctx),
+                  securityContext,
+                  settings));
+        } else {
+          concurrentChecks.add(null);
+        }
+      }
+    }
+
+    for (int i = 0; i < validationChecks.size(); i++) {
+      ValidationCheck validationCheck = validationChecks.get(i);
+      ConcurrentCheck concurrentCheck = concurrentChecks.isEmpty() ? null : concurrentChecks.get(i);
+
+      CheckResult result =
+          concurrentCheck != null
+              ? concurrentCheck.join()
+              : runCheck(
+                  validationCheck,
+                  bundle,
+                  klass,
+                  persistedObjects,
+                  nonPersistedObjects,
+                  importMode,
+                  ctx);
+
+      typeReport.merge(result.report());
+      ctx.addCheckDuration(validationCheck, result.nanos());
     }
 
     return typeReport;
   }
+
+  private ConcurrentCheck submit(
+      Supplier<CheckResult> check, SecurityContext securityContext, UserSettings settings) {
+    ConcurrentCheck concurrentCheck = new ConcurrentCheck(check);
+
+    try {
+      executor.execute(() -> concurrentCheck.runWith(securityContext, settings));
+    } catch (RejectedExecutionException ex) {
+      // the check runs on the calling thread when its report is needed
+    }
+
+    return concurrentCheck;
+  }
+
+  private static <T extends IdentifiableObject> CheckResult runCheck(
+      ValidationCheck validationCheck,
+      ObjectBundle bundle,
+      Class<T> klass,
+      List<T> persistedObjects,
+      List<T> nonPersistedObjects,
+      ImportStrategy importMode,
+      ValidationContext ctx) {
+    long start = System.nanoTime();
+    TypeReport report =
+        validationCheck.check(
+            bundle, klass, persistedObjects, nonPersistedObjects, importMode, ctx);
+    return new CheckResult(report, System.nanoTime() - start);
+  }
+
+  /** A check which runs either on the executor or on the calling thread, whichever starts it. */
+  private static final class ConcurrentCheck {
+    private final Supplier<CheckResult> check;
+
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    private final CompletableFuture<CheckResult> result = new CompletableFuture<>();
+
+    ConcurrentCheck(Supplier<CheckResult> check) {
+      this.check = check;
+    }
+
+    void runWith(SecurityContext securityContext, UserSettings settings) {
+      if (!started.compareAndSet(false, true)) {
+        return;
+      }
+
+      SecurityContextHolder.setContext(securityContext);
+      ThreadUserSettings.set(settings);
+
+      try {
+        result.complete(check.get());
+      } catch (RuntimeException | Error ex) {
+        result.completeExceptionally(ex);
+      } finally {
+        ThreadUserSettings.clear();
+        SecurityContextHolder.clearContext();
+      }
+    }
+
+    CheckResult join() {
+      if (started.compareAndSet(false, true)) {
+        return check.get();
+      }
+
+      try {
+        return result.join();
+      } catch (CompletionException ex) {
+        if (ex.getCause() instanceof RuntimeException cause) {
+          throw cause;
+        }
+        throw ex;
+      }
+    }
+  }
+
+  private record CheckResult(TypeReport report, long nanos) {}
 }
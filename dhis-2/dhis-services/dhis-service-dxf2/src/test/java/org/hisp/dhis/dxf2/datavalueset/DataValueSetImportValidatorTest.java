@@ -37,11 +37,14 @@ import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Arrays;
 import java.util.Date;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import org.hisp.dhis.category.CategoryCombo;
@@ -51,6 +54,7 @@ import org.hisp.dhis.common.CodeGenerator;
 import org.hisp.dhis.common.DateRange;
 import org.hisp.dhis.common.IdentifiableObject;
 import org.hisp.dhis.common.ValueType;
+import org.hisp.dhis.dataapproval.DataApproval;
 import org.hisp.dhis.dataapproval.DataApprovalService;
 import org.hisp.dhis.dataapproval.DataApprovalWorkflow;
 import org.hisp.dhis.dataelement.DataElement;
@@ -601,6 +605,38 @@ class DataValueSetImportValidatorTest {
         dataSetContext.getDataSet().getUid());
   }
 
+  @Test
+  void testPrefetchApprovals() {
+    DataValue dataValue = createRandomDataValue();
+    DataValueContext valueContext = createDataValueContext(dataValue).build();
+    DataSetContext dataSetContext = createMinimalDataSetContext(createEmptyDataValueSet()).build();
+    DataApprovalWorkflow workflow = new DataApprovalWorkflow();
+    workflow.setUid(CodeGenerator.generateUid());
+    dataSetContext.getDataSet().setWorkflow(workflow);
+    ImportContext context = createMinimalImportContext(valueContext).forceDataInput(false).build();
+    DataApproval approval =
+        new DataApproval(
+            null,
+            workflow,
+            valueContext.getPeriod(),
+            valueContext.getOrgUnit(),
+            valueContext.getAttrOptionCombo());
+    when(approvalService.getApproved(any())).thenReturn(Set.of(approval));
+
+    validator.prefetch(context, dataSetContext, List.of(valueContext));
+
+    assertTrue(validator.skipDataValue(dataValue, context, dataSetContext, valueContext));
+    assertConflict(
+        ErrorCode.E7642,
+        "Data already approved for data set: `<object4>` period: `<object2>` org unit: `<object1>` attribute option combo: `<object3>`",
+        context,
+        dataValue.getOrgUnit(),
+        dataValue.getPeriod(),
+        dataValue.getAttributeOptionCombo(),
+        dataSetContext.getDataSet().getUid());
+    verify(approvalService, never()).isApproved(any(), any(), any(), any());
+  }
+
   @Test
   void testCheckDataValuePeriodIsOpenNow() {
     DataValue dataValue = createRandomDataValue();
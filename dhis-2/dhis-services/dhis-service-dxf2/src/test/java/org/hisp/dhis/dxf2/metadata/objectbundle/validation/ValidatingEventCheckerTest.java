@@ -28,6 +28,7 @@
 package org.hisp.dhis.dxf2.metadata.objectbundle.validation;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.hisp.dhis.importexport.ImportStrategy.CREATE_AND_UPDATE;
@@ -42,6 +43,7 @@ import org.hisp.dhis.common.IdentifiableObject;
 import org.hisp.dhis.dxf2.metadata.objectbundle.ObjectBundle;
 import org.hisp.dhis.dxf2.metadata.objectbundle.ObjectBundleHooks;
 import org.hisp.dhis.dxf2.metadata.objectbundle.ObjectBundleParams;
+import org.hisp.dhis.dxf2.metadata.objectbundle.feedback.ObjectBundleValidationReport;
 import org.hisp.dhis.feedback.TypeReport;
 import org.hisp.dhis.preheat.Preheat;
 import org.hisp.dhis.preheat.PreheatIdentifier;
@@ -80,19 +82,22 @@ class ValidatingEventCheckerTest {
             aclService,
             userService,
             new ObjectBundleHooks(Collections.emptyList()),
-            new ValidationRunner(Map.of(CREATE_AND_UPDATE, List.of(new DummyCheck()))));
+            new ValidationRunner(
+                Map.of(CREATE_AND_UPDATE, List.of(new DummyCheck())), Runnable::run, 1));
   }
 
   @Test
   void verifyValidationFactoryProcessValidationCheck() {
     ObjectBundle bundle = createObjectBundle();
 
-    TypeReport typeReport =
-        validationFactory.validateBundle(
-            bundle,
-            Attribute.class,
-            bundle.getObjects(Attribute.class, true),
-            bundle.getObjects(Attribute.class, false));
+    ObjectBundleValidationReport validation = new ObjectBundleValidationReport();
+    validationFactory.validateBundle(
+        bundle,
+        Attribute.class,
+        bundle.getObjects(Attribute.class, true),
+        bundle.getObjects(Attribute.class, false),
+        validation);
+    TypeReport typeReport = validation.getTypeReport(Attribute.class);
 
     // verify that object has been removed from bundle
     assertThat(bundle.getObjects(Attribute.class, false), hasSize(0));
@@ -102,6 +107,7 @@ class ValidatingEventCheckerTest {
     assertThat(typeReport.getStats().getDeleted(), is(0));
     assertThat(typeReport.getStats().getIgnored(), is(1));
     assertThat(typeReport.getObjectReportsCount(), is(1));
+    assertThat(validation.getCheckDurations().keySet(), contains("DummyCheck"));
   }
 
   private ObjectBundle createObjectBundle() {
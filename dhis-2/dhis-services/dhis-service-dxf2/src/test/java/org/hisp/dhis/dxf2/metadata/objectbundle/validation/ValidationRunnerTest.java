@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.dxf2.metadata.objectbundle.validation;
+
+import static org.hisp.dhis.dxf2.metadata.objectbundle.validation.ValidationUtils.createObjectReport;
+import static org.hisp.dhis.importexport.ImportStrategy.CREATE_AND_UPDATE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import org.hisp.dhis.attribute.Attribute;
+import org.hisp.dhis.common.IdentifiableObject;
+import org.hisp.dhis.dxf2.metadata.objectbundle.ObjectBundle;
+import org.hisp.dhis.dxf2.metadata.objectbundle.ObjectBundleParams;
+import org.hisp.dhis.feedback.ErrorCode;
+import org.hisp.dhis.feedback.ErrorReport;
+import org.hisp.dhis.feedback.ObjectReport;
+import org.hisp.dhis.feedback.TypeReport;
+import org.hisp.dhis.importexport.ImportStrategy;
+import org.hisp.dhis.preheat.Preheat;
+import org.hisp.dhis.setting.ThreadUserSettings;
+import org.hisp.dhis.setting.UserSettings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Tests the {@link ValidationRunner} running concurrent checks on the executor and the others on
+ * the calling thread.
+ */
+class ValidationRunnerTest {
+
+  /** Runs each task on a new thread and waits for it, so that the executor always wins the race. */
+  private static final Executor POOL =
+      task -> {
+        Thread thread = new Thread(task, "METADATA-VALIDATION-1");
+        thread.start();
+        try {
+          thread.join();
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+        }
+      };
+
+  private ValidationRunner runner;
+
+  @AfterEach
+  void tearDown() {
+    SecurityContextHolder.clearContext();
+    ThreadUserSettings.clear();
+  }
+
+  @Test
+  void testConcurrentChecksRunOnPool() {
+    PrefixCheck sequential = new PrefixCheck("a", false);
+    PrefixCheck concurrent = new PrefixCheck("b", true);
+    runner =
+        new ValidationRunner(Map.of(CREATE_AND_UPDATE, List.of(concurrent, sequential)), POOL, 2);
+
+    ValidationContext ctx = createContext();
+    TypeReport report = execute(ctx, "a1", "b1", "c1");
+
+    assertSame(Thread.currentThread(), sequential.thread);
+    assertTrue(concurrent.thread.getName().startsWith("METADATA-VALIDATION-"));
+    assertEquals(2, report.getObjectReportsCount());
+    assertEquals(2, report.getStats().getIgnored());
+    assertEquals(2, ctx.getMarkedForRemoval().size());
+    assertEquals(List.of("PrefixCheck"), List.copyOf(ctx.getCheckDurations().keySet()));
+  }
+
+  @Test
+  void testAllChecksRunOnCallerWithoutParallelism() {
+    PrefixCheck sequential = new PrefixCheck("a", false);
+    PrefixCheck concurrent = new PrefixCheck("b", true);
+    runner =
+        new ValidationRunner(Map.of(CREATE_AND_UPDATE, List.of(concurrent, sequential)), POOL, 1);
+
+    TypeReport report = execute(createContext(), "a1", "b1");
+
+    assertSame(Thread.currentThread(), sequential.thread);
+    assertSame(Thread.currentThread(), concurrent.thread);
+    assertEquals(2, report.getObjectReportsCount());
+  }
+
+  @Test
+  void testConcurrentCheckFailureIsRethrown() {
+    ValidationCheck failing =
+        new PrefixCheck("a", true) {
+          @Override
+          public <T extends IdentifiableObject> void check(
+              ObjectBundle bundle,
+              Class<T> klass,
+              List<T> persistedObjects,
+              List<T> nonPersistedObjects,
+              ImportStrategy importStrategy,
+              ValidationContext context,
+              Consumer<ObjectReport> addReports) {
+            throw new IllegalStateException("failed");
+          }
+        };
+    runner = new ValidationRunner(Map.of(CREATE_AND_UPDATE, List.of(failing)), POOL, 2);
+
+    ValidationContext ctx = createContext();
+    IllegalStateException ex = assertThrows(IllegalStateException.class, () -> execute(ctx, "a1"));
+    assertEquals("failed", ex.getMessage());
+  }
+
+  @Test
+  void testConcurrentChecksRunWithCallerContext() {
+    Authentication authentication = new TestingAuthenticationToken("admin", null);
+    SecurityContextHolder.getContext().setAuthentication(authentication);
+    ThreadUserSettings.put(Map.of("keyDbLocale", "fr"));
+    PrefixCheck concurrent = new PrefixCheck("a", true);
+    runner = new ValidationRunner(Map.of(CREATE_AND_UPDATE, List.of(concurrent)), POOL, 2);
+
+    execute(createContext(), "a1");
+
+    assertTrue(concurrent.thread.getName().startsWith("METADATA-VALIDATION-"));
+    assertSame(authentication, concurrent.authentication);
+    assertEquals("fr", concurrent.settings.getUserDbLocale().getLanguage());
+  }
+
+  @Test
+  void testConcurrentChecksNotStartedByExecutorRunOnCaller() {
+    PrefixCheck first = new PrefixCheck("a", true);
+    PrefixCheck second = new PrefixCheck("b", true);
+    Executor busy = task -> {};
+    runner = new ValidationRunner(Map.of(CREATE_AND_UPDATE, List.of(first, second)), busy, 2);
+
+    TypeReport report = execute(createContext(), "a1", "b1");
+
+    assertSame(Thread.currentThread(), first.thread);
+    assertSame(Thread.currentThread(), second.thread);
+    assertEquals(2, report.getObjectReportsCount());
+  }
+
+  private TypeReport execute(ValidationContext ctx, String... uids) {
+    Map<Class<? extends IdentifiableObject>, List<IdentifiableObject>> objects = new HashMap<>();
+    objects.put(Attribute.class, new ArrayList<>());
+
+    for (String uid : uids) {
+      Attribute attribute = new Attribute();
+      attribute.setUid(uid);
+      objects.get(Attribute.class).add(attribute);
+    }
+
+    ObjectBundle bundle = new ObjectBundle(new ObjectBundleParams(), new Preheat(), objects);
+    return runner.executeValidationChain(
+        bundle,
+        Attribute.class,
+        bundle.getObjects(Attribute.class, true),
+        bundle.getObjects(Attribute.class, false),
+        ctx);
+  }
+
+  private static ValidationContext createContext() {
+    return new ValidationContext(null, null, null, null, null);
+  }
+
+  /**
+   * Rejects the objects whose UID starts with a prefix and remembers the thread and user context it
+   * ran with.
+   */
+  private static class PrefixCheck implements ObjectValidationCheck {
+    private final String prefix;
+
+    private final boolean concurrent;
+
+    private volatile Thread thread;
+
+    private volatile Authentication authentication;
+
+    private volatile UserSettings settings;
+
+    PrefixCheck(String prefix, boolean concurrent) {
+      this.prefix = prefix;
+      this.concurrent = concurrent;
+    }
+
+    @Override
+    public boolean isConcurrent() {
+      return concurrent;
+    }
+
+    @Override
+    public <T extends IdentifiableObject> void check(
+        ObjectBundle bundle,
+        Class<T> klass,
+        List<T> persistedObjects,
+        List<T> nonPersistedObjects,
+        ImportStrategy importStrategy,
+        ValidationContext context,
+        Consumer<ObjectReport> addReports) {
+      thread = Thread.currentThread();
+      authentication = SecurityContextHolder.getContext().getAuthentication();
+      settings = UserSettings.getCurrentSettings();
+
+      for (T object : nonPersistedObjects) {
+        if (object.getUid().startsWith(prefix)) {
+          ErrorReport errorReport =
+              new ErrorReport(
+                      klass, ErrorCode.E5000, bundle.getPreheatIdentifier(), object.getUid())
+                  .setMainId(object.getUid());
+          addReports.accept(createObjectReport(errorReport, object, bundle));
+          context.markForRemoval(object);
+        }
+      }
+    }
+  }
+}
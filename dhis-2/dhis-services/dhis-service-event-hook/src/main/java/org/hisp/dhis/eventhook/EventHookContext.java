@@ -40,19 +40,22 @@ import lombok.Data;
 @Data
 @Builder
 public class EventHookContext {
-  @Builder.Default Map<String, List<Handler>> targets = new HashMap<>();
+  /** Handlers of enabled event hooks, mapped from event hook identifier to target identifier. */
+  @Builder.Default Map<String, Map<String, Handler>> targets = new HashMap<>();
 
   @Builder.Default List<EventHook> eventHooks = new ArrayList<>();
 
+  @Builder.Default EventHookTrie trie = new EventHookTrie(List.of());
+
   public boolean hasTarget(String uid) {
-    return targets.containsKey(uid) || targets.get(uid).isEmpty();
+    return targets.containsKey(uid) && !targets.get(uid).isEmpty();
   }
 
-  public List<Handler> getTarget(String uid) {
+  public Map<String, Handler> getTarget(String uid) {
     return targets.get(uid);
   }
 
   public void closeTargets() {
-    targets.values().forEach(handlers -> handlers.forEach(Handler::close));
+    targets.values().forEach(handlers -> handlers.values().forEach(Handler::close));
   }
 }
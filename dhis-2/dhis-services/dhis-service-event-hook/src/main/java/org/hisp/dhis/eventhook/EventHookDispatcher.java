@@ -0,0 +1,311 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.eventhook;
+
+import static org.hisp.dhis.external.conf.ConfigurationKey.EVENT_HOOKS_BATCH_SIZE;
+import static org.hisp.dhis.external.conf.ConfigurationKey.EVENT_HOOKS_CLAIM_TIMEOUT;
+import static org.hisp.dhis.external.conf.ConfigurationKey.EVENT_HOOKS_DISPATCH_INTERVAL;
+import static org.hisp.dhis.external.conf.ConfigurationKey.EVENT_HOOKS_ENABLED;
+import static org.hisp.dhis.external.conf.ConfigurationKey.EVENT_HOOKS_MAX_ATTEMPTS;
+import static org.hisp.dhis.external.conf.ConfigurationKey.EVENT_HOOKS_RETRY_DELAY;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import javax.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hisp.dhis.eventhook.EventHookOutboxStore.Message;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Delivers events from the event hook outbox to the targets of the event hooks. The scheduler only
+ * triggers dispatching; delivery to each target runs on the event hook executor, one thread per
+ * target at a time. Events are claimed in batches in a short transaction and sent outside of it, so
+ * that no database locks are held while waiting for a target. The outcome is recorded per event:
+ * delivered events are removed, the event which failed is retried with exponential back-off until
+ * the max number of attempts is reached, after which it is dropped, and the events after it are
+ * retried along with it to keep the order. Delivered, failed and dropped events are counted per
+ * target, and the lag of each target is recorded as the age of its oldest pending event. Pending
+ * events of event hooks which were deleted are removed after a reload.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EventHookDispatcher {
+  /** Max exponent of the retry back-off, to keep the delay within bounds. */
+  private static final int MAX_BACKOFF_EXPONENT = 10;
+
+  private final EventHookListener eventHookListener;
+
+  private final EventHookOutboxStore outboxStore;
+
+  private final TransactionTemplate transactionTemplate;
+
+  private final DhisConfigurationProvider config;
+
+  private final TaskScheduler scheduler;
+
+  @Qualifier("eventHookTaskExecutor")
+  private final Executor executor;
+
+  private final MeterRegistry meterRegistry;
+
+  private final Map<String, AtomicLong> lags = new ConcurrentHashMap<>();
+
+  /** Targets currently being delivered to, keyed on event hook and target identifier. */
+  private final Set<String> dispatching = ConcurrentHashMap.newKeySet();
+
+  /** The context of the previous dispatch, used to detect reloads of event hooks. */
+  private EventHookContext dispatchedContext;
+
+  @PostConstruct
+  public void init() {
+    if (!config.isEnabled(EVENT_HOOKS_ENABLED)) {
+      return;
+    }
+
+    scheduler.scheduleWithFixedDelay(
+        this::dispatch, Duration.ofMillis(config.getIntProperty(EVENT_HOOKS_DISPATCH_INTERVAL)));
+
+    log.info("Scheduled event hook dispatcher");
+  }
+
+  /**
+   * Submits delivery of the due events of each target to the event hook executor, skipping targets
+   * which are still being delivered to.
+   */
+  public void dispatch() {
+    EventHookContext context = eventHookListener.getEventHookContext();
+
+    if (context != dispatchedContext) {
+      outboxStore.removeOrphans(
+          context.getEventHooks().stream().map(EventHook::getUid).collect(Collectors.toSet()));
+      dispatchedContext = context;
+    }
+
+    for (EventHook eventHook : context.getEventHooks()) {
+      if (!context.hasTarget(eventHook.getUid())) {
+        continue;
+      }
+
+      for (Map.Entry<String, Handler> target : context.getTarget(eventHook.getUid()).entrySet()) {
+        submit(eventHook, target.getKey(), target.getValue());
+      }
+    }
+  }
+
+  private void submit(EventHook eventHook, String targetId, Handler handler) {
+    String key = eventHook.getUid() + "/" + targetId;
+
+    if (!dispatching.add(key)) {
+      return;
+    }
+
+    try {
+      executor.execute(
+          () -> {
+            try {
+              dispatch(eventHook, targetId, handler);
+            } catch (RuntimeException ex) {
+              log.error(
+                  "Event hook dispatch failed for '{}' target '{}'",
+                  eventHook.getUid(),
+                  targetId,
+                  ex);
+            } finally {
+              dispatching.remove(key);
+            }
+          });
+    } catch (RejectedExecutionException ex) {
+      dispatching.remove(key);
+      log.warn("Event hook dispatch for '{}' target '{}' rejected", eventHook.getUid(), targetId);
+    }
+  }
+
+  /**
+   * Delivers batches of events to the given target until no full batch of due events is left, or a
+   * delivery fails.
+   */
+  private void dispatch(EventHook eventHook, String targetId, Handler handler) {
+    int batchSize = config.getIntProperty(EVENT_HOOKS_BATCH_SIZE);
+    int claimTimeout = config.getIntProperty(EVENT_HOOKS_CLAIM_TIMEOUT);
+
+    Tags tags = Tags.of("hook", eventHook.getUid(), "target", targetId);
+
+    boolean more = true;
+
+    while (more) {
+      List<Message> messages =
+          transactionTemplate.execute(
+              status ->
+                  outboxStore.claimDue(
+                      eventHook.getUid(),
+                      targetId,
+                      batchSize,
+                      Instant.now().plusMillis(claimTimeout)));
+
+      if (messages == null || messages.isEmpty()) {
+        getLag(tags).set(0);
+        return;
+      }
+
+      getLag(tags).set(Duration.between(messages.get(0).created(), Instant.now()).toMillis());
+
+      more = deliver(eventHook, targetId, handler, messages, tags) && messages.size() == batchSize;
+    }
+  }
+
+  /**
+   * Sends the given claimed messages to the given target and records the outcome of each message.
+   * Messages are sent in order, so the ones before a failure are delivered and the ones after it
+   * were not attempted. An exception other than an {@link EventHookException}, which does not tell
+   * how many messages were delivered, counts as a failure of the first message, so that the claim
+   * is released and the attempt is counted.
+   *
+   * @return true if all messages were delivered.
+   */
+  private boolean deliver(
+      EventHook eventHook, String targetId, Handler handler, List<Message> messages, Tags tags) {
+    try {
+      handler.run(eventHook, messages.stream().map(Message::payload).toList());
+    } catch (EventHookException ex) {
+      int delivered = Math.max(0, Math.min(ex.getDelivered(), messages.size()));
+
+      handleFailure(
+          eventHook,
+          targetId,
+          messages.subList(0, delivered),
+          messages.subList(delivered, messages.size()),
+          tags,
+          ex);
+      return false;
+    } catch (RuntimeException ex) {
+      handleFailure(eventHook, targetId, List.of(), messages, tags, ex);
+      return false;
+    }
+
+    transactionTemplate.executeWithoutResult(status -> outboxStore.remove(messages));
+    meterRegistry.counter("eventhook.delivered", tags).increment(messages.size());
+
+    return true;
+  }
+
+  /**
+   * Removes the delivered messages. The first undelivered message is dropped if it has reached the
+   * max number of attempts, and postponed with exponential back-off otherwise. The messages after
+   * it are released without counting an attempt, to be retried along with it.
+   */
+  private void handleFailure(
+      EventHook eventHook,
+      String targetId,
+      List<Message> delivered,
+      List<Message> undelivered,
+      Tags tags,
+      Exception ex) {
+    int maxAttempts = config.getIntProperty(EVENT_HOOKS_MAX_ATTEMPTS);
+
+    Message failed = undelivered.isEmpty() ? null : undelivered.get(0);
+    List<Message> pending =
+        undelivered.isEmpty() ? List.of() : undelivered.subList(1, undelivered.size());
+    boolean drop = failed != null && failed.attempts() + 1 >= maxAttempts;
+    long delay =
+        failed == null || drop
+            ? 0
+            : (long) config.getIntProperty(EVENT_HOOKS_RETRY_DELAY)
+                << Math.min(failed.attempts(), MAX_BACKOFF_EXPONENT);
+    Instant nextAttempt = Instant.now().plusMillis(delay);
+
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          outboxStore.remove(delivered);
+
+          if (drop) {
+            outboxStore.remove(List.of(failed));
+          } else if (failed != null) {
+            outboxStore.postpone(List.of(failed), nextAttempt);
+          }
+
+          outboxStore.release(pending, nextAttempt);
+        });
+
+    meterRegistry.counter("eventhook.delivered", tags).increment(delivered.size());
+
+    if (failed == null) {
+      return;
+    }
+
+    meterRegistry.counter("eventhook.failed", tags).increment();
+
+    if (drop) {
+      meterRegistry.counter("eventhook.dropped", tags).increment();
+
+      log.error(
+          "Dropped event for event hook '{}' target '{}' after {} attempts: {}",
+          eventHook.getUid(),
+          targetId,
+          maxAttempts,
+          ex.getMessage());
+    } else {
+      log.warn(
+          "Delivery of {} events for event hook '{}' target '{}' failed, retrying in {} ms: {}",
+          undelivered.size(),
+          eventHook.getUid(),
+          targetId,
+          delay,
+          ex.getMessage());
+    }
+  }
+
+  private AtomicLong getLag(Tags tags) {
+    return lags.computeIfAbsent(
+        tags.toString(),
+        key -> {
+          AtomicLong lag = new AtomicLong();
+          Gauge.builder("eventhook.lag", lag, AtomicLong::get)
+              .tags(tags)
+              .baseUnit("milliseconds")
+              .register(meterRegistry);
+          return lag;
+        });
+  }
+}
@@ -27,11 +27,25 @@
  */
 package org.hisp.dhis.eventhook;
 
+import lombok.Getter;
+
 /**
  * @author Morten Olav Hansen
  */
 public class EventHookException extends Exception {
+  /** Number of payloads at the start of the batch which were delivered before the failure. */
+  @Getter private final int delivered;
+
   public EventHookException(String message) {
-    super(message);
+    this(message, null, 0);
+  }
+
+  public EventHookException(String message, Throwable cause) {
+    this(message, cause, 0);
+  }
+
+  public EventHookException(String message, Throwable cause, int delivered) {
+    super(message, cause);
+    this.delivered = delivered;
   }
 }
@@ -33,9 +33,11 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import javax.annotation.PostConstruct;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import org.hisp.dhis.eventhook.handlers.ConsoleHandler;
 import org.hisp.dhis.eventhook.handlers.JmsHandler;
@@ -47,7 +49,6 @@ import org.hisp.dhis.eventhook.targets.KafkaTarget;
 import org.hisp.dhis.eventhook.targets.WebhookTarget;
 import org.hisp.dhis.fieldfiltering.FieldFilterService;
 import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.event.TransactionPhase;
 import org.springframework.transaction.event.TransactionalEventListener;
@@ -62,44 +63,48 @@ public class EventHookListener {
 
   private final FieldFilterService fieldFilterService;
 
-  private EventHookContext eventHookContext = EventHookContext.builder().build();
+  @Getter private volatile EventHookContext eventHookContext = EventHookContext.builder().build();
 
   private final EventHookService eventHookService;
 
-  @Async("eventHookTaskExecutor")
+  private final EventHookOutboxStore outboxStore;
+
+  /**
+   * Adds the event to the outbox of each matching event hook. This runs in the transaction which
+   * published the event, so that the event is stored if and only if the transaction commits.
+   * Delivery to the targets happens asynchronously by the {@link EventHookDispatcher}.
+   */
   @TransactionalEventListener(
       classes = Event.class,
-      phase = TransactionPhase.AFTER_COMMIT,
+      phase = TransactionPhase.BEFORE_COMMIT,
       fallbackExecution = true)
   public void eventListener(Event event) throws JsonProcessingException {
-    for (EventHook eventHook : eventHookContext.getEventHooks()) {
-      if (event.getPath().startsWith(eventHook.getSource().getPath())) {
-        if (!eventHookContext.hasTarget(eventHook.getUid())) {
-          continue;
-        }
+    EventHookContext context = eventHookContext;
+
+    for (EventHook eventHook : context.getTrie().match(event.getPath())) {
+      if (!context.hasTarget(eventHook.getUid())) {
+        continue;
+      }
 
-        if (event.getObject() instanceof Collection) {
-          List<ObjectNode> objects = new ArrayList<>();
+      Event filteredEvent;
 
-          for (Object object : ((Collection<?>) event.getObject())) {
-            objects.add(fieldFilterService.toObjectNode(object, eventHook.getSource().getFields()));
-          }
+      if (event.getObject() instanceof Collection) {
+        List<ObjectNode> objects = new ArrayList<>();
 
-          event = event.withObject(objects);
-        } else {
-          ObjectNode objectNode =
-              fieldFilterService.toObjectNode(event.getObject(), eventHook.getSource().getFields());
-          event = event.withObject(objectNode);
+        for (Object object : ((Collection<?>) event.getObject())) {
+          objects.add(fieldFilterService.toObjectNode(object, eventHook.getSource().getFields()));
         }
 
-        String payload = objectMapper.writeValueAsString(event);
+        filteredEvent = event.withObject(objects);
+      } else {
+        ObjectNode objectNode =
+            fieldFilterService.toObjectNode(event.getObject(), eventHook.getSource().getFields());
+        filteredEvent = event.withObject(objectNode);
+      }
 
-        List<Handler> handlers = eventHookContext.getTarget(eventHook.getUid());
+      String payload = objectMapper.writeValueAsString(filteredEvent);
 
-        for (Handler handler : handlers) {
-          handler.run(eventHook, event, payload);
-        }
-      }
+      outboxStore.add(eventHook.getUid(), context.getTarget(eventHook.getUid()).keySet(), payload);
     }
   }
 
@@ -109,28 +114,49 @@ public class EventHookListener {
     eventHookContext.closeTargets();
 
     List<EventHook> eventHooks = eventHookService.getAll();
-    Map<String, List<Handler>> targets = new HashMap<>();
+    Map<String, Map<String, Handler>> targets = new HashMap<>();
 
     for (EventHook eh : eventHooks) {
       if (eh.isDisabled()) {
         continue;
       }
 
-      targets.put(eh.getUid(), new ArrayList<>());
+      Map<String, Handler> handlers = new LinkedHashMap<>();
+      targets.put(eh.getUid(), handlers);
+
+      for (int i = 0; i < eh.getTargets().size(); i++) {
+        Target target = eh.getTargets().get(i);
+        String targetId = getTargetId(i);
 
-      for (Target target : eh.getTargets()) {
         if (WebhookTarget.TYPE.equals(target.getType())) {
-          targets.get(eh.getUid()).add(new WebhookHandler((WebhookTarget) target));
+          handlers.put(targetId, new WebhookHandler((WebhookTarget) target));
         } else if (ConsoleTarget.TYPE.equals(target.getType())) {
-          targets.get(eh.getUid()).add(new ConsoleHandler((ConsoleTarget) target));
+          handlers.put(targetId, new ConsoleHandler((ConsoleTarget) target));
         } else if (JmsTarget.TYPE.equals(target.getType())) {
-          targets.get(eh.getUid()).add(new JmsHandler((JmsTarget) target));
+          handlers.put(targetId, new JmsHandler((JmsTarget) target));
         } else if (KafkaTarget.TYPE.equals(target.getType())) {
-          targets.get(eh.getUid()).add(new KafkaHandler((KafkaTarget) target));
+          handlers.put(targetId, new KafkaHandler((KafkaTarget) target));
         }
       }
     }
 
-    eventHookContext = EventHookContext.builder().eventHooks(eventHooks).targets(targets).build();
+    eventHookContext =
+        EventHookContext.builder()
+            .eventHooks(eventHooks)
+            .targets(targets)
+            .trie(new EventHookTrie(eventHooks.stream().filter(eh -> !eh.isDisabled()).toList()))
+            .build();
+  }
+
+  /**
+   * Returns the identifier of the target at the given position of an event hook. Together with the
+   * event hook identifier it stays the same when the configuration of the target is edited, so that
+   * pending events are delivered to the edited target.
+   *
+   * @param index the position of the target in the event hook.
+   * @return the target identifier.
+   */
+  static String getTargetId(int index) {
+    return String.valueOf(index);
   }
 }
@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.eventhook;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Store for event hook events which are pending delivery. Each event is stored once per target of
+ * the event hook, so that delivery to each target is tracked and retried independently. Targets are
+ * identified by their position in the event hook, which does not change when a target is edited.
+ */
+@Repository
+@RequiredArgsConstructor
+public class EventHookOutboxStore {
+  private final JdbcTemplate jdbcTemplate;
+
+  /**
+   * Adds the given payload for delivery to the given targets of the given event hook.
+   *
+   * @param eventHookUid the event hook identifier.
+   * @param targetIds the identifiers of the targets of the event hook.
+   * @param payload the serialized event.
+   */
+  public void add(String eventHookUid, Collection<String> targetIds, String payload) {
+    Timestamp now = Timestamp.from(Instant.now());
+
+    jdbcTemplate.batchUpdate(
+        "insert into eventhookoutbox (eventhookuid, targetid, payload, created, attempts, nextattempt) "
+            + "values (?, ?, ?, ?, 0, ?)",
+        targetIds,
+        targetIds.size(),
+        (ps, targetId) -> {
+          ps.setString(1, eventHookUid);
+          ps.setString(2, targetId);
+          ps.setString(3, payload);
+          ps.setTimestamp(4, now);
+          ps.setTimestamp(5, now);
+        });
+  }
+
+  /**
+   * Claims the messages for the given target which are due for delivery by postponing their next
+   * attempt to the given time, and returns them in the order they were created. Messages locked by
+   * other transactions are skipped, so that concurrent dispatchers never claim the same message.
+   * Claimed messages which are neither removed nor postponed, e.g. because the dispatcher crashed,
+   * are due again when the claim expires.
+   *
+   * @param eventHookUid the event hook identifier.
+   * @param targetId the identifier of the target of the event hook.
+   * @param limit the max number of messages to claim.
+   * @param claimedUntil the time the claim expires.
+   * @return a list of {@link Message}.
+   */
+  public List<Message> claimDue(
+      String eventHookUid, String targetId, int limit, Instant claimedUntil) {
+    return jdbcTemplate
+        .query(
+            "update eventhookoutbox set nextattempt = ? where eventhookoutboxid in ("
+                + "select eventhookoutboxid from eventhookoutbox "
+                + "where eventhookuid = ? and targetid = ? and nextattempt <= now() "
+                + "order by eventhookoutboxid limit ? for update skip locked) "
+                + "returning eventhookoutboxid, payload, created, attempts",
+            (rs, rowNum) ->
+                new Message(
+                    rs.getLong("eventhookoutboxid"),
+                    rs.getString("payload"),
+                    rs.getTimestamp("created").toInstant(),
+                    rs.getInt("attempts")),
+            Timestamp.from(claimedUntil),
+            eventHookUid,
+            targetId,
+            limit)
+        .stream()
+        .sorted(Comparator.comparingLong(Message::id))
+        .toList();
+  }
+
+  /**
+   * Removes the given messages.
+   *
+   * @param messages the list of {@link Message}.
+   */
+  public void remove(List<Message> messages) {
+    if (messages.isEmpty()) {
+      return;
+    }
+
+    jdbcTemplate.batchUpdate(
+        "delete from eventhookoutbox where eventhookoutboxid = ?",
+        messages,
+        messages.size(),
+        (ps, message) -> ps.setLong(1, message.id()));
+  }
+
+  /**
+   * Increments the attempt count of the given messages and postpones the next attempt to the given
+   * time.
+   *
+   * @param messages the list of {@link Message} which failed delivery.
+   * @param nextAttempt the time of the next delivery attempt.
+   */
+  public void postpone(List<Message> messages, Instant nextAttempt) {
+    if (messages.isEmpty()) {
+      return;
+    }
+
+    Timestamp next = Timestamp.from(nextAttempt);
+
+    jdbcTemplate.batchUpdate(
+        "update eventhookoutbox set attempts = attempts + 1, nextattempt = ? "
+            + "where eventhookoutboxid = ?",
+        messages,
+        messages.size(),
+        (ps, message) -> {
+          ps.setTimestamp(1, next);
+          ps.setLong(2, message.id());
+        });
+  }
+
+  /**
+   * Releases the claim on the given messages without counting an attempt, so that they are due
+   * again at the given time.
+   *
+   * @param messages the list of {@link Message} which were not attempted.
+   * @param nextAttempt the time of the next delivery attempt.
+   */
+  public void release(List<Message> messages, Instant nextAttempt) {
+    if (messages.isEmpty()) {
+      return;
+    }
+
+    Timestamp next = Timestamp.from(nextAttempt);
+
+    jdbcTemplate.batchUpdate(
+        "update eventhookoutbox set nextattempt = ? where eventhookoutboxid = ?",
+        messages,
+        messages.size(),
+        (ps, message) -> {
+          ps.setTimestamp(1, next);
+          ps.setLong(2, message.id());
+        });
+  }
+
+  /**
+   * Removes the messages of event hooks which are not among the given ones, i.e. which were
+   * deleted. Messages of disabled event hooks are kept for delivery once they are enabled again.
+   *
+   * @param eventHookUids the identifiers of all existing event hooks.
+   */
+  public void removeOrphans(Set<String> eventHookUids) {
+    List<String> orphans =
+        jdbcTemplate
+            .queryForList("select distinct eventhookuid from eventhookoutbox", String.class)
+            .stream()
+            .filter(eventHookUid -> !eventHookUids.contains(eventHookUid))
+            .toList();
+
+    for (String eventHookUid : orphans) {
+      jdbcTemplate.update("delete from eventhookoutbox where eventhookuid = ?", eventHookUid);
+    }
+  }
+
+  /**
+   * Message pending delivery.
+   *
+   * @param id the identifier.
+   * @param payload the serialized event.
+   * @param created the time the message was created.
+   * @param attempts the number of failed delivery attempts.
+   */
+  public record Message(long id, String payload, Instant created, int attempts) {}
+}
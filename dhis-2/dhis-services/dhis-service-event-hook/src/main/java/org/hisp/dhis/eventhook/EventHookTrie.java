@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.eventhook;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prefix trie of event hook source paths. Looking up an event path returns every event hook with a
+ * source path which the event path starts with, in time proportional to the length of the event
+ * path rather than the number of event hooks.
+ */
+public class EventHookTrie {
+  private final Node root = new Node();
+
+  public EventHookTrie(List<EventHook> eventHooks) {
+    eventHooks.forEach(this::add);
+  }
+
+  /**
+   * Returns the event hooks with a source path which is a prefix of the given path.
+   *
+   * @param path the event path.
+   * @return a list of matching {@link EventHook}.
+   */
+  public List<EventHook> match(String path) {
+    List<EventHook> matches = new ArrayList<>(root.eventHooks);
+    Node node = root;
+
+    for (int i = 0; i < path.length() && node != null; i++) {
+      node = node.children.get(path.charAt(i));
+
+      if (node != null) {
+        matches.addAll(node.eventHooks);
+      }
+    }
+
+    return matches;
+  }
+
+  private void add(EventHook eventHook) {
+    String path = eventHook.getSource().getPath();
+    Node node = root;
+
+    for (int i = 0; i < path.length(); i++) {
+      node = node.children.computeIfAbsent(path.charAt(i), c -> new Node());
+    }
+
+    node.eventHooks.add(eventHook);
+  }
+
+  private static class Node {
+    private final Map<Character, Node> children = new HashMap<>();
+
+    private final List<EventHook> eventHooks = new ArrayList<>();
+  }
+}
@@ -27,12 +27,23 @@
  */
 package org.hisp.dhis.eventhook;
 
+import java.util.List;
+
 /**
  * @author Morten Olav Hansen
  */
 @FunctionalInterface
 public interface Handler extends AutoCloseable {
-  void run(EventHook eventHook, Event event, String payload);
+  /**
+   * Delivers the given batch of serialized events to the target of this handler.
+   *
+   * @param eventHook the {@link EventHook}.
+   * @param payloads the serialized events, in the order they were created.
+   * @throws EventHookException if not all payloads could be delivered. Payloads are delivered in
+   *     order, and {@link EventHookException#getDelivered()} tells how many were delivered before
+   *     the failure, so that only the remaining ones are retried.
+   */
+  void run(EventHook eventHook, List<String> payloads) throws EventHookException;
 
   @Override
   default void close() {}
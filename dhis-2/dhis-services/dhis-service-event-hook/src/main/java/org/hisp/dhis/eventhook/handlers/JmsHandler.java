@@ -27,14 +27,15 @@
  */
 package org.hisp.dhis.eventhook.handlers;
 
+import java.util.List;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.activemq.artemis.api.jms.ActiveMQJMSClient;
 import org.apache.activemq.artemis.jms.client.ActiveMQConnectionFactory;
 import org.apache.activemq.artemis.jms.client.ActiveMQDestination;
 import org.apache.activemq.artemis.jms.client.ActiveMQQueue;
 import org.apache.activemq.artemis.jms.client.ActiveMQTopic;
-import org.hisp.dhis.eventhook.Event;
 import org.hisp.dhis.eventhook.EventHook;
+import org.hisp.dhis.eventhook.EventHookException;
 import org.hisp.dhis.eventhook.Handler;
 import org.hisp.dhis.eventhook.targets.JmsTarget;
 import org.springframework.jms.JmsException;
@@ -90,7 +91,7 @@ public class JmsHandler implements Handler {
   }
 
   @Override
-  public void run(EventHook eventHook, Event event, String payload) {
+  public void run(EventHook eventHook, List<String> payloads) throws EventHookException {
     if (jmsTemplate == null) {
       log.error(
           "Jms is not properly configured. Please check Event Hook '"
@@ -101,21 +102,27 @@ public class JmsHandler implements Handler {
       return;
     }
 
-    if (target.isUseQueue()) {
-      sendTo(new ActiveMQQueue(target.getAddress()), payload);
-    } else {
-      sendTo(new ActiveMQTopic(target.getAddress()), payload);
+    ActiveMQDestination destination =
+        target.isUseQueue()
+            ? new ActiveMQQueue(target.getAddress())
+            : new ActiveMQTopic(target.getAddress());
+
+    for (int i = 0; i < payloads.size(); i++) {
+      sendTo(destination, payloads.get(i), i);
     }
   }
 
-  private void sendTo(ActiveMQDestination destination, String payload) {
+  private void sendTo(ActiveMQDestination destination, String payload, int delivered)
+      throws EventHookException {
     try {
       jmsTemplate.send(destination, session -> session.createTextMessage(payload));
     } catch (JmsException ex) {
-      log.warn(
+      throw new EventHookException(
           "Could not send message to JMS target: "
               + target.getBrokerUrl()
-              + ", check and validate that your broker is up and running on the correct address");
+              + ", check and validate that your broker is up and running on the correct address",
+          ex,
+          delivered);
     }
   }
 
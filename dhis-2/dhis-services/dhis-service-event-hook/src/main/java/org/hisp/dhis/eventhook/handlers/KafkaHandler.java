@@ -27,13 +27,18 @@
  */
 package org.hisp.dhis.eventhook.handlers;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.producer.KafkaProducer;
 import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
 import org.apache.kafka.common.serialization.StringSerializer;
-import org.hisp.dhis.eventhook.Event;
 import org.hisp.dhis.eventhook.EventHook;
+import org.hisp.dhis.eventhook.EventHookException;
 import org.hisp.dhis.eventhook.Handler;
 import org.hisp.dhis.eventhook.targets.KafkaTarget;
 
@@ -84,7 +89,7 @@ public class KafkaHandler implements Handler {
   }
 
   @Override
-  public void run(EventHook eventHook, Event event, String payload) {
+  public void run(EventHook eventHook, List<String> payloads) throws EventHookException {
     if (producer == null) {
       log.error(
           "Kafka is not properly configured. Please check Event Hook '"
@@ -95,7 +100,22 @@ public class KafkaHandler implements Handler {
       return;
     }
 
-    producer.send(new ProducerRecord<>(target.getTopic(), null, payload));
+    List<Future<RecordMetadata>> results = new ArrayList<>();
+
+    for (String payload : payloads) {
+      results.add(producer.send(new ProducerRecord<>(target.getTopic(), null, payload)));
+    }
+
+    for (int i = 0; i < results.size(); i++) {
+      try {
+        results.get(i).get();
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new EventHookException(ex.getMessage(), ex, i);
+      } catch (ExecutionException ex) {
+        throw new EventHookException(ex.getCause().getMessage(), ex.getCause(), i);
+      }
+    }
   }
 
   @Override
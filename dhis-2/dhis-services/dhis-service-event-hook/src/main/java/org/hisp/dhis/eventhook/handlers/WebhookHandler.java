@@ -27,6 +27,7 @@
  */
 package org.hisp.dhis.eventhook.handlers;
 
+import java.util.List;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.hc.client5.http.classic.HttpClient;
 import org.apache.hc.client5.http.config.ConnectionConfig;
@@ -35,8 +36,8 @@ import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
 import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
 import org.apache.hc.core5.http.io.SocketConfig;
 import org.apache.hc.core5.util.Timeout;
-import org.hisp.dhis.eventhook.Event;
 import org.hisp.dhis.eventhook.EventHook;
+import org.hisp.dhis.eventhook.EventHookException;
 import org.hisp.dhis.eventhook.Handler;
 import org.hisp.dhis.eventhook.targets.WebhookTarget;
 import org.hisp.dhis.system.util.HttpUtils;
@@ -67,7 +68,7 @@ public class WebhookHandler implements Handler {
   }
 
   @Override
-  public void run(EventHook eventHook, Event event, String payload) {
+  public void run(EventHook eventHook, List<String> payloads) throws EventHookException {
     HttpHeaders httpHeaders = new HttpHeaders();
     httpHeaders.setContentType(MediaType.parseMediaType(webhookTarget.getContentType()));
     httpHeaders.setAll(webhookTarget.getHeaders());
@@ -77,23 +78,25 @@ public class WebhookHandler implements Handler {
       webhookTarget.getAuth().apply(httpHeaders, queryParams);
     }
 
-    HttpEntity<String> httpEntity = new HttpEntity<>(payload, httpHeaders);
     String webhookUri =
         new DefaultUriBuilderFactory(webhookTarget.getUrl())
             .builder()
             .queryParams(queryParams)
             .toUriString();
 
-    try {
-      ResponseEntity<String> response =
-          restTemplate.postForEntity(webhookUri, httpEntity, String.class);
-
-      log.info(
-          "EventHook '{}' response status '{}'",
-          eventHook.getUid(),
-          HttpUtils.resolve(response.getStatusCode()).name());
-    } catch (RestClientException ex) {
-      log.error(ex.getMessage());
+    for (int i = 0; i < payloads.size(); i++) {
+      try {
+        ResponseEntity<String> response =
+            restTemplate.postForEntity(
+                webhookUri, new HttpEntity<>(payloads.get(i), httpHeaders), String.class);
+
+        log.debug(
+            "EventHook '{}' response status '{}'",
+            eventHook.getUid(),
+            HttpUtils.resolve(response.getStatusCode()).name());
+      } catch (RestClientException ex) {
+        throw new EventHookException(ex.getMessage(), ex, i);
+      }
     }
   }
 
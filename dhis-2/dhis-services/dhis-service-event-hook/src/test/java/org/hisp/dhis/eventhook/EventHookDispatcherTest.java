@@ -0,0 +1,240 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.eventhook;
+
+import static org.hisp.dhis.external.conf.ConfigurationKey.EVENT_HOOKS_BATCH_SIZE;
+import static org.hisp.dhis.external.conf.ConfigurationKey.EVENT_HOOKS_CLAIM_TIMEOUT;
+import static org.hisp.dhis.external.conf.ConfigurationKey.EVENT_HOOKS_MAX_ATTEMPTS;
+import static org.hisp.dhis.external.conf.ConfigurationKey.EVENT_HOOKS_RETRY_DELAY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.hisp.dhis.eventhook.EventHookOutboxStore.Message;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class EventHookDispatcherTest {
+  private static final String HOOK = "hookUid0001";
+
+  private static final String TARGET = "targetA";
+
+  @Mock private EventHookListener eventHookListener;
+
+  @Mock private EventHookOutboxStore outboxStore;
+
+  @Mock private DhisConfigurationProvider config;
+
+  @Mock private TaskScheduler scheduler;
+
+  private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private final List<List<String>> sent = new ArrayList<>();
+
+  private final Handler recorder = (eventHook, payloads) -> sent.add(payloads);
+
+  private EventHookDispatcher dispatcher;
+
+  @BeforeEach
+  void setUp() {
+    lenient().when(config.getIntProperty(EVENT_HOOKS_BATCH_SIZE)).thenReturn(10);
+    lenient().when(config.getIntProperty(EVENT_HOOKS_CLAIM_TIMEOUT)).thenReturn(60_000);
+    lenient().when(config.getIntProperty(EVENT_HOOKS_MAX_ATTEMPTS)).thenReturn(3);
+    lenient().when(config.getIntProperty(EVENT_HOOKS_RETRY_DELAY)).thenReturn(1000);
+
+    dispatcher =
+        new EventHookDispatcher(
+            eventHookListener,
+            outboxStore,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)),
+            config,
+            scheduler,
+            Runnable::run,
+            meterRegistry);
+  }
+
+  @Test
+  void testRemovesDeliveredMessages() {
+    givenTarget(recorder);
+    List<Message> messages = List.of(message(1, 0), message(2, 0));
+    givenDue(messages);
+
+    dispatcher.dispatch();
+
+    assertEquals(List.of(List.of("p1", "p2")), sent);
+    verify(outboxStore).remove(messages);
+    verify(outboxStore, never()).postpone(any(), any());
+    assertEquals(2, count("eventhook.delivered"));
+  }
+
+  @Test
+  void testRetriesOnlyUndeliveredMessagesAfterPartialFailure() {
+    givenTarget(
+        (eventHook, payloads) -> {
+          throw new EventHookException("Failed", null, 1);
+        });
+    Message m1 = message(1, 0);
+    Message m2 = message(2, 0);
+    Message m3 = message(3, 0);
+    givenDue(List.of(m1, m2, m3));
+
+    dispatcher.dispatch();
+
+    verify(outboxStore).remove(List.of(m1));
+    verify(outboxStore).postpone(eq(List.of(m2)), any(Instant.class));
+    verify(outboxStore).release(eq(List.of(m3)), any(Instant.class));
+    assertEquals(1, count("eventhook.delivered"));
+    assertEquals(1, count("eventhook.failed"));
+  }
+
+  @Test
+  void testDropsMessageWhichReachedMaxAttempts() {
+    givenTarget(
+        (eventHook, payloads) -> {
+          throw new EventHookException("Failed");
+        });
+    Message m1 = message(1, 2);
+    Message m2 = message(2, 0);
+    givenDue(List.of(m1, m2));
+
+    dispatcher.dispatch();
+
+    verify(outboxStore).remove(List.of(m1));
+    verify(outboxStore, never()).postpone(any(), any());
+    verify(outboxStore).release(eq(List.of(m2)), any(Instant.class));
+    assertEquals(1, count("eventhook.dropped"));
+  }
+
+  @Test
+  void testCountsAttemptOnUnexpectedHandlerFailure() {
+    givenTarget(
+        (eventHook, payloads) -> {
+          throw new IllegalStateException("Failed");
+        });
+    Message m1 = message(1, 0);
+    Message m2 = message(2, 0);
+    givenDue(List.of(m1, m2));
+
+    dispatcher.dispatch();
+
+    verify(outboxStore).remove(List.of());
+    verify(outboxStore).postpone(eq(List.of(m1)), any(Instant.class));
+    verify(outboxStore).release(eq(List.of(m2)), any(Instant.class));
+    assertEquals(1, count("eventhook.failed"));
+  }
+
+  @Test
+  void testClaimsNextBatchAfterFullBatchWasDelivered() {
+    when(config.getIntProperty(EVENT_HOOKS_BATCH_SIZE)).thenReturn(2);
+    givenTarget(recorder);
+    when(outboxStore.claimDue(eq(HOOK), eq(TARGET), eq(2), any(Instant.class)))
+        .thenReturn(List.of(message(1, 0), message(2, 0)))
+        .thenReturn(List.of(message(3, 0)));
+
+    dispatcher.dispatch();
+
+    assertEquals(List.of(List.of("p1", "p2"), List.of("p3")), sent);
+  }
+
+  @Test
+  void testRemovesOrphansOfDeletedEventHooksWhenContextChanges() {
+    givenTarget(recorder);
+    givenDue(List.of());
+
+    dispatcher.dispatch();
+    dispatcher.dispatch();
+
+    verify(outboxStore).removeOrphans(Set.of(HOOK));
+
+    Map<String, Handler> handlers = new LinkedHashMap<>();
+    handlers.put(TARGET, recorder);
+    handlers.put("targetB", recorder);
+    givenContext(handlers);
+
+    dispatcher.dispatch();
+
+    verify(outboxStore, times(2)).removeOrphans(Set.of(HOOK));
+    verify(outboxStore).claimDue(eq(HOOK), eq("targetB"), anyInt(), any(Instant.class));
+  }
+
+  private void givenTarget(Handler handler) {
+    Map<String, Handler> handlers = new LinkedHashMap<>();
+    handlers.put(TARGET, handler);
+    givenContext(handlers);
+  }
+
+  private void givenContext(Map<String, Handler> handlers) {
+    EventHook eventHook = new EventHook();
+    eventHook.setUid(HOOK);
+
+    when(eventHookListener.getEventHookContext())
+        .thenReturn(
+            EventHookContext.builder()
+                .eventHooks(List.of(eventHook))
+                .targets(Map.of(HOOK, handlers))
+                .build());
+  }
+
+  private void givenDue(List<Message> messages) {
+    when(outboxStore.claimDue(anyString(), anyString(), anyInt(), any(Instant.class)))
+        .thenReturn(messages)
+        .thenReturn(List.of());
+  }
+
+  private Message message(long id, int attempts) {
+    return new Message(id, "p" + id, Instant.now(), attempts);
+  }
+
+  private double count(String name) {
+    return meterRegistry.get(name).counter().count();
+  }
+}
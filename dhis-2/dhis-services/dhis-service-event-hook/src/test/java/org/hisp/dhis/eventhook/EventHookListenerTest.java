@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.eventhook;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import java.util.Set;
+import org.hisp.dhis.eventhook.targets.WebhookTarget;
+import org.hisp.dhis.fieldfiltering.FieldFilterService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class EventHookListenerTest {
+  @Mock private FieldFilterService fieldFilterService;
+
+  @Mock private EventHookService eventHookService;
+
+  @Mock private EventHookOutboxStore outboxStore;
+
+  private EventHookListener listener;
+
+  @BeforeEach
+  void setUp() {
+    listener =
+        new EventHookListener(
+            new ObjectMapper().findAndRegisterModules(),
+            fieldFilterService,
+            eventHookService,
+            outboxStore);
+  }
+
+  @Test
+  void testTargetIdsAreTargetPositions() {
+    assertEquals(
+        List.of("0", "1", "2"),
+        reload(
+            createTarget("A", "http://a"),
+            createTarget("B", "http://b"),
+            createTarget("A", "http://a")));
+  }
+
+  @Test
+  void testTargetIdDoesNotChangeWhenTargetIsEdited() {
+    String id = reload(createTarget("A", "http://a"), createTarget("B", "http://b")).get(1);
+
+    assertEquals(id, reload(createTarget("A", "http://a"), createTarget("B", "http://c")).get(1));
+  }
+
+  @Test
+  void testEventIsAddedToOutboxOfEachTarget() throws Exception {
+    reload(createTarget("A", "http://a"), createTarget("B", "http://b"));
+    when(fieldFilterService.toObjectNode(any(), eq("*")))
+        .thenReturn(new ObjectMapper().createObjectNode().put("id", "de1"));
+
+    listener.eventListener(Event.builder().path("metadata.dataElements.de1").object("de1").build());
+
+    verify(outboxStore).add(eq("hookUid0001"), eq(Set.of("0", "1")), anyString());
+  }
+
+  private List<String> reload(WebhookTarget... targets) {
+    EventHook eventHook = new EventHook();
+    eventHook.setUid("hookUid0001");
+    eventHook.setSource(new Source().setPath("metadata"));
+    eventHook.setTargets(List.of(targets));
+
+    when(eventHookService.getAll()).thenReturn(List.of(eventHook));
+
+    listener.reload();
+
+    return List.copyOf(listener.getEventHookContext().getTarget("hookUid0001").keySet());
+  }
+
+  private WebhookTarget createTarget(String clientId, String url) {
+    WebhookTarget target = new WebhookTarget();
+    target.setClientId(clientId);
+    target.setUrl(url);
+    return target;
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.eventhook;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+class EventHookTrieTest {
+  @Test
+  void testMatchReturnsHooksWithSourcePathPrefix() {
+    EventHookTrie trie =
+        new EventHookTrie(
+            List.of(
+                createEventHook("A", "metadata"),
+                createEventHook("B", "metadata.dataElement"),
+                createEventHook("C", "metadata.indicator"),
+                createEventHook("D", "tracker")));
+
+    assertEquals(Set.of("A", "B"), getUids(trie.match("metadata.dataElement.fbfJHSPpUQD")));
+    assertEquals(Set.of("A", "C"), getUids(trie.match("metadata.indicator")));
+    assertEquals(Set.of("A"), getUids(trie.match("metadata.data")));
+    assertEquals(Set.of("D"), getUids(trie.match("tracker.event")));
+    assertTrue(trie.match("scheduler").isEmpty());
+  }
+
+  @Test
+  void testMatchReturnsHooksWithSameSourcePath() {
+    EventHookTrie trie =
+        new EventHookTrie(
+            List.of(createEventHook("A", "metadata"), createEventHook("B", "metadata")));
+
+    assertEquals(Set.of("A", "B"), getUids(trie.match("metadata.dataElement")));
+  }
+
+  @Test
+  void testMatchEmptySourcePathMatchesAll() {
+    EventHookTrie trie = new EventHookTrie(List.of(createEventHook("A", "")));
+
+    assertEquals(Set.of("A"), getUids(trie.match("metadata")));
+  }
+
+  private static EventHook createEventHook(String uid, String path) {
+    EventHook eventHook = new EventHook();
+    eventHook.setUid(uid);
+    eventHook.setSource(new Source().setPath(path));
+    return eventHook;
+  }
+
+  private static Set<String> getUids(List<EventHook> eventHooks) {
+    return eventHooks.stream().map(EventHook::getUid).collect(Collectors.toSet());
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.schema;
+
+import java.util.Date;
+import javax.annotation.CheckForNull;
+
+/**
+ * Tracks changes to the persisted metadata types described by {@link Schema}s. The fingerprint of a
+ * type changes whenever an object of the type is created, updated or deleted, which allows
+ * conditional requests to be answered without loading the objects.
+ */
+public interface SchemaChangeTracker {
+  /**
+   * Returns the current fingerprint of the given type.
+   *
+   * @param type the object type.
+   * @return the {@link Fingerprint}, or null if changes of the type are not tracked.
+   */
+  @CheckForNull
+  Fingerprint getFingerprint(Class<?> type);
+
+  /**
+   * Marks the given type, and any tracked type it is a subtype of, as changed. The fingerprint is
+   * re-read on the next request.
+   *
+   * @param type the object type.
+   */
+  void changed(Class<?> type);
+
+  /**
+   * Indicates whether changes of the given type are tracked, which means that committed changes of
+   * the type must be reported through {@link #changed(Class)}.
+   *
+   * @param type the object type.
+   * @return true if changes of the type are tracked.
+   */
+  boolean isTracked(Class<?> type);
+
+  /**
+   * Change fingerprint of a type.
+   *
+   * @param version opaque value which changes whenever objects of the type change.
+   * @param lastModified time of the last observed change.
+   */
+  record Fingerprint(String version, Date lastModified) {}
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.tracker.export.trackedentity;
+
+import static java.util.Comparator.comparingInt;
+import static org.hisp.dhis.analytics.QueryKey.NV;
+import static org.hisp.dhis.common.QueryOperator.EQ;
+import static org.hisp.dhis.common.QueryOperator.EW;
+import static org.hisp.dhis.common.QueryOperator.IEQ;
+import static org.hisp.dhis.common.QueryOperator.ILIKE;
+import static org.hisp.dhis.common.QueryOperator.IN;
+import static org.hisp.dhis.common.QueryOperator.LIKE;
+import static org.hisp.dhis.common.QueryOperator.NILIKE;
+import static org.hisp.dhis.common.QueryOperator.SW;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.hisp.dhis.common.QueryFilter;
+import org.hisp.dhis.common.QueryOperator;
+import org.hisp.dhis.trackedentity.TrackedEntityAttribute;
+
+/**
+ * Decides in which order the attribute filters of a tracked entity search are applied and which
+ * operators are used for them, based on the indexes that exist for the attributes.
+ *
+ * <p>Filters are ordered from most to least selective: equality on unique attributes first, then
+ * filters backed by a btree value index, then filters backed by a trigram index, then the remaining
+ * equality filters and finally everything else. Within the same cost attributes are ordered by UID
+ * so that the same search always produces the same SQL.
+ */
+final class AttributeFilterPlanner {
+  private AttributeFilterPlanner() {
+    throw new UnsupportedOperationException("util");
+  }
+
+  /** A trigram index only helps when the pattern contains at least one full trigram. */
+  private static final int MIN_TRIGRAM_PATTERN_LENGTH = 3;
+
+  private static final int COST_UNIQUE = 0;
+
+  private static final int COST_VALUE_INDEX = 1;
+
+  private static final int COST_TRIGRAM_INDEX = 2;
+
+  private static final int COST_EQUALITY = 3;
+
+  private static final int COST_OTHER = 4;
+
+  record AttributeFilters(TrackedEntityAttribute attribute, List<QueryFilter> filters, int cost) {}
+
+  private static final Comparator<AttributeFilters> MOST_SELECTIVE_FIRST =
+      comparingInt(AttributeFilters::cost).thenComparing(f -> f.attribute().getUid());
+
+  static List<AttributeFilters> plan(
+      Map<TrackedEntityAttribute, List<QueryFilter>> filters,
+      Set<Long> trigramIndexedAttributeIds,
+      Set<Long> valueIndexedAttributeIds) {
+    return filters.entrySet().stream()
+        .map(
+            e ->
+                new AttributeFilters(
+                    e.getKey(),
+                    e.getValue(),
+                    getCost(
+                        e.getKey(),
+                        e.getValue(),
+                        trigramIndexedAttributeIds.contains(e.getKey().getId()),
+                        valueIndexedAttributeIds.contains(e.getKey().getId()))))
+        .sorted(MOST_SELECTIVE_FIRST)
+        .toList();
+  }
+
+  /**
+   * Both the value and the filter are lower cased, so case-insensitive matching is not needed. The
+   * plain {@code like} can also use the btree value index for prefix patterns which {@code ilike}
+   * cannot.
+   */
+  static String getSqlOperator(QueryFilter filter) {
+    if (filter.getOperator() == ILIKE) {
+      return LIKE.getValue();
+    }
+    if (filter.getOperator() == NILIKE) {
+      return QueryOperator.NLIKE.getValue();
+    }
+    return filter.getSqlOperator();
+  }
+
+  private static int getCost(
+      TrackedEntityAttribute attribute,
+      List<QueryFilter> filters,
+      boolean trigramIndexed,
+      boolean valueIndexed) {
+    return filters.stream()
+        .mapToInt(filter -> getCost(attribute, filter, trigramIndexed, valueIndexed))
+        .min()
+        .orElse(COST_OTHER);
+  }
+
+  private static int getCost(
+      TrackedEntityAttribute attribute,
+      QueryFilter filter,
+      boolean trigramIndexed,
+      boolean valueIndexed) {
+    QueryOperator op = filter.getOperator();
+    String value = filter.getFilter();
+    if (op == null || value == null || NV.equalsIgnoreCase(value.trim())) {
+      return COST_OTHER;
+    }
+    boolean equality = op == EQ || op == IEQ || op == IN;
+    if (equality && Boolean.TRUE.equals(attribute.isUnique())) {
+      return COST_UNIQUE;
+    }
+    if (valueIndexed && (equality || op == SW)) {
+      return COST_VALUE_INDEX;
+    }
+    boolean pattern = op == LIKE || op == ILIKE || op == SW || op == EW;
+    if (trigramIndexed && pattern && value.length() >= MIN_TRIGRAM_PATTERN_LENGTH) {
+      return COST_TRIGRAM_INDEX;
+    }
+    return equality ? COST_EQUALITY : COST_OTHER;
+  }
+}
@@ -67,6 +67,8 @@ import org.hisp.dhis.trackedentity.TrackedEntityAttribute;
 import org.hisp.dhis.tracker.Page;
 import org.hisp.dhis.tracker.PageParams;
 import org.hisp.dhis.tracker.export.Order;
+import org.hisp.dhis.tracker.trackedentityattributevalue.TrackedEntityAttributeTableManager;
+import org.hisp.dhis.tracker.trackedentityattributevalue.TrackedEntityAttributeTableManager.IndexedAttributeIds;
 import org.hisp.dhis.user.UserDetails;
 import org.hisp.dhis.util.DateUtils;
 import org.springframework.context.ApplicationEventPublisher;
@@ -127,20 +129,25 @@ class HibernateTrackedEntityStore extends SoftDeleteHibernateObjectStore<Tracked
 
   private final SystemSettingsProvider settingsProvider;
 
+  private final TrackedEntityAttributeTableManager attributeTableManager;
+
   public HibernateTrackedEntityStore(
       EntityManager entityManager,
       JdbcTemplate jdbcTemplate,
       ApplicationEventPublisher publisher,
       AclService aclService,
       OrganisationUnitStore organisationUnitStore,
-      SystemSettingsProvider settingsProvider) {
+      SystemSettingsProvider settingsProvider,
+      TrackedEntityAttributeTableManager attributeTableManager) {
     super(entityManager, jdbcTemplate, publisher, TrackedEntity.class, aclService, false);
 
     checkNotNull(organisationUnitStore);
     checkNotNull(settingsProvider);
+    checkNotNull(attributeTableManager);
 
     this.organisationUnitStore = organisationUnitStore;
     this.settingsProvider = settingsProvider;
+    this.attributeTableManager = attributeTableManager;
   }
 
   public List<TrackedEntityIdentifiers> getTrackedEntityIds(TrackedEntityQueryParams params) {
@@ -254,9 +261,9 @@ class HibernateTrackedEntityStore extends SoftDeleteHibernateObjectStore<Tracked
    *
    * <p>The constraint_subquery looks as follows:
    *
-   * <p>select (subquery_projection) from (tracked entities) inner join (attribute_constraints)
-   * [inner join (program_owner)] inner join (organisation units) left join (attribute_orderby)
-   * where exist(program_constraint) order by (order) limit (limit_offset)
+   * <p>select (subquery_projection) from (tracked entities) [inner join (program_owner)] inner join
+   * (organisation units) left join (attribute_orderby) where exists(attribute_constraints) and
+   * exists(program_constraint) order by (order) limit (limit_offset)
    *
    * <p>main_projection: Will have an aggregate string of attributevalues (uid:value) as well as
    * basic te-info. constraint_subquery: Includes all SQL related to narrowing down the number of
@@ -264,32 +271,32 @@ class HibernateTrackedEntityStore extends SoftDeleteHibernateObjectStore<Tracked
    * instances. Do make sure we get the right selection, we also use left join on attributes, when
    * we are sorting by attributes, before we sort and finally limit the selection.
    * subquery_projection: Has all the required information for knowing what tracked entities to
-   * return and how to order them attribute_constraints: We inner join the attributes, and add 3
-   * conditions: te id, tea id and value. This uses a (te, tea, lower(value)) index. For each
-   * attribute constraints, we add subsequent inner joins. program_owner: Only included when a
-   * program is specified. If included, it will join on 3 columns: te, program and ou. We have an
-   * index for this (program, ou, te) which allows a scan only lookup attribute_orderby: When a user
-   * specified an attribute in the order param, we need to join that attribute (We do left join, in
-   * case the value is not there. This join is not for removing resulting records). After joining it
-   * and projecting it, we can order by it. program_constraint: If a program is specified, it
-   * indicates the te must be enrolled in that program. Since the relation between te and
-   * enrollments are not 1:1, but 1:many, we use exists to avoid duplicate rows of te, allowing us
-   * to avoid grouping the result before we order and limit. This saves a lot of time. NOTE: Within
-   * the program_constraint, we also have a sub-query to deal with any event-related constraints.
-   * These can either be constraints on any static properties, or user assignment. For user
-   * assignment, we also join with the userinfo table. For events, we have an index (status,
-   * occurreddate) which speeds up the lookup significantly order: Order is used both in the
-   * sub-query and the main query. The sort depends on the params (see more info on the related
-   * method). We order the sub-query to make sure we get correct results before we limit. We order
-   * the main query since the aggregation mixes up the order, so to return a consistent order, we
-   * order again. limit_offset: The limit and offset is set based on a combination of params:
-   * program and tet can have a maxte limit, which only applies during a search outside the users
-   * capture scope. If applied, it will throw an error if the number of results exceeds the limit.
-   * Otherwise, we use paging. If no paging is set, there is no limit. additional_information: Here
-   * we do a left join with any relevant information needed for the result: tet name, any attributes
-   * to project, etc. We left join, since we don't want to reduce the results, just add information.
-   * main_groupby: The purpose of this group by, is to aggregate any attributes added in
-   * additional_information
+   * return and how to order them attribute_constraints: One exists per attribute with 3 conditions:
+   * te id, tea id and value. Most selective attributes come first, and operators are chosen so the
+   * (te, tea, lower(value)) index or the partial trigram and value indexes of an attribute can be
+   * used. program_owner: Only included when a program is specified. If included, it will join on 3
+   * columns: te, program and ou. We have an index for this (program, ou, te) which allows a scan
+   * only lookup attribute_orderby: When a user specified an attribute in the order param, we need
+   * to join that attribute (We do left join, in case the value is not there. This join is not for
+   * removing resulting records). After joining it and projecting it, we can order by it.
+   * program_constraint: If a program is specified, it indicates the te must be enrolled in that
+   * program. Since the relation between te and enrollments are not 1:1, but 1:many, we use exists
+   * to avoid duplicate rows of te, allowing us to avoid grouping the result before we order and
+   * limit. This saves a lot of time. NOTE: Within the program_constraint, we also have a sub-query
+   * to deal with any event-related constraints. These can either be constraints on any static
+   * properties, or user assignment. For user assignment, we also join with the userinfo table. For
+   * events, we have an index (status, occurreddate) which speeds up the lookup significantly order:
+   * Order is used both in the sub-query and the main query. The sort depends on the params (see
+   * more info on the related method). We order the sub-query to make sure we get correct results
+   * before we limit. We order the main query since the aggregation mixes up the order, so to return
+   * a consistent order, we order again. limit_offset: The limit and offset is set based on a
+   * combination of params: program and tet can have a maxte limit, which only applies during a
+   * search outside the users capture scope. If applied, it will throw an error if the number of
+   * results exceeds the limit. Otherwise, we use paging. If no paging is set, there is no limit.
+   * additional_information: Here we do a left join with any relevant information needed for the
+   * result: tet name, any attributes to project, etc. We left join, since we don't want to reduce
+   * the results, just add information. main_groupby: The purpose of this group by, is to aggregate
+   * any attributes added in additional_information
    *
    * @param params params defining the query
    * @return SQL string
@@ -386,7 +393,6 @@ class HibernateTrackedEntityStore extends SoftDeleteHibernateObjectStore<Tracked
 
             // INNER JOIN on constraints
             .append(joinPrograms(params))
-            .append(joinAttributeValue(params))
             .append(getFromSubQueryJoinProgramOwnerConditions(params))
             .append(getFromSubQueryJoinOrgUnitConditions(params))
             .append(getFromSubQueryJoinEnrollmentConditions(params))
@@ -396,6 +402,7 @@ class HibernateTrackedEntityStore extends SoftDeleteHibernateObjectStore<Tracked
 
             // WHERE
             .append(getFromSubQueryTrackedEntityConditions(whereAnd, params))
+            .append(getFromSubQueryAttributeConditions(whereAnd, params))
             .append(getFromSubQueryEnrollmentConditions(whereAnd, params));
 
     if (!isCountQuery) {
@@ -543,40 +550,42 @@ class HibernateTrackedEntityStore extends SoftDeleteHibernateObjectStore<Tracked
   }
 
   /**
-   * Generates a single INNER JOIN for each attribute we are searching on. We can search by a range
+   * Generates an EXISTS condition for each attribute we are searching on. We can search by a range
    * of operators. All searching is using lower() since attribute values are case-insensitive.
+   *
+   * <p>The conditions are ordered by {@link AttributeFilterPlanner} so that the most selective,
+   * index backed filter comes first. Each condition repeats the attribute id as a literal so that
+   * the partial trigram and value indexes of that attribute match.
    */
-  private String joinAttributeValue(TrackedEntityQueryParams params) {
+  private String getFromSubQueryAttributeConditions(
+      SqlHelper whereAnd, TrackedEntityQueryParams params) {
+    if (params.getFilters().isEmpty()) {
+      return "";
+    }
     StringBuilder attributes = new StringBuilder();
+    IndexedAttributeIds indexedAttributeIds = attributeTableManager.getIndexedAttributeIds();
 
-    for (Map.Entry<TrackedEntityAttribute, List<QueryFilter>> filters :
-        params.getFilters().entrySet()) {
-      String col = quote(filters.getKey().getUid());
-      String teaId = col + ".trackedentityattributeid";
-      String teav = "lower(" + col + ".value)";
-      String ted = col + ".trackedentityid";
-
+    for (AttributeFilterPlanner.AttributeFilters filters :
+        AttributeFilterPlanner.plan(
+            params.getFilters(), indexedAttributeIds.trigram(), indexedAttributeIds.value())) {
       attributes
-          .append(" INNER JOIN trackedentityattributevalue ")
-          .append(col)
-          .append(" ON ")
-          .append(teaId)
+          .append(whereAnd.whereAnd())
+          .append("EXISTS (SELECT 1 FROM trackedentityattributevalue teav WHERE ")
+          .append("teav.trackedentityid = TE.trackedentityid AND teav.trackedentityattributeid")
           .append(EQUALS)
-          .append(filters.getKey().getId())
-          .append(" AND ")
-          .append(ted)
-          .append(" = TE.trackedentityid ");
+          .append(filters.attribute().getId())
+          .append(SPACE);
 
-      for (QueryFilter filter : filters.getValue()) {
+      for (QueryFilter filter : filters.filters()) {
         String encodedFilter = escape(filter.getFilter());
         attributes
-            .append("AND ")
-            .append(teav)
+            .append("AND lower(teav.value) ")
+            .append(AttributeFilterPlanner.getSqlOperator(filter))
             .append(SPACE)
-            .append(filter.getSqlOperator())
-            .append(SPACE)
-            .append(StringUtils.lowerCase(filter.getSqlFilter(encodedFilter)));
+            .append(StringUtils.lowerCase(filter.getSqlFilter(encodedFilter)))
+            .append(SPACE);
       }
+      attributes.append(") ");
     }
 
     return attributes.toString();
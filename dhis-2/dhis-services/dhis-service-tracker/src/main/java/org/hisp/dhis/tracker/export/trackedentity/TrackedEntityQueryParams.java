@@ -40,7 +40,6 @@ import java.util.Set;
 import java.util.stream.Collectors;
 import lombok.ToString;
 import org.apache.commons.collections4.CollectionUtils;
-import org.apache.commons.collections4.SetUtils;
 import org.hisp.dhis.common.AssignedUserQueryParam;
 import org.hisp.dhis.common.AssignedUserSelectionMode;
 import org.hisp.dhis.common.OrganisationUnitSelectionMode;
@@ -291,9 +290,12 @@ public class TrackedEntityQueryParams {
     return false;
   }
 
-  /** Returns attributes that are only ordered by and not present in any filter. */
+  /**
+   * Attribute filters are applied as exists conditions which do not join the attribute value, so
+   * all attributes we order by need to be left joined.
+   */
   public Set<TrackedEntityAttribute> getLeftJoinAttributes() {
-    return SetUtils.difference(getOrderAttributes(), filters.keySet());
+    return getOrderAttributes();
   }
 
   public Map<TrackedEntityAttribute, List<QueryFilter>> getFilters() {
@@ -28,8 +28,14 @@
 package org.hisp.dhis.tracker.trackedentityattributevalue;
 
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hisp.dhis.common.event.ApplicationCacheClearedEvent;
 import org.hisp.dhis.trackedentity.TrackedEntityAttribute;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 
@@ -39,6 +45,7 @@ import org.springframework.stereotype.Component;
  *
  * @author Ameen Mohamed
  */
+@Slf4j
 @RequiredArgsConstructor
 @Component("org.hisp.dhis.tracker.trackedentityattributevalue.TrackedEntityAttributeTableManager")
 public class JdbcTrackedEntityAttributeTableManager implements TrackedEntityAttributeTableManager {
@@ -52,8 +59,23 @@ public class JdbcTrackedEntityAttributeTableManager implements TrackedEntityAttr
       "SELECT cast(substring(indexname from 'in_gin_teavalue_(.*)') as bigint) as teaid FROM  pg_indexes"
           + " WHERE   indexname like 'in_gin_teavalue_%' and tablename = 'trackedentityattributevalue'";
 
+  private static final String VALUE_INDEX_CREATE_QUERY =
+      "CREATE INDEX CONCURRENTLY IF NOT EXISTS in_btree_teavalue_%d ON "
+          + "trackedentityattributevalue USING btree (lower(value) text_pattern_ops, trackedentityid) where trackedentityattributeid = %d";
+
+  private static final String VALUE_INDEX_DROP_QUERY = "DROP INDEX IF EXISTS in_btree_teavalue_%d";
+
+  private static final String LIST_VALUE_INDEXED_ATTRIBUTE_ID_QUERY =
+      "SELECT cast(substring(indexname from 'in_btree_teavalue_(.*)') as bigint) as teaid FROM  pg_indexes"
+          + " WHERE   indexname like 'in_btree_teavalue_%' and tablename = 'trackedentityattributevalue'";
+
+  /** Time to live of the cached ids of indexed attributes. */
+  private static final long INDEXED_ATTRIBUTE_IDS_TTL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
   private final JdbcTemplate jdbcTemplate;
 
+  private volatile CachedIndexedAttributeIds indexedAttributeIds;
+
   // -------------------------------------------------------------------------
   // Implementation
   // -------------------------------------------------------------------------
@@ -78,4 +100,71 @@ public class JdbcTrackedEntityAttributeTableManager implements TrackedEntityAttr
   public List<Long> getAttributeIdsWithTrigramIndex() {
     return jdbcTemplate.queryForList(LIST_TRIGRAM_INDEXED_ATTRIBUTE_ID_QUERY, Long.class);
   }
+
+  @Override
+  public void createValueIndex(TrackedEntityAttribute trackedEntityAttribute) {
+    String query =
+        String.format(
+            VALUE_INDEX_CREATE_QUERY,
+            trackedEntityAttribute.getId(),
+            trackedEntityAttribute.getId());
+    jdbcTemplate.execute(query);
+  }
+
+  @Override
+  public void dropValueIndex(Long teaId) {
+    String query = String.format(VALUE_INDEX_DROP_QUERY, teaId);
+    jdbcTemplate.execute(query);
+  }
+
+  @Override
+  public List<Long> getAttributeIdsWithValueIndex() {
+    return jdbcTemplate.queryForList(LIST_VALUE_INDEXED_ATTRIBUTE_ID_QUERY, Long.class);
+  }
+
+  @Override
+  public IndexedAttributeIds getIndexedAttributeIds() {
+    CachedIndexedAttributeIds cached = indexedAttributeIds;
+
+    if (cached == null
+        || System.currentTimeMillis() - cached.timestamp() > INDEXED_ATTRIBUTE_IDS_TTL_MILLIS) {
+      cached = readIndexedAttributeIds();
+      indexedAttributeIds = cached;
+    }
+
+    return cached.ids();
+  }
+
+  @Override
+  public void refreshIndexedAttributeIds() {
+    indexedAttributeIds = readIndexedAttributeIds();
+  }
+
+  @EventListener
+  public void handleApplicationCachesCleared(ApplicationCacheClearedEvent event) {
+    indexedAttributeIds = null;
+  }
+
+  /**
+   * Index lookups only shape search queries, searching must still work when they fail, for example
+   * when not running on PostgreSQL.
+   */
+  private CachedIndexedAttributeIds readIndexedAttributeIds() {
+    IndexedAttributeIds ids;
+
+    try {
+      ids =
+          new IndexedAttributeIds(
+              Set.copyOf(getAttributeIdsWithTrigramIndex()),
+              Set.copyOf(getAttributeIdsWithValueIndex()));
+    } catch (DataAccessException ex) {
+      log.debug("Could not look up attribute indexes: {}", ex.getMessage());
+      ids = new IndexedAttributeIds(Set.of(), Set.of());
+    }
+
+    return new CachedIndexedAttributeIds(ids, System.currentTimeMillis());
+  }
+
+  /** Ids of indexed attributes and the time they were read. */
+  private record CachedIndexedAttributeIds(IndexedAttributeIds ids, long timestamp) {}
 }
@@ -28,6 +28,7 @@
 package org.hisp.dhis.tracker.trackedentityattributevalue;
 
 import java.util.List;
+import java.util.Set;
 import org.hisp.dhis.trackedentity.TrackedEntityAttribute;
 
 /**
@@ -41,4 +42,36 @@ public interface TrackedEntityAttributeTableManager {
   void dropTrigramIndex(Long trackedEntityAttributeId);
 
   List<Long> getAttributeIdsWithTrigramIndex();
+
+  /**
+   * Creates a btree index on the lower case values of the attribute. It supports equality, {@code
+   * in} and starts with filters, and lets searches start from the matching values rather than from
+   * the tracked entities.
+   */
+  void createValueIndex(TrackedEntityAttribute trackedEntityAttribute);
+
+  void dropValueIndex(Long trackedEntityAttributeId);
+
+  List<Long> getAttributeIdsWithValueIndex();
+
+  /**
+   * Returns the ids of the attributes with trigram and value indexes without querying the database
+   * on every call. The ids are cached until {@link #refreshIndexedAttributeIds()} is called, or
+   * until they are older than a few minutes, so that indexes changed on other nodes or outside the
+   * application are also noticed.
+   *
+   * @return the {@link IndexedAttributeIds}, which are empty if the indexes can not be listed.
+   */
+  IndexedAttributeIds getIndexedAttributeIds();
+
+  /** Reads the ids of the attributes with trigram and value indexes again. */
+  void refreshIndexedAttributeIds();
+
+  /**
+   * Ids of the attributes which have indexes.
+   *
+   * @param trigram the ids of the attributes with a trigram index.
+   * @param value the ids of the attributes with a value index.
+   */
+  record IndexedAttributeIds(Set<Long> trigram, Set<Long> value) {}
 }
@@ -77,8 +77,21 @@ public class TrackerTrigramIndexingJob implements Job {
         parameters.getAttributes());
     progress.startingProcess("Starting Trigram indexing process");
 
+    try {
+      updateIndexes(progress, parameters);
+    } finally {
+      // Searches plan attribute filters with the cached ids of indexed attributes
+      trackedEntityAttributeTableManager.refreshIndexedAttributeIds();
+    }
+    progress.completedProcess("Job completed");
+    log.info("Trigram Indexing job completed");
+  }
+
+  private void updateIndexes(JobProgress progress, TrackerTrigramIndexJobParameters parameters) {
     // Fetch all indexable attributes only if needed
-    if (!CollectionUtils.isEmpty(parameters.getAttributes()) || !parameters.isSkipIndexDeletion()) {
+    if (!CollectionUtils.isEmpty(parameters.getAttributes())
+        || !CollectionUtils.isEmpty(parameters.getValueIndexAttributes())
+        || !parameters.isSkipIndexDeletion()) {
       log.debug("Fetching all indexable attributes from db");
       Set<TrackedEntityAttribute> allIndexableAttributes =
           trackedEntityAttributeService.getAllTrigramIndexableTrackedEntityAttributes();
@@ -88,13 +101,17 @@ public class TrackerTrigramIndexingJob implements Job {
         createTrigramIndexesOnIndexableAttributes(progress, parameters, allIndexableAttributes);
       }
 
+      // Value index only need if requested in job parameters
+      if (!CollectionUtils.isEmpty(parameters.getValueIndexAttributes())) {
+        createValueIndexesOnIndexableAttributes(progress, parameters, allIndexableAttributes);
+      }
+
       // Obsolete index deletion
       if (!parameters.isSkipIndexDeletion()) {
         removeObsoleteTrigramIndexes(progress, allIndexableAttributes);
+        removeObsoleteValueIndexes(progress, allIndexableAttributes);
       }
     }
-    progress.completedProcess("Job completed");
-    log.info("Trigram Indexing job completed");
   }
 
   private void createTrigramIndexesOnIndexableAttributes(
@@ -132,6 +149,53 @@ public class TrackerTrigramIndexingJob implements Job {
     }
   }
 
+  private void createValueIndexesOnIndexableAttributes(
+      JobProgress progress,
+      TrackerTrigramIndexJobParameters parameters,
+      Set<TrackedEntityAttribute> allIndexableAttributes) {
+    Set<TrackedEntityAttribute> indexableAttributes =
+        allIndexableAttributes.stream()
+            .filter(itea -> parameters.getValueIndexAttributes().contains(itea.getUid()))
+            .collect(Collectors.toSet());
+
+    if (indexableAttributes.isEmpty()) {
+      log.warn(
+          "No indexable value index attributes provided in job parameters. Skipping value index creation step");
+      return;
+    }
+    log.debug("Creating {} value indexes", indexableAttributes.size());
+    progress.startingStage("Creating value indexes for attributes", indexableAttributes.size());
+    progress.runStage(
+        indexableAttributes.stream(),
+        TrackedEntityAttribute::getName,
+        trackedEntityAttributeTableManager::createValueIndex,
+        (successful, failed) ->
+            format(
+                "Number of value index created: %d. Number of value index creation failed: %d",
+                successful, failed));
+  }
+
+  private void removeObsoleteValueIndexes(
+      JobProgress progress, Set<TrackedEntityAttribute> allIndexableAttributes) {
+    Set<Long> teaIds =
+        new HashSet<>(trackedEntityAttributeTableManager.getAttributeIdsWithValueIndex());
+    teaIds.removeAll(
+        allIndexableAttributes.stream().map(IdentifiableObject::getId).collect(Collectors.toSet()));
+    if (teaIds.isEmpty()) {
+      log.debug("No obsolete value indexes to drop");
+      return;
+    }
+    progress.startingStage("Deleting obsolete value indexes", teaIds.size(), SKIP_ITEM_OUTLIER);
+    progress.runStage(
+        teaIds.stream(),
+        Object::toString,
+        trackedEntityAttributeTableManager::dropValueIndex,
+        (successful, failed) ->
+            format(
+                "Number of obsolete value index dropped: %d. Number of obsolete value index drop failed: %d",
+                successful, failed));
+  }
+
   private void removeObsoleteTrigramIndexes(
       JobProgress progress, Set<TrackedEntityAttribute> allIndexableAttributes) {
 
@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.tracker.export.trackedentity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.hisp.dhis.common.QueryFilter;
+import org.hisp.dhis.common.QueryOperator;
+import org.hisp.dhis.trackedentity.TrackedEntityAttribute;
+import org.junit.jupiter.api.Test;
+
+/** Tests the {@link AttributeFilterPlanner}. */
+class AttributeFilterPlannerTest {
+
+  @Test
+  void testPlan_MostSelectiveFirst() {
+    TrackedEntityAttribute range = createAttribute(1, "A", false);
+    TrackedEntityAttribute trigram = createAttribute(2, "B", false);
+    TrackedEntityAttribute unique = createAttribute(3, "C", true);
+    TrackedEntityAttribute value = createAttribute(4, "D", false);
+    TrackedEntityAttribute equality = createAttribute(5, "E", false);
+
+    Map<TrackedEntityAttribute, List<QueryFilter>> filters = new LinkedHashMap<>();
+    filters.put(range, List.of(new QueryFilter(QueryOperator.GT, "10")));
+    filters.put(trigram, List.of(new QueryFilter(QueryOperator.LIKE, "smith")));
+    filters.put(unique, List.of(new QueryFilter(QueryOperator.EQ, "12345")));
+    filters.put(value, List.of(new QueryFilter(QueryOperator.SW, "+4478")));
+    filters.put(equality, List.of(new QueryFilter(QueryOperator.EQ, "female")));
+
+    assertEquals(
+        List.of("C", "D", "B", "E", "A"),
+        AttributeFilterPlanner.plan(filters, Set.of(2L), Set.of(4L)).stream()
+            .map(f -> f.attribute().getUid())
+            .toList());
+  }
+
+  @Test
+  void testPlan_ShortPatternDoesNotUseTrigramIndex() {
+    TrackedEntityAttribute shortPattern = createAttribute(1, "A", false);
+    TrackedEntityAttribute equality = createAttribute(2, "B", false);
+
+    Map<TrackedEntityAttribute, List<QueryFilter>> filters =
+        Map.of(
+            shortPattern, List.of(new QueryFilter(QueryOperator.LIKE, "sm")),
+            equality, List.of(new QueryFilter(QueryOperator.EQ, "female")));
+
+    assertEquals(
+        List.of("B", "A"),
+        AttributeFilterPlanner.plan(filters, Set.of(1L), Set.of()).stream()
+            .map(f -> f.attribute().getUid())
+            .toList());
+  }
+
+  @Test
+  void testGetSqlOperator() {
+    assertEquals(
+        "like", AttributeFilterPlanner.getSqlOperator(new QueryFilter(QueryOperator.ILIKE, "a")));
+    assertEquals(
+        "not like",
+        AttributeFilterPlanner.getSqlOperator(new QueryFilter(QueryOperator.NILIKE, "a")));
+    assertEquals(
+        "=", AttributeFilterPlanner.getSqlOperator(new QueryFilter(QueryOperator.EQ, "a")));
+  }
+
+  private static TrackedEntityAttribute createAttribute(long id, String uid, boolean unique) {
+    TrackedEntityAttribute attribute = new TrackedEntityAttribute();
+    attribute.setId(id);
+    attribute.setUid(uid);
+    attribute.setUnique(unique);
+    return attribute;
+  }
+}
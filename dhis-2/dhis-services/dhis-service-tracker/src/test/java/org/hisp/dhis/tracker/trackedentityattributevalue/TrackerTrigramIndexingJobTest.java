@@ -38,6 +38,7 @@ import static org.mockito.Mockito.when;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -142,4 +143,48 @@ class TrackerTrigramIndexingJobTest {
 
     verify(trackedEntityAttributeTableManager, times(2)).createTrigramIndex(any());
   }
+
+  @Test
+  void testRunJobWithValueIndexAttributesInJobParameters() {
+    TrackedEntityAttribute tea1 = new TrackedEntityAttribute();
+    tea1.setUid("tea1");
+    TrackedEntityAttribute tea2 = new TrackedEntityAttribute();
+    tea2.setUid("tea2");
+
+    when(trackedEntityAttributeService.getAllTrigramIndexableTrackedEntityAttributes())
+        .thenReturn(Set.of(tea1, tea2));
+    JobConfiguration jobConfiguration = new JobConfiguration();
+    TrackerTrigramIndexJobParameters jp = new TrackerTrigramIndexJobParameters();
+    jp.setValueIndexAttributes(Set.of("tea2"));
+    jp.setSkipIndexDeletion(true);
+    jobConfiguration.setJobParameters(jp);
+
+    job.execute(jobConfiguration, JobProgress.noop());
+
+    verify(trackedEntityAttributeTableManager, never()).createTrigramIndex(any());
+    verify(trackedEntityAttributeTableManager, times(1)).createValueIndex(tea2);
+  }
+
+  @Test
+  void testRunJobDropsObsoleteValueIndexes() {
+    when(trackedEntityAttributeTableManager.getAttributeIdsWithValueIndex())
+        .thenReturn(List.of(12L));
+
+    JobConfiguration jobConfiguration = new JobConfiguration();
+    jobConfiguration.setJobParameters(new TrackerTrigramIndexJobParameters());
+
+    job.execute(jobConfiguration, JobProgress.noop());
+
+    verify(trackedEntityAttributeTableManager, times(1)).dropValueIndex(12L);
+  }
+
+  @Test
+  void testRunJobRefreshesIndexedAttributeIds() {
+    JobConfiguration jobConfiguration = new JobConfiguration();
+    jobConfiguration.setJobParameters(new TrackerTrigramIndexJobParameters());
+
+    job.execute(jobConfiguration, JobProgress.noop());
+
+    verify(trackedEntityAttributeTableManager, times(1)).refreshIndexedAttributeIds();
+  }
 }
@@ -27,6 +27,7 @@
  */
 package org.hisp.dhis.artemis;
 
+import java.util.Collection;
 import org.apache.activemq.artemis.jms.client.ActiveMQQueue;
 import org.apache.activemq.artemis.jms.client.ActiveMQTopic;
 import org.hisp.dhis.render.RenderService;
@@ -60,6 +61,29 @@ public class MessageManager {
         session -> session.createTextMessage(renderService.toJsonAsString(message)));
   }
 
+  /**
+   * Sends the given messages to the topic with the given name, using a single session and producer
+   * for all messages.
+   *
+   * @param destinationName the topic name.
+   * @param messages the messages to send.
+   */
+  public void send(String destinationName, Collection<? extends Message> messages) {
+    jmsTopicTemplate.execute(
+        destinationName,
+        (session, producer) -> {
+          for (Message message : messages) {
+            producer.send(
+                session.createTextMessage(renderService.toJsonAsString(message)),
+                jmsTopicTemplate.getDeliveryMode(),
+                jmsTopicTemplate.getPriority(),
+                jmsTopicTemplate.getTimeToLive());
+          }
+
+          return null;
+        });
+  }
+
   public void sendTopic(String destinationName, Message message) {
     jmsTopicTemplate.send(
         new ActiveMQTopic(destinationName),
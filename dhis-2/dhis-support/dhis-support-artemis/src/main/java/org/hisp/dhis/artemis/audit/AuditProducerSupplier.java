@@ -28,6 +28,9 @@
 package org.hisp.dhis.artemis.audit;
 
 import com.google.common.base.Strings;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import lombok.extern.slf4j.Slf4j;
 import org.hisp.dhis.artemis.MessageManager;
@@ -67,6 +70,38 @@ public class AuditProducerSupplier {
     }
   }
 
+  /**
+   * Publishes the given audits, sending the audits of each topic as one batch.
+   *
+   * @param audits the audits to publish.
+   */
+  public void publish(List<Audit> audits) {
+    Map<AuditScope, List<Audit>> auditsByScope = new LinkedHashMap<>();
+
+    for (Audit audit : audits) {
+      auditsByScope.computeIfAbsent(audit.getAuditScope(), scope -> new ArrayList<>()).add(audit);
+    }
+
+    auditsByScope.forEach(
+        (scope, scopeAudits) -> {
+          String topic = auditScopeDestinationMap.get(scope);
+
+          if (!Strings.isNullOrEmpty(topic)) {
+            if (log.isDebugEnabled()) {
+              log.debug(
+                  String.format(
+                      "sending %d auditing messages to topic: [%s]", scopeAudits.size(), topic));
+            }
+            this.messageManager.send(topic, scopeAudits);
+          } else {
+            log.error(
+                String.format(
+                    "Unable to map AuditScope [%s] to a topic name. Sending of %d audits aborted",
+                    scope, scopeAudits.size()));
+          }
+        });
+  }
+
   private String getTopicName(Audit audit) {
     return auditScopeDestinationMap.get(audit.getAuditScope());
   }
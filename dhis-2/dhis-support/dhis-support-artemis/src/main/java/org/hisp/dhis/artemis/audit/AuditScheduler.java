@@ -27,11 +27,23 @@
  */
 package org.hisp.dhis.artemis.audit;
 
+import static org.hisp.dhis.external.conf.ConfigurationKey.MONITORING_AUDIT_ENABLED;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.DelayQueue;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.hisp.dhis.audit.AuditScope;
+import org.hisp.dhis.audit.AuditType;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
@@ -40,11 +52,13 @@ import org.springframework.stereotype.Component;
  * default (config key: audit.inmemory-queue.enabled) and should be used only in very high-traffic
  * environments. Note that upon a JVM crash, the Audit messages in this queue will be lost.
  *
- * <p>The buffer is based on a {@link DelayQueue} where messages are buffered for 5 seconds, before
- * being de-queued to the Artemis broker.
+ * <p>The buffer is a concurrent map keyed by audit scope, entity type, uid, audit type and user.
+ * Audits for a key which is already buffered are coalesced: the latest audit replaces the buffered
+ * one. Entries are buffered for 5 seconds after the key was first queued, and expired entries are
+ * published to the Artemis broker in batches.
  *
- * <p>To avoid excessive memory pressure, max 200 messages can stay in the queue: in-excess messages
- * are processed immediately.
+ * <p>To avoid excessive memory pressure, max 200 keys can stay in the buffer: audits for new keys
+ * in excess are processed immediately.
  *
  * @author Luciano Fiandesio
  */
@@ -57,10 +71,44 @@ public class AuditScheduler {
 
   private final AuditProducerSupplier auditProducerSupplier;
 
-  private final BlockingQueue<QueuedAudit> delayed = new DelayQueue<>();
+  private final Map<Key, QueuedAudit> buffer = new ConcurrentHashMap<>();
+
+  /**
+   * Sequence of queued audits, used to publish in queueing order and as unique key for audits of
+   * entities without uid, which are never coalesced.
+   */
+  private final AtomicLong sequence = new AtomicLong();
+
+  private final Counter receivedCounter;
+
+  private final Counter coalescedCounter;
 
-  public AuditScheduler(AuditProducerSupplier auditProducerSupplier) {
+  private final Counter overflowCounter;
+
+  private final Counter publishedCounter;
+
+  public AuditScheduler(
+      AuditProducerSupplier auditProducerSupplier,
+      MeterRegistry meterRegistry,
+      DhisConfigurationProvider config) {
     this.auditProducerSupplier = auditProducerSupplier;
+
+    if (!config.isEnabled(MONITORING_AUDIT_ENABLED)) {
+      // meters of a composite registry without registries are no-ops
+      meterRegistry = new CompositeMeterRegistry();
+    }
+
+    this.receivedCounter = meterRegistry.counter("audit.buffer.received");
+    this.coalescedCounter = meterRegistry.counter("audit.buffer.coalesced");
+    this.overflowCounter = meterRegistry.counter("audit.buffer.overflow");
+    this.publishedCounter = meterRegistry.counter("audit.buffer.published");
+
+    Gauge.builder("audit.buffer.depth", buffer, Map::size)
+        .description("Number of audits waiting in the in-memory buffer")
+        .register(meterRegistry);
+    Gauge.builder("audit.buffer.coalescing.ratio", this, AuditScheduler::getCoalescingRatio)
+        .description("Share of the received audits which were coalesced with a buffered audit")
+        .register(meterRegistry);
   }
 
   public void addAuditItem(final Audit auditItem) {
@@ -69,24 +117,83 @@ public class AuditScheduler {
           String.format("add Audit object with content %s to delayed queue", auditItem.toLog()));
     }
 
-    final QueuedAudit postponed = new QueuedAudit(auditItem, DELAY);
+    receivedCounter.increment();
+
+    long next = sequence.incrementAndGet();
+    Key key = getKey(auditItem, next);
 
-    if (delayed.size() >= MAX_SIZE) {
+    if (buffer.size() >= MAX_SIZE && !buffer.containsKey(key)) {
+      overflowCounter.increment();
+      publishedCounter.increment();
       auditProducerSupplier.publish(auditItem);
-    } else {
-      if (!delayed.contains(postponed)) {
-        boolean wasAddedToQueue = delayed.offer(postponed);
-        log.debug("Audit queue accepted new audit item: {}", wasAddedToQueue);
-      }
+      return;
     }
+
+    buffer.merge(
+        key,
+        new QueuedAudit(auditItem, next),
+        (queued, newer) -> {
+          coalescedCounter.increment();
+          return queued.coalesce(newer);
+        });
   }
 
-  @Scheduled(fixedDelay = 5_000)
+  @Scheduled(fixedDelay = 1_000)
   public void process() {
-    final Collection<QueuedAudit> expired = new ArrayList<>();
+    flush(DELAY);
+  }
 
-    delayed.drainTo(expired);
+  @PreDestroy
+  public void shutdown() {
+    try {
+      flush(0);
+    } catch (RuntimeException e) {
+      log.warn("Unable to publish buffered audits on shutdown", e);
+    }
+  }
+
+  /**
+   * Removes the entries buffered for at least the given delay from the buffer and publishes them in
+   * the order they were first queued.
+   */
+  private void flush(long delay) {
+    long now = System.currentTimeMillis();
+
+    List<QueuedAudit> expired = new ArrayList<>();
+
+    buffer.forEach(
+        (key, queued) -> {
+          // an entry coalesced concurrently is not removed here but on the next run
+          if (queued.isExpired(now, delay) && buffer.remove(key, queued)) {
+            expired.add(queued);
+          }
+        });
+
+    if (expired.isEmpty()) {
+      return;
+    }
+
+    expired.sort(Comparator.comparingLong(QueuedAudit::getSequence));
 
-    expired.stream().map(QueuedAudit::getAuditItem).forEach(auditProducerSupplier::publish);
+    publishedCounter.increment(expired.size());
+    auditProducerSupplier.publish(expired.stream().map(QueuedAudit::getAuditItem).toList());
   }
+
+  private double getCoalescingRatio() {
+    double received = receivedCounter.count();
+
+    return received > 0 ? coalescedCounter.count() / received : 0;
+  }
+
+  private Key getKey(Audit audit, long sequence) {
+    return new Key(
+        audit.getAuditScope(),
+        audit.getKlass(),
+        audit.getUid() != null ? audit.getUid() : "#" + sequence,
+        audit.getAuditType(),
+        audit.getCreatedBy());
+  }
+
+  private record Key(
+      AuditScope scope, String klass, String uid, AuditType type, String createdBy) {}
 }
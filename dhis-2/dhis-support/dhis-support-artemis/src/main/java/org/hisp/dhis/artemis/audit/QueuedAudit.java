@@ -29,82 +29,58 @@ package org.hisp.dhis.artemis.audit;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import java.util.concurrent.Delayed;
-import java.util.concurrent.TimeUnit;
-
 /**
+ * Entry of the {@link AuditScheduler} buffer. Holds the latest {@link Audit} queued for a key,
+ * along with the time and sequence number of the first queueing of the key, which determine when
+ * and in which order the entry is flushed.
+ *
  * @author Luciano Fiandesio
  */
-public class QueuedAudit implements Delayed {
+public class QueuedAudit {
   private final long origin;
 
-  private final long delay;
+  private final long sequence;
 
   private final Audit audit;
 
-  public QueuedAudit(Audit audit, long delay) {
+  public QueuedAudit(Audit audit, long sequence) {
+    this(audit, System.currentTimeMillis(), sequence);
+  }
+
+  private QueuedAudit(Audit audit, long origin, long sequence) {
     checkNotNull(audit);
 
-    this.origin = System.currentTimeMillis();
+    this.origin = origin;
+    this.sequence = sequence;
     this.audit = audit;
-    this.delay = delay;
   }
 
   public Audit getAuditItem() {
     return audit;
   }
 
-  @Override
-  public long getDelay(TimeUnit unit) {
-    return unit.convert(delay - (System.currentTimeMillis() - origin), TimeUnit.MILLISECONDS);
+  public long getSequence() {
+    return sequence;
   }
 
-  @Override
-  public int compareTo(Delayed delayed) {
-    if (delayed == this) {
-      return 0;
-    }
-
-    if (delayed instanceof QueuedAudit) {
-      long diff = delay - ((QueuedAudit) delayed).delay;
-      return ((diff == 0) ? 0 : ((diff < 0) ? -1 : 1));
-    }
-
-    long d = (getDelay(TimeUnit.MILLISECONDS) - delayed.getDelay(TimeUnit.MILLISECONDS));
-
-    return ((d == 0) ? 0 : ((d < 0) ? -1 : 1));
+  /**
+   * @param now the current time in milliseconds.
+   * @param delay the buffering delay in milliseconds.
+   * @return true if this entry has been buffered for at least the given delay.
+   */
+  public boolean isExpired(long now, long delay) {
+    return now - origin >= delay;
   }
 
-  @Override
-  public int hashCode() {
-    final int prime = 31;
-
-    int result = 1;
-    result = prime * result + ((audit == null) ? 0 : audit.hashCode());
-
-    return result;
-  }
-
-  @Override
-  public boolean equals(Object obj) {
-    if (this == obj) {
-      return true;
-    }
-
-    if (obj == null) {
-      return false;
-    }
-
-    if (!(obj instanceof QueuedAudit)) {
-      return false;
-    }
-
-    final QueuedAudit other = (QueuedAudit) obj;
-
-    if (audit == null) {
-      return other.audit == null;
-    } else {
-      return audit.equals(other.audit);
-    }
+  /**
+   * Coalesces this entry with a newer one for the same key. The newer audit replaces the buffered
+   * one, while the time and sequence number of the first queueing are retained, so that frequently
+   * updated entities are still flushed on time.
+   *
+   * @param newer the newer entry.
+   * @return the coalesced entry.
+   */
+  public QueuedAudit coalesce(QueuedAudit newer) {
+    return new QueuedAudit(newer.audit, origin, sequence);
   }
 }
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.artemis.audit;
+
+import static org.hisp.dhis.external.conf.ConfigurationKey.MONITORING_AUDIT_ENABLED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.hisp.dhis.audit.AuditScope;
+import org.hisp.dhis.audit.AuditType;
+import org.hisp.dhis.external.conf.DhisConfigurationProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class AuditSchedulerTest {
+  @Mock private AuditProducerSupplier auditProducerSupplier;
+
+  @Mock private DhisConfigurationProvider config;
+
+  @Captor private ArgumentCaptor<List<Audit>> auditsCaptor;
+
+  private MeterRegistry meterRegistry;
+
+  private AuditScheduler auditScheduler;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    auditScheduler = createAuditScheduler(true);
+  }
+
+  private AuditScheduler createAuditScheduler(boolean monitoringEnabled) {
+    when(config.isEnabled(MONITORING_AUDIT_ENABLED)).thenReturn(monitoringEnabled);
+    return new AuditScheduler(auditProducerSupplier, meterRegistry, config);
+  }
+
+  @Test
+  void testAuditsForSameKeyAreCoalesced() {
+    Audit first = audit("deabcdefghA", AuditType.UPDATE, "first");
+    Audit second = audit("deabcdefghA", AuditType.UPDATE, "second");
+    Audit other = audit("deabcdefghB", AuditType.UPDATE, "other");
+
+    auditScheduler.addAuditItem(first);
+    auditScheduler.addAuditItem(other);
+    auditScheduler.addAuditItem(second);
+
+    assertEquals(2, meterRegistry.get("audit.buffer.depth").gauge().value());
+    assertEquals(1, meterRegistry.get("audit.buffer.coalesced").counter().count());
+    assertEquals(1.0 / 3, meterRegistry.get("audit.buffer.coalescing.ratio").gauge().value());
+
+    auditScheduler.shutdown();
+
+    verify(auditProducerSupplier).publish(auditsCaptor.capture());
+    assertEquals(List.of(second, other), auditsCaptor.getValue());
+    assertEquals(0, meterRegistry.get("audit.buffer.depth").gauge().value());
+  }
+
+  @Test
+  void testAuditsForDifferentTypesAreNotCoalesced() {
+    Audit create = audit("deabcdefghA", AuditType.CREATE, "create");
+    Audit update = audit("deabcdefghA", AuditType.UPDATE, "update");
+
+    auditScheduler.addAuditItem(create);
+    auditScheduler.addAuditItem(update);
+    auditScheduler.shutdown();
+
+    verify(auditProducerSupplier).publish(auditsCaptor.capture());
+    assertEquals(List.of(create, update), auditsCaptor.getValue());
+  }
+
+  @Test
+  void testAuditsOfDifferentUsersAreNotCoalesced() {
+    Audit first = audit("deabcdefghA", AuditType.UPDATE, "first");
+    Audit second = audit("deabcdefghA", AuditType.UPDATE, "second");
+    second.setCreatedBy("other");
+
+    auditScheduler.addAuditItem(first);
+    auditScheduler.addAuditItem(second);
+    auditScheduler.shutdown();
+
+    verify(auditProducerSupplier).publish(auditsCaptor.capture());
+    assertEquals(List.of(first, second), auditsCaptor.getValue());
+  }
+
+  @Test
+  void testMetersAreNotRegisteredWhenMonitoringIsDisabled() {
+    meterRegistry = new SimpleMeterRegistry();
+    auditScheduler = createAuditScheduler(false);
+
+    auditScheduler.addAuditItem(audit("deabcdefghA", AuditType.UPDATE, "first"));
+
+    assertTrue(meterRegistry.getMeters().isEmpty());
+  }
+
+  @Test
+  void testAuditsAreNotPublishedBeforeDelay() {
+    auditScheduler.addAuditItem(audit("deabcdefghA", AuditType.UPDATE, "first"));
+    auditScheduler.process();
+
+    verify(auditProducerSupplier, never()).publish(any(List.class));
+  }
+
+  private static Audit audit(String uid, AuditType type, String data) {
+    return Audit.builder()
+        .auditScope(AuditScope.METADATA)
+        .auditType(type)
+        .klass("org.hisp.dhis.dataelement.DataElement")
+        .uid(uid)
+        .createdBy("admin")
+        .data(data)
+        .build();
+  }
+}
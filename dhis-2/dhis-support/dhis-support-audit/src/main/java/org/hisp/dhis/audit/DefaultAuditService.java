@@ -44,6 +44,13 @@ public class DefaultAuditService implements AuditService {
     return auditRepository.save(audit);
   }
 
+  @Override
+  public void addAudits(List<Audit> audits) {
+    if (!audits.isEmpty()) {
+      auditRepository.save(audits);
+    }
+  }
+
   @Override
   public int countAudits(AuditQuery query) {
     return auditRepository.count(query);
@@ -31,5 +31,8 @@ public enum CacheEventOperation {
   INSERT,
   UPDATE,
   DELETE,
-  COLLECTION
+  COLLECTION,
+  REGION_UPDATE,
+  REGION_CLEAR,
+  CACHE_INVALIDATE
 }
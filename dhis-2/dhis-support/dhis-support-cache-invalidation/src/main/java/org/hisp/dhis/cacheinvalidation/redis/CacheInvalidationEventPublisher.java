@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.cacheinvalidation.redis;
+
+import static org.hisp.dhis.cacheinvalidation.redis.CacheInvalidationConfig.CHANNEL_NAME;
+
+import org.hisp.dhis.common.event.CacheInvalidationEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes a message to Redis when an application cache region or key was invalidated on this
+ * server, so that the other servers invalidate the same region or key. Invalidations received from
+ * the other servers are not published again.
+ */
+@Component
+@Conditional(value = CacheInvalidationEnabledCondition.class)
+public class CacheInvalidationEventPublisher {
+  @Autowired
+  @Qualifier("cacheInvalidationServerId")
+  private String serverInstanceId;
+
+  @Autowired private CacheInvalidationMessagePublisher messagePublisher;
+
+  @EventListener
+  public void handleCacheInvalidation(CacheInvalidationEvent event) {
+    if (event.getSource() instanceof CacheInvalidationListener) {
+      // Received from another server
+      return;
+    }
+
+    String message =
+        serverInstanceId
+            + ":"
+            + CacheEventOperation.CACHE_INVALIDATE.name().toLowerCase()
+            + ":"
+            + event.getRegion().name();
+
+    if (event.getKey() != null) {
+      message += ":" + event.getKey();
+    }
+
+    messagePublisher.publish(CHANNEL_NAME, message);
+  }
+}
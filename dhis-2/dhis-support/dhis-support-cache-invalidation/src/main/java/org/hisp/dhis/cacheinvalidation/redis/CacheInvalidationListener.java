@@ -33,11 +33,14 @@ import java.lang.reflect.Field;
 import java.util.Objects;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.SessionFactory;
+import org.hisp.dhis.cache.HibernateCacheManager;
 import org.hisp.dhis.cache.PaginationCacheManager;
 import org.hisp.dhis.cache.QueryCacheManager;
 import org.hisp.dhis.cacheinvalidation.BaseCacheEvictionService;
 import org.hisp.dhis.category.CategoryOptionCombo;
 import org.hisp.dhis.common.IdentifiableObjectManager;
+import org.hisp.dhis.common.cache.Region;
+import org.hisp.dhis.common.event.CacheInvalidationEvent;
 import org.hisp.dhis.dataelement.DataElement;
 import org.hisp.dhis.dataset.CompleteDataSetRegistration;
 import org.hisp.dhis.dataset.DataSet;
@@ -50,6 +53,7 @@ import org.hisp.dhis.trackedentity.TrackedEntityAttribute;
 import org.hisp.dhis.trackedentity.TrackedEntityAttributeService;
 import org.hisp.dhis.trackedentityattributevalue.TrackedEntityAttributeValue;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Conditional;
 import org.springframework.stereotype.Component;
 
@@ -66,6 +70,10 @@ public class CacheInvalidationListener extends BaseCacheEvictionService
     implements RedisPubSubListener<String, String> {
   protected String serverInstanceId;
 
+  private final HibernateCacheManager hibernateCacheManager;
+
+  private final ApplicationEventPublisher eventPublisher;
+
   public CacheInvalidationListener(
       SessionFactory sessionFactory,
       PaginationCacheManager paginationCacheManager,
@@ -73,6 +81,8 @@ public class CacheInvalidationListener extends BaseCacheEvictionService
       IdentifiableObjectManager idObjectManager,
       TrackedEntityAttributeService trackedEntityAttributeService,
       PeriodService periodService,
+      HibernateCacheManager hibernateCacheManager,
+      ApplicationEventPublisher eventPublisher,
       @Qualifier("cacheInvalidationServerId") String serverInstanceId) {
     super(
         sessionFactory,
@@ -82,6 +92,8 @@ public class CacheInvalidationListener extends BaseCacheEvictionService
         trackedEntityAttributeService,
         periodService);
 
+    this.hibernateCacheManager = hibernateCacheManager;
+    this.eventPublisher = eventPublisher;
     this.serverInstanceId = serverInstanceId;
   }
 
@@ -120,6 +132,27 @@ public class CacheInvalidationListener extends BaseCacheEvictionService
       return;
     }
 
+    if (CacheEventOperation.REGION_CLEAR == operationType) {
+      hibernateCacheManager.clearCacheRegion(parts[2]);
+      return;
+    }
+
+    if (CacheEventOperation.REGION_UPDATE == operationType) {
+      String[] settings = parts[3].split(";", -1);
+      hibernateCacheManager.updateCacheRegion(
+          parts[2], parseNullableLong(settings[0]), parseNullableLong(settings[1]));
+      return;
+    }
+
+    if (CacheEventOperation.CACHE_INVALIDATE == operationType) {
+      // the key is last and may itself contain colons
+      String[] cacheParts = message.split(":", 4);
+      String key = cacheParts.length > 3 ? cacheParts[3] : null;
+      // published locally so that all listeners see it, not forwarded to Redis again
+      eventPublisher.publishEvent(new CacheInvalidationEvent(this, Region.valueOf(parts[2]), key));
+      return;
+    }
+
     Serializable entityId = getEntityId(message);
 
     Class<?> entityClass = Class.forName(parts[2]);
@@ -140,6 +173,10 @@ public class CacheInvalidationListener extends BaseCacheEvictionService
     }
   }
 
+  private static Long parseNullableLong(String value) {
+    return value.isEmpty() ? null : Long.parseLong(value);
+  }
+
   private Serializable getEntityId(String message) throws ClassNotFoundException {
     String[] parts = message.split(":");
 
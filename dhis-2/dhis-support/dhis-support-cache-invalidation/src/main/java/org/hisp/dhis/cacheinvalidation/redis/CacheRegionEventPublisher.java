@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.cacheinvalidation.redis;
+
+import static org.hisp.dhis.cacheinvalidation.redis.CacheInvalidationConfig.CHANNEL_NAME;
+
+import java.util.Objects;
+import org.hisp.dhis.cache.CacheRegionChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes a message to Redis when a Hibernate second-level cache region was cleared or adjusted
+ * on this server, so that the other servers apply the same change to their region.
+ */
+@Component
+@Conditional(value = CacheInvalidationEnabledCondition.class)
+public class CacheRegionEventPublisher {
+  @Autowired
+  @Qualifier("cacheInvalidationServerId")
+  private String serverInstanceId;
+
+  @Autowired private CacheInvalidationMessagePublisher messagePublisher;
+
+  @EventListener
+  public void handleCacheRegionChanged(CacheRegionChangedEvent event) {
+    String message;
+
+    if (event.isCleared()) {
+      message =
+          serverInstanceId
+              + ":"
+              + CacheEventOperation.REGION_CLEAR.name().toLowerCase()
+              + ":"
+              + event.getRegionName();
+    } else {
+      message =
+          serverInstanceId
+              + ":"
+              + CacheEventOperation.REGION_UPDATE.name().toLowerCase()
+              + ":"
+              + event.getRegionName()
+              + ":"
+              + Objects.toString(event.getMaxEntries(), "")
+              + ";"
+              + Objects.toString(event.getTimeToLive(), "");
+    }
+
+    messagePublisher.publish(CHANNEL_NAME, message);
+  }
+}
@@ -27,6 +27,7 @@
  */
 package org.hisp.dhis.cacheinvalidation.redis;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.lenient;
@@ -36,17 +37,22 @@ import static org.mockito.Mockito.verify;
 import org.hibernate.SessionFactory;
 import org.hibernate.cache.internal.DisabledCaching;
 import org.hibernate.service.spi.ServiceRegistryImplementor;
+import org.hisp.dhis.cache.HibernateCacheManager;
 import org.hisp.dhis.cache.PaginationCacheManager;
 import org.hisp.dhis.cache.QueryCacheManager;
 import org.hisp.dhis.common.IdentifiableObjectManager;
+import org.hisp.dhis.common.cache.Region;
+import org.hisp.dhis.common.event.CacheInvalidationEvent;
 import org.hisp.dhis.period.PeriodService;
 import org.hisp.dhis.trackedentity.TrackedEntityAttributeService;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 
 /**
  * @author Morten Svanæs <msvanaes@dhis2.org>
@@ -67,6 +73,10 @@ class CacheInvalidationListenerTest {
 
   @Mock protected DisabledCaching disabledCaching;
 
+  @Mock protected HibernateCacheManager hibernateCacheManager;
+
+  @Mock protected ApplicationEventPublisher eventPublisher;
+
   private CacheInvalidationListener cacheInvalidationListener;
 
   private AutoCloseable closeable;
@@ -85,6 +95,8 @@ class CacheInvalidationListenerTest {
             idObjectManager,
             trackedEntityAttributeService,
             periodService,
+            hibernateCacheManager,
+            eventPublisher,
             "SERVER_A");
 
     lenient().when(sessionFactory.getCache()).thenReturn(disabledCaching);
@@ -145,4 +157,46 @@ class CacheInvalidationListenerTest {
     verify(sessionFactory.getCache(), times(1)).evict(any(), any());
     verify(paginationCacheManager, times(1)).evictCache(anyString());
   }
+
+  @Test
+  @DisplayName("Should update cache region on REGION_UPDATE messages")
+  void testRegionUpdateMessage() {
+    String message =
+        "SERVER_B" + ":" + "REGION_UPDATE" + ":" + "org.hisp.dhis.user.User" + ":" + "500;";
+    cacheInvalidationListener.message(CacheInvalidationConfig.CHANNEL_NAME, message);
+
+    verify(hibernateCacheManager, times(1))
+        .updateCacheRegion("org.hisp.dhis.user.User", 500L, null);
+  }
+
+  @Test
+  @DisplayName("Should clear cache region on REGION_CLEAR messages")
+  void testRegionClearMessage() {
+    String message = "SERVER_B" + ":" + "REGION_CLEAR" + ":" + "org.hisp.dhis.user.User";
+    cacheInvalidationListener.message(CacheInvalidationConfig.CHANNEL_NAME, message);
+
+    verify(hibernateCacheManager, times(1)).clearCacheRegion("org.hisp.dhis.user.User");
+  }
+
+  @Test
+  @DisplayName("Should invalidate application cache key on CACHE_INVALIDATE messages")
+  void testCacheInvalidateMessage() {
+    String message = "SERVER_B" + ":" + "CACHE_INVALIDATE" + ":" + "apiTokensCache" + ":" + "a:b";
+    cacheInvalidationListener.message(CacheInvalidationConfig.CHANNEL_NAME, message);
+
+    ArgumentCaptor<CacheInvalidationEvent> event =
+        ArgumentCaptor.forClass(CacheInvalidationEvent.class);
+    verify(eventPublisher, times(1)).publishEvent(event.capture());
+    assertEquals(Region.apiTokensCache, event.getValue().getRegion());
+    assertEquals("a:b", event.getValue().getKey());
+  }
+
+  @Test
+  @DisplayName("Should ignore cache region messages from this server")
+  void testRegionMessageFromThisServer() {
+    String message = "SERVER_A" + ":" + "REGION_CLEAR" + ":" + "org.hisp.dhis.user.User";
+    cacheInvalidationListener.message(CacheInvalidationConfig.CHANNEL_NAME, message);
+
+    verify(hibernateCacheManager, times(0)).clearCacheRegion(anyString());
+  }
 }
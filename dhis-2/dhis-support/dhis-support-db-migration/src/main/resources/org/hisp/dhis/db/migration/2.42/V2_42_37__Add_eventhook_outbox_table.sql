@@ -0,0 +1,16 @@
+
+-- Add outbox table for event hook events pending delivery
+
+create table if not exists eventhookoutbox (
+    eventhookoutboxid bigserial not null,
+    eventhookuid varchar(11) not null,
+    targetid varchar(64) not null,
+    payload text not null,
+    created timestamp not null,
+    attempts int4 not null default 0,
+    nextattempt timestamp not null,
+    constraint eventhookoutbox_pkey primary key (eventhookoutboxid)
+);
+
+create index if not exists in_eventhookoutbox_target_nextattempt
+    on eventhookoutbox (eventhookuid, targetid, nextattempt);
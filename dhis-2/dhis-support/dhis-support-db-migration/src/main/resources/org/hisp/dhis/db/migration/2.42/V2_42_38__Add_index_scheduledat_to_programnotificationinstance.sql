@@ -0,0 +1,7 @@
+-- Adds a btree index on columns 'scheduledat' and 'programnotificationinstanceid' on table 'programnotificationinstance'
+-- Uses function 'dhis2_create_index_if_not_exists'
+
+select dhis2_create_index_if_not_exists(
+  'in_programnotificationinstance_scheduledat',
+  'create index in_programnotificationinstance_scheduledat on programnotificationinstance using btree(scheduledat, programnotificationinstanceid)'
+);
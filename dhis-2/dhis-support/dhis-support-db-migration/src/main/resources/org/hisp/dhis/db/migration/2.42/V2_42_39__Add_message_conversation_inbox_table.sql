@@ -0,0 +1,23 @@
+-- Adds a table holding the message conversation counts per user and ticket status,
+-- maintained whenever conversations of the user are sent, replied to, read or updated
+
+create table if not exists messageconversationinbox (
+    userid int8 not null,
+    status varchar(255) not null,
+    total int8 not null default 0,
+    unread int8 not null default 0,
+    followup int8 not null default 0,
+    constraint messageconversationinbox_pkey primary key (userid, status),
+    constraint fk_messageconversationinbox_userid foreign key (userid) references userinfo(userinfoid) on delete cascade
+);
+
+-- Populate from existing conversations
+insert into messageconversationinbox (userid, status, total, unread, followup)
+select um.userid, coalesce(mc.status, 'NONE'), count(*),
+    count(*) filter (where not um.isread),
+    count(*) filter (where um.isfollowup)
+from usermessage um
+inner join messageconversation_usermessages mcu on mcu.usermessageid = um.usermessageid
+inner join messageconversation mc on mc.messageconversationid = mcu.messageconversationid
+group by um.userid, coalesce(mc.status, 'NONE')
+on conflict (userid, status) do nothing;
@@ -0,0 +1,4 @@
+-- Adds the time an incoming SMS was claimed for processing, so that messages left in
+-- PROCESSING by a stopped node can be claimed again
+
+alter table incomingsms add column if not exists claimed timestamp without time zone;
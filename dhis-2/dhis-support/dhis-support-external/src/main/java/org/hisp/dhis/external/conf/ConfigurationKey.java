@@ -129,6 +129,18 @@ public enum ConfigurationKey {
   /** Sets 'hibernate.cache.use_query_cache'. (default: true) */
   USE_QUERY_CACHE("hibernate.cache.use_query_cache", "true", false),
 
+  /**
+   * Max number of entries held in memory by each Hibernate second-level cache region. Can be
+   * adjusted per region at runtime. (default: 1000000)
+   */
+  HIBERNATE_CACHE_MAX_ENTRIES("hibernate.cache.max_entries", "1000000", false),
+
+  /**
+   * Time to live in seconds for entries in Hibernate second-level cache regions. Can be adjusted
+   * per region at runtime. (default: 21600)
+   */
+  HIBERNATE_CACHE_TTL("hibernate.cache.ttl", "21600", false),
+
   /** Max size of connection pool (default: 80). */
   CONNECTION_POOL_MAX_SIZE("connection.pool.max_size", "80", false),
 
@@ -408,6 +420,23 @@ public enum ConfigurationKey {
    */
   ANALYTICS_TABLE_SKIP_COLUMN("analytics.table.skip_column", "", false),
 
+  /**
+   * Skip regenerating resource tables for which neither the source tables nor the table definition
+   * changed since the last generation. Changes are detected using the database statistics
+   * collector, which reports changes with a delay and loses them on a statistics reset, so this can
+   * keep stale resource tables. (default: OFF)
+   */
+  ANALYTICS_RESOURCE_TABLE_SKIP_UNCHANGED("analytics.resource_table.skip_unchanged", Constants.OFF),
+
+  /**
+   * Time in milliseconds from which an analytics query is retained in the log of slow analytics
+   * queries. (default: 1000)
+   */
+  ANALYTICS_QUERY_SLOW_THRESHOLD("analytics.query.slow_threshold", "1000", false),
+
+  /** Max number of recent queries retained in the log of slow analytics queries. (default: 100) */
+  ANALYTICS_QUERY_SLOW_LOG_SIZE("analytics.query.slow_log_size", "100", false),
+
   /**
    * Artemis support mode, 2 modes supported: EMBEDDED (starts up an embedded Artemis which lives in
    * the same process as your DHIS2 instance), NATIVE (connects to an external Artemis instance,
@@ -488,15 +517,25 @@ public enum ConfigurationKey {
   /** Database connection pool monitoring. (default: off) */
   MONITORING_DBPOOL_ENABLED("monitoring.dbpool.enabled", Constants.OFF, false),
 
+  /** Analytics SQL query timing and row count monitoring. (default: off) */
+  MONITORING_ANALYTICS_QUERIES_ENABLED(
+      "monitoring.analytics.queries.enabled", Constants.OFF, false),
+
   /** Hibernate monitoring, do not use in production. (default: off) */
   MONITORING_HIBERNATE_ENABLED("monitoring.hibernate.enabled", Constants.OFF, false),
 
+  /** Hibernate second-level cache region monitoring. (default: off) */
+  MONITORING_HIBERNATE_CACHE_ENABLED("monitoring.hibernate.cache.enabled", Constants.OFF, false),
+
   /** Uptime monitoring. (default: off) */
   MONITORING_UPTIME_ENABLED("monitoring.uptime.enabled", Constants.OFF, false),
 
   /** CPU monitoring. (default: off) */
   MONITORING_CPU_ENABLED("monitoring.cpu.enabled", Constants.OFF, false),
 
+  /** Audit in-memory queue monitoring. (default: off) */
+  MONITORING_AUDIT_ENABLED("monitoring.audit.enabled", Constants.OFF, false),
+
   /** AppHub base URL. (default: https://apps.dhis2.org). */
   APPHUB_BASE_URL("apphub.base.url", "https://apps.dhis2.org", false),
 
@@ -537,6 +576,15 @@ public enum ConfigurationKey {
   /** Sets the audit matrix for tracker. (default: none). */
   AUDIT_TRACKER_MATRIX("audit.tracker", "", false),
 
+  /** Max number of audit messages persisted per consumer transaction. (default: 500). */
+  AUDIT_CONSUMER_BATCH_SIZE("audit.consumer.batch_size", "500", false),
+
+  /**
+   * Max time in milliseconds an audit consumer waits to fill a batch once the first message of the
+   * batch has been received. (default: 200).
+   */
+  AUDIT_CONSUMER_BATCH_WAIT("audit.consumer.batch_wait", "200", false),
+
   /** Enable OIDC. (default: off). */
   OIDC_OAUTH2_LOGIN_ENABLED("oidc.oauth2.login.enabled", Constants.OFF, false),
 
@@ -616,6 +664,23 @@ public enum ConfigurationKey {
 
   ACTIVE_READ_REPLICAS("active.read.replicas", "0", false),
 
+  /**
+   * Maximum replication lag in seconds for a read replica to receive read-only traffic. Replicas
+   * lagging further behind the primary are skipped until they catch up. (default: 2).
+   */
+  DB_POOL_READ_REPLICA_MAX_LAG("db.pool.read_replica.max_lag", "2", false),
+
+  /**
+   * Route the connections of all read-only transactions to the read replicas. When off, only the
+   * read-only JDBC templates use the replicas. Read-only transactions may then read data which is
+   * up to db.pool.read_replica.max_lag seconds old. (default: off).
+   */
+  DB_POOL_READ_REPLICA_ROUTE_TRANSACTIONS(
+      "db.pool.read_replica.route_transactions", Constants.OFF, false),
+
+  /** Interval in seconds between health and lag checks of read replicas. (default: 10). */
+  DB_POOL_READ_REPLICA_CHECK_INTERVAL("db.pool.read_replica.check_interval", "10", false),
+
   /**
    * Allows enabling/disabling audits system-wide (without configuring the audit matrix). (default:
    * true)
@@ -657,6 +722,27 @@ public enum ConfigurationKey {
   /** Event hooks for system events. Enable or disable the feature. */
   EVENT_HOOKS_ENABLED("event_hooks.enabled", Constants.OFF, false),
 
+  /** Max number of events delivered to an event hook target in one batch. (default: 100) */
+  EVENT_HOOKS_BATCH_SIZE("event_hooks.batch_size", "100", false),
+
+  /** Time in milliseconds between polls of the event hook outbox. (default: 1000) */
+  EVENT_HOOKS_DISPATCH_INTERVAL("event_hooks.dispatch_interval", "1000", false),
+
+  /**
+   * Time in milliseconds before the first retry of a failed event hook delivery, doubled for each
+   * subsequent attempt. (default: 5000)
+   */
+  EVENT_HOOKS_RETRY_DELAY("event_hooks.retry_delay", "5000", false),
+
+  /** Max number of delivery attempts before an event hook event is dropped. (default: 10) */
+  EVENT_HOOKS_MAX_ATTEMPTS("event_hooks.max_attempts", "10", false),
+
+  /**
+   * Time in milliseconds a dispatcher holds a claimed batch of event hook events before other
+   * dispatchers may claim it again, e.g. after a crash during delivery. (default: 900000)
+   */
+  EVENT_HOOKS_CLAIM_TIMEOUT("event_hooks.claim_timeout", "900000", false),
+
   /** Linked accounts via OpenID mapping. Enable or disable the feature. */
   LINKED_ACCOUNTS_ENABLED("linked_accounts.enabled", Constants.OFF, false),
 
@@ -683,6 +769,84 @@ public enum ConfigurationKey {
    */
   METADATA_CATEGORIES_MAX_COMBINATIONS("metadata.categories.max_combinations", "500", false),
 
+  /**
+   * Answer conditional GET requests for metadata from tracked changes, without loading the objects.
+   * (default: on)
+   */
+  METADATA_CHANGE_TRACKING_ENABLED("metadata.change_tracking.enabled", Constants.ON, false),
+
+  /**
+   * Seconds a metadata change fingerprint is reused before it is read again from the database.
+   * Bounds how long changes made by other cluster nodes or by plain SQL go unnoticed. (default: 10)
+   */
+  METADATA_CHANGE_TRACKING_TTL("metadata.change_tracking.ttl", "10", false),
+
+  /**
+   * Maximum number of metadata import validation checks which do not need the database session that
+   * one import runs concurrently on the shared task executor. 1 runs all checks one after another
+   * on the importing thread. (default: 4)
+   */
+  METADATA_IMPORT_VALIDATION_PARALLELISM("metadata.import.validation.parallelism", "4", false),
+
+  /**
+   * Maximum number of SQL based data integrity checks run concurrently. 1 runs them one after
+   * another. (default: 4)
+   */
+  DATA_INTEGRITY_PARALLELISM("data_integrity.parallelism", "4", false),
+
+  /**
+   * Seconds a single SQL based data integrity check may run before it is cancelled and reported as
+   * failed. 0 disables the timeout. (default: 600)
+   */
+  DATA_INTEGRITY_CHECK_TIMEOUT("data_integrity.check_timeout", "600", false),
+
+  /**
+   * Skip re-running a SQL based data integrity check while its cached result is still present and
+   * none of the tables it reads were modified since. Changes are detected from the PostgreSQL table
+   * statistics which are updated with a short delay. (default: off)
+   */
+  DATA_INTEGRITY_SKIP_UNCHANGED("data_integrity.skip_unchanged", Constants.OFF, false),
+
+  /**
+   * Number of sequential values a node takes from the database counter at once and hands out from
+   * memory. Blocks never exceed 1% of the values a pattern segment can hold. Unused values are
+   * returned on shutdown when no other node took values since, otherwise they are skipped. 1
+   * disables block allocation. (default: 1)
+   */
+  RESERVED_VALUES_SEQUENTIAL_BLOCK_SIZE("reservedvalues.sequential.block_size", "1", false),
+
+  /**
+   * Remember successfully verified HTTP Basic credentials for a few minutes, so that repeated
+   * requests skip the password hash check and the user lookup. On a cluster, this also requires
+   * {@code redis.cache.invalidation.enabled}. (default: off)
+   */
+  BASIC_AUTH_CACHE_ENABLED("login.security.basic_auth_cache.enabled", Constants.OFF, false),
+
+  /** Number of SMS gateway requests sent concurrently when dispatching a batch. (default: 4) */
+  SMS_DISPATCH_CONCURRENCY("sms.dispatch.concurrency", "4", false),
+
+  /** Maximum number of requests per second sent to a single SMS gateway. (default: 20) */
+  SMS_DISPATCH_RATE_LIMIT("sms.dispatch.rate_limit", "20", false),
+
+  /**
+   * Number of times an SMS gateway request is attempted when the gateway reports a temporary
+   * failure. (default: 3)
+   */
+  SMS_DISPATCH_MAX_ATTEMPTS("sms.dispatch.max_attempts", "3", false),
+
+  /**
+   * Number of senders whose incoming SMS are processed concurrently. Messages from the same sender
+   * are always processed in the order they were received. (default: 4)
+   */
+  SMS_INBOUND_PARALLELISM("sms.inbound.parallelism", "4", false),
+
+  /**
+   * Hours after which an incoming SMS which was not processed is marked as unhandled instead of
+   * being processed, so that senders are not answered for messages they sent long ago. (default:
+   * 24)
+   */
+  SMS_INBOUND_MAX_AGE("sms.inbound.max_age", "24", false),
+
   /** Enable email-based 2FA authentication. (default: false) */
   EMAIL_2FA_ENABLED("login.security.email_2fa.enabled", Constants.OFF, false),
 
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.cache;
+
+import javax.annotation.CheckForNull;
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published when a Hibernate second-level cache region was cleared or adjusted on this instance, so
+ * that other instances of a cluster can apply the same change.
+ */
+@Getter
+public class CacheRegionChangedEvent extends ApplicationEvent {
+  private final String regionName;
+
+  /** The new max number of entries, or null if unchanged. */
+  @CheckForNull private final Long maxEntries;
+
+  /** The new time to live in seconds, or null if unchanged. */
+  @CheckForNull private final Long timeToLive;
+
+  /** Whether the entries of the region were evicted. */
+  private final boolean cleared;
+
+  private CacheRegionChangedEvent(
+      Object source,
+      String regionName,
+      @CheckForNull Long maxEntries,
+      @CheckForNull Long timeToLive,
+      boolean cleared) {
+    super(source);
+    this.regionName = regionName;
+    this.maxEntries = maxEntries;
+    this.timeToLive = timeToLive;
+    this.cleared = cleared;
+  }
+
+  public static CacheRegionChangedEvent updated(
+      Object source,
+      String regionName,
+      @CheckForNull Long maxEntries,
+      @CheckForNull Long timeToLive) {
+    return new CacheRegionChangedEvent(source, regionName, maxEntries, timeToLive, false);
+  }
+
+  public static CacheRegionChangedEvent cleared(Object source, String regionName) {
+    return new CacheRegionChangedEvent(source, regionName, null, null, true);
+  }
+}
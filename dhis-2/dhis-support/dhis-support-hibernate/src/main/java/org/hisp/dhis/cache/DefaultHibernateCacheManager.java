@@ -28,8 +28,13 @@
 package org.hisp.dhis.cache;
 
 import jakarta.persistence.EntityManagerFactory;
+import java.util.Comparator;
+import java.util.List;
+import javax.annotation.CheckForNull;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.Region;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
 import org.hibernate.stat.Statistics;
 import org.hisp.dhis.common.event.ApplicationCacheClearedEvent;
 import org.springframework.context.event.EventListener;
@@ -79,11 +84,80 @@ public class DefaultHibernateCacheManager implements HibernateCacheManager {
     clearCache();
   }
 
+  @Override
+  public void clearCacheRegion(String regionName) {
+    Region region =
+        getSessionFactory()
+            .unwrap(SessionFactoryImplementor.class)
+            .getCache()
+            .getRegion(regionName);
+
+    if (region != null) {
+      region.clear();
+
+      log.info("Hibernate cache region '{}' cleared", regionName);
+    }
+  }
+
+  @Override
+  public List<CacheRegion> getCacheRegions() {
+    HibernateCacheRegionFactory regionFactory = getRegionFactory();
+
+    if (regionFactory == null) {
+      return List.of();
+    }
+
+    return regionFactory.getTunableRegions().stream()
+        .map(HibernateCacheRegionFactory.TunableRegion::toCacheRegion)
+        .sorted(Comparator.comparing(CacheRegion::name))
+        .toList();
+  }
+
+  @Override
+  @CheckForNull
+  public CacheRegion getCacheRegion(String regionName) {
+    HibernateCacheRegionFactory.TunableRegion region = getTunableRegion(regionName);
+
+    return region == null ? null : region.toCacheRegion();
+  }
+
+  @Override
+  public CacheRegion updateCacheRegion(
+      String regionName, @CheckForNull Long maxEntries, @CheckForNull Long timeToLive) {
+    HibernateCacheRegionFactory.TunableRegion region = getTunableRegion(regionName);
+
+    if (region == null) {
+      throw new IllegalArgumentException("Cache region does not exist: " + regionName);
+    }
+
+    if (maxEntries != null) {
+      region.setMaxEntries(maxEntries);
+    }
+
+    if (timeToLive != null) {
+      region.setTimeToLive(timeToLive);
+    }
+
+    return region.toCacheRegion();
+  }
+
   @Override
   public Statistics getStatistics() {
     return getSessionFactory().getStatistics();
   }
 
+  @CheckForNull
+  private HibernateCacheRegionFactory.TunableRegion getTunableRegion(String regionName) {
+    HibernateCacheRegionFactory regionFactory = getRegionFactory();
+
+    return regionFactory == null ? null : regionFactory.getTunableRegion(regionName);
+  }
+
+  @CheckForNull
+  private HibernateCacheRegionFactory getRegionFactory() {
+    return HibernateCacheRegionFactory.of(getSessionFactory());
+  }
+
   private SessionFactory getSessionFactory() {
     return entityManagerFactory.unwrap(SessionFactory.class);
   }
@@ -27,6 +27,8 @@
  */
 package org.hisp.dhis.cache;
 
+import java.util.List;
+import javax.annotation.CheckForNull;
 import org.hibernate.stat.Statistics;
 import org.hisp.dhis.common.event.ApplicationCacheClearedEvent;
 
@@ -43,6 +45,41 @@ public interface HibernateCacheManager {
   /** Evicts all entities, collections and queries from the cache. */
   void clearCache();
 
+  /**
+   * Evicts all entries of a single cache region.
+   *
+   * @param regionName the region name.
+   */
+  void clearCacheRegion(String regionName);
+
+  /**
+   * Gets the cache regions which can be adjusted at runtime.
+   *
+   * @return a list of {@link CacheRegion}.
+   */
+  List<CacheRegion> getCacheRegions();
+
+  /**
+   * Gets a cache region which can be adjusted at runtime.
+   *
+   * @param regionName the region name.
+   * @return the {@link CacheRegion}, or null if no such region exists.
+   */
+  @CheckForNull
+  CacheRegion getCacheRegion(String regionName);
+
+  /**
+   * Adjusts the size and time to live of a cache region on this instance.
+   *
+   * @param regionName the region name.
+   * @param maxEntries the max number of entries, or null to leave unchanged.
+   * @param timeToLive the time to live in seconds, or null to leave unchanged.
+   * @return the adjusted {@link CacheRegion}.
+   * @throws IllegalArgumentException if no such region exists.
+   */
+  CacheRegion updateCacheRegion(
+      String regionName, @CheckForNull Long maxEntries, @CheckForNull Long timeToLive);
+
   /**
    * Gets the statistics.
    *
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.cache;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import org.hibernate.SessionFactory;
+
+/**
+ * Binds hit, miss, put, removal and eviction counts of every Hibernate second-level cache region,
+ * tagged by cache name, as well as the current size and time to live settings of the regions which
+ * can be adjusted at runtime.
+ */
+public class HibernateCacheMetrics implements MeterBinder {
+  private final HibernateCacheRegionFactory regionFactory;
+
+  private final Tags tags;
+
+  public HibernateCacheMetrics(SessionFactory sessionFactory, String sessionFactoryName) {
+    this.regionFactory = HibernateCacheRegionFactory.of(sessionFactory);
+    this.tags = Tags.of("entityManagerFactory", sessionFactoryName);
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    if (regionFactory == null) {
+      return;
+    }
+
+    CacheManager cacheManager = regionFactory.getCacheManager();
+
+    for (String cacheName : cacheManager.getCacheNames()) {
+      Cache<Object, Object> cache = cacheManager.getCache(cacheName);
+      cacheManager.enableStatistics(cacheName, true);
+      JCacheMetrics.monitor(registry, cache, tags);
+    }
+
+    for (HibernateCacheRegionFactory.TunableRegion region : regionFactory.getTunableRegions()) {
+      Tags regionTags = tags.and("cache", region.getName());
+
+      Gauge.builder(
+              "hibernate.cache.region.max.entries",
+              region,
+              HibernateCacheRegionFactory.TunableRegion::getMaxEntries)
+          .description("The max number of entries held in memory by the cache region")
+          .tags(regionTags)
+          .register(registry);
+      Gauge.builder(
+              "hibernate.cache.region.ttl",
+              region,
+              HibernateCacheRegionFactory.TunableRegion::getTimeToLive)
+          .description("The time to live of entries of the cache region")
+          .tags(regionTags)
+          .baseUnit("seconds")
+          .register(registry);
+    }
+  }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.cache;
+
+import static org.hisp.dhis.external.conf.ConfigurationKey.HIBERNATE_CACHE_MAX_ENTRIES;
+import static org.hisp.dhis.external.conf.ConfigurationKey.HIBERNATE_CACHE_TTL;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import javax.annotation.CheckForNull;
+import javax.cache.Cache;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.expiry.ExpiryPolicy;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+
+/**
+ * JCache region factory which creates the Hibernate second-level cache regions as Ehcache caches
+ * bounded by a number of entries and with a time to live. Both can be adjusted per region at
+ * runtime. The update timestamps region is left unbounded and eternal, as Hibernate requires
+ * timestamps to outlive the query results which depend on them.
+ */
+@Slf4j
+public class HibernateCacheRegionFactory extends JCacheRegionFactory {
+  private final Map<String, TunableRegion> regions = new ConcurrentHashMap<>();
+
+  private long defaultMaxEntries;
+
+  private long defaultTimeToLive;
+
+  @Override
+  protected void prepareForUse(SessionFactoryOptions settings, Map configValues) {
+    super.prepareForUse(settings, configValues);
+
+    defaultMaxEntries =
+        ConfigurationHelper.getLong(
+            HIBERNATE_CACHE_MAX_ENTRIES.getKey(),
+            configValues,
+            Integer.parseInt(HIBERNATE_CACHE_MAX_ENTRIES.getDefaultValue()));
+    defaultTimeToLive =
+        ConfigurationHelper.getLong(
+            HIBERNATE_CACHE_TTL.getKey(),
+            configValues,
+            Integer.parseInt(HIBERNATE_CACHE_TTL.getDefaultValue()));
+  }
+
+  @Override
+  protected Cache<Object, Object> createCache(String regionName) {
+    if (regionName.endsWith(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME)) {
+      return super.createCache(regionName);
+    }
+
+    TunableExpiry expiry = new TunableExpiry(Duration.ofSeconds(defaultTimeToLive));
+    Cache<Object, Object> cache =
+        getCacheManager()
+            .createCache(
+                regionName,
+                Eh107Configuration.fromEhcacheCacheConfiguration(
+                    CacheConfigurationBuilder.newCacheConfigurationBuilder(
+                            Object.class,
+                            Object.class,
+                            ResourcePoolsBuilder.heap(defaultMaxEntries))
+                        .withExpiry(expiry)));
+
+    regions.put(regionName, new TunableRegion(cache, expiry, defaultMaxEntries));
+
+    return cache;
+  }
+
+  @Override
+  protected void releaseFromUse() {
+    regions.clear();
+
+    super.releaseFromUse();
+  }
+
+  /**
+   * @param sessionFactory the session factory.
+   * @return the region factory of the given session factory, or null if the second-level cache is
+   *     disabled or provided by another region factory.
+   */
+  @CheckForNull
+  public static HibernateCacheRegionFactory of(SessionFactory sessionFactory) {
+    return sessionFactory.unwrap(SessionFactoryImplementor.class).getCache().getRegionFactory()
+            instanceof HibernateCacheRegionFactory regionFactory
+        ? regionFactory
+        : null;
+  }
+
+  /**
+   * @return the regions which can be adjusted at runtime.
+   */
+  public Collection<TunableRegion> getTunableRegions() {
+    return regions.values();
+  }
+
+  /**
+   * @param regionName the region name.
+   * @return the region with the given name, or null if no such region can be adjusted at runtime.
+   */
+  @CheckForNull
+  public TunableRegion getTunableRegion(String regionName) {
+    return regions.get(regionName);
+  }
+
+  /** A second-level cache region with a runtime adjustable size and time to live. */
+  public static final class TunableRegion {
+    @Getter private final Cache<Object, Object> cache;
+
+    private final TunableExpiry expiry;
+
+    @Getter private volatile long maxEntries;
+
+    private TunableRegion(Cache<Object, Object> cache, TunableExpiry expiry, long maxEntries) {
+      this.cache = cache;
+      this.expiry = expiry;
+      this.maxEntries = maxEntries;
+    }
+
+    public String getName() {
+      return cache.getName();
+    }
+
+    /**
+     * @return the time to live in seconds.
+     */
+    public long getTimeToLive() {
+      return expiry.timeToLive.toSeconds();
+    }
+
+    /**
+     * Sets the max number of entries held in memory. Entries beyond the new size are evicted as new
+     * entries are put.
+     *
+     * @param maxEntries the max number of entries.
+     */
+    public synchronized void setMaxEntries(long maxEntries) {
+      cache
+          .unwrap(org.ehcache.Cache.class)
+          .getRuntimeConfiguration()
+          .updateResourcePools(ResourcePoolsBuilder.heap(maxEntries).build());
+      this.maxEntries = maxEntries;
+
+      log.info("Max entries of cache region '{}' set to {}", getName(), maxEntries);
+    }
+
+    /**
+     * Sets the time to live of entries created or updated from now on. Entries already present keep
+     * the expiry they were given when put.
+     *
+     * @param timeToLive the time to live in seconds.
+     */
+    public void setTimeToLive(long timeToLive) {
+      expiry.timeToLive = Duration.ofSeconds(timeToLive);
+
+      log.info("Time to live of cache region '{}' set to {} seconds", getName(), timeToLive);
+    }
+
+    public CacheRegion toCacheRegion() {
+      return new CacheRegion(getName(), maxEntries, getTimeToLive());
+    }
+  }
+
+  private static final class TunableExpiry implements ExpiryPolicy<Object, Object> {
+    private volatile Duration timeToLive;
+
+    private TunableExpiry(Duration timeToLive) {
+      this.timeToLive = timeToLive;
+    }
+
+    @Override
+    public Duration getExpiryForCreation(Object key, Object value) {
+      return timeToLive;
+    }
+
+    @Override
+    public Duration getExpiryForAccess(Object key, Supplier<?> value) {
+      return null;
+    }
+
+    @Override
+    public Duration getExpiryForUpdate(Object key, Supplier<?> oldValue, Object newValue) {
+      return timeToLive;
+    }
+  }
+}
@@ -33,7 +33,6 @@ import static org.hisp.dhis.datasource.DatabasePoolUtils.ConfigKeyMapper.ANALYTI
 import static org.hisp.dhis.external.conf.ConfigurationKey.ANALYTICS_CONNECTION_URL;
 import static org.hisp.dhis.external.conf.ConfigurationKey.ANALYTICS_DATABASE;
 
-import com.google.common.base.MoreObjects;
 import java.beans.PropertyVetoException;
 import java.sql.SQLException;
 import javax.sql.DataSource;
@@ -109,10 +108,9 @@ public class AnalyticsDataSourceConfig {
   @Bean("analyticsReadOnlyJdbcTemplate")
   @DependsOn("analyticsDataSource")
   public JdbcTemplate readOnlyJdbcTemplate(
+      ReadOnlyDataSourceManager readOnlyDataSourceManager,
       @Qualifier("analyticsDataSource") DataSource dataSource) {
-    ReadOnlyDataSourceManager manager = new ReadOnlyDataSourceManager(config);
-    DataSource ds = MoreObjects.firstNonNull(manager.getReadOnlyDataSource(), dataSource);
-    return getJdbcTemplate(ds);
+    return getJdbcTemplate(readOnlyDataSourceManager.getReadOnlyDataSource(dataSource));
   }
 
   @Bean("analyticsJdbcTemplate")
@@ -27,7 +27,7 @@
  */
 package org.hisp.dhis.config;
 
-import com.google.common.base.MoreObjects;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.beans.PropertyVetoException;
 import java.sql.SQLException;
 import java.util.Objects;
@@ -78,21 +78,33 @@ public class DataSourceConfig {
   }
 
   @Bean
-  public JdbcTemplate readOnlyJdbcTemplate(
-      DhisConfigurationProvider config, DataSource dataSource) {
+  public ReadOnlyDataSourceManager readOnlyDataSourceManager(
+      DhisConfigurationProvider config, MeterRegistry meterRegistry) {
     ReadOnlyDataSourceManager manager = new ReadOnlyDataSourceManager(config);
+    manager.bindTo(meterRegistry);
+    return manager;
+  }
 
+  @Bean
+  public JdbcTemplate readOnlyJdbcTemplate(
+      ReadOnlyDataSourceManager readOnlyDataSourceManager, DataSource dataSource) {
     JdbcTemplate jdbcTemplate =
-        new JdbcTemplate(MoreObjects.firstNonNull(manager.getReadOnlyDataSource(), dataSource));
+        new JdbcTemplate(readOnlyDataSourceManager.getReadOnlyDataSource(dataSource));
     jdbcTemplate.setFetchSize(1000);
 
     return jdbcTemplate;
   }
 
+  /**
+   * Returns the primary data source. If read replicas are configured and routing of transactions
+   * is enabled, connections of read-only transactions are routed to the replicas.
+   */
   @Primary
   @Bean("actualDataSource")
-  public DataSource dataSource(DhisConfigurationProvider config) {
-    return createLoggingDataSource(config, actualDataSource(config));
+  public DataSource dataSource(
+      DhisConfigurationProvider config, ReadOnlyDataSourceManager readOnlyDataSourceManager) {
+    return readOnlyDataSourceManager.getTransactionRoutingDataSource(
+        createLoggingDataSource(config, actualDataSource(config)));
   }
 
   private DataSource actualDataSource(DhisConfigurationProvider config) {
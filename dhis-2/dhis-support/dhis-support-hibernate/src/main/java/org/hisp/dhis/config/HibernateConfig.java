@@ -27,6 +27,8 @@
  */
 package org.hisp.dhis.config;
 
+import static org.hisp.dhis.external.conf.ConfigurationKey.HIBERNATE_CACHE_MAX_ENTRIES;
+import static org.hisp.dhis.external.conf.ConfigurationKey.HIBERNATE_CACHE_TTL;
 import static org.hisp.dhis.external.conf.ConfigurationKey.USE_QUERY_CACHE;
 import static org.hisp.dhis.external.conf.ConfigurationKey.USE_SECOND_LEVEL_CACHE;
 
@@ -42,11 +44,13 @@ import org.apache.commons.lang3.ArrayUtils;
 import org.hibernate.SessionFactory;
 import org.hibernate.cache.jcache.ConfigSettings;
 import org.hibernate.cache.jcache.MissingCacheStrategy;
-import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
 import org.hibernate.cfg.AvailableSettings;
 import org.hibernate.jpa.HibernatePersistenceProvider;
 import org.hibernate.tool.schema.Action;
 import org.hisp.dhis.cache.DefaultHibernateCacheManager;
+import org.hisp.dhis.cache.HibernateCacheRegionFactory;
+import org.hisp.dhis.datasource.ReadOnlyDataSourceManager;
+import org.hisp.dhis.datasource.ReadReplicaJpaDialect;
 import org.hisp.dhis.dbms.DbmsManager;
 import org.hisp.dhis.dbms.HibernateDbmsManager;
 import org.hisp.dhis.external.conf.ConfigurationKey;
@@ -126,6 +130,11 @@ public class HibernateConfig {
     factory.setPackagesToScan("org.hisp.dhis");
     factory.setMappingResources(loadResources());
     factory.setJpaProperties(getAdditionalProperties(dhisConfig));
+
+    if (ReadOnlyDataSourceManager.isTransactionRoutingEnabled(dhisConfig)) {
+      factory.setJpaDialect(new ReadReplicaJpaDialect());
+    }
+
     factory.afterPropertiesSet();
     return factory.getObject();
   }
@@ -163,7 +172,12 @@ public class HibernateConfig {
 
     if ("true".equals(dhisConfig.getProperty(USE_SECOND_LEVEL_CACHE))) {
       properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, "true");
-      properties.put(AvailableSettings.CACHE_REGION_FACTORY, JCacheRegionFactory.class.getName());
+      properties.put(
+          AvailableSettings.CACHE_REGION_FACTORY, HibernateCacheRegionFactory.class.getName());
+      properties.put(
+          HIBERNATE_CACHE_MAX_ENTRIES.getKey(),
+          dhisConfig.getProperty(HIBERNATE_CACHE_MAX_ENTRIES));
+      properties.put(HIBERNATE_CACHE_TTL.getKey(), dhisConfig.getProperty(HIBERNATE_CACHE_TTL));
       properties.put(AvailableSettings.USE_QUERY_CACHE, dhisConfig.getProperty(USE_QUERY_CACHE));
       properties.put(
           ConfigSettings.MISSING_CACHE_STRATEGY,
@@ -32,11 +32,18 @@ import static org.hisp.dhis.external.conf.ConfigurationKey.CONNECTION_PASSWORD;
 import static org.hisp.dhis.external.conf.ConfigurationKey.CONNECTION_URL;
 import static org.hisp.dhis.external.conf.ConfigurationKey.CONNECTION_USERNAME;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
 import java.beans.PropertyVetoException;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import javax.sql.DataSource;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
@@ -48,9 +55,12 @@ import org.hisp.dhis.datasource.model.ReadOnlyDataSourceConfig;
 import org.hisp.dhis.external.conf.ConfigurationKey;
 import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.util.ObjectUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 
 /**
- * Class responsible for detecting read-only databases configured in the DHIS 2 configuration file.
+ * Class responsible for detecting read-only databases configured in the DHIS 2 configuration file,
+ * and for checking their health and replication lag periodically.
  *
  * @author Lars Helge Overland
  */
@@ -73,6 +83,16 @@ public class ReadOnlyDataSourceManager {
 
   private static final int MAX_READ_REPLICAS = 5;
 
+  /**
+   * Returns the replication lag in seconds of a Postgres standby. The lag is zero when all received
+   * WAL has been replayed, so that an idle primary does not make replicas look stale.
+   */
+  private static final String LAG_SQL =
+      "select case when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0 "
+          + "else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()), 0) end";
+
+  private static final int LAG_QUERY_TIMEOUT = 5;
+
   public ReadOnlyDataSourceManager(DhisConfigurationProvider config) {
     checkNotNull(config);
     init(config);
@@ -82,39 +102,181 @@ public class ReadOnlyDataSourceManager {
   private DataSource internalReadOnlyDataSource;
 
   /** State holder for explicitly defined read only data sources. */
-  private List<DataSource> internalReadOnlyInstanceList;
+  private List<ReadReplica> internalReadOnlyInstanceList;
+
+  /** Maximum tolerated replication lag in seconds. */
+  private double maxLag;
+
+  /** Whether connections of read-only transactions are routed to the read replicas. */
+  private boolean routeTransactions;
+
+  /** Executor running the periodic health and lag checks of the read replicas. */
+  private ScheduledExecutorService healthCheckExecutor;
 
   // -------------------------------------------------------------------------
   // Public methods
   // -------------------------------------------------------------------------
 
   public void init(DhisConfigurationProvider config) {
-    List<DataSource> ds = getReadOnlyDataSources(config);
-
-    this.internalReadOnlyInstanceList = ds;
-    this.internalReadOnlyDataSource = !ds.isEmpty() ? new CircularRoutingDataSource(ds) : null;
+    List<ReadReplica> replicas = getReadReplicas(config);
+
+    this.internalReadOnlyInstanceList = replicas;
+    this.maxLag = config.getIntProperty(ConfigurationKey.DB_POOL_READ_REPLICA_MAX_LAG);
+    this.routeTransactions = isTransactionRoutingEnabled(config);
+    this.internalReadOnlyDataSource =
+        !replicas.isEmpty() ? new ReadReplicaRoutingDataSource(replicas, null, maxLag) : null;
+
+    if (!replicas.isEmpty()) {
+      int interval = config.getIntProperty(ConfigurationKey.DB_POOL_READ_REPLICA_CHECK_INTERVAL);
+
+      this.healthCheckExecutor =
+          Executors.newSingleThreadScheduledExecutor(
+              runnable -> {
+                Thread thread = new Thread(runnable, "read-replica-health-check");
+                thread.setDaemon(true);
+                return thread;
+              });
+      this.healthCheckExecutor.scheduleWithFixedDelay(
+          this::checkReadReplicas, interval, interval, TimeUnit.SECONDS);
+    }
   }
 
   public DataSource getReadOnlyDataSource() {
     return internalReadOnlyDataSource;
   }
 
+  /**
+   * Returns a data source routing to the eligible read replicas, falling back to the given data
+   * source when no replica is eligible. Returns the given data source if no read replicas are
+   * configured.
+   *
+   * @param fallbackDataSource the {@link DataSource} to use when no replica is eligible.
+   * @return a {@link DataSource}.
+   */
+  public DataSource getReadOnlyDataSource(DataSource fallbackDataSource) {
+    return hasReadReplicas()
+        ? new ReadReplicaRoutingDataSource(internalReadOnlyInstanceList, fallbackDataSource, maxLag)
+        : fallbackDataSource;
+  }
+
+  /**
+   * Returns a data source which routes connections of read-only transactions to the read replicas
+   * and all other connections to the given primary data source. Connections are fetched lazily on
+   * first use, after the transaction manager has marked the connection as read-only. This covers
+   * both Hibernate and JDBC access within read-only transactions. Returns the given data source if
+   * no read replicas are configured, or if routing of transactions is not enabled.
+   *
+   * @param primaryDataSource the primary {@link DataSource}.
+   * @return a {@link DataSource}.
+   */
+  public DataSource getTransactionRoutingDataSource(DataSource primaryDataSource) {
+    if (!hasReadReplicas() || !routeTransactions) {
+      return primaryDataSource;
+    }
+
+    LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+    dataSource.setReadOnlyDataSource(getReadOnlyDataSource(primaryDataSource));
+    return dataSource;
+  }
+
+  /**
+   * Indicates whether connections of read-only transactions are routed to read replicas. Must be
+   * called after the read replicas have been initialized.
+   *
+   * @param config the {@link DhisConfigurationProvider}.
+   * @return true if routing is enabled and read replicas are configured.
+   */
+  public static boolean isTransactionRoutingEnabled(DhisConfigurationProvider config) {
+    return config.isEnabled(ConfigurationKey.DB_POOL_READ_REPLICA_ROUTE_TRANSACTIONS)
+        && config.getIntProperty(ConfigurationKey.ACTIVE_READ_REPLICAS) > 0;
+  }
+
   public int getReadReplicaCount() {
     return internalReadOnlyInstanceList != null ? internalReadOnlyInstanceList.size() : 0;
   }
 
+  /**
+   * Registers per replica gauges for health, replication lag and pool saturation, and a counter of
+   * the number of times each replica was selected.
+   *
+   * @param registry the {@link MeterRegistry}.
+   */
+  public void bindTo(MeterRegistry registry) {
+    if (!hasReadReplicas()) {
+      return;
+    }
+
+    for (ReadReplica replica : internalReadOnlyInstanceList) {
+      Tags tags = Tags.of("replica", replica.getName());
+
+      Gauge.builder("db.replica.healthy", replica, r -> r.isHealthy() ? 1d : 0d)
+          .tags(tags)
+          .register(registry);
+      Gauge.builder("db.replica.lag", replica, ReadReplica::getLag)
+          .tags(tags)
+          .baseUnit("seconds")
+          .register(registry);
+      Gauge.builder("db.replica.saturation", replica, ReadReplica::getSaturation)
+          .tags(tags)
+          .register(registry);
+      FunctionCounter.builder("db.replica.selections", replica, r -> r.getSelections().get())
+          .tags(tags)
+          .register(registry);
+    }
+  }
+
+  /** Stops the periodic health checks of the read replicas. */
+  public void close() {
+    if (healthCheckExecutor != null) {
+      healthCheckExecutor.shutdownNow();
+    }
+  }
+
   // -------------------------------------------------------------------------
   // Supportive methods
   // -------------------------------------------------------------------------
 
-  private List<DataSource> getReadOnlyDataSources(DhisConfigurationProvider config) {
+  private boolean hasReadReplicas() {
+    return internalReadOnlyInstanceList != null && !internalReadOnlyInstanceList.isEmpty();
+  }
+
+  /** Updates the health and replication lag of each read replica. */
+  void checkReadReplicas() {
+    for (ReadReplica replica : internalReadOnlyInstanceList) {
+      try {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(replica.getDataSource());
+        jdbcTemplate.setQueryTimeout(LAG_QUERY_TIMEOUT);
+        Double lag = jdbcTemplate.queryForObject(LAG_SQL, Double.class);
+
+        replica.setLag(lag != null ? lag : 0d);
+
+        if (!replica.isHealthy()) {
+          log.info("Read replica '{}' is healthy again", replica.getName());
+        }
+
+        replica.setHealthy(true);
+      } catch (RuntimeException ex) {
+        if (replica.isHealthy()) {
+          log.warn("Read replica '{}' failed health check: {}", replica.getName(), ex.getMessage());
+        }
+
+        replica.setHealthy(false);
+      }
+
+      if (replica.isHealthy() && replica.getLag() > maxLag) {
+        log.debug("Read replica '{}' lags {} seconds behind", replica.getName(), replica.getLag());
+      }
+    }
+  }
+
+  private List<ReadReplica> getReadReplicas(DhisConfigurationProvider config) {
     String mainUser = config.getProperty(ConfigurationKey.CONNECTION_USERNAME);
     String mainPassword = config.getProperty(ConfigurationKey.CONNECTION_PASSWORD);
     String driverClass = config.getProperty(ConfigurationKey.CONNECTION_DRIVER_CLASS);
     String maxPoolSize = config.getProperty(ConfigurationKey.CONNECTION_POOL_MAX_SIZE);
     String dbPoolType = config.getProperty(ConfigurationKey.DB_POOL_TYPE);
 
-    List<DataSource> dataSources = new ArrayList<>();
+    List<ReadReplica> dataSources = new ArrayList<>();
 
     List<ReadOnlyDataSourceConfig> dataSourceConfigs = getReadOnlyDataSourceConfigs(config);
 
@@ -134,7 +296,10 @@ public class ReadOnlyDataSourceManager {
       builder.maxIdleTime(String.valueOf(VAL_MAX_IDLE_TIME));
 
       try {
-        dataSources.add(DatabasePoolUtils.createDbPool(builder.build()));
+        String name = String.format(FORMAT_READ_PREFIX, dataSources.size() + 1);
+        dataSources.add(
+            new ReadReplica(
+                StringUtils.removeEnd(name, "."), DatabasePoolUtils.createDbPool(builder.build())));
         log.info("Created read-only data source with connection URL: '{}'", url);
       } catch (SQLException | PropertyVetoException e) {
         String message =
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.datasource;
+
+import com.mchange.v2.c3p0.ComboPooledDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.sql.DataSource;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/** Read replica together with the state of its last health check. */
+@Getter
+@RequiredArgsConstructor
+public class ReadReplica {
+  /** Name used to identify the replica in logs and metrics. */
+  private final String name;
+
+  private final DataSource dataSource;
+
+  /** Whether the last health check succeeded. */
+  private volatile boolean healthy = true;
+
+  /** Replication lag in seconds reported by the last health check. */
+  private volatile double lag = 0d;
+
+  /** Number of times the replica was selected for a connection. */
+  private final AtomicLong selections = new AtomicLong();
+
+  void setHealthy(boolean healthy) {
+    this.healthy = healthy;
+  }
+
+  void setLag(double lag) {
+    this.lag = lag;
+  }
+
+  /**
+   * Indicates whether the replica can serve read-only traffic.
+   *
+   * @param maxLag the maximum tolerated replication lag in seconds.
+   * @return true if the replica is healthy and not lagging behind.
+   */
+  public boolean isEligible(double maxLag) {
+    return healthy && lag <= maxLag;
+  }
+
+  /**
+   * Returns the fraction of the connection pool in use, between 0 and 1. Returns 0 if the pool type
+   * does not expose its usage.
+   *
+   * @return the pool saturation.
+   */
+  public double getSaturation() {
+    try {
+      if (dataSource instanceof HikariDataSource hikari) {
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        return pool != null ? ratio(pool.getActiveConnections(), hikari.getMaximumPoolSize()) : 0d;
+      } else if (dataSource instanceof ComboPooledDataSource c3p0) {
+        return ratio(c3p0.getNumBusyConnectionsDefaultUser(), c3p0.getMaxPoolSize());
+      }
+    } catch (SQLException ex) {
+      return 1d;
+    }
+
+    return 0d;
+  }
+
+  private static double ratio(int active, int max) {
+    return max > 0 ? Math.min(1d, (double) active / max) : 0d;
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.datasource;
+
+import jakarta.persistence.EntityManager;
+import java.sql.SQLException;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+/**
+ * {@link HibernateJpaDialect} used when read-only transactions are routed to read replicas. The
+ * session of a read-only transaction reads from the second-level and query caches, but does not put
+ * anything in them, as data read from a lagging replica must not be served to transactions on the
+ * primary. The previous cache mode of the session is restored when the transaction ends.
+ */
+public class ReadReplicaJpaDialect extends HibernateJpaDialect {
+  @Override
+  public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+      throws SQLException {
+    Object transactionData = super.beginTransaction(entityManager, definition);
+
+    if (!definition.isReadOnly()) {
+      return transactionData;
+    }
+
+    Session session = entityManager.unwrap(Session.class);
+    CacheMode previousCacheMode = session.getCacheMode();
+    session.setCacheMode(CacheMode.GET);
+
+    return new ReadOnlyTransactionData(transactionData, session, previousCacheMode);
+  }
+
+  @Override
+  public void cleanupTransaction(Object transactionData) {
+    if (transactionData instanceof ReadOnlyTransactionData data) {
+      data.session().setCacheMode(data.previousCacheMode());
+      super.cleanupTransaction(data.transactionData());
+    } else {
+      super.cleanupTransaction(transactionData);
+    }
+  }
+
+  private record ReadOnlyTransactionData(
+      Object transactionData, Session session, CacheMode previousCacheMode) {}
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.datasource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.sql.DataSource;
+import lombok.Getter;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+/**
+ * Data source implementation which routes to the configured read replicas. Replicas which failed
+ * their last health check or which lag behind the primary by more than the configured limit are
+ * skipped. The remaining replicas are picked at random, weighted by the free capacity of their
+ * connection pools, so that a saturated replica receives less traffic. If no replica is eligible,
+ * connections are taken from the fallback data source, or from any replica if no fallback is set.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractDataSource {
+  /** Minimum weight of an eligible replica, so that a saturated replica is not starved. */
+  private static final double MIN_WEIGHT = 0.05d;
+
+  private final List<ReadReplica> replicas;
+
+  private final DataSource fallbackDataSource;
+
+  private final double maxLag;
+
+  /** Number of times the fallback data source was used. */
+  @Getter private final AtomicLong fallbacks = new AtomicLong();
+
+  public ReadReplicaRoutingDataSource(
+      List<ReadReplica> replicas, DataSource fallbackDataSource, double maxLag) {
+    this.replicas = List.copyOf(replicas);
+    this.fallbackDataSource = fallbackDataSource;
+    this.maxLag = maxLag;
+  }
+
+  // -------------------------------------------------------------------------
+  // AbstractDataSource implementation
+  // -------------------------------------------------------------------------
+
+  @Override
+  public Connection getConnection() throws SQLException {
+    return getDataSource().getConnection();
+  }
+
+  @Override
+  public Connection getConnection(String username, String password) throws SQLException {
+    return getDataSource().getConnection(username, password);
+  }
+
+  // -------------------------------------------------------------------------
+  // Supportive methods
+  // -------------------------------------------------------------------------
+
+  DataSource getDataSource() {
+    List<ReadReplica> candidates = new ArrayList<>(replicas.size());
+
+    for (ReadReplica replica : replicas) {
+      if (replica.isEligible(maxLag)) {
+        candidates.add(replica);
+      }
+    }
+
+    if (candidates.isEmpty()) {
+      if (fallbackDataSource != null) {
+        fallbacks.incrementAndGet();
+        return fallbackDataSource;
+      }
+
+      candidates = replicas;
+    }
+
+    ReadReplica replica = select(candidates);
+    replica.getSelections().incrementAndGet();
+    return replica.getDataSource();
+  }
+
+  /**
+   * Selects a replica at random, weighted by the free capacity of its connection pool.
+   *
+   * @param candidates the replicas to select from, must not be empty.
+   * @return the selected {@link ReadReplica}.
+   */
+  private static ReadReplica select(List<ReadReplica> candidates) {
+    if (candidates.size() == 1) {
+      return candidates.get(0);
+    }
+
+    double[] weights = new double[candidates.size()];
+    double total = 0d;
+
+    for (int i = 0; i < weights.length; i++) {
+      weights[i] = Math.max(MIN_WEIGHT, 1d - candidates.get(i).getSaturation());
+      total += weights[i];
+    }
+
+    double point = ThreadLocalRandom.current().nextDouble(total);
+
+    for (int i = 0; i < weights.length; i++) {
+      point -= weights[i];
+
+      if (point < 0) {
+        return candidates.get(i);
+      }
+    }
+
+    return candidates.get(candidates.size() - 1);
+  }
+}
@@ -27,9 +27,13 @@
  */
 package org.hisp.dhis.datasource;
 
+import static org.hisp.dhis.external.conf.ConfigurationKey.ACTIVE_READ_REPLICAS;
 import static org.hisp.dhis.external.conf.ConfigurationKey.CONNECTION_PASSWORD;
 import static org.hisp.dhis.external.conf.ConfigurationKey.CONNECTION_USERNAME;
+import static org.hisp.dhis.external.conf.ConfigurationKey.DB_POOL_READ_REPLICA_ROUTE_TRANSACTIONS;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.when;
 
 import java.util.List;
@@ -66,4 +70,14 @@ class ReadOnlyDataSourceManagerTest {
     assertEquals("dhis1", dataSourceConfig.getUsername());
     assertEquals("pw1", dataSourceConfig.getPassword());
   }
+
+  @Test
+  void testTransactionRoutingRequiresFlagAndReadReplicas() {
+    when(config.isEnabled(DB_POOL_READ_REPLICA_ROUTE_TRANSACTIONS)).thenReturn(false, true, true);
+    when(config.getIntProperty(ACTIVE_READ_REPLICAS)).thenReturn(0, 1);
+
+    assertFalse(ReadOnlyDataSourceManager.isTransactionRoutingEnabled(config));
+    assertFalse(ReadOnlyDataSourceManager.isTransactionRoutingEnabled(config));
+    assertTrue(ReadOnlyDataSourceManager.isTransactionRoutingEnabled(config));
+  }
 }
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+
+class ReadReplicaRoutingDataSourceTest {
+  private final DataSource primary = mock(DataSource.class);
+
+  private final ReadReplica replicaA = new ReadReplica("read1", mock(DataSource.class));
+
+  private final ReadReplica replicaB = new ReadReplica("read2", mock(DataSource.class));
+
+  @Test
+  void testSkipsUnhealthyReplica() {
+    replicaA.setHealthy(false);
+
+    ReadReplicaRoutingDataSource dataSource =
+        new ReadReplicaRoutingDataSource(List.of(replicaA, replicaB), primary, 30);
+
+    for (int i = 0; i < 10; i++) {
+      assertSame(replicaB.getDataSource(), dataSource.getDataSource());
+    }
+
+    assertEquals(0, replicaA.getSelections().get());
+    assertEquals(10, replicaB.getSelections().get());
+  }
+
+  @Test
+  void testSkipsLaggingReplica() {
+    replicaB.setLag(45);
+
+    ReadReplicaRoutingDataSource dataSource =
+        new ReadReplicaRoutingDataSource(List.of(replicaA, replicaB), primary, 30);
+
+    for (int i = 0; i < 10; i++) {
+      assertSame(replicaA.getDataSource(), dataSource.getDataSource());
+    }
+  }
+
+  @Test
+  void testFallsBackWhenNoReplicaIsEligible() {
+    replicaA.setHealthy(false);
+    replicaB.setLag(45);
+
+    ReadReplicaRoutingDataSource dataSource =
+        new ReadReplicaRoutingDataSource(List.of(replicaA, replicaB), primary, 30);
+
+    assertSame(primary, dataSource.getDataSource());
+    assertEquals(1, dataSource.getFallbacks().get());
+  }
+
+  @Test
+  void testUsesReplicasWithoutFallback() {
+    replicaA.setHealthy(false);
+
+    ReadReplicaRoutingDataSource dataSource =
+        new ReadReplicaRoutingDataSource(List.of(replicaA), null, 30);
+
+    assertSame(replicaA.getDataSource(), dataSource.getDataSource());
+  }
+}
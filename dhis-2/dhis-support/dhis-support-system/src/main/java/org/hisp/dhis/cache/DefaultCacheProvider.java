@@ -481,4 +481,48 @@ public class DefaultCacheProvider implements CacheProvider {
             .forceInMemory()
             .withMaximumSize(orZeroInTestRun(getActualSize(SIZE_10K))));
   }
+
+  @Override
+  public <V> Cache<V> createBasicAuthCredentialsCache() {
+    return registerCache(
+        this.<V>newBuilder()
+            .forRegion(Region.basicAuthCredentialsCache.name())
+            .expireAfterWrite(5, TimeUnit.MINUTES)
+            .withInitialCapacity((int) getActualSize(SIZE_100))
+            .forceInMemory()
+            .withMaximumSize(orZeroInTestRun(getActualSize(SIZE_10K))));
+  }
+
+  @Override
+  public <V> Cache<V> createUserOrgUnitIdsCache() {
+    return registerCache(
+        this.<V>newBuilder()
+            .forRegion(Region.userOrgUnitIdsCache.name())
+            .expireAfterWrite(30, TimeUnit.MINUTES)
+            .withInitialCapacity((int) getActualSize(SIZE_100))
+            .forceInMemory()
+            .withMaximumSize(orZeroInTestRun(getActualSize(SIZE_10K))));
+  }
+
+  @Override
+  public <V> Cache<V> createGistPlanCache() {
+    return registerCache(
+        this.<V>newBuilder()
+            .forRegion(Region.gistPlanCache.name())
+            .expireAfterWrite(30, TimeUnit.MINUTES)
+            .withInitialCapacity((int) getActualSize(SIZE_100))
+            .forceInMemory()
+            .withMaximumSize(orZeroInTestRun(getActualSize(SIZE_10K))));
+  }
+
+  @Override
+  public <V> Cache<V> createGistQueryCache() {
+    return registerCache(
+        this.<V>newBuilder()
+            .forRegion(Region.gistQueryCache.name())
+            .expireAfterWrite(30, TimeUnit.MINUTES)
+            .withInitialCapacity((int) getActualSize(SIZE_100))
+            .forceInMemory()
+            .withMaximumSize(orZeroInTestRun(getActualSize(SIZE_10K))));
+  }
 }
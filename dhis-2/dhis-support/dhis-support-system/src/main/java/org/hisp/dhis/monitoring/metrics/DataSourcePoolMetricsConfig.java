@@ -47,6 +47,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 
 /**
  * @author Luciano Fiandesio
@@ -99,6 +100,10 @@ public class DataSourcePoolMetricsConfig {
   public Collection<PoolMetadataProvider> dataSourceMetadataProvider() {
     return List.of(
         dataSource -> {
+          if (dataSource instanceof LazyConnectionDataSourceProxy proxy) {
+            dataSource = proxy.getTargetDataSource();
+          }
+
           if (dataSource instanceof ComboPooledDataSource comboPooledDataSource) {
             return new C3p0MetadataProvider(comboPooledDataSource);
           } else if (dataSource instanceof HikariDataSource hikariDataSource) {
@@ -25,51 +25,63 @@
  * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
  * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
-package org.hisp.dhis.datasource;
+package org.hisp.dhis.system.grid;
 
-import com.google.common.collect.Iterators;
-import java.sql.Connection;
-import java.sql.SQLException;
-import java.util.Collections;
-import java.util.Iterator;
+import static org.hisp.dhis.common.adapter.OutputFormatter.maybeFormat;
+
+import com.csvreader.CsvWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.util.List;
-import javax.sql.DataSource;
-import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.apache.commons.lang3.StringUtils;
+import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.common.GridHeader;
+import org.hisp.dhis.common.GridStreamWriter;
 
 /**
- * Data source implementation which routes to the configured target data sources in a circular
- * fashion.
- *
- * @author Lars Helge Overland
+ * {@link GridStreamWriter} which writes CSV in the same format as {@link GridUtils#toCsv(Grid,
+ * Writer)}.
  */
-public class CircularRoutingDataSource extends AbstractDataSource {
-  private Iterator<DataSource> dataSourceIterator;
-
-  public CircularRoutingDataSource() {}
+public class CsvGridStreamWriter implements GridStreamWriter {
+  private final CsvWriter csvWriter;
 
-  public CircularRoutingDataSource(List<DataSource> targetDataSources) {
-    this.dataSourceIterator = Iterators.cycle(Collections.synchronizedList(targetDataSources));
+  public CsvGridStreamWriter(Writer writer) {
+    this.csvWriter = new CsvWriter(writer, GridUtils.CSV_DELIMITER);
   }
 
-  // -------------------------------------------------------------------------
-  // AbstractDataSource implementation
-  // -------------------------------------------------------------------------
-
   @Override
-  public Connection getConnection() throws SQLException {
-    return getDataSource().getConnection();
+  public void writeStart(Grid grid) {
+    if (grid.getHeaders().isEmpty()) {
+      return;
+    }
+
+    try {
+      for (GridHeader header : grid.getHeaders()) {
+        csvWriter.write(header.getDisplayColumn());
+      }
+
+      csvWriter.endRecord();
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
   }
 
   @Override
-  public Connection getConnection(String username, String password) throws SQLException {
-    return getDataSource().getConnection(username, password);
-  }
+  public void writeRow(List<Object> row) {
+    try {
+      for (Object value : row) {
+        csvWriter.write(value != null ? String.valueOf(maybeFormat(value)) : StringUtils.EMPTY);
+      }
 
-  // -------------------------------------------------------------------------
-  // Private methods
-  // -------------------------------------------------------------------------
+      csvWriter.endRecord();
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
 
-  private synchronized DataSource getDataSource() {
-    return dataSourceIterator.next();
+  @Override
+  public void writeEnd() {
+    csvWriter.flush();
   }
 }
@@ -111,7 +111,7 @@ public class GridUtils {
 
   private static final String EMPTY = "";
 
-  private static final char CSV_DELIMITER = ',';
+  static final char CSV_DELIMITER = ',';
 
   private static final String XLS_SHEET_PREFIX = "Sheet ";
 
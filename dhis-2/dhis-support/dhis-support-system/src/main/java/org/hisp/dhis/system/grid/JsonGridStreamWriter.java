@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.system.grid;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.common.GridStreamWriter;
+import org.hisp.dhis.common.adapter.OutputFormatter;
+
+/**
+ * {@link GridStreamWriter} which writes JSON in the same structure as a serialized {@link Grid}.
+ * Rows are written as string arrays like the serialized rows of a {@link ListGrid}. The height and
+ * width are written after the rows array, as they are only known when all rows are written.
+ */
+public class JsonGridStreamWriter implements GridStreamWriter {
+  private final JsonGenerator generator;
+
+  private int height = 0;
+
+  private int width = 0;
+
+  public JsonGridStreamWriter(ObjectMapper objectMapper, OutputStream out) {
+    try {
+      this.generator = objectMapper.getFactory().createGenerator(out);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  @Override
+  public void writeStart(Grid grid) {
+    try {
+      generator.writeStartObject();
+      writeFieldIfNotNull("title", grid.getTitle());
+      writeFieldIfNotNull("subtitle", grid.getSubtitle());
+      writeFieldIfNotNull("table", grid.getTable());
+      generator.writeObjectField("headers", grid.getHeaders());
+      writeFieldIfNotNull("metaData", grid.getMetaData());
+      writeFieldIfNotNull("performanceMetrics", grid.getPerformanceMetrics());
+      writeFieldIfNotNull("rowContext", grid.getRowContext());
+      writeFieldIfNotNull("refs", grid.getRefs());
+      generator.writeNumberField("headerWidth", grid.getHeaderWidth());
+      generator.writeArrayFieldStart("rows");
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  @Override
+  public void writeRow(List<Object> row) {
+    try {
+      generator.writeStartArray();
+
+      for (Object field : row) {
+        generator.writeString(
+            field != null ? String.valueOf(OutputFormatter.maybeFormat(field)) : "");
+      }
+
+      generator.writeEndArray();
+
+      if (height++ == 0) {
+        width = row.size();
+      }
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  @Override
+  public void writeEnd() {
+    try {
+      generator.writeEndArray();
+      generator.writeNumberField("height", height);
+      generator.writeNumberField("width", width);
+      generator.writeEndObject();
+      generator.flush();
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  private void writeFieldIfNotNull(String name, Object value) throws IOException {
+    if (value != null) {
+      generator.writeObjectField(name, value);
+    }
+  }
+}
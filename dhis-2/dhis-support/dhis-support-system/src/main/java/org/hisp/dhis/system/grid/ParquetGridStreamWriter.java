@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.system.grid;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.common.GridStreamWriter;
+import org.hisp.dhis.common.adapter.OutputFormatter;
+import org.hisp.dhis.system.parquet.ParquetColumn;
+import org.hisp.dhis.system.parquet.ParquetType;
+import org.hisp.dhis.system.parquet.ParquetWriter;
+
+/**
+ * {@link GridStreamWriter} which writes an Apache Parquet file with one string column per grid
+ * header. Grid values are not guaranteed to match the value type of their header, and the column
+ * types must be known before the first row is written, so values are written as they would appear
+ * in CSV rather than failing part way through the file. The output stream is left open.
+ *
+ * <p>The file footer is only written by {@link #writeEnd()}, so output of a query which fails part
+ * way is not a valid Parquet file and cannot be mistaken for a complete one.
+ */
+public class ParquetGridStreamWriter implements GridStreamWriter {
+  private final OutputStream out;
+
+  private ParquetWriter writer;
+
+  public ParquetGridStreamWriter(OutputStream out) {
+    this.out = out;
+  }
+
+  @Override
+  public void writeStart(Grid grid) {
+    List<ParquetColumn> columns =
+        grid.getHeaders().stream()
+            .map(header -> new ParquetColumn(header.getName(), ParquetType.STRING))
+            .toList();
+
+    writer = new ParquetWriter(out, columns);
+  }
+
+  @Override
+  public void writeRow(List<Object> row) {
+    List<String> values = new ArrayList<>(row.size());
+
+    for (Object field : row) {
+      values.add(field != null ? String.valueOf(OutputFormatter.maybeFormat(field)) : null);
+    }
+
+    writer.writeRow(values);
+  }
+
+  @Override
+  public void writeEnd() {
+    writer.finish();
+  }
+}
@@ -38,8 +38,10 @@ import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -84,6 +86,7 @@ public class DefaultNotifier implements Notifier {
   private final LongSupplier clock;
   private final BlockingQueue<Entry<UID, Notification>> pushToStore;
   private final AtomicBoolean cleaning = new AtomicBoolean();
+  private final Map<UID, Set<Runnable>> subscribers = new ConcurrentHashMap<>();
 
   private int maxMessagesPerJob;
   private long cleanAfterIdleTime;
@@ -160,6 +163,19 @@ public class DefaultNotifier implements Notifier {
     }
     list.add(n);
     logNotificationAdded(n);
+    notifySubscribers(job);
+  }
+
+  private void notifySubscribers(UID job) {
+    Set<Runnable> callbacks = subscribers.get(job);
+    if (callbacks == null) return;
+    for (Runnable callback : callbacks) {
+      try {
+        callback.run();
+      } catch (Exception ex) {
+        log.warn("Notification subscriber failed: " + ex.getMessage());
+      }
+    }
   }
 
   private static void logNotificationAdded(Notification n) {
@@ -235,6 +251,27 @@ public class DefaultNotifier implements Notifier {
     return getAllNotificationsByJobId(jobType, UID.of(jobId));
   }
 
+  @Override
+  public Deque<Notification> getNotificationsByJobId(
+      JobType jobType, String jobId, long sinceTimestamp) {
+    return store
+        .notifications(jobType, UID.of(jobId))
+        .listNewestFirstSince(sinceTimestamp)
+        .collect(toCollection(LinkedList::new));
+  }
+
+  @Override
+  public Subscription subscribe(@Nonnull UID job, @Nonnull Runnable onNotification) {
+    subscribers.computeIfAbsent(job, k -> ConcurrentHashMap.newKeySet()).add(onNotification);
+    return () ->
+        subscribers.computeIfPresent(
+            job,
+            (k, callbacks) -> {
+              callbacks.remove(onNotification);
+              return callbacks.isEmpty() ? null : callbacks;
+            });
+  }
+
   @Nonnull
   private Deque<Notification> getAllNotificationsByJobId(JobType jobType, UID job) {
     return store
@@ -77,6 +77,38 @@ public interface Notifier {
 
   Deque<Notification> getNotificationsByJobId(JobType jobType, String jobId);
 
+  /**
+   * @param jobType of the job
+   * @param jobId of the job
+   * @param sinceTimestamp only notifications with a {@link Notification#getTimestamp()} after this
+   *     are included
+   * @return the notifications for the job added after the given timestamp, newest first
+   * @since 2.42
+   */
+  Deque<Notification> getNotificationsByJobId(JobType jobType, String jobId, long sinceTimestamp);
+
+  /**
+   * Registers a callback that is invoked each time a {@link Notification} for the given job got
+   * stored. The callback does not carry the notification itself, it is a signal to read the newly
+   * added notifications using {@link #getNotificationsByJobId(JobType, String, long)}.
+   *
+   * @implNote Callbacks are run on the thread writing to the store and therefore must not block. On
+   *     a cluster, callbacks are only invoked for notifications created by this node.
+   * @param job ID of the job to observe
+   * @param onNotification callback to run
+   * @return a handle to end the subscription
+   * @since 2.42
+   */
+  Subscription subscribe(@Nonnull UID job, @Nonnull Runnable onNotification);
+
+  /** A handle to end a {@link #subscribe(UID, Runnable)} subscription. */
+  @FunctionalInterface
+  interface Subscription extends AutoCloseable {
+
+    @Override
+    void close();
+  }
+
   /**
    * @param jobType include jobs of this type in the result
    * @param gist when true, only the first and last message are included for each job. When {@code
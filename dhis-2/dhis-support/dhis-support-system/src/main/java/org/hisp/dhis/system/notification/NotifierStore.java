@@ -210,6 +210,17 @@ public interface NotifierStore {
     @Nonnull
     Stream<Notification> listNewestFirst();
 
+    /**
+     * @param timestamp exclusive lower bound for the {@link Notification#getTimestamp()} of the
+     *     entries to include
+     * @return a stream of the store entries added after the given timestamp starting with the one
+     *     most recently added
+     */
+    @Nonnull
+    default Stream<Notification> listNewestFirstSince(long timestamp) {
+      return listNewestFirst().takeWhile(n -> n.getTimestamp() > timestamp);
+    }
+
     /**
      * @return the timestamp to use when comparing the age of this store to the age of other stores
      */
@@ -175,6 +175,16 @@ public class RedisNotifierStore implements NotifierStore {
       return newestFirst.stream().map(n -> fromJson(type, n));
     }
 
+    @Nonnull
+    @Override
+    public Stream<Notification> listNewestFirstSince(long timestamp) {
+      // score is the timestamp, timestamps are whole milliseconds
+      Set<String> newestFirst =
+          collection.reverseRangeByScore(timestamp + 1d, Double.POSITIVE_INFINITY);
+      if (newestFirst == null) return Stream.empty();
+      return newestFirst.stream().map(n -> fromJson(type, n));
+    }
+
     private Notification fromJson(JobType jobType, String json) {
       if (json == null || json.isEmpty()) return null;
       JsonObject src = JsonMixed.of(json);
@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.system.parquet;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayOutputStream;
+
+/** Value encodings of the Parquet format used when writing data and dictionary pages. */
+final class ParquetEncoding {
+  static final int PLAIN = 0;
+
+  static final int PLAIN_DICTIONARY = 2;
+
+  static final int RLE = 3;
+
+  /** Shortest run of repeated values which is written as an RLE run rather than bit-packed. */
+  private static final int MIN_RLE_RUN = 8;
+
+  /** Bit-packed runs are limited so that the run header fits into a single byte. */
+  private static final int MAX_BIT_PACKED_GROUPS = 63;
+
+  private ParquetEncoding() {}
+
+  /**
+   * Encodes the given values with the RLE/bit-packing hybrid encoding, without length prefix. Runs
+   * of at least eight equal values are run-length encoded, everything else is bit-packed in groups
+   * of eight.
+   *
+   * @param values the values, each fitting into the given bit width.
+   * @param count the number of values to encode.
+   * @param bitWidth the number of bits per value.
+   * @return the encoded bytes.
+   */
+  static byte[] encodeHybrid(int[] values, int count, int bitWidth) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    int byteWidth = (bitWidth + 7) / 8;
+    int i = 0;
+
+    while (i < count) {
+      int run = runLength(values, i, count);
+
+      if (run >= MIN_RLE_RUN) {
+        writeUnsignedVarInt(out, run << 1);
+
+        for (int b = 0; b < byteWidth; b++) {
+          out.write(values[i] >>> 8 * b & 0xFF);
+        }
+
+        i += run;
+      } else {
+        int start = i;
+        int groups = 0;
+
+        do {
+          i = Math.min(i + 8, count);
+          groups++;
+        } while (i < count
+            && groups < MAX_BIT_PACKED_GROUPS
+            && runLength(values, i, count) < MIN_RLE_RUN);
+
+        writeUnsignedVarInt(out, groups << 1 | 1);
+        bitPack(out, values, start, groups * 8, count, bitWidth);
+      }
+    }
+
+    return out.toByteArray();
+  }
+
+  /**
+   * @param size the number of distinct values.
+   * @return the bit width needed to encode indexes into a dictionary of the given size.
+   */
+  static int bitWidth(int size) {
+    return Math.max(1, 32 - Integer.numberOfLeadingZeros(size - 1));
+  }
+
+  /**
+   * Writes the non-null values of a column with PLAIN encoding.
+   *
+   * @param out the page output.
+   * @param type the column type.
+   * @param values the converted column values, possibly containing nulls.
+   * @param count the number of values.
+   */
+  static void writePlain(ByteArrayOutputStream out, ParquetType type, Object[] values, int count) {
+    if (type == ParquetType.BOOLEAN) {
+      writePlainBooleans(out, values, count);
+      return;
+    }
+
+    for (int i = 0; i < count; i++) {
+      Object value = values[i];
+
+      if (value == null) {
+        continue;
+      }
+
+      switch (type) {
+        case STRING -> writePlainString(out, (String) value);
+        case INTEGER, DATE -> writeIntLE(out, (Integer) value);
+        case LONG, TIMESTAMP -> writeLongLE(out, (Long) value);
+        case DOUBLE -> writeLongLE(out, Double.doubleToLongBits((Double) value));
+        default -> throw new IllegalStateException("Unsupported type: " + type);
+      }
+    }
+  }
+
+  static void writePlainString(ByteArrayOutputStream out, String value) {
+    byte[] bytes = value.getBytes(UTF_8);
+    writeIntLE(out, bytes.length);
+    out.write(bytes, 0, bytes.length);
+  }
+
+  static void writeIntLE(ByteArrayOutputStream out, int value) {
+    out.write(value & 0xFF);
+    out.write(value >>> 8 & 0xFF);
+    out.write(value >>> 16 & 0xFF);
+    out.write(value >>> 24 & 0xFF);
+  }
+
+  static void writeLongLE(ByteArrayOutputStream out, long value) {
+    writeIntLE(out, (int) value);
+    writeIntLE(out, (int) (value >>> 32));
+  }
+
+  // -------------------------------------------------------------------------
+  // Supportive methods
+  // -------------------------------------------------------------------------
+
+  private static void writePlainBooleans(ByteArrayOutputStream out, Object[] values, int count) {
+    int buffer = 0;
+    int bits = 0;
+
+    for (int i = 0; i < count; i++) {
+      if (values[i] == null) {
+        continue;
+      }
+
+      if (Boolean.TRUE.equals(values[i])) {
+        buffer |= 1 << bits;
+      }
+
+      if (++bits == 8) {
+        out.write(buffer);
+        buffer = 0;
+        bits = 0;
+      }
+    }
+
+    if (bits > 0) {
+      out.write(buffer);
+    }
+  }
+
+  private static int runLength(int[] values, int start, int count) {
+    int end = start + 1;
+
+    while (end < count && values[end] == values[start]) {
+      end++;
+    }
+
+    return end - start;
+  }
+
+  /** Bit-packs {@code total} values starting at {@code start}, padding with zeros past count. */
+  private static void bitPack(
+      ByteArrayOutputStream out, int[] values, int start, int total, int count, int bitWidth) {
+    long mask = (1L << bitWidth) - 1;
+    long buffer = 0;
+    int bits = 0;
+
+    for (int i = start; i < start + total; i++) {
+      long value = i < count ? values[i] & mask : 0;
+      buffer |= value << bits;
+      bits += bitWidth;
+
+      while (bits >= 8) {
+        out.write((int) (buffer & 0xFF));
+        buffer >>>= 8;
+        bits -= 8;
+      }
+    }
+  }
+
+  private static void writeUnsignedVarInt(ByteArrayOutputStream out, int value) {
+    while ((value & ~0x7F) != 0) {
+      out.write(value & 0x7F | 0x80);
+      value >>>= 7;
+    }
+
+    out.write(value);
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.system.parquet;
+
+/**
+ * Logical column types supported by {@link ParquetWriter}, mapped to the Parquet physical type and,
+ * where applicable, the converted type annotation understood by readers.
+ */
+public enum ParquetType {
+  STRING(PhysicalType.BYTE_ARRAY, ConvertedType.UTF8),
+  INTEGER(PhysicalType.INT32, ConvertedType.NONE),
+  LONG(PhysicalType.INT64, ConvertedType.NONE),
+  DOUBLE(PhysicalType.DOUBLE, ConvertedType.NONE),
+  BOOLEAN(PhysicalType.BOOLEAN, ConvertedType.NONE),
+  /** Days since the Unix epoch. */
+  DATE(PhysicalType.INT32, ConvertedType.DATE),
+  /** Milliseconds since the Unix epoch, UTC. */
+  TIMESTAMP(PhysicalType.INT64, ConvertedType.TIMESTAMP_MILLIS);
+
+  /** Values of the Parquet {@code Type} Thrift enum. */
+  static final class PhysicalType {
+    static final int BOOLEAN = 0;
+    static final int INT32 = 1;
+    static final int INT64 = 2;
+    static final int DOUBLE = 5;
+    static final int BYTE_ARRAY = 6;
+
+    private PhysicalType() {}
+  }
+
+  /** Values of the Parquet {@code ConvertedType} Thrift enum, {@code NONE} meaning absent. */
+  static final class ConvertedType {
+    static final int NONE = -1;
+    static final int UTF8 = 0;
+    static final int DATE = 6;
+    static final int TIMESTAMP_MILLIS = 9;
+
+    private ConvertedType() {}
+  }
+
+  private final int physicalType;
+
+  private final int convertedType;
+
+  ParquetType(int physicalType, int convertedType) {
+    this.physicalType = physicalType;
+    this.convertedType = convertedType;
+  }
+
+  int getPhysicalType() {
+    return physicalType;
+  }
+
+  int getConvertedType() {
+    return convertedType;
+  }
+
+  boolean hasConvertedType() {
+    return convertedType != ConvertedType.NONE;
+  }
+}
@@ -0,0 +1,580 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.system.parquet;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nonnull;
+
+/**
+ * Writes rows to an output stream as an Apache Parquet file, without holding more than one row
+ * group in memory. Rows are buffered until the row group size is reached, then each column is
+ * written as a GZIP compressed column chunk. String columns are dictionary encoded per row group,
+ * other types use plain encoding. All columns are optional, null values are recorded in the
+ * definition levels only.
+ *
+ * <p>The file footer is written by {@link #finish()}, or by {@link #close()} which also closes the
+ * underlying stream. I/O errors are reported as {@link UncheckedIOException}.
+ *
+ * <p>A file without footer is not a valid Parquet file. When writing fails part way, {@link
+ * #abort()} makes sure that no footer is written, so that readers reject the truncated file rather
+ * than taking it for a complete one. The writer aborts itself when it fails to write to the
+ * underlying stream.
+ */
+public class ParquetWriter implements Closeable {
+  public static final int DEFAULT_ROW_GROUP_SIZE = 50_000;
+
+  private static final byte[] MAGIC = "PAR1".getBytes(US_ASCII);
+
+  private static final String CREATED_BY = "DHIS2";
+
+  private static final int FORMAT_VERSION = 1;
+
+  private static final int REPETITION_OPTIONAL = 1;
+
+  private static final int CODEC_GZIP = 2;
+
+  private static final int PAGE_DATA = 0;
+
+  private static final int PAGE_DICTIONARY = 2;
+
+  /** Dictionaries larger than this are abandoned in favour of plain encoding. */
+  private static final int MAX_DICTIONARY_BYTES = 1024 * 1024;
+
+  private final OutputStream out;
+
+  private final List<ParquetColumn> columns;
+
+  private final int rowGroupSize;
+
+  private final ZoneId zoneId;
+
+  private final Object[][] buffers;
+
+  private final List<RowGroup> rowGroups = new ArrayList<>();
+
+  private int bufferedRows = 0;
+
+  private long rowCount = 0;
+
+  private long position = 0;
+
+  private boolean finished = false;
+
+  private boolean aborted = false;
+
+  public ParquetWriter(@Nonnull OutputStream out, @Nonnull List<ParquetColumn> columns) {
+    this(out, columns, DEFAULT_ROW_GROUP_SIZE);
+  }
+
+  public ParquetWriter(
+      @Nonnull OutputStream out, @Nonnull List<ParquetColumn> columns, int rowGroupSize) {
+    this(out, columns, rowGroupSize, ZoneId.systemDefault());
+  }
+
+  /**
+   * @param out the output stream.
+   * @param columns the columns, at least one.
+   * @param rowGroupSize the number of rows per row group.
+   * @param zoneId the time zone in which dates and local date times are interpreted.
+   */
+  public ParquetWriter(
+      @Nonnull OutputStream out,
+      @Nonnull List<ParquetColumn> columns,
+      int rowGroupSize,
+      @Nonnull ZoneId zoneId) {
+    if (columns.isEmpty()) {
+      throw new IllegalArgumentException("At least one column is required");
+    }
+
+    if (rowGroupSize < 1) {
+      throw new IllegalArgumentException("Row group size must be positive: " + rowGroupSize);
+    }
+
+    this.out = out;
+    this.columns = List.copyOf(columns);
+    this.rowGroupSize = rowGroupSize;
+    this.zoneId = zoneId;
+    this.buffers = new Object[columns.size()][rowGroupSize];
+  }
+
+  /**
+   * Writes a row. Values are converted to the type of their column: numbers and strings are
+   * accepted for numeric columns, {@link Date}, {@link Instant}, {@link LocalDate} and {@link
+   * LocalDateTime} for date and timestamp columns. {@link Date} values of date columns and {@link
+   * LocalDateTime} values are interpreted in the time zone of the writer, the server time zone by
+   * default. Null and blank values are written as null.
+   *
+   * @param row the row values, one per column in column order.
+   * @throws IllegalArgumentException if the row has the wrong width or a value cannot be converted.
+   */
+  public void writeRow(@Nonnull List<?> row) {
+    if (finished) {
+      throw new IllegalStateException("Writer is already finished");
+    }
+
+    if (aborted) {
+      throw new IllegalStateException("Writer was aborted");
+    }
+
+    if (row.size() != columns.size()) {
+      throw new IllegalArgumentException(
+          "Row has " + row.size() + " values but there are " + columns.size() + " columns");
+    }
+
+    for (int i = 0; i < row.size(); i++) {
+      buffers[i][bufferedRows] = convert(columns.get(i).type(), row.get(i));
+    }
+
+    bufferedRows++;
+    rowCount++;
+
+    if (bufferedRows == rowGroupSize) {
+      writeRowGroup();
+    }
+  }
+
+  /**
+   * @return the number of rows written so far.
+   */
+  public long getRowCount() {
+    return rowCount;
+  }
+
+  /**
+   * Writes any buffered rows and the file footer and flushes the underlying stream, which is left
+   * open. Has no effect if already finished or aborted.
+   */
+  public void finish() {
+    if (finished || aborted) {
+      return;
+    }
+
+    finished = true;
+    writeRowGroup();
+
+    try {
+      if (position == 0) {
+        write(MAGIC);
+      }
+
+      byte[] footer = footer();
+      write(footer);
+      ByteArrayOutputStream length = new ByteArrayOutputStream(4);
+      ParquetEncoding.writeIntLE(length, footer.length);
+      write(length.toByteArray());
+      write(MAGIC);
+      out.flush();
+    } catch (IOException ex) {
+      aborted = true;
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  /**
+   * Marks the file as incomplete. Buffered rows are discarded and neither {@link #finish()} nor
+   * {@link #close()} write the footer. Has no effect if already finished.
+   */
+  public void abort() {
+    if (finished) {
+      return;
+    }
+
+    aborted = true;
+
+    for (Object[] buffer : buffers) {
+      Arrays.fill(buffer, 0, bufferedRows, null);
+    }
+
+    bufferedRows = 0;
+  }
+
+  /** Finishes the file, unless it was aborted, and closes the underlying stream. */
+  @Override
+  public void close() {
+    finish();
+
+    try {
+      out.close();
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  // -------------------------------------------------------------------------
+  // Row groups and pages
+  // -------------------------------------------------------------------------
+
+  private void writeRowGroup() {
+    if (bufferedRows == 0) {
+      return;
+    }
+
+    try {
+      if (position == 0) {
+        write(MAGIC);
+      }
+
+      List<ColumnChunk> chunks = new ArrayList<>(columns.size());
+      long totalByteSize = 0;
+
+      for (int i = 0; i < columns.size(); i++) {
+        ColumnChunk chunk = writeColumnChunk(columns.get(i), buffers[i], bufferedRows);
+        chunks.add(chunk);
+        totalByteSize += chunk.uncompressedSize();
+        Arrays.fill(buffers[i], 0, bufferedRows, null);
+      }
+
+      rowGroups.add(new RowGroup(chunks, totalByteSize, bufferedRows));
+      bufferedRows = 0;
+    } catch (IOException ex) {
+      aborted = true;
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  private ColumnChunk writeColumnChunk(ParquetColumn column, Object[] values, int count)
+      throws IOException {
+    int[] levels = new int[count];
+    int nullCount = 0;
+
+    for (int i = 0; i < count; i++) {
+      if (values[i] != null) {
+        levels[i] = 1;
+      } else {
+        nullCount++;
+      }
+    }
+
+    ByteArrayOutputStream page = new ByteArrayOutputStream();
+    byte[] definitionLevels = ParquetEncoding.encodeHybrid(levels, count, 1);
+    ParquetEncoding.writeIntLE(page, definitionLevels.length);
+    page.write(definitionLevels, 0, definitionLevels.length);
+
+    Dictionary dictionary =
+        column.type() == ParquetType.STRING ? Dictionary.of(values, count) : null;
+
+    long firstPageOffset = position;
+    Long dictionaryPageOffset = null;
+    long[] sizes = new long[2];
+    int encoding;
+
+    if (dictionary != null) {
+      dictionaryPageOffset = position;
+      writePage(
+          PAGE_DICTIONARY,
+          dictionary.plainValues(),
+          dictionary.size(),
+          ParquetEncoding.PLAIN_DICTIONARY,
+          sizes);
+
+      int bitWidth = ParquetEncoding.bitWidth(dictionary.size());
+      page.write(bitWidth);
+      byte[] indexes =
+          ParquetEncoding.encodeHybrid(dictionary.indexes(), count - nullCount, bitWidth);
+      page.write(indexes, 0, indexes.length);
+      encoding = ParquetEncoding.PLAIN_DICTIONARY;
+    } else {
+      ParquetEncoding.writePlain(page, column.type(), values, count);
+      encoding = ParquetEncoding.PLAIN;
+    }
+
+    long dataPageOffset = position;
+    writePage(PAGE_DATA, page.toByteArray(), count, encoding, sizes);
+
+    return new ColumnChunk(
+        column,
+        encoding,
+        count,
+        nullCount,
+        sizes[0],
+        sizes[1],
+        firstPageOffset,
+        dataPageOffset,
+        dictionaryPageOffset);
+  }
+
+  /**
+   * Compresses and writes a page with its header, adding the uncompressed and compressed sizes
+   * including the header to the given sizes.
+   */
+  private void writePage(int pageType, byte[] data, int numValues, int encoding, long[] sizes)
+      throws IOException {
+    byte[] compressed = gzip(data);
+
+    ThriftCompactWriter header = new ThriftCompactWriter();
+    header.i32Field(1, pageType);
+    header.i32Field(2, data.length);
+    header.i32Field(3, compressed.length);
+
+    if (pageType == PAGE_DATA) {
+      header.structBegin(5);
+      header.i32Field(1, numValues);
+      header.i32Field(2, encoding);
+      header.i32Field(3, ParquetEncoding.RLE);
+      header.i32Field(4, ParquetEncoding.RLE);
+      header.structEnd();
+    } else {
+      header.structBegin(7);
+      header.i32Field(1, numValues);
+      header.i32Field(2, encoding);
+      header.structEnd();
+    }
+
+    header.structEnd();
+
+    byte[] headerBytes = header.toByteArray();
+    write(headerBytes);
+    write(compressed);
+
+    sizes[0] += headerBytes.length + data.length;
+    sizes[1] += headerBytes.length + compressed.length;
+  }
+
+  private byte[] footer() {
+    ThriftCompactWriter footer = new ThriftCompactWriter();
+    footer.i32Field(1, FORMAT_VERSION);
+
+    footer.listBegin(2, ThriftCompactWriter.TYPE_STRUCT, columns.size() + 1);
+    footer.elementStructBegin();
+    footer.stringField(4, "schema");
+    footer.i32Field(5, columns.size());
+    footer.structEnd();
+
+    for (ParquetColumn column : columns) {
+      footer.elementStructBegin();
+      footer.i32Field(1, column.type().getPhysicalType());
+      footer.i32Field(3, REPETITION_OPTIONAL);
+      footer.stringField(4, column.name());
+
+      if (column.type().hasConvertedType()) {
+        footer.i32Field(6, column.type().getConvertedType());
+      }
+
+      footer.structEnd();
+    }
+
+    footer.i64Field(3, rowCount);
+
+    footer.listBegin(4, ThriftCompactWriter.TYPE_STRUCT, rowGroups.size());
+
+    for (RowGroup rowGroup : rowGroups) {
+      footer.elementStructBegin();
+      footer.listBegin(1, ThriftCompactWriter.TYPE_STRUCT, rowGroup.chunks().size());
+
+      for (ColumnChunk chunk : rowGroup.chunks()) {
+        writeColumnChunkMetaData(footer, chunk);
+      }
+
+      footer.i64Field(2, rowGroup.totalByteSize());
+      footer.i64Field(3, rowGroup.numRows());
+      footer.structEnd();
+    }
+
+    footer.stringField(6, CREATED_BY);
+    footer.structEnd();
+
+    return footer.toByteArray();
+  }
+
+  private static void writeColumnChunkMetaData(ThriftCompactWriter footer, ColumnChunk chunk) {
+    footer.elementStructBegin();
+    footer.i64Field(2, chunk.fileOffset());
+    footer.structBegin(3);
+    footer.i32Field(1, chunk.column().type().getPhysicalType());
+    footer.listBegin(2, ThriftCompactWriter.TYPE_I32, 2);
+    footer.i32(chunk.encoding());
+    footer.i32(ParquetEncoding.RLE);
+    footer.listBegin(3, ThriftCompactWriter.TYPE_BINARY, 1);
+    footer.string(chunk.column().name());
+    footer.i32Field(4, CODEC_GZIP);
+    footer.i64Field(5, chunk.numValues());
+    footer.i64Field(6, chunk.uncompressedSize());
+    footer.i64Field(7, chunk.compressedSize());
+    footer.i64Field(9, chunk.dataPageOffset());
+
+    if (chunk.dictionaryPageOffset() != null) {
+      footer.i64Field(11, chunk.dictionaryPageOffset());
+    }
+
+    footer.structBegin(12);
+    footer.i64Field(3, chunk.nullCount());
+    footer.structEnd();
+    footer.structEnd();
+    footer.structEnd();
+  }
+
+  // -------------------------------------------------------------------------
+  // Supportive methods
+  // -------------------------------------------------------------------------
+
+  private void write(byte[] bytes) throws IOException {
+    out.write(bytes);
+    position += bytes.length;
+  }
+
+  private static byte[] gzip(byte[] data) throws IOException {
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream(data.length / 2 + 32);
+
+    try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+      gzip.write(data);
+    }
+
+    return compressed.toByteArray();
+  }
+
+  @CheckForNull
+  private Object convert(ParquetType type, @CheckForNull Object value) {
+    if (value == null || (type != ParquetType.STRING && value.toString().isBlank())) {
+      return null;
+    }
+
+    return switch (type) {
+      case STRING -> value.toString();
+      case INTEGER ->
+          value instanceof Number number ? number.intValue() : Integer.parseInt(value.toString());
+      case LONG ->
+          value instanceof Number number ? number.longValue() : Long.parseLong(value.toString());
+      case DOUBLE ->
+          value instanceof Number number
+              ? number.doubleValue()
+              : Double.parseDouble(value.toString());
+      case BOOLEAN -> value instanceof Boolean bool ? bool : Boolean.parseBoolean(value.toString());
+      case DATE -> toEpochDay(value);
+      case TIMESTAMP -> toEpochMilli(value);
+    };
+  }
+
+  private int toEpochDay(Object value) {
+    if (value instanceof java.sql.Date date) {
+      return (int) date.toLocalDate().toEpochDay();
+    }
+
+    if (value instanceof LocalDate date) {
+      return (int) date.toEpochDay();
+    }
+
+    if (value instanceof Date date) {
+      return (int) date.toInstant().atZone(zoneId).toLocalDate().toEpochDay();
+    }
+
+    if (value instanceof Number number) {
+      return number.intValue();
+    }
+
+    if (value instanceof String string && string.length() >= 10) {
+      return (int) LocalDate.parse(string.substring(0, 10)).toEpochDay();
+    }
+
+    throw new IllegalArgumentException("Not a date: " + value);
+  }
+
+  private long toEpochMilli(Object value) {
+    if (value instanceof Date date) {
+      return date.getTime();
+    }
+
+    if (value instanceof Instant instant) {
+      return instant.toEpochMilli();
+    }
+
+    if (value instanceof LocalDateTime dateTime) {
+      return dateTime.atZone(zoneId).toInstant().toEpochMilli();
+    }
+
+    if (value instanceof Number number) {
+      return number.longValue();
+    }
+
+    throw new IllegalArgumentException("Not a timestamp: " + value);
+  }
+
+  /** The distinct values of a string column chunk and the dictionary index of each value. */
+  private record Dictionary(byte[] plainValues, int size, int[] indexes) {
+    @CheckForNull
+    static Dictionary of(Object[] values, int count) {
+      Map<String, Integer> entries = new LinkedHashMap<>();
+      ByteArrayOutputStream plain = new ByteArrayOutputStream();
+      int[] indexes = new int[count];
+      int nonNull = 0;
+
+      for (int i = 0; i < count; i++) {
+        if (values[i] == null) {
+          continue;
+        }
+
+        String value = (String) values[i];
+        Integer index = entries.get(value);
+
+        if (index == null) {
+          index = entries.size();
+          entries.put(value, index);
+          ParquetEncoding.writePlainString(plain, value);
+
+          if (plain.size() > MAX_DICTIONARY_BYTES) {
+            return null;
+          }
+        }
+
+        indexes[nonNull++] = index;
+      }
+
+      return nonNull == 0 ? null : new Dictionary(plain.toByteArray(), entries.size(), indexes);
+    }
+  }
+
+  private record ColumnChunk(
+      ParquetColumn column,
+      int encoding,
+      long numValues,
+      long nullCount,
+      long uncompressedSize,
+      long compressedSize,
+      long fileOffset,
+      long dataPageOffset,
+      @CheckForNull Long dictionaryPageOffset) {}
+
+  private record RowGroup(List<ColumnChunk> chunks, long totalByteSize, long numRows) {}
+}
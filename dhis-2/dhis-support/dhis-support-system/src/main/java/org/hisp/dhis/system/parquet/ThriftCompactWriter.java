@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.system.parquet;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Minimal writer for the Thrift compact protocol, covering the subset of types used by the Parquet
+ * page headers and file footer.
+ */
+final class ThriftCompactWriter {
+  static final byte TYPE_I32 = 5;
+
+  static final byte TYPE_I64 = 6;
+
+  static final byte TYPE_BINARY = 8;
+
+  static final byte TYPE_LIST = 9;
+
+  static final byte TYPE_STRUCT = 12;
+
+  private static final byte STOP = 0;
+
+  private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+  private final Deque<Integer> fieldIdStack = new ArrayDeque<>();
+
+  private int lastFieldId = 0;
+
+  void i32Field(int fieldId, int value) {
+    fieldHeader(fieldId, TYPE_I32);
+    i32(value);
+  }
+
+  void i64Field(int fieldId, long value) {
+    fieldHeader(fieldId, TYPE_I64);
+    i64(value);
+  }
+
+  void stringField(int fieldId, String value) {
+    fieldHeader(fieldId, TYPE_BINARY);
+    string(value);
+  }
+
+  /** Starts a struct valued field, to be completed by {@link #structEnd()}. */
+  void structBegin(int fieldId) {
+    fieldHeader(fieldId, TYPE_STRUCT);
+    elementStructBegin();
+  }
+
+  /** Starts a struct which is an element of a list, to be completed by {@link #structEnd()}. */
+  void elementStructBegin() {
+    fieldIdStack.push(lastFieldId);
+    lastFieldId = 0;
+  }
+
+  /** Ends the current struct, or the top level struct if no nested struct is open. */
+  void structEnd() {
+    out.write(STOP);
+    lastFieldId = fieldIdStack.isEmpty() ? 0 : fieldIdStack.pop();
+  }
+
+  /** Starts a list valued field, to be followed by exactly {@code size} elements. */
+  void listBegin(int fieldId, byte elementType, int size) {
+    fieldHeader(fieldId, TYPE_LIST);
+
+    if (size < 15) {
+      out.write(size << 4 | elementType);
+    } else {
+      out.write(0xF0 | elementType);
+      varint(size);
+    }
+  }
+
+  void i32(int value) {
+    varint((long) (value << 1 ^ value >> 31) & 0xFFFFFFFFL);
+  }
+
+  void i64(long value) {
+    varint(value << 1 ^ value >> 63);
+  }
+
+  void string(String value) {
+    byte[] bytes = value.getBytes(UTF_8);
+    varint(bytes.length);
+    out.write(bytes, 0, bytes.length);
+  }
+
+  byte[] toByteArray() {
+    return out.toByteArray();
+  }
+
+  private void fieldHeader(int fieldId, byte type) {
+    int delta = fieldId - lastFieldId;
+
+    if (delta > 0 && delta <= 15) {
+      out.write(delta << 4 | type);
+    } else {
+      out.write(type);
+      i32(fieldId);
+    }
+
+    lastFieldId = fieldId;
+  }
+
+  private void varint(long value) {
+    while ((value & ~0x7FL) != 0) {
+      out.write((int) (value & 0x7F | 0x80));
+      value >>>= 7;
+    }
+
+    out.write((int) value);
+  }
+}
@@ -30,11 +30,13 @@ package org.hisp.dhis.cache;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.anyLong;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import java.util.concurrent.TimeUnit;
 import org.hisp.dhis.common.cache.Region;
 import org.hisp.dhis.common.event.CacheInvalidationEvent;
 import org.hisp.dhis.external.conf.ConfigurationKey;
@@ -107,6 +109,22 @@ class DefaultCacheProviderTest {
     verifyNoMoreInteractions(mockCache);
   }
 
+  @Test
+  void testUserOrgUnitIdsExpireAfterWrite() {
+    when(cacheBuilder.withInitialCapacity(anyInt())).thenReturn(cacheBuilder);
+    when(cacheBuilder.forceInMemory()).thenReturn(cacheBuilder);
+    registerCache(
+        Region.userOrgUnitIdsCache, () -> defaultCacheProvider.createUserOrgUnitIdsCache());
+
+    defaultCacheProvider.handleCacheInvalidationEvent(
+        new CacheInvalidationEvent(this, Region.userOrgUnitIdsCache, "admin"));
+
+    verify(cacheBuilder).expireAfterWrite(30, TimeUnit.MINUTES);
+    verify(cacheBuilder, never()).expireAfterAccess(anyLong(), any());
+    verify(mockCache).invalidate("admin");
+    verifyNoMoreInteractions(mockCache);
+  }
+
   @Test
   void testInvalidateUncachedRegion() {
     CacheInvalidationEvent event = new CacheInvalidationEvent(this, Region.canDataWriteCocCache);
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.system.grid;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.Map;
+import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.common.GridHeader;
+import org.hisp.dhis.common.ValueType;
+import org.hisp.dhis.commons.jackson.config.JacksonObjectMapperConfig;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link JsonGridStreamWriter}. */
+class JsonGridStreamWriterTest {
+  private final ObjectMapper jsonMapper = JacksonObjectMapperConfig.staticJsonMapper();
+
+  @Test
+  void testWritesSameJsonAsSerializedGrid() throws Exception {
+    Grid grid = createGrid();
+    grid.setTitle("Title");
+    grid.addMetaData("items", Map.of("a", "A"));
+    grid.addRow().addValue("a").addValue(12345678.0).addValue(null);
+    grid.addRow().addValue("b").addValue(2.5).addValue("x");
+
+    assertEquals(jsonMapper.readTree(jsonMapper.writeValueAsString(grid)), stream(grid));
+  }
+
+  @Test
+  void testWritesSameJsonAsSerializedGridWithoutRows() throws Exception {
+    Grid grid = createGrid();
+
+    assertEquals(jsonMapper.readTree(jsonMapper.writeValueAsString(grid)), stream(grid));
+  }
+
+  private Grid createGrid() {
+    Grid grid = new ListGrid();
+    grid.addHeader(new GridHeader("ou", "Org unit", ValueType.TEXT, false, true));
+    grid.addHeader(new GridHeader("value", "Value", ValueType.NUMBER, false, false));
+    grid.addHeader(new GridHeader("comment", "Comment", ValueType.TEXT, false, false));
+    return grid;
+  }
+
+  /**
+   * Streams the headers and meta data of the given grid, followed by its rows.
+   *
+   * @param grid the {@link Grid}.
+   * @return the streamed JSON.
+   */
+  private Object stream(Grid grid) throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    Grid header = new ListGrid();
+    grid.getHeaders().forEach(header::addHeader);
+    header.setTitle(grid.getTitle());
+    header.setMetaData(grid.getMetaData());
+
+    JsonGridStreamWriter writer = new JsonGridStreamWriter(jsonMapper, out);
+    writer.writeStart(header);
+
+    for (List<Object> row : grid.getRows()) {
+      writer.writeRow(row);
+    }
+
+    writer.writeEnd();
+    return jsonMapper.readTree(out.toByteArray());
+  }
+}
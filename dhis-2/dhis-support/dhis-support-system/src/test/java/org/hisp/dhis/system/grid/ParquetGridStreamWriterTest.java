@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.system.grid;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.List;
+import org.hisp.dhis.common.Grid;
+import org.hisp.dhis.common.GridHeader;
+import org.hisp.dhis.common.ValueType;
+import org.hisp.dhis.system.parquet.ParquetTestReader;
+import org.hisp.dhis.system.parquet.ParquetTestReader.ParquetFile;
+import org.junit.jupiter.api.Test;
+
+/** Unit tests for {@link ParquetGridStreamWriter}. */
+class ParquetGridStreamWriterTest {
+  @Test
+  void testWritesValuesNotMatchingHeaderValueType() {
+    Grid grid = new ListGrid();
+    grid.addHeader(new GridHeader("ou", "Org unit", ValueType.TEXT, false, true));
+    grid.addHeader(new GridHeader("value", "Value", ValueType.NUMBER, false, false));
+    grid.addHeader(new GridHeader("count", "Count", ValueType.INTEGER, false, false));
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    ParquetGridStreamWriter writer = new ParquetGridStreamWriter(out);
+    writer.writeStart(grid);
+    writer.writeRow(Arrays.asList("a", 12.5, 3));
+    writer.writeRow(Arrays.asList("b", "High", null));
+    writer.writeEnd();
+
+    ParquetFile file = ParquetTestReader.read(out.toByteArray());
+
+    assertEquals(List.of("ou", "value", "count"), file.columnNames());
+    assertEquals(List.of(List.of("a", "12.5", "3"), Arrays.asList("b", "High", null)), file.rows());
+  }
+}
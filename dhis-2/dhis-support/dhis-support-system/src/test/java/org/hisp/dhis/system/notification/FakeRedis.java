@@ -122,7 +122,10 @@ record FakeRedis(
 
   private BoundZSetOperations<String, String> boundZSetOps(InvocationOnMock i) {
     String key = i.getArgument(0, String.class);
-    return zSets.computeIfAbsent(key, k -> new FakeZSet(new LinkedList<>(), boundZSetOps())).api();
+    return zSets
+        .computeIfAbsent(
+            key, k -> new FakeZSet(new LinkedList<>(), new LinkedList<>(), boundZSetOps()))
+        .api();
   }
 
   private BoundHashOperations<String, String, String> boundHashOps(InvocationOnMock i) {
@@ -132,7 +135,10 @@ record FakeRedis(
         .api();
   }
 
-  record FakeZSet(LinkedList<String> entries, BoundZSetOperations<String, String> api) {
+  record FakeZSet(
+      LinkedList<String> entries,
+      LinkedList<Double> scores,
+      BoundZSetOperations<String, String> api) {
 
     FakeZSet {
       when(api.zCard()).thenAnswer(i -> (long) entries.size());
@@ -140,6 +146,7 @@ record FakeRedis(
       when(api.add(anyString(), anyDouble())).thenAnswer(this::add);
       when(api.range(anyLong(), anyLong())).then(this::range);
       when(api.reverseRange(anyLong(), anyLong())).then(this::reverseRange);
+      when(api.reverseRangeByScore(anyDouble(), anyDouble())).then(this::reverseRangeByScore);
     }
 
     private long removeRange(InvocationOnMock i) {
@@ -148,7 +155,10 @@ record FakeRedis(
       if (start < 0) start = entries.size() + start;
       if (end < 0) end = entries.size() + end;
       int len = end - start + 1;
-      for (int j = 0; j < len; j++) entries.remove(start);
+      for (int j = 0; j < len; j++) {
+        entries.remove(start);
+        scores.remove(start);
+      }
       return len;
     }
 
@@ -157,6 +167,7 @@ record FakeRedis(
       // Note: the score is not supported since we only append with increased score
       // always adding last is the same as sorting by score
       entries.addLast(value);
+      scores.addLast(i.getArgument(1, Double.class));
       return true;
     }
 
@@ -182,6 +193,17 @@ record FakeRedis(
       range(-end - 1, -start - 1).forEach(tmp::addFirst);
       return new LinkedHashSet<>(tmp);
     }
+
+    private Set<String> reverseRangeByScore(InvocationOnMock i) {
+      double min = i.getArgument(0, Double.class);
+      double max = i.getArgument(1, Double.class);
+      LinkedList<String> tmp = new LinkedList<>();
+      for (int j = 0; j < entries.size(); j++) {
+        double score = scores.get(j);
+        if (score >= min && score <= max) tmp.addFirst(entries.get(j));
+      }
+      return new LinkedHashSet<>(tmp);
+    }
   }
 
   record FakeHashTable(
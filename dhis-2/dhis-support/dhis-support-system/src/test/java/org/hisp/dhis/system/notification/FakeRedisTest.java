@@ -177,6 +177,23 @@ class FakeRedisTest {
     assertEquals(List.of("3", "2"), List.copyOf(set1.reverseRange(1, 2)));
   }
 
+  @Test
+  @SuppressWarnings("DataFlowIssue")
+  void testReverseRangeByScore() {
+    BoundZSetOperations<String, String> set1 = redis.boundZSetOps("my:set");
+    set1.add("1", 1);
+    set1.add("2", 2);
+    set1.add("3", 3);
+    set1.add("4", 4);
+
+    assertEquals(
+        List.of("4", "3", "2", "1"),
+        List.copyOf(set1.reverseRangeByScore(0, Double.POSITIVE_INFINITY)));
+    assertEquals(List.of("4", "3"), List.copyOf(set1.reverseRangeByScore(3, 10)));
+    assertEquals(List.of("3", "2"), List.copyOf(set1.reverseRangeByScore(2, 3)));
+    assertEquals(List.of(), List.copyOf(set1.reverseRangeByScore(5, 10)));
+  }
+
   @Test
   @SuppressWarnings("DataFlowIssue")
   void testRemoveRange() {
@@ -42,6 +42,7 @@ import java.util.Deque;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.LongSupplier;
 import org.hisp.dhis.common.UID;
@@ -147,6 +148,47 @@ abstract class NotifierStoreTest {
         notifier.getNotificationsByJobId(ANALYTICS_TABLE, job3.getUid()));
   }
 
+  @Test
+  void testGetNotificationsByJobId_Since() {
+    JobConfiguration job1 = job(1, DATA_INTEGRITY);
+    notifier.notify(job1, "msg11");
+    notifier.notify(job1, "msg12");
+    notifier.notify(job1, "msg13");
+
+    awaitIdle();
+
+    Deque<Notification> all = notifier.getNotificationsByJobId(DATA_INTEGRITY, job1.getUid());
+    assertMessages(List.of("msg13", "msg12", "msg11"), all);
+    assertMessages(all.stream().map(Notification::getMessage).toList(), since(job1, 0L));
+    assertMessages(List.of("msg13", "msg12"), since(job1, all.getLast().getTimestamp()));
+    assertMessages(List.of(), since(job1, all.getFirst().getTimestamp()));
+  }
+
+  @Test
+  void testSubscribe() {
+    JobConfiguration job1 = job(1, DATA_INTEGRITY);
+    JobConfiguration job2 = job(2, DATA_INTEGRITY);
+    AtomicInteger signals = new AtomicInteger();
+    Notifier.Subscription subscription =
+        notifier.subscribe(UID.of(job1.getUid()), signals::incrementAndGet);
+    notifier.notify(job1, "msg11");
+    notifier.notify(job2, "msg21");
+    notifier.notify(job1, "msg12");
+
+    awaitIdle();
+    assertEquals(2, signals.get());
+
+    subscription.close();
+    notifier.notify(job1, "msg13");
+
+    awaitIdle();
+    assertEquals(2, signals.get());
+  }
+
+  private Deque<Notification> since(JobConfiguration job, long timestamp) {
+    return notifier.getNotificationsByJobId(job.getJobType(), job.getUid(), timestamp);
+  }
+
   @Test
   void testGetNotificationsByJobType() {
     JobConfiguration job1 = job(1, DATA_INTEGRITY);
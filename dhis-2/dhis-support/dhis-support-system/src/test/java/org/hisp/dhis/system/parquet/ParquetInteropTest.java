@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.system.parquet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.output.OutputFrame.OutputType;
+import org.testcontainers.containers.startupcheck.OneShotStartupCheckStrategy;
+import org.testcontainers.images.builder.Transferable;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * Reads a file written by {@link ParquetWriter} with Apache Arrow's Parquet reader (pyarrow), so
+ * that the writer is not only verified against the {@link ParquetTestReader} which shares its
+ * understanding of the format.
+ */
+@Tag("integration")
+class ParquetInteropTest {
+  private static final DockerImageName PYTHON_IMAGE = DockerImageName.parse("python:3.12-slim");
+
+  private static final String PYARROW_VERSION = "17.0.0";
+
+  /** Prints schema, column chunk meta data and rows of the file as JSON. */
+  private static final String READ_SCRIPT =
+      """
+      import datetime, json
+      import pyarrow.parquet as pq
+
+      def value(v):
+          if isinstance(v, datetime.datetime):
+              return round(v.timestamp() * 1000)
+          if isinstance(v, datetime.date):
+              return v.isoformat()
+          return v
+
+      f = pq.ParquetFile("/data/test.parquet")
+      md = f.metadata
+      columns = [md.schema.column(i) for i in range(md.num_columns)]
+      chunks = [md.row_group(g).column(i)
+                for g in range(md.num_row_groups) for i in range(md.num_columns)]
+      print(json.dumps({
+          "numRows": md.num_rows,
+          "numRowGroups": md.num_row_groups,
+          "columns": [[c.name, c.physical_type, c.converted_type, c.max_definition_level]
+                      for c in columns],
+          "chunks": [[c.path_in_schema, c.has_dictionary_page, c.compression,
+                      c.statistics.null_count] for c in chunks],
+          "rows": [[value(v) for v in row.values()] for row in f.read().to_pylist()],
+      }))
+      """;
+
+  private final ObjectMapper jsonMapper = new ObjectMapper();
+
+  @Test
+  void testReadWithPyarrow() throws Exception {
+    assumeTrue(DockerClientFactory.instance().isDockerAvailable(), "Docker is not available");
+
+    List<ParquetColumn> columns =
+        List.of(
+            new ParquetColumn("dataelement", ParquetType.STRING),
+            new ParquetColumn("value", ParquetType.DOUBLE),
+            new ParquetColumn("followup", ParquetType.BOOLEAN),
+            new ParquetColumn("count", ParquetType.INTEGER),
+            new ParquetColumn("id", ParquetType.LONG),
+            new ParquetColumn("date", ParquetType.DATE),
+            new ParquetColumn("created", ParquetType.TIMESTAMP));
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    try (ParquetWriter writer = new ParquetWriter(out, columns, 2, ZoneOffset.UTC)) {
+      writer.writeRow(
+          List.of(
+              "fbfJHSPpUQD",
+              12.5,
+              false,
+              3,
+              7L,
+              LocalDate.of(2024, 3, 1),
+              Instant.ofEpochMilli(1_000L)));
+      writer.writeRow(Arrays.asList("fbfJHSPpUQD", null, true, "4", "8", "2024-03-02", null));
+      writer.writeRow(Arrays.asList("cYeuwXTCPkU", "3", "", null, null, null, 2_000L));
+      writer.writeRow(Arrays.asList(null, null, null, null, null, null, null));
+      writer.writeRow(Arrays.asList("fbfJHSPpUQD", -1, true, 5, 9L, null, null));
+    }
+
+    JsonNode file = read(out.toByteArray());
+
+    assertEquals(5, file.get("numRows").asInt());
+    assertEquals(3, file.get("numRowGroups").asInt());
+    assertEquals(
+        jsonMapper.readTree(
+            """
+            [["dataelement", "BYTE_ARRAY", "UTF8", 1],
+             ["value", "DOUBLE", "NONE", 1],
+             ["followup", "BOOLEAN", "NONE", 1],
+             ["count", "INT32", "NONE", 1],
+             ["id", "INT64", "NONE", 1],
+             ["date", "INT32", "DATE", 1],
+             ["created", "INT64", "TIMESTAMP_MILLIS", 1]]"""),
+        file.get("columns"));
+    assertEquals(
+        jsonMapper.readTree(
+            """
+            [["fbfJHSPpUQD", 12.5, false, 3, 7, "2024-03-01", 1000],
+             ["fbfJHSPpUQD", null, true, 4, 8, "2024-03-02", null],
+             ["cYeuwXTCPkU", 3.0, null, null, null, null, 2000],
+             [null, null, null, null, null, null, null],
+             ["fbfJHSPpUQD", -1.0, true, 5, 9, null, null]]"""),
+        file.get("rows"));
+
+    Map<String, Integer> nullCounts = new LinkedHashMap<>();
+
+    for (JsonNode chunk : file.get("chunks")) {
+      String column = chunk.get(0).asText();
+      assertEquals(column.equals("dataelement"), chunk.get(1).asBoolean(), column);
+      assertEquals("GZIP", chunk.get(2).asText(), column);
+      nullCounts.merge(column, chunk.get(3).asInt(), Integer::sum);
+    }
+
+    assertEquals(
+        Map.of(
+            "dataelement", 1,
+            "value", 2,
+            "followup", 2,
+            "count", 2,
+            "id", 2,
+            "date", 3,
+            "created", 3),
+        nullCounts);
+  }
+
+  private JsonNode read(byte[] file) throws Exception {
+    try (GenericContainer<?> reader =
+        new GenericContainer<>(PYTHON_IMAGE)
+            .withCopyToContainer(Transferable.of(file), "/data/test.parquet")
+            .withCopyToContainer(Transferable.of(READ_SCRIPT), "/data/read.py")
+            .withCommand(
+                "sh",
+                "-c",
+                "pip install --quiet --disable-pip-version-check --root-user-action=ignore"
+                    + " pyarrow=="
+                    + PYARROW_VERSION
+                    + " && python /data/read.py")
+            .withStartupCheckStrategy(
+                new OneShotStartupCheckStrategy().withTimeout(Duration.ofMinutes(5)))) {
+      reader.start();
+
+      return jsonMapper.readTree(reader.getLogs(OutputType.STDOUT));
+    }
+  }
+}
@@ -0,0 +1,419 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.system.parquet;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads back the Parquet files written by {@link ParquetWriter} for tests. Decodes the Thrift
+ * compact footer and the GZIP compressed dictionary and data pages of each column chunk, supporting
+ * the subset of the format the writer produces.
+ */
+public final class ParquetTestReader {
+  private static final int TYPE_TRUE = 1;
+
+  private static final int TYPE_FALSE = 2;
+
+  private static final int TYPE_BYTE = 3;
+
+  private static final int TYPE_I16 = 4;
+
+  private static final int TYPE_I32 = 5;
+
+  private static final int TYPE_I64 = 6;
+
+  private static final int TYPE_DOUBLE = 7;
+
+  private static final int TYPE_BINARY = 8;
+
+  private static final int TYPE_LIST = 9;
+
+  private static final int TYPE_STRUCT = 12;
+
+  private ParquetTestReader() {}
+
+  /**
+   * A column of the file schema.
+   *
+   * @param name the column name.
+   * @param physicalType the Parquet physical type.
+   * @param convertedType the Parquet converted type, null if absent.
+   */
+  public record Column(String name, int physicalType, Integer convertedType) {}
+
+  /**
+   * The decoded content of a Parquet file.
+   *
+   * @param columns the columns of the schema.
+   * @param rowGroupSizes the number of rows of each row group.
+   * @param rows the rows with their values as {@link String}, {@link Integer}, {@link Long}, {@link
+   *     Double}, {@link Boolean} or null.
+   */
+  public record ParquetFile(
+      List<Column> columns, List<Long> rowGroupSizes, List<List<Object>> rows) {
+    public List<String> columnNames() {
+      return columns.stream().map(Column::name).toList();
+    }
+  }
+
+  public static ParquetFile read(byte[] file) {
+    if (!Arrays.equals(Arrays.copyOfRange(file, 0, 4), "PAR1".getBytes(US_ASCII))
+        || !Arrays.equals(
+            Arrays.copyOfRange(file, file.length - 4, file.length), "PAR1".getBytes(US_ASCII))) {
+      throw new IllegalArgumentException("Not a Parquet file");
+    }
+
+    int footerLength =
+        ByteBuffer.wrap(file, file.length - 8, 4).order(ByteOrder.LITTLE_ENDIAN).getInt();
+    Map<Integer, Object> footer =
+        new ThriftReader(file, file.length - 8 - footerLength).readStruct();
+
+    List<Column> columns = new ArrayList<>();
+    List<Map<Integer, Object>> schema = structs(footer.get(2));
+
+    for (Map<Integer, Object> element : schema.subList(1, schema.size())) {
+      columns.add(
+          new Column(
+              string(element.get(4)),
+              ((Long) element.get(1)).intValue(),
+              element.containsKey(6) ? ((Long) element.get(6)).intValue() : null));
+    }
+
+    List<Long> rowGroupSizes = new ArrayList<>();
+    List<List<Object>> rows = new ArrayList<>();
+
+    for (Map<Integer, Object> rowGroup : structs(footer.getOrDefault(4, List.of()))) {
+      int numRows = ((Long) rowGroup.get(3)).intValue();
+      List<Map<Integer, Object>> chunks = structs(rowGroup.get(1));
+      List<List<Object>> columnValues = new ArrayList<>();
+
+      for (int i = 0; i < chunks.size(); i++) {
+        columnValues.add(readColumnChunk(file, asStruct(chunks.get(i).get(3)), numRows));
+      }
+
+      for (int row = 0; row < numRows; row++) {
+        List<Object> values = new ArrayList<>();
+
+        for (List<Object> column : columnValues) {
+          values.add(column.get(row));
+        }
+
+        rows.add(values);
+      }
+
+      rowGroupSizes.add((long) numRows);
+    }
+
+    if ((Long) footer.get(3) != rows.size()) {
+      throw new IllegalStateException("Footer row count does not match the row groups");
+    }
+
+    return new ParquetFile(columns, rowGroupSizes, rows);
+  }
+
+  /**
+   * Decodes the values encoded with the RLE/bit-packing hybrid encoding, without length prefix.
+   *
+   * @param encoded the encoded bytes.
+   * @param count the number of values to decode.
+   * @param bitWidth the number of bits per value.
+   * @return the values.
+   */
+  public static int[] decodeHybrid(byte[] encoded, int count, int bitWidth) {
+    return decodeHybrid(ByteBuffer.wrap(encoded), count, bitWidth);
+  }
+
+  // -------------------------------------------------------------------------
+  // Supportive methods
+  // -------------------------------------------------------------------------
+
+  private static List<Object> readColumnChunk(
+      byte[] file, Map<Integer, Object> metaData, int numRows) {
+    int type = ((Long) metaData.get(1)).intValue();
+    long offset = (Long) metaData.getOrDefault(11, metaData.get(9)); // dictionary page comes first
+    List<Object> dictionary = null;
+
+    while (true) {
+      ThriftReader headerReader = new ThriftReader(file, (int) offset);
+      Map<Integer, Object> header = headerReader.readStruct();
+      int pageType = ((Long) header.get(1)).intValue();
+      int compressedSize = ((Long) header.get(3)).intValue();
+      int start = headerReader.position();
+      ByteBuffer page =
+          ByteBuffer.wrap(gunzip(Arrays.copyOfRange(file, start, start + compressedSize)))
+              .order(ByteOrder.LITTLE_ENDIAN);
+      offset = start + compressedSize;
+
+      if (pageType == 2) {
+        int size = ((Long) asStruct(header.get(7)).get(1)).intValue();
+        dictionary = readPlain(page, type, size);
+        continue;
+      }
+
+      Map<Integer, Object> dataHeader = asStruct(header.get(5));
+      int numValues = ((Long) dataHeader.get(1)).intValue();
+      int encoding = ((Long) dataHeader.get(2)).intValue();
+
+      if (numValues != numRows) {
+        throw new IllegalStateException("Expected a single data page per column chunk");
+      }
+
+      int levelsLength = page.getInt();
+      ByteBuffer levelsBuffer = page.slice().limit(levelsLength);
+      int[] levels = decodeHybrid(levelsBuffer, numValues, 1);
+      page.position(page.position() + levelsLength);
+      int nonNull = (int) Arrays.stream(levels).filter(level -> level == 1).count();
+
+      List<Object> values;
+
+      if (encoding == ParquetEncoding.PLAIN_DICTIONARY) {
+        int bitWidth = page.get();
+        List<Object> entries = dictionary;
+        values =
+            Arrays.stream(decodeHybrid(page.slice(), nonNull, bitWidth))
+                .mapToObj(entries::get)
+                .toList();
+      } else {
+        values = readPlain(page, type, nonNull);
+      }
+
+      List<Object> column = new ArrayList<>(numValues);
+      int next = 0;
+
+      for (int level : levels) {
+        column.add(level == 1 ? values.get(next++) : null);
+      }
+
+      return column;
+    }
+  }
+
+  private static List<Object> readPlain(ByteBuffer page, int type, int count) {
+    List<Object> values = new ArrayList<>(count);
+
+    for (int i = 0; i < count; i++) {
+      values.add(
+          switch (type) {
+            case 0 -> (page.get(page.position() + i / 8) >>> i % 8 & 1) == 1;
+            case 1 -> page.getInt();
+            case 2 -> page.getLong();
+            case 5 -> page.getDouble();
+            case 6 -> {
+              byte[] bytes = new byte[page.getInt()];
+              page.get(bytes);
+              yield new String(bytes, UTF_8);
+            }
+            default -> throw new IllegalArgumentException("Unsupported type: " + type);
+          });
+    }
+
+    return values;
+  }
+
+  private static int[] decodeHybrid(ByteBuffer encoded, int count, int bitWidth) {
+    int[] values = new int[count];
+    int size = 0;
+
+    while (size < count) {
+      int header = readUnsignedVarInt(encoded);
+
+      if ((header & 1) == 0) {
+        int value = 0;
+
+        for (int i = 0; i < (bitWidth + 7) / 8; i++) {
+          value |= (encoded.get() & 0xFF) << 8 * i;
+        }
+
+        for (int i = 0; i < header >> 1 && size < count; i++) {
+          values[size++] = value;
+        }
+      } else {
+        int total = (header >> 1) * 8;
+        long buffer = 0;
+        int bits = 0;
+
+        for (int i = 0; i < total; i++) {
+          while (bits < bitWidth) {
+            buffer |= (long) (encoded.get() & 0xFF) << bits;
+            bits += 8;
+          }
+
+          if (size < count) {
+            values[size++] = (int) (buffer & (1L << bitWidth) - 1);
+          }
+
+          buffer >>>= bitWidth;
+          bits -= bitWidth;
+        }
+      }
+    }
+
+    return values;
+  }
+
+  private static int readUnsignedVarInt(ByteBuffer buffer) {
+    int value = 0;
+    int shift = 0;
+    int b;
+
+    do {
+      b = buffer.get() & 0xFF;
+      value |= (b & 0x7F) << shift;
+      shift += 7;
+    } while ((b & 0x80) != 0);
+
+    return value;
+  }
+
+  private static byte[] gunzip(byte[] compressed) {
+    try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+      return in.readAllBytes();
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Map<Integer, Object> asStruct(Object value) {
+    return (Map<Integer, Object>) value;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<Map<Integer, Object>> structs(Object value) {
+    return (List<Map<Integer, Object>>) value;
+  }
+
+  private static String string(Object value) {
+    return new String((byte[]) value, UTF_8);
+  }
+
+  /**
+   * Reads Thrift compact protocol structs into maps keyed on field ID. Integers are read as {@link
+   * Long}, binary values as byte arrays.
+   */
+  private static final class ThriftReader {
+    private final byte[] data;
+
+    private int position;
+
+    ThriftReader(byte[] data, int position) {
+      this.data = data;
+      this.position = position;
+    }
+
+    int position() {
+      return position;
+    }
+
+    Map<Integer, Object> readStruct() {
+      Map<Integer, Object> fields = new HashMap<>();
+      int lastFieldId = 0;
+
+      while (true) {
+        int header = data[position++] & 0xFF;
+
+        if (header == 0) {
+          return fields;
+        }
+
+        int type = header & 0x0F;
+        int delta = header >>> 4;
+        int fieldId = delta == 0 ? (int) readZigZag() : lastFieldId + delta;
+        fields.put(fieldId, readValue(type));
+        lastFieldId = fieldId;
+      }
+    }
+
+    private Object readValue(int type) {
+      return switch (type) {
+        case TYPE_TRUE -> true;
+        case TYPE_FALSE -> false;
+        case TYPE_BYTE -> (long) data[position++];
+        case TYPE_I16, TYPE_I32, TYPE_I64 -> readZigZag();
+        case TYPE_DOUBLE -> {
+          double value =
+              ByteBuffer.wrap(data, position, 8).order(ByteOrder.LITTLE_ENDIAN).getDouble();
+          position += 8;
+          yield value;
+        }
+        case TYPE_BINARY -> {
+          int length = (int) readVarInt();
+          byte[] bytes = Arrays.copyOfRange(data, position, position + length);
+          position += length;
+          yield bytes;
+        }
+        case TYPE_LIST -> {
+          int header = data[position++] & 0xFF;
+          int size = header >>> 4 == 15 ? (int) readVarInt() : header >>> 4;
+          int elementType = header & 0x0F;
+          List<Object> list = new ArrayList<>(size);
+
+          for (int i = 0; i < size; i++) {
+            list.add(readValue(elementType));
+          }
+
+          yield list;
+        }
+        case TYPE_STRUCT -> readStruct();
+        default -> throw new IllegalArgumentException("Unsupported Thrift type: " + type);
+      };
+    }
+
+    private long readZigZag() {
+      long value = readVarInt();
+      return value >>> 1 ^ -(value & 1);
+    }
+
+    private long readVarInt() {
+      long value = 0;
+      int shift = 0;
+      int b;
+
+      do {
+        b = data[position++] & 0xFF;
+        value |= (long) (b & 0x7F) << shift;
+        shift += 7;
+      } while ((b & 0x80) != 0);
+
+      return value;
+    }
+  }
+}
@@ -0,0 +1,278 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.system.parquet;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.hisp.dhis.system.parquet.ParquetTestReader.Column;
+import org.hisp.dhis.system.parquet.ParquetTestReader.ParquetFile;
+import org.junit.jupiter.api.Test;
+
+class ParquetWriterTest {
+  private static final List<ParquetColumn> COLUMNS =
+      List.of(
+          new ParquetColumn("dataelement", ParquetType.STRING),
+          new ParquetColumn("value", ParquetType.DOUBLE),
+          new ParquetColumn("followup", ParquetType.BOOLEAN));
+
+  @Test
+  void testWriteFileLayout() {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    try (ParquetWriter writer = new ParquetWriter(out, COLUMNS, 2)) {
+      writer.writeRow(List.of("fbfJHSPpUQD", 12.5, false));
+      writer.writeRow(Arrays.asList("fbfJHSPpUQD", null, true));
+      writer.writeRow(Arrays.asList(null, "3", ""));
+
+      assertEquals(3, writer.getRowCount());
+    }
+
+    byte[] file = out.toByteArray();
+    int footerLength =
+        ByteBuffer.wrap(file, file.length - 8, 4).order(ByteOrder.LITTLE_ENDIAN).getInt();
+
+    assertArrayEquals("PAR1".getBytes(US_ASCII), Arrays.copyOfRange(file, 0, 4));
+    assertArrayEquals(
+        "PAR1".getBytes(US_ASCII), Arrays.copyOfRange(file, file.length - 4, file.length));
+    assertEquals(0x15, file[file.length - 8 - footerLength], "footer starts with version field");
+  }
+
+  @Test
+  void testWriteReadBackValues() {
+    List<ParquetColumn> columns =
+        List.of(
+            new ParquetColumn("dataelement", ParquetType.STRING),
+            new ParquetColumn("value", ParquetType.DOUBLE),
+            new ParquetColumn("followup", ParquetType.BOOLEAN),
+            new ParquetColumn("count", ParquetType.INTEGER),
+            new ParquetColumn("id", ParquetType.LONG),
+            new ParquetColumn("date", ParquetType.DATE),
+            new ParquetColumn("created", ParquetType.TIMESTAMP));
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    try (ParquetWriter writer = new ParquetWriter(out, columns, 2, ZoneOffset.UTC)) {
+      writer.writeRow(
+          List.of(
+              "fbfJHSPpUQD",
+              12.5,
+              false,
+              3,
+              7L,
+              LocalDate.of(2024, 3, 1),
+              Instant.ofEpochMilli(1_000L)));
+      writer.writeRow(Arrays.asList("fbfJHSPpUQD", null, true, "4", "8", "2024-03-02", null));
+      writer.writeRow(Arrays.asList("cYeuwXTCPkU", "3", "", null, null, null, 2_000L));
+      writer.writeRow(Arrays.asList(null, null, null, null, null, null, null));
+      writer.writeRow(Arrays.asList("fbfJHSPpUQD", -1, true, 5, 9L, null, null));
+    }
+
+    ParquetFile file = ParquetTestReader.read(out.toByteArray());
+
+    assertEquals(
+        List.of("dataelement", "value", "followup", "count", "id", "date", "created"),
+        file.columnNames());
+    assertEquals(new Column("dataelement", 6, 0), file.columns().get(0));
+    assertEquals(new Column("value", 5, null), file.columns().get(1));
+    assertEquals(new Column("date", 1, 6), file.columns().get(5));
+    assertEquals(new Column("created", 2, 9), file.columns().get(6));
+    assertEquals(List.of(2L, 2L, 1L), file.rowGroupSizes());
+
+    int day = (int) LocalDate.of(2024, 3, 1).toEpochDay();
+    assertEquals(
+        List.of(
+            List.of("fbfJHSPpUQD", 12.5, false, 3, 7L, day, 1_000L),
+            Arrays.asList("fbfJHSPpUQD", null, true, 4, 8L, day + 1, null),
+            Arrays.asList("cYeuwXTCPkU", 3.0, null, null, null, null, 2_000L),
+            Arrays.asList(null, null, null, null, null, null, null),
+            Arrays.asList("fbfJHSPpUQD", -1.0, true, 5, 9L, null, null)),
+        file.rows());
+  }
+
+  @Test
+  void testWriteReadBackStringsWithoutDictionary() {
+    List<ParquetColumn> columns = List.of(new ParquetColumn("text", ParquetType.STRING));
+    String first = "a".repeat(600_000);
+    String second = "b".repeat(600_000);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    try (ParquetWriter writer = new ParquetWriter(out, columns)) {
+      writer.writeRow(List.of(first));
+      writer.writeRow(Arrays.asList((Object) null));
+      writer.writeRow(List.of(second));
+    }
+
+    assertEquals(
+        List.of(List.of(first), Arrays.asList((Object) null), List.of(second)),
+        ParquetTestReader.read(out.toByteArray()).rows());
+  }
+
+  @Test
+  void testWriteDatesInWriterTimeZone() {
+    List<ParquetColumn> columns =
+        List.of(
+            new ParquetColumn("date", ParquetType.DATE),
+            new ParquetColumn("created", ParquetType.TIMESTAMP));
+    ZoneId zoneId = ZoneId.of("Pacific/Kiritimati");
+    Instant instant = Instant.parse("2024-03-01T12:00:00Z");
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    try (ParquetWriter writer = new ParquetWriter(out, columns, 10, zoneId)) {
+      writer.writeRow(List.of(Date.from(instant), LocalDateTime.of(2024, 3, 2, 2, 0)));
+    }
+
+    assertEquals(
+        List.of(List.of((int) LocalDate.of(2024, 3, 2).toEpochDay(), instant.toEpochMilli())),
+        ParquetTestReader.read(out.toByteArray()).rows());
+  }
+
+  @Test
+  void testWriteEmptyFile() {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    new ParquetWriter(out, COLUMNS).finish();
+
+    byte[] file = out.toByteArray();
+
+    assertArrayEquals("PAR1".getBytes(US_ASCII), Arrays.copyOfRange(file, 0, 4));
+    assertArrayEquals(
+        "PAR1".getBytes(US_ASCII), Arrays.copyOfRange(file, file.length - 4, file.length));
+  }
+
+  @Test
+  void testAbortSkipsFooter() {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    try (ParquetWriter writer = new ParquetWriter(out, COLUMNS, 1)) {
+      writer.writeRow(List.of("fbfJHSPpUQD", 12.5, false));
+      writer.writeRow(List.of("fbfJHSPpUQD", 13.5, true));
+      writer.abort();
+
+      assertThrows(IllegalStateException.class, () -> writer.writeRow(List.of("a", 1.0, false)));
+    }
+
+    byte[] file = out.toByteArray();
+
+    assertArrayEquals("PAR1".getBytes(US_ASCII), Arrays.copyOfRange(file, 0, 4));
+    assertFalse(
+        Arrays.equals(
+            "PAR1".getBytes(US_ASCII), Arrays.copyOfRange(file, file.length - 4, file.length)),
+        "aborted file must not end with a footer");
+  }
+
+  @Test
+  void testAbortOnWriteFailure() {
+    AtomicInteger writes = new AtomicInteger();
+    AtomicBoolean closed = new AtomicBoolean();
+    OutputStream out =
+        new OutputStream() {
+          @Override
+          public void write(int b) throws IOException {
+            writes.incrementAndGet();
+            throw new IOException("Broken pipe");
+          }
+
+          @Override
+          public void write(byte[] b, int off, int len) throws IOException {
+            write(0);
+          }
+
+          @Override
+          public void close() {
+            closed.set(true);
+          }
+        };
+
+    ParquetWriter writer = new ParquetWriter(out, COLUMNS, 1);
+
+    assertThrows(
+        UncheckedIOException.class, () -> writer.writeRow(List.of("fbfJHSPpUQD", 12.5, false)));
+    writer.close();
+
+    assertEquals(1, writes.get(), "no footer is written after a failed write");
+    assertTrue(closed.get());
+  }
+
+  @Test
+  void testWriteRowWrongWidth() {
+    ParquetWriter writer = new ParquetWriter(new ByteArrayOutputStream(), COLUMNS);
+
+    assertThrows(IllegalArgumentException.class, () -> writer.writeRow(List.of("a", 1.0)));
+  }
+
+  @Test
+  void testWriteRowInvalidNumber() {
+    ParquetWriter writer = new ParquetWriter(new ByteArrayOutputStream(), COLUMNS);
+
+    assertThrows(
+        IllegalArgumentException.class, () -> writer.writeRow(List.of("a", "twelve", true)));
+  }
+
+  @Test
+  void testEncodeHybridRoundTrip() {
+    int[] values = new int[100];
+
+    for (int i = 0; i < values.length; i++) {
+      values[i] = i < 40 ? 3 : i % 5;
+    }
+
+    byte[] encoded = ParquetEncoding.encodeHybrid(values, values.length, 3);
+
+    assertArrayEquals(values, ParquetTestReader.decodeHybrid(encoded, values.length, 3));
+    assertEquals(40 << 1, encoded[0], "leading run is run-length encoded");
+  }
+
+  @Test
+  void testBitWidth() {
+    assertEquals(1, ParquetEncoding.bitWidth(1));
+    assertEquals(1, ParquetEncoding.bitWidth(2));
+    assertEquals(2, ParquetEncoding.bitWidth(3));
+    assertEquals(8, ParquetEncoding.bitWidth(256));
+    assertEquals(9, ParquetEncoding.bitWidth(257));
+  }
+}
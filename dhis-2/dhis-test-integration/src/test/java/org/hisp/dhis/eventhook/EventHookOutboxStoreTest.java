@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.eventhook;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+import org.hisp.dhis.eventhook.EventHookOutboxStore.Message;
+import org.hisp.dhis.test.integration.PostgresIntegrationTestBase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Tests of {@link EventHookOutboxStore}. Not transactional, as due messages are compared with the
+ * start time of the claiming transaction.
+ */
+class EventHookOutboxStoreTest extends PostgresIntegrationTestBase {
+  private static final String HOOK = "hookUid0001";
+
+  @Autowired private EventHookOutboxStore outboxStore;
+
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @AfterEach
+  void tearDown() {
+    jdbcTemplate.update("delete from eventhookoutbox");
+  }
+
+  @Test
+  void testClaimedMessagesAreNotDueUntilReleased() {
+    outboxStore.add(HOOK, List.of("targetA"), "p1");
+    outboxStore.add(HOOK, List.of("targetA"), "p2");
+
+    List<Message> claimed = claim("targetA");
+
+    assertEquals(List.of("p1", "p2"), claimed.stream().map(Message::payload).toList());
+    assertTrue(claim("targetA").isEmpty());
+
+    outboxStore.release(claimed, Instant.now().minusSeconds(1));
+
+    assertEquals(2, claim("targetA").size());
+  }
+
+  @Test
+  void testExpiredClaimIsClaimedAgain() {
+    outboxStore.add(HOOK, List.of("targetA"), "p1");
+
+    outboxStore.claimDue(HOOK, "targetA", 10, Instant.now().minusSeconds(1));
+
+    assertEquals(1, claim("targetA").size());
+  }
+
+  @Test
+  void testMessagesAreClaimedPerTarget() {
+    outboxStore.add(HOOK, List.of("targetA", "targetB"), "p1");
+
+    assertEquals(1, claim("targetA").size());
+    assertEquals(1, claim("targetB").size());
+  }
+
+  @Test
+  void testPostponeCountsAttemptAndRemoveDeletes() {
+    outboxStore.add(HOOK, List.of("targetA"), "p1");
+
+    outboxStore.postpone(claim("targetA"), Instant.now().minusSeconds(1));
+
+    List<Message> claimed = claim("targetA");
+    assertEquals(1, claimed.get(0).attempts());
+  }
+
+  @Test
+  void testRemoveOrphansOnlyRemovesMessagesOfDeletedEventHooks() {
+    outboxStore.add(HOOK, List.of("targetA", "targetB"), "p1");
+    outboxStore.add("hookUid0002", List.of("targetA"), "p2");
+
+    outboxStore.removeOrphans(Set.of(HOOK));
+
+    assertEquals(1, claim("targetA").size());
+    assertEquals(1, claim("targetB").size());
+    assertTrue(
+        outboxStore
+            .claimDue("hookUid0002", "targetA", 10, Instant.now().plus(1, ChronoUnit.HOURS))
+            .isEmpty());
+  }
+
+  private List<Message> claim(String targetId) {
+    return outboxStore.claimDue(HOOK, targetId, 10, Instant.now().plus(1, ChronoUnit.HOURS));
+  }
+}
@@ -28,6 +28,7 @@
 package org.hisp.dhis.message;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.Collection;
@@ -61,6 +62,8 @@ class MessageConversationStoreTest extends PostgresIntegrationTestBase {
 
   private long conversationA;
 
+  private long conversationC;
+
   private Collection<String> conversationIds;
 
   @BeforeAll
@@ -89,8 +92,7 @@ class MessageConversationStoreTest extends PostgresIntegrationTestBase {
     mc.setFollowUp(true);
     messageService.updateMessageConversation(mc);
     conversationIds.add(mc.getUid());
-    long conversationC =
-        messageService.sendPrivateMessage(usersB, "Subject3", "Text", "Meta", null);
+    conversationC = messageService.sendPrivateMessage(usersB, "Subject3", "Text", "Meta", null);
     mc = messageService.getMessageConversation(conversationC);
     messageService.updateMessageConversation(mc);
     conversationIds.add(mc.getUid());
@@ -124,4 +126,54 @@ class MessageConversationStoreTest extends PostgresIntegrationTestBase {
         messageConversationStore.getMessageConversations(conversationIds);
     assertEquals(3, conversations.size());
   }
+
+  @Test
+  void testGetInboxSummaries() {
+    List<MessageConversationInboxSummary> summariesC =
+        messageConversationStore.getInboxSummaries(userC);
+    List<MessageConversationInboxSummary> summariesB =
+        messageConversationStore.getInboxSummaries(userB);
+    assertEquals(1, summariesC.size());
+    assertEquals(MessageConversationStatus.NONE, summariesC.get(0).status());
+    assertEquals(3, summariesC.get(0).total());
+    assertEquals(1, summariesB.get(0).total());
+  }
+
+  @Test
+  void testUpdateInboxSummariesAppliesChanges() {
+    MessageConversation mc = messageService.getMessageConversation(conversationC);
+    mc.markRead(UID.of(userB.getUid()));
+    mc.setStatus(MessageConversationStatus.OPEN);
+    messageService.updateMessageConversation(mc);
+
+    List<MessageConversationInboxSummary> summariesB =
+        messageConversationStore.getInboxSummaries(userB);
+    List<MessageConversationInboxSummary> summariesC =
+        messageConversationStore.getInboxSummaries(userC);
+    assertEquals(1, summariesB.size());
+    assertEquals(MessageConversationStatus.OPEN, summariesB.get(0).status());
+    assertEquals(1, summariesB.get(0).total());
+    assertEquals(0, summariesB.get(0).unread());
+    assertEquals(2, summariesC.size());
+    assertEquals(0, messageConversationStore.getUnreadUserMessageConversationCount(userB));
+  }
+
+  @Test
+  void testRemoveInboxSummaries() {
+    messageService.removeInboxSummaries(messageService.getMessageConversation(conversationC));
+
+    assertTrue(messageConversationStore.getInboxSummaries(userB).isEmpty());
+    assertEquals(2, messageConversationStore.getInboxSummaries(userC).get(0).total());
+  }
+
+  @Test
+  void testGetMessageConversationsAfter() {
+    List<MessageConversation> firstPage =
+        messageConversationStore.getMessageConversations(userC, null, 2);
+    List<MessageConversation> secondPage =
+        messageConversationStore.getMessageConversations(userC, firstPage.get(1), 2);
+    assertEquals(2, firstPage.size());
+    assertEquals(1, secondPage.size());
+    assertFalse(firstPage.contains(secondPage.get(0)));
+  }
 }
@@ -38,6 +38,7 @@ import org.hisp.dhis.dataset.DataSetService;
 import org.hisp.dhis.organisationunit.OrganisationUnit;
 import org.hisp.dhis.period.MonthlyPeriodType;
 import org.hisp.dhis.period.PeriodType;
+import org.hisp.dhis.scheduling.JobProgress;
 import org.hisp.dhis.test.integration.PostgresIntegrationTestBase;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -103,6 +104,6 @@ class ResourceTableServiceTest extends PostgresIntegrationTestBase {
 
   @Test
   void testGenerateAllResourceTables() {
-    assertDoesNotThrow(resourceTableService::generateResourceTables);
+    assertDoesNotThrow(() -> resourceTableService.generateResourceTables(JobProgress.noop()));
   }
 }
@@ -28,11 +28,16 @@
 package org.hisp.dhis.sms;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 import com.google.common.collect.Sets;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
 import java.util.List;
+import org.hisp.dhis.dbms.DbmsManager;
 import org.hisp.dhis.sms.incoming.IncomingSms;
+import org.hisp.dhis.sms.incoming.IncomingSmsClaim;
 import org.hisp.dhis.sms.incoming.IncomingSmsStore;
 import org.hisp.dhis.sms.incoming.SmsMessageStatus;
 import org.hisp.dhis.sms.outbound.OutboundSms;
@@ -58,6 +63,8 @@ class IncomingSmsStoreTest extends PostgresIntegrationTestBase {
 
   @Autowired private OutboundSmsStore outboundSmsStore;
 
+  @Autowired private DbmsManager dbmsManager;
+
   private User user;
 
   @BeforeAll
@@ -98,4 +105,71 @@ class IncomingSmsStoreTest extends PostgresIntegrationTestBase {
     assertEquals(1, outboundSmsStore.get(OutboundSmsStatus.OUTBOUND).size());
     assertEquals(1, outboundSmsStore.get(OutboundSmsStatus.OUTBOUND, 0, 10, false).size());
   }
+
+  @Test
+  void testExpireIncomingSms() {
+    IncomingSms recent = saveIncomingSms(ago(Duration.ofMinutes(5)), user);
+    IncomingSms old = saveIncomingSms(ago(Duration.ofDays(2)), user);
+    dbmsManager.flushSession();
+    assertEquals(2, incomingSmsStore.countIncomingSms());
+
+    assertEquals(1, incomingSmsStore.expireIncomingSms(ago(Duration.ofDays(1))));
+    dbmsManager.clearSession();
+
+    assertEquals(1, incomingSmsStore.countIncomingSms());
+    assertEquals(SmsMessageStatus.INCOMING, incomingSmsStore.get(recent.getId()).getStatus());
+    assertEquals(SmsMessageStatus.UNHANDLED, incomingSmsStore.get(old.getId()).getStatus());
+  }
+
+  @Test
+  void testClaimIncomingSmsOfUser() {
+    User other = makeUser("B");
+    userService.addUser(other);
+    IncomingSms own = saveIncomingSms(ago(Duration.ofMinutes(5)), user);
+    saveIncomingSms(ago(Duration.ofMinutes(4)), other);
+    IncomingSms noUser = saveIncomingSms(ago(Duration.ofMinutes(3)), null);
+    dbmsManager.flushSession();
+
+    List<IncomingSmsClaim> claims =
+        incomingSmsStore.claimIncomingSms(10, user.getUid(), ago(Duration.ofHours(1)));
+
+    assertEquals(
+        List.of(own.getId(), noUser.getId()), claims.stream().map(IncomingSmsClaim::id).toList());
+    assertEquals(user.getUid(), claims.get(0).createdBy());
+    assertNull(claims.get(1).createdBy());
+    assertEquals(1, incomingSmsStore.countIncomingSms());
+  }
+
+  @Test
+  void testClaimIncomingSmsReclaimsStaleClaims() {
+    IncomingSms sms = saveIncomingSms(ago(Duration.ofMinutes(5)), user);
+    dbmsManager.flushSession();
+
+    String createdBy = user.getUid();
+    assertEquals(
+        1, incomingSmsStore.claimIncomingSms(10, createdBy, ago(Duration.ofHours(1))).size());
+    assertEquals(
+        List.of(), incomingSmsStore.claimIncomingSms(10, createdBy, ago(Duration.ofHours(1))));
+
+    List<IncomingSmsClaim> reclaimed =
+        incomingSmsStore.claimIncomingSms(10, createdBy, Date.from(Instant.now().plusSeconds(60)));
+
+    assertEquals(List.of(sms.getId()), reclaimed.stream().map(IncomingSmsClaim::id).toList());
+  }
+
+  private IncomingSms saveIncomingSms(Date receivedDate, User createdBy) {
+    IncomingSms sms = new IncomingSms();
+    sms.setText("testMessage");
+    sms.setOriginator("474000000");
+    sms.setGatewayId("testGateway");
+    sms.setCreatedBy(createdBy);
+    sms.setSentDate(receivedDate);
+    sms.setReceivedDate(receivedDate);
+    incomingSmsStore.save(sms);
+    return sms;
+  }
+
+  private static Date ago(Duration duration) {
+    return Date.from(Instant.now().minus(duration));
+  }
 }
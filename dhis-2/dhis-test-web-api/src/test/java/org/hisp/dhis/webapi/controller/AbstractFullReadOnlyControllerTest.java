@@ -27,10 +27,12 @@
  */
 package org.hisp.dhis.webapi.controller;
 
+import static org.hisp.dhis.http.HttpClientAdapter.Header;
 import static org.hisp.dhis.test.utils.CsvUtils.getRowCountFromCsv;
 import static org.hisp.dhis.test.utils.CsvUtils.getRowFromCsv;
 import static org.hisp.dhis.test.utils.CsvUtils.getValueFromCsv;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -38,7 +40,9 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.hisp.dhis.common.CodeGenerator;
 import org.hisp.dhis.dataelement.DataElement;
 import org.hisp.dhis.dataelement.DataElementService;
+import org.hisp.dhis.http.HttpStatus;
 import org.hisp.dhis.jsontree.JsonList;
+import org.hisp.dhis.schema.SchemaChangeTracker;
 import org.hisp.dhis.test.webapi.H2ControllerIntegrationTestBase;
 import org.hisp.dhis.test.webapi.json.domain.JsonUser;
 import org.hisp.dhis.user.User;
@@ -57,6 +61,8 @@ class AbstractFullReadOnlyControllerTest extends H2ControllerIntegrationTestBase
 
   @Autowired private DataElementService dataElementService;
 
+  @Autowired private SchemaChangeTracker schemaChangeTracker;
+
   @Test
   void testGetObjectList_QueryUsers() {
     // this just simulates the normal setup with a system super-user
@@ -162,6 +168,43 @@ class AbstractFullReadOnlyControllerTest extends H2ControllerIntegrationTestBase
     assertEquals(10, rowCount);
   }
 
+  @Test
+  void testGetObjectList_NotModified() {
+    createDataElements(3);
+
+    HttpResponse first = GET("/dataElements?fields=id,name");
+    assertEquals(HttpStatus.OK, first.status());
+    String etag = first.header("ETag");
+    assertNotNull(etag);
+
+    HttpResponse second = GET("/dataElements?fields=id,name", Header("If-None-Match", etag));
+    assertEquals(HttpStatus.NOT_MODIFIED, second.status());
+    assertFalse(second.hasBody());
+
+    createDataElements(1);
+    schemaChangeTracker.changed(DataElement.class);
+
+    HttpResponse third = GET("/dataElements?fields=id,name", Header("If-None-Match", etag));
+    assertEquals(HttpStatus.OK, third.status());
+    assertNotEquals(etag, third.header("ETag"));
+  }
+
+  @Test
+  void testGetObject_NotModified() {
+    DataElement dataElement = createDataElement('A');
+    dataElementService.addDataElement(dataElement);
+
+    String url = "/dataElements/" + dataElement.getUid();
+    String etag = GET(url).header("ETag");
+    assertNotNull(etag);
+
+    assertEquals(HttpStatus.NOT_MODIFIED, GET(url, Header("If-None-Match", etag)).status());
+    assertEquals(
+        HttpStatus.OK,
+        GET("/dataElements/" + dataElement.getUid() + "?fields=id", Header("If-None-Match", etag))
+            .status());
+  }
+
   private void createDataElements(int count) {
     for (int i = 0; i < count; ++i) {
       DataElement dataElement = createDataElement(Character.forDigit(i, 36));
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.webapi.controller;
+
+import static org.hisp.dhis.http.HttpAssertions.assertStatus;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import org.hisp.dhis.http.HttpStatus;
+import org.hisp.dhis.jsontree.JsonArray;
+import org.hisp.dhis.jsontree.JsonObject;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Tests that the cached plans and compiled queries of the Gist API are only reused for the shape of
+ * a query and that the values and owner of each request are still applied.
+ */
+@ActiveProfiles("cache-test")
+class GistCacheControllerTest extends AbstractGistControllerTest {
+
+  @Test
+  void testSameShapeWithDifferentFilterValues() {
+    JsonArray admin =
+        GET("/users/gist?fields=id,code&filter=code:eq:Codeadmin&headless=true").content();
+    JsonArray gist =
+        GET("/users/gist?fields=id,code&filter=code:eq:CodeuserGist&headless=true").content();
+    JsonArray none = GET("/users/gist?fields=id,code&filter=code:eq:Hans&headless=true").content();
+
+    assertEquals(1, admin.size());
+    assertEquals(getAdminUid(), admin.getObject(0).getString("id").string());
+    assertEquals(1, gist.size());
+    assertEquals(userA.getUid(), gist.getObject(0).getString("id").string());
+    assertEquals(0, none.size());
+  }
+
+  @Test
+  void testSameShapeWithDifferentOwners() {
+    assertStatus(
+        HttpStatus.CREATED,
+        POST("/userGroups/", "{'name':'groupY', 'users':[{'id':'" + userA.getUid() + "'}]}"));
+
+    assertEquals(List.of("groupX"), getUserGroupNames(getAdminUid()));
+    assertEquals(List.of("groupY"), getUserGroupNames(userA.getUid()));
+    assertEquals(List.of("groupX"), getUserGroupNames(getAdminUid()));
+  }
+
+  @Test
+  void testSameShapeWithDifferentPages() {
+    createDataSetsForOrganisationUnit(orgUnitId, "set2", "set3");
+
+    JsonObject first =
+        GET("/dataSets/gist?fields=name&order=name&pageSize=2&page=1&total=true").content();
+    JsonObject second =
+        GET("/dataSets/gist?fields=name&order=name&pageSize=2&page=2&total=true").content();
+
+    assertEquals(List.of("set1", "set2"), first.getArray("dataSets").stringValues());
+    assertHasPager(first, 1, 2, 3);
+    assertEquals(List.of("set3"), second.getArray("dataSets").stringValues());
+    assertHasPager(second, 2, 2, 3);
+  }
+
+  private List<String> getUserGroupNames(String userId) {
+    return GET("/users/{uid}/userGroups/gist?fields=name&headless=true", userId)
+        .content()
+        .stringValues();
+  }
+}
@@ -40,11 +40,15 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -53,6 +57,7 @@ import javax.annotation.Nonnull;
 import org.hisp.dhis.attribute.AttributeService;
 import org.hisp.dhis.common.CodeGenerator;
 import org.hisp.dhis.common.DhisApiVersion;
+import org.hisp.dhis.common.HashUtils;
 import org.hisp.dhis.common.IdentifiableObject;
 import org.hisp.dhis.common.IdentifiableObjectManager;
 import org.hisp.dhis.common.Maturity;
@@ -78,7 +83,10 @@ import org.hisp.dhis.query.Restrictions;
 import org.hisp.dhis.schema.Property;
 import org.hisp.dhis.schema.PropertyType;
 import org.hisp.dhis.schema.Schema;
+import org.hisp.dhis.schema.SchemaChangeTracker;
+import org.hisp.dhis.schema.SchemaChangeTracker.Fingerprint;
 import org.hisp.dhis.security.acl.AclService;
+import org.hisp.dhis.setting.UserSettings;
 import org.hisp.dhis.system.util.ReflectionUtils;
 import org.hisp.dhis.user.CurrentUser;
 import org.hisp.dhis.user.User;
@@ -90,12 +98,15 @@ import org.hisp.dhis.webapi.service.LinkService;
 import org.hisp.dhis.webapi.utils.ContextUtils;
 import org.hisp.dhis.webapi.webdomain.StreamingJsonRoot;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.ServletWebRequest;
 
 /**
  * Base controller for APIs that only want to offer read only access through both Gist API and full
@@ -130,6 +141,8 @@ public abstract class AbstractFullReadOnlyController<
 
   @Autowired protected CsvMapper csvMapper;
 
+  @Autowired protected SchemaChangeTracker schemaChangeTracker;
+
   // --------------------------------------------------------------------------
   // Hooks
   // --------------------------------------------------------------------------
@@ -172,6 +185,9 @@ public abstract class AbstractFullReadOnlyController<
   public @ResponseBody ResponseEntity<StreamingJsonRoot<T>> getObjectList(
       P params, HttpServletResponse response, @CurrentUser UserDetails currentUser)
       throws ForbiddenException, BadRequestException, ConflictException {
+    if (isNotModified(params.getFieldsJsonList(), currentUser, response)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+    }
     return getObjectListInternal(params, response, currentUser, getAdditionalFilters(params));
   }
 
@@ -181,6 +197,9 @@ public abstract class AbstractFullReadOnlyController<
       UserDetails currentUser,
       List<Criterion> additionalFilters)
       throws ForbiddenException, BadRequestException, ConflictException {
+    if (isNotModified(params.getFieldsJsonList(), currentUser, response)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+    }
     List<Criterion> filters = getAdditionalFilters(params);
     filters.addAll(additionalFilters);
     return getObjectListInternal(params, response, currentUser, filters);
@@ -409,6 +428,10 @@ public abstract class AbstractFullReadOnlyController<
 
     cachePrivate(response);
 
+    if (isNotModified(params.getFieldsObject(), currentUser, response)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+    }
+
     T entity = !currentUser.isSuper() ? getEntity(pvUid) : getEntityNoAcl(pvUid);
 
     GetObjectListParams listParams = params.toListParams();
@@ -524,6 +547,126 @@ public abstract class AbstractFullReadOnlyController<
         ContextUtils.HEADER_CACHE_CONTROL, noCache().cachePrivate().getHeaderValue());
   }
 
+  /**
+   * Answers a conditional GET from the change fingerprints of the entity type and of the types it
+   * references, before any objects are loaded. The ETag combines the fingerprints with the request
+   * and the access of the current user. Requests with fields nested deeper than the referenced
+   * types are not answered, since their responses depend on types which are not part of the ETag.
+   *
+   * @return true if the response was set to {@code 304 Not Modified}.
+   */
+  private boolean isNotModified(
+      List<String> fields, UserDetails currentUser, HttpServletResponse response) {
+    if (currentUser == null
+        || getFieldsDepth(fields) > 1
+        || !aclService.canRead(currentUser, getEntityClass())) {
+      return false;
+    }
+
+    Fingerprint fingerprint = schemaChangeTracker.getFingerprint(getEntityClass());
+
+    if (fingerprint == null) {
+      return false;
+    }
+
+    StringBuilder value = new StringBuilder(fingerprint.version());
+    long lastModified = fingerprint.lastModified().getTime();
+
+    for (Class<?> type : getReferencedTypes()) {
+      Fingerprint referenced = schemaChangeTracker.getFingerprint(type);
+
+      if (referenced != null) {
+        value.append('-').append(referenced.version());
+        lastModified = Math.max(lastModified, referenced.lastModified().getTime());
+      }
+    }
+
+    HttpServletRequest request = contextService.getRequest();
+
+    value
+        .append('|')
+        .append(request.getRequestURI())
+        .append('?')
+        .append(request.getQueryString())
+        .append('|')
+        .append(request.getHeader(HttpHeaders.ACCEPT))
+        .append('|')
+        .append(currentUser.getUid())
+        .append(new TreeSet<>(currentUser.getUserGroupIds()))
+        .append(new TreeSet<>(currentUser.getAllAuthorities()))
+        .append(new TreeSet<>(currentUser.getUserOrgUnitIds()))
+        .append(new TreeSet<>(currentUser.getUserDataOrgUnitIds()))
+        .append(new TreeSet<>(currentUser.getUserSearchOrgUnitIds()))
+        .append('|')
+        .append(UserSettings.getCurrentSettings().getUserDbLocale());
+
+    String etag = HashUtils.hashMD5(value.toString().getBytes(StandardCharsets.UTF_8));
+
+    if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+      cachePrivate(response);
+      return true;
+    }
+
+    return false;
+  }
+
+  private Set<Class<?>> referencedTypes;
+
+  /**
+   * Returns the identifiable types referenced by properties of the entity type, including the types
+   * referenced by its embedded objects.
+   */
+  private Set<Class<?>> getReferencedTypes() {
+    if (referencedTypes == null) {
+      Set<Class<?>> types = new LinkedHashSet<>();
+      Schema schema = getSchema();
+
+      for (Property property : schema.getProperties()) {
+        if (property.isEmbeddedObject()) {
+          Class<?> type = property.isCollection() ? property.getItemKlass() : property.getKlass();
+          if (type != null) {
+            getSchema(type).getProperties().forEach(p -> addReferencedType(types, p));
+          }
+        } else {
+          addReferencedType(types, property);
+        }
+      }
+
+      types.remove(getEntityClass());
+      referencedTypes = types;
+    }
+    return referencedTypes;
+  }
+
+  private static void addReferencedType(Set<Class<?>> types, Property property) {
+    Class<?> type = property.isCollection() ? property.getItemKlass() : property.getKlass();
+
+    if (type != null
+        && !property.isEmbeddedObject()
+        && IdentifiableObject.class.isAssignableFrom(type)) {
+      types.add(type);
+    }
+  }
+
+  /** Returns the maximum nesting depth of the given field expressions. */
+  private static int getFieldsDepth(List<String> fields) {
+    int max = 0;
+
+    for (String field : fields) {
+      int depth = 0;
+
+      for (char c : field.toCharArray()) {
+        if (c == '[' || c == '(') {
+          max = Math.max(max, ++depth);
+        } else if (c == ']' || c == ')') {
+          depth--;
+        }
+      }
+    }
+
+    return max;
+  }
+
   private boolean hasHref(List<String> fields) {
     return fieldsContains("href", fields);
   }
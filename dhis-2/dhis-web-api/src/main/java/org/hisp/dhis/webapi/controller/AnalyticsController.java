@@ -34,6 +34,7 @@ import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 import static org.springframework.http.MediaType.TEXT_HTML_VALUE;
 import static org.springframework.http.MediaType.TEXT_PLAIN_VALUE;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpServletResponse;
 import javax.annotation.Nonnull;
 import lombok.AllArgsConstructor;
@@ -52,7 +53,10 @@ import org.hisp.dhis.datavalue.DataValue;
 import org.hisp.dhis.dxf2.datavalueset.DataValueSet;
 import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.security.RequiresAuthority;
+import org.hisp.dhis.system.grid.CsvGridStreamWriter;
 import org.hisp.dhis.system.grid.GridUtils;
+import org.hisp.dhis.system.grid.JsonGridStreamWriter;
+import org.hisp.dhis.system.grid.ParquetGridStreamWriter;
 import org.hisp.dhis.webapi.mvc.annotation.ApiVersion;
 import org.hisp.dhis.webapi.utils.ContextUtils;
 import org.springframework.stereotype.Controller;
@@ -85,6 +89,8 @@ public class AnalyticsController {
 
   @Nonnull private final DhisConfigurationProvider configurationProvider;
 
+  @Nonnull private final ObjectMapper jsonMapper;
+
   // -------------------------------------------------------------------------
   // Resources
   // -------------------------------------------------------------------------
@@ -231,10 +237,11 @@ public class AnalyticsController {
   // -------------------------------------------------------------------------
 
   @GetMapping(value = RESOURCE_PATH + RAW_DATA_PATH + ".json")
-  public @ResponseBody Grid getRawDataJson(
+  public void getRawDataJson(
       AggregateAnalyticsQueryCriteria criteria,
       DhisApiVersion apiVersion,
-      HttpServletResponse response) {
+      HttpServletResponse response)
+      throws Exception {
     DataQueryRequest request =
         DataQueryRequest.newBuilder().fromCriteria(criteria).apiVersion(apiVersion).build();
 
@@ -248,7 +255,8 @@ public class AnalyticsController {
         false,
         params.getLatestEndDate());
 
-    return analyticsService.getRawDataValues(params);
+    analyticsService.getRawDataValues(
+        params, new JsonGridStreamWriter(jsonMapper, response.getOutputStream()));
   }
 
   @GetMapping(value = RESOURCE_PATH + RAW_DATA_PATH + ".csv")
@@ -270,9 +278,30 @@ public class AnalyticsController {
         false,
         params.getLatestEndDate());
 
-    Grid grid = analyticsService.getRawDataValues(params);
+    analyticsService.getRawDataValues(params, new CsvGridStreamWriter(response.getWriter()));
+  }
 
-    GridUtils.toCsv(grid, response.getWriter());
+  @GetMapping(value = RESOURCE_PATH + RAW_DATA_PATH + ".parquet")
+  public void getRawDataParquet(
+      AggregateAnalyticsQueryCriteria criteria,
+      DhisApiVersion apiVersion,
+      HttpServletResponse response)
+      throws Exception {
+    DataQueryRequest request =
+        DataQueryRequest.newBuilder().fromCriteria(criteria).apiVersion(apiVersion).build();
+
+    DataQueryParams params = dataQueryService.getFromRequest(request);
+
+    contextUtils.configureAnalyticsResponse(
+        response,
+        ContextUtils.CONTENT_TYPE_PARQUET,
+        CacheStrategy.RESPECT_SYSTEM_SETTING,
+        "rawData.parquet",
+        true,
+        params.getLatestEndDate());
+
+    analyticsService.getRawDataValues(
+        params, new ParquetGridStreamWriter(response.getOutputStream()));
   }
 
   // -------------------------------------------------------------------------
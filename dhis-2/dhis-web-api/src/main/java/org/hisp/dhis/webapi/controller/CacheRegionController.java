@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.webapi.controller;
+
+import static org.hisp.dhis.security.Authorities.F_PERFORM_MAINTENANCE;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+import java.util.List;
+import javax.annotation.CheckForNull;
+import lombok.RequiredArgsConstructor;
+import org.hisp.dhis.cache.CacheRegion;
+import org.hisp.dhis.cache.CacheRegionChangedEvent;
+import org.hisp.dhis.cache.HibernateCacheManager;
+import org.hisp.dhis.common.DhisApiVersion;
+import org.hisp.dhis.common.OpenApi;
+import org.hisp.dhis.feedback.BadRequestException;
+import org.hisp.dhis.feedback.NotFoundException;
+import org.hisp.dhis.security.RequiresAuthority;
+import org.hisp.dhis.webapi.mvc.annotation.ApiVersion;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Lists, adjusts and clears the Hibernate second-level cache regions. Changes are applied to this
+ * instance and published to the other instances of a cluster when cache invalidation is enabled.
+ */
+@OpenApi.Document(
+    entity = Server.class,
+    classifiers = {"team:platform", "purpose:support"})
+@RestController
+@RequestMapping("/api/maintenance/cacheRegions")
+@RequiresAuthority(anyOf = F_PERFORM_MAINTENANCE)
+@ApiVersion({DhisApiVersion.DEFAULT, DhisApiVersion.ALL})
+@RequiredArgsConstructor
+public class CacheRegionController {
+
+  private final HibernateCacheManager hibernateCacheManager;
+
+  private final ApplicationEventPublisher eventPublisher;
+
+  @GetMapping(produces = APPLICATION_JSON_VALUE)
+  public List<CacheRegion> getCacheRegions() {
+    return hibernateCacheManager.getCacheRegions();
+  }
+
+  @GetMapping(value = "/{region}", produces = APPLICATION_JSON_VALUE)
+  public CacheRegion getCacheRegion(@PathVariable String region) throws NotFoundException {
+    return getExistingCacheRegion(region);
+  }
+
+  @PutMapping(value = "/{region}", produces = APPLICATION_JSON_VALUE)
+  public CacheRegion updateCacheRegion(
+      @PathVariable String region,
+      @CheckForNull @RequestParam(required = false) Long maxEntries,
+      @CheckForNull @RequestParam(required = false) Long timeToLive)
+      throws NotFoundException, BadRequestException {
+    getExistingCacheRegion(region);
+
+    if (maxEntries != null && maxEntries < 1) {
+      throw new BadRequestException("Max entries must be greater than zero: " + maxEntries);
+    }
+
+    if (timeToLive != null && timeToLive < 1) {
+      throw new BadRequestException("Time to live must be greater than zero: " + timeToLive);
+    }
+
+    CacheRegion updated = hibernateCacheManager.updateCacheRegion(region, maxEntries, timeToLive);
+
+    eventPublisher.publishEvent(
+        CacheRegionChangedEvent.updated(this, region, maxEntries, timeToLive));
+
+    return updated;
+  }
+
+  @PostMapping("/{region}/clear")
+  @ResponseStatus(HttpStatus.NO_CONTENT)
+  public void clearCacheRegion(@PathVariable String region) throws NotFoundException {
+    getExistingCacheRegion(region);
+
+    hibernateCacheManager.clearCacheRegion(region);
+
+    eventPublisher.publishEvent(CacheRegionChangedEvent.cleared(this, region));
+  }
+
+  private CacheRegion getExistingCacheRegion(String region) throws NotFoundException {
+    CacheRegion cacheRegion = hibernateCacheManager.getCacheRegion(region);
+
+    if (cacheRegion == null) {
+      throw new NotFoundException("Cache region does not exist: " + region);
+    }
+
+    return cacheRegion;
+  }
+}
@@ -33,6 +33,7 @@ import static org.hisp.dhis.scheduling.JobType.DATAVALUE_IMPORT;
 import static org.hisp.dhis.security.Authorities.F_DATAVALUE_ADD;
 import static org.hisp.dhis.webapi.utils.ContextUtils.CONTENT_TYPE_CSV;
 import static org.hisp.dhis.webapi.utils.ContextUtils.CONTENT_TYPE_JSON;
+import static org.hisp.dhis.webapi.utils.ContextUtils.CONTENT_TYPE_PARQUET;
 import static org.hisp.dhis.webapi.utils.ContextUtils.CONTENT_TYPE_PDF;
 import static org.hisp.dhis.webapi.utils.ContextUtils.CONTENT_TYPE_XML;
 import static org.hisp.dhis.webapi.utils.ContextUtils.CONTENT_TYPE_XML_ADX;
@@ -121,6 +122,7 @@ public class DataValueSetController {
       case "xml" -> getDataValueSetXml(params, attachment, compression, response);
       case "adx+xml" -> getDataValueSetXmlAdx(params, attachment, compression, response);
       case "csv" -> getDataValueSetCsv(params, attachment, compression, response);
+      case "parquet" -> getDataValueSetParquet(params, attachment, compression, response);
       default -> getDataValueSetJson(params, attachment, compression, response);
     }
   }
@@ -201,6 +203,23 @@ public class DataValueSetController {
             dataValueSetService.exportDataValueSetCsv(exportParams, new PrintWriter(out)));
   }
 
+  @OpenApi.Response(byte[].class)
+  @GetMapping(produces = CONTENT_TYPE_PARQUET)
+  public void getDataValueSetParquet(
+      DataValueSetQueryParams params,
+      @RequestParam(required = false) String attachment,
+      @RequestParam(required = false) String compression,
+      HttpServletResponse response) {
+    getDataValueSet(
+        attachment,
+        compression,
+        "parquet",
+        response,
+        CONTENT_TYPE_PARQUET,
+        () -> dataValueSetService.getFromUrl(params),
+        dataValueSetService::exportDataValueSetParquet);
+  }
+
   private void getDataValueSet(
       String attachment,
       String compression,
@@ -39,6 +39,7 @@ import com.google.common.collect.Sets;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
@@ -60,6 +61,7 @@ import org.hisp.dhis.fileresource.FileResource;
 import org.hisp.dhis.fileresource.FileResourceDomain;
 import org.hisp.dhis.fileresource.FileResourceService;
 import org.hisp.dhis.message.Message;
+import org.hisp.dhis.message.MessageConversationInboxSummary;
 import org.hisp.dhis.message.MessageConversationPriority;
 import org.hisp.dhis.message.MessageConversationStatus;
 import org.hisp.dhis.message.MessageService;
@@ -111,6 +113,9 @@ public class MessageConversationController
         org.hisp.dhis.message.MessageConversation,
         MessageConversationController.GetMessageConversationObjectListParams> {
 
+  /** Number of conversations filtered in memory at a time when searching with a query string. */
+  private static final int QUERY_STRING_PAGE_SIZE = 500;
+
   private final MessageService messageService;
   private final OrganisationUnitService organisationUnitService;
   private final UserGroupService userGroupService;
@@ -172,7 +177,7 @@ public class MessageConversationController
 
     if (markRead) {
       messageConversation.markRead(UID.of(currentUser.getUid()));
-      manager.update(messageConversation);
+      messageService.updateMessageConversation(messageConversation);
     }
 
     return super.getObject(uid, params, currentUser, request, response);
@@ -181,10 +186,9 @@ public class MessageConversationController
   @Override
   protected List<UID> getPreQueryMatches(GetMessageConversationObjectListParams params) {
     if (params.getQuery() != null) return null;
-    List<org.hisp.dhis.message.MessageConversation> allUserMessages =
-        messageService.getMessageConversations();
     String query = params.getQueryString();
-    if (query == null) return allUserMessages.stream().map(UID::of).toList();
+    if (query == null)
+      return messageService.getMessageConversationUids().stream().map(UID::of).toList();
 
     String op = params.getQueryOperator();
     if (op == null) op = "token";
@@ -200,12 +204,26 @@ public class MessageConversationController
             .setPaging(false)
             .setRootJunction(Junction.Type.OR)
             .setFilters(filters);
-    Query subQuery =
-        queryService.getQueryFromUrl(getEntityClass(), subQueryParams).setObjects(allUserMessages);
     // Note: in theory these filters could be added to the main query
     // but the OR concerns both DB and in-memory properties
     // which would break if added to the main query ATM
-    return queryService.query(subQuery).stream().map(UID::of).toList();
+    List<UID> matches = new ArrayList<>();
+    List<org.hisp.dhis.message.MessageConversation> page =
+        messageService.getMessageConversations(null, QUERY_STRING_PAGE_SIZE);
+    while (!page.isEmpty()) {
+      Query subQuery =
+          queryService.getQueryFromUrl(getEntityClass(), subQueryParams).setObjects(page);
+      queryService.query(subQuery).forEach(match -> matches.add(UID.of(match)));
+      if (page.size() < QUERY_STRING_PAGE_SIZE) break;
+      page =
+          messageService.getMessageConversations(page.get(page.size() - 1), QUERY_STRING_PAGE_SIZE);
+    }
+    return matches;
+  }
+
+  @GetMapping(value = "/inbox", produces = MediaType.APPLICATION_JSON_VALUE)
+  public @ResponseBody List<MessageConversationInboxSummary> getInboxSummaries() {
+    return messageService.getInboxSummaries();
   }
 
   // --------------------------------------------------------------------------
@@ -30,6 +30,7 @@ package org.hisp.dhis.webapi.controller;
 import static org.hisp.dhis.webapi.utils.ContextUtils.setNoStore;
 import static org.springframework.http.CacheControl.noStore;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static org.springframework.http.MediaType.TEXT_EVENT_STREAM_VALUE;
 
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.dataformat.csv.CsvFactory;
@@ -71,6 +72,7 @@ import org.hisp.dhis.user.CurrentUser;
 import org.hisp.dhis.user.CurrentUserUtil;
 import org.hisp.dhis.user.User;
 import org.hisp.dhis.webapi.mvc.annotation.ApiVersion;
+import org.hisp.dhis.webapi.service.NotificationStreamService;
 import org.hisp.dhis.webapi.utils.ContextUtils;
 import org.hisp.dhis.webapi.utils.HttpServletRequestPaths;
 import org.hisp.dhis.webapi.webdomain.CodeList;
@@ -83,10 +85,12 @@ import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /**
  * @author Morten Olav Hansen <mortenoh@gmail.com>
@@ -113,6 +117,8 @@ public class SystemController {
 
   @Autowired private JobConfigurationService jobConfigurationService;
 
+  @Autowired private NotificationStreamService notificationStreamService;
+
   private static final CsvFactory CSV_FACTORY = new CsvMapper().getFactory();
 
   // -------------------------------------------------------------------------
@@ -243,6 +249,22 @@ public class SystemController {
     return ResponseEntity.ok().cacheControl(noStore()).body(notifications);
   }
 
+  @OpenApi.Description(
+      """
+      Streams the notifications of a job as server-sent events.
+      Each event has the notification timestamp as ID so that a client reconnecting with
+      `Last-Event-ID` only receives notifications added since.
+      The stream ends when a completed notification was sent.""")
+  @GetMapping(value = "/tasks/{jobType}/{jobId}/stream", produces = TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter streamTaskByUid(
+      @PathVariable("jobType") JobType jobType,
+      @PathVariable("jobId") @OpenApi.Param(value = {UID.class, JobConfiguration.class}) UID jobId,
+      @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+      HttpServletResponse response) {
+    setNoStore(response);
+    return notificationStreamService.stream(jobType, jobId, lastEventId == null ? 0L : lastEventId);
+  }
+
   // -------------------------------------------------------------------------
   // Tasks summary
   // -------------------------------------------------------------------------
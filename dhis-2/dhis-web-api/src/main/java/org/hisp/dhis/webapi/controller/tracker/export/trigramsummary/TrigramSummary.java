@@ -48,6 +48,8 @@ public class TrigramSummary {
 
   private List<ObjectNode> obsoleteIndexedAttributes = new ArrayList<>();
 
+  private List<ObjectNode> valueIndexedAttributes = new ArrayList<>();
+
   @JsonProperty
   public List<ObjectNode> getIndexedAttributes() {
     return indexedAttributes;
@@ -74,4 +76,13 @@ public class TrigramSummary {
   public void setObsoleteIndexedAttributes(List<ObjectNode> obsoleteIndexedAttributes) {
     this.obsoleteIndexedAttributes = obsoleteIndexedAttributes;
   }
+
+  @JsonProperty
+  public List<ObjectNode> getValueIndexedAttributes() {
+    return valueIndexedAttributes;
+  }
+
+  public void setValueIndexedAttributes(List<ObjectNode> valueIndexedAttributes) {
+    this.valueIndexedAttributes = valueIndexedAttributes;
+  }
 }
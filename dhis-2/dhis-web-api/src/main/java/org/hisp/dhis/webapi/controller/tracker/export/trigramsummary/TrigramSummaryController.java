@@ -55,7 +55,9 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 
 /**
- * Trigram Summary endpoint to get a summary of all the trigram indexes and indexable attributes
+ * Trigram Summary endpoint to get a summary of all the trigram indexes and indexable attributes.
+ * Attributes with a btree value index are listed alongside, obsolete value indexes are reported
+ * together with obsolete trigram indexes.
  *
  * @author Ameen Mohamed
  */
@@ -119,10 +121,30 @@ public class TrigramSummaryController {
       indexableAttributes.removeAll(allIndexedAttributes);
     }
 
+    List<Long> valueIndexedAttributeIds =
+        trackedEntityAttributeTableManager.getAttributeIdsWithValueIndex();
+
+    List<TrackedEntityAttribute> valueIndexedAttributes = new ArrayList<>();
+
+    if (!valueIndexedAttributeIds.isEmpty()) {
+      for (TrackedEntityAttribute indexedAttribute :
+          trackedEntityAttributeService.getTrackedEntityAttributesById(valueIndexedAttributeIds)) {
+        if (!allIndexableAttributeUids.contains(indexedAttribute.getUid())) {
+          if (!obsoleteIndexedAttributes.contains(indexedAttribute)) {
+            obsoleteIndexedAttributes.add(indexedAttribute);
+          }
+        } else {
+          valueIndexedAttributes.add(indexedAttribute);
+        }
+      }
+    }
+
     trigramSummary.setIndexedAttributes(
         fieldFilterService.toObjectNodes(indexedAttributes, fields));
     trigramSummary.setObsoleteIndexedAttributes(
         fieldFilterService.toObjectNodes(obsoleteIndexedAttributes, fields));
+    trigramSummary.setValueIndexedAttributes(
+        fieldFilterService.toObjectNodes(valueIndexedAttributes, fields));
     trigramSummary.setIndexableAttributes(
         fieldFilterService.toObjectNodes(new ArrayList<>(indexableAttributes), fields));
 
@@ -27,12 +27,9 @@
  */
 package org.hisp.dhis.webapi.security.apikey;
 
-import java.util.HashSet;
-import java.util.List;
 import java.util.Optional;
 import org.hisp.dhis.cache.Cache;
 import org.hisp.dhis.cache.CacheProvider;
-import org.hisp.dhis.organisationunit.OrganisationUnitService;
 import org.hisp.dhis.security.apikey.ApiToken;
 import org.hisp.dhis.security.apikey.ApiTokenAuthenticationToken;
 import org.hisp.dhis.security.apikey.ApiTokenDeletedEvent;
@@ -57,7 +54,6 @@ import org.springframework.stereotype.Service;
 @Service
 public class ApiTokenAuthManager implements AuthenticationManager {
   private final ApiTokenService apiTokenService;
-  private final OrganisationUnitService organisationUnitService;
   private final UserService userService;
   private final UserStore userStore;
 
@@ -67,12 +63,10 @@ public class ApiTokenAuthManager implements AuthenticationManager {
       UserStore userStore,
       ApiTokenService apiTokenService,
       CacheProvider cacheProvider,
-      @Lazy UserService userService,
-      OrganisationUnitService organisationUnitService) {
+      @Lazy UserService userService) {
     this.userService = userService;
     this.userStore = userStore;
     this.apiTokenService = apiTokenService;
-    this.organisationUnitService = organisationUnitService;
     this.apiTokenCache = cacheProvider.createApiKeyCache();
   }
 
@@ -136,20 +130,11 @@ public class ApiTokenAuthManager implements AuthenticationManager {
           ApiTokenErrors.invalidToken("The API token is disabled, locked or 2FA is enabled."));
     }
 
-    List<String> organisationUnitsUidsByUser =
-        organisationUnitService.getOrganisationUnitsUidsByUser(user.getUsername());
-    List<String> searchOrganisationUnitsUidsByUser =
-        organisationUnitService.getSearchOrganisationUnitsUidsByUser(user.getUsername());
-    List<String> dataViewOrganisationUnitsUidsByUser =
-        organisationUnitService.getDataViewOrganisationUnitsUidsByUser(user.getUsername());
-
     return UserDetails.createUserDetails(
         user,
         accountNonLocked,
         credentialsNonExpired,
-        new HashSet<>(organisationUnitsUidsByUser),
-        new HashSet<>(searchOrganisationUnitsUidsByUser),
-        new HashSet<>(dataViewOrganisationUnitsUidsByUser));
+        userService.getUserOrgUnitIds(user.getUsername()));
   }
 
   private static void validateTokenExpiry(Long expiry) {
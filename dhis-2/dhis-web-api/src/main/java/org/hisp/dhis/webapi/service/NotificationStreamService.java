@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.webapi.service;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON;
+
+import java.io.IOException;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.Nonnull;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.hisp.dhis.common.UID;
+import org.hisp.dhis.scheduling.JobConfiguration;
+import org.hisp.dhis.scheduling.JobConfigurationService;
+import org.hisp.dhis.scheduling.JobStatus;
+import org.hisp.dhis.scheduling.JobType;
+import org.hisp.dhis.system.notification.Notification;
+import org.hisp.dhis.system.notification.Notifier;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Pushes {@link Notification}s of a job to clients as server-sent events (SSE) so that clients do
+ * not have to poll the full list of notifications over and over.
+ *
+ * <p>Each event carries the {@link Notification#getTimestamp()} as event ID. Timestamps are unique
+ * per job as the {@link Notifier} makes sure they are strictly increasing. A client reconnecting
+ * with a {@code Last-Event-ID} therefore only receives the notifications it has not seen yet.
+ *
+ * <p>New notifications are picked up as soon as the {@link Notifier} signals that they got stored.
+ * In addition, each stream is re-checked periodically which also covers notifications stored by
+ * other nodes of a cluster and detects disconnected clients.
+ *
+ * <p>Like {@code GET /api/system/tasks/{jobType}/{jobId}} a stream treats a job that has
+ * notifications but is no longer running as ended: the last notification is sent as completed, the
+ * job's notifications are cleared and the stream ends.
+ */
+@Slf4j
+@Service
+public class NotificationStreamService {
+
+  /** Max duration of a stream before the client has to reconnect (using Last-Event-ID). */
+  private static final long STREAM_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+  /** Interval in which streams are re-checked even if no notification was signalled. */
+  private static final long HEARTBEAT_SECONDS = 5;
+
+  private final Notifier notifier;
+
+  private final JobConfigurationService jobConfigurationService;
+
+  private final ScheduledExecutorService executor;
+
+  public NotificationStreamService(
+      Notifier notifier, JobConfigurationService jobConfigurationService) {
+    this.notifier = notifier;
+    this.jobConfigurationService = jobConfigurationService;
+    this.executor =
+        Executors.newScheduledThreadPool(
+            2,
+            r -> {
+              Thread t = new Thread(r, "notification-stream");
+              t.setDaemon(true);
+              return t;
+            });
+  }
+
+  @PreDestroy
+  public void preDestroy() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * Opens a stream of the notifications of a job.
+   *
+   * @param jobType of the job
+   * @param job ID of the job
+   * @param lastEventId the ID of the last event the client has received already, 0 to start with
+   *     the first notification of the job
+   * @return the emitter pushing the events to the client
+   */
+  @Nonnull
+  public SseEmitter stream(@Nonnull JobType jobType, @Nonnull UID job, long lastEventId) {
+    SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MILLIS);
+    NotificationStream stream = new NotificationStream(jobType, job, emitter, lastEventId);
+    stream.open();
+    return emitter;
+  }
+
+  private final class NotificationStream {
+
+    private final JobType jobType;
+    private final UID job;
+    private final SseEmitter emitter;
+    private final AtomicBoolean pending = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    /** The context of the subscribing request, needed to look up the job from pool threads */
+    private final SecurityContext securityContext = SecurityContextHolder.getContext();
+
+    private long lastTimestamp;
+    private Notifier.Subscription subscription;
+    private ScheduledFuture<?> heartbeat;
+
+    NotificationStream(JobType jobType, UID job, SseEmitter emitter, long lastTimestamp) {
+      this.jobType = jobType;
+      this.job = job;
+      this.emitter = emitter;
+      this.lastTimestamp = lastTimestamp;
+    }
+
+    void open() {
+      emitter.onCompletion(this::close);
+      emitter.onTimeout(this::close);
+      emitter.onError(ex -> close());
+      subscription = notifier.subscribe(job, this::signal);
+      heartbeat =
+          executor.scheduleWithFixedDelay(
+              inContext(() -> push(true)), HEARTBEAT_SECONDS, HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+      // the first push also detects a job that is already dead
+      executor.execute(inContext(() -> push(true)));
+    }
+
+    /** Schedules a push unless one is already pending (coalesces bursts of notifications). */
+    private void signal() {
+      if (!closed.get() && pending.compareAndSet(false, true))
+        executor.execute(inContext(() -> push(false)));
+    }
+
+    private synchronized void push(boolean keepAlive) {
+      pending.set(false);
+      if (closed.get()) return;
+      try {
+        Deque<Notification> added =
+            notifier.getNotificationsByJobId(jobType, job.getValue(), lastTimestamp);
+        if (added.isEmpty()) {
+          if (keepAlive && !endIfNotRunning()) {
+            emitter.send(SseEmitter.event().comment("keep-alive"));
+          }
+          return;
+        }
+        Iterator<Notification> oldestFirst = added.descendingIterator();
+        while (oldestFirst.hasNext()) {
+          Notification n = oldestFirst.next();
+          emitter.send(
+              SseEmitter.event()
+                  .id(String.valueOf(n.getTimestamp()))
+                  .name("notification")
+                  .data(n, APPLICATION_JSON));
+          lastTimestamp = n.getTimestamp();
+          if (n.isCompleted()) {
+            emitter.complete();
+            close();
+            return;
+          }
+        }
+      } catch (IOException | IllegalStateException ex) {
+        log.debug("Notification stream for job {} ended: {}", job, ex.getMessage());
+        close();
+      }
+    }
+
+    /**
+     * Ends the stream if the job has started but is no longer running without having sent a
+     * completed notification, for example because it was stale or the node running it died.
+     *
+     * @return true, if the stream was ended
+     */
+    private boolean endIfNotRunning() throws IOException {
+      Deque<Notification> all = notifier.getNotificationsByJobId(jobType, job.getValue());
+      if (all.isEmpty() || all.getFirst().isCompleted()) return false;
+      JobConfiguration config = jobConfigurationService.getJobConfigurationByUid(job.getValue());
+      if (config != null && config.getJobStatus() == JobStatus.RUNNING) return false;
+      notifier.clear(jobType, job);
+      Notification last = all.getFirst();
+      last.setCompleted(true);
+      emitter.send(
+          SseEmitter.event()
+              .id(String.valueOf(last.getTimestamp()))
+              .name("notification")
+              .data(last, APPLICATION_JSON));
+      emitter.complete();
+      close();
+      return true;
+    }
+
+    private Runnable inContext(Runnable task) {
+      return new DelegatingSecurityContextRunnable(task, securityContext);
+    }
+
+    private void close() {
+      if (!closed.compareAndSet(false, true)) return;
+      if (subscription != null) subscription.close();
+      if (heartbeat != null) heartbeat.cancel(false);
+    }
+  }
+}
@@ -85,6 +85,8 @@ public class ContextUtils {
 
   public static final String CONTENT_TYPE_CSV_ZIP = "application/csv+zip";
 
+  public static final String CONTENT_TYPE_PARQUET = "application/vnd.apache.parquet";
+
   public static final String CONTENT_TYPE_PNG = "image/png";
 
   public static final String CONTENT_TYPE_EXCEL = "application/vnd.ms-excel";
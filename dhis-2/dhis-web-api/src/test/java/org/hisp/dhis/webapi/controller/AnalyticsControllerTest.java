@@ -32,6 +32,7 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -55,8 +56,10 @@ import org.hisp.dhis.common.DimensionService;
 import org.hisp.dhis.common.DimensionType;
 import org.hisp.dhis.common.Grid;
 import org.hisp.dhis.common.GridHeader;
+import org.hisp.dhis.common.GridStreamWriter;
 import org.hisp.dhis.common.IdScheme;
 import org.hisp.dhis.common.IdentifiableObjectManager;
+import org.hisp.dhis.commons.jackson.config.JacksonObjectMapperConfig;
 import org.hisp.dhis.dataelement.DataElement;
 import org.hisp.dhis.external.conf.DhisConfigurationProvider;
 import org.hisp.dhis.system.grid.ListGrid;
@@ -120,7 +123,11 @@ class AnalyticsControllerTest {
     // Controller under test
     AnalyticsController controller =
         new AnalyticsController(
-            dataQueryService, analyticsService, contextUtils, dhisConfigurationProvider);
+            dataQueryService,
+            analyticsService,
+            contextUtils,
+            dhisConfigurationProvider,
+            JacksonObjectMapperConfig.staticJsonMapper());
 
     mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
 
@@ -248,6 +255,49 @@ class AnalyticsControllerTest {
         .andExpect(status().isOk());
   }
 
+  @Test
+  void verifyRawDataJsonRequest() throws Exception {
+    doAnswer(invocation -> writeMockGrid(invocation.getArgument(1)))
+        .when(analyticsService)
+        .getRawDataValues(Mockito.any(DataQueryParams.class), Mockito.any(GridStreamWriter.class));
+
+    // Then
+    mockMvc
+        .perform(
+            get(ENDPOINT + "/rawData.json")
+                .param("dimension", "dx:fbfJHSPpUQD;cYeuwXTCPkU")
+                .param("filter", "pe:2014Q1;2014Q2"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.headers[0].name").value("a"))
+        .andExpect(jsonPath("$.rows[1][0]").value("de2"))
+        .andExpect(jsonPath("$.height").value(2))
+        .andExpect(jsonPath("$.width").value(4));
+  }
+
+  @Test
+  void verifyRawDataCsvRequest() throws Exception {
+    doAnswer(invocation -> writeMockGrid(invocation.getArgument(1)))
+        .when(analyticsService)
+        .getRawDataValues(Mockito.any(DataQueryParams.class), Mockito.any(GridStreamWriter.class));
+
+    // Then
+    mockMvc
+        .perform(
+            get(ENDPOINT + "/rawData.csv")
+                .param("dimension", "dx:fbfJHSPpUQD;cYeuwXTCPkU")
+                .param("filter", "pe:2014Q1;2014Q2"))
+        .andExpect(content().string("a,b,c,d\nde1,ou2,pe1,3\n" + "de2,ou3,pe2,5\n"))
+        .andExpect(status().isOk());
+  }
+
+  private Object writeMockGrid(GridStreamWriter writer) {
+    Grid grid = buildMockGrid();
+    writer.writeStart(grid);
+    grid.getRows().forEach(writer::writeRow);
+    writer.writeEnd();
+    return null;
+  }
+
   private Grid buildMockGrid() {
     Grid grid = new ListGrid();
     grid.addHeader(new GridHeader("a"));
@@ -36,6 +36,7 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.FilterConfig;
 import jakarta.servlet.http.HttpServletResponse;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 import org.springframework.http.MediaType;
@@ -111,4 +112,22 @@ class ExcludableShallowEtagHeaderFilterTest {
 
     assertEquals("\"0b10a8db164e0754105b7a99be72e3fe5\"", response.getHeader("Etag"));
   }
+
+  @Test
+  void shouldKeepEtagHeaderSetByController() throws Exception {
+    final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/dataElements");
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    FilterChain filterChain =
+        (filterRequest, filterResponse) -> {
+          ((HttpServletResponse) filterResponse).setStatus(HttpServletResponse.SC_OK);
+          ((HttpServletResponse) filterResponse).setHeader("ETag", "\"controller\"");
+          filterResponse.setContentType(MediaType.TEXT_PLAIN_VALUE);
+          FileCopyUtils.copy("Hello World".getBytes(), filterResponse.getOutputStream());
+        };
+
+    filter.doFilter(request, response, filterChain);
+
+    assertEquals("\"controller\"", response.getHeader("Etag"));
+  }
 }
@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2004-2022, University of Oslo
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * Redistributions of source code must retain the above copyright notice, this
+ * list of conditions and the following disclaimer.
+ *
+ * Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ * Neither the name of the HISP project nor the names of its contributors may
+ * be used to endorse or promote products derived from this software without
+ * specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON
+ * ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.hisp.dhis.webapi.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import org.hisp.dhis.common.UID;
+import org.hisp.dhis.scheduling.JobConfiguration;
+import org.hisp.dhis.scheduling.JobConfigurationService;
+import org.hisp.dhis.scheduling.JobStatus;
+import org.hisp.dhis.scheduling.JobType;
+import org.hisp.dhis.system.notification.Notification;
+import org.hisp.dhis.system.notification.NotificationLevel;
+import org.hisp.dhis.system.notification.Notifier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Tests when a {@link NotificationStreamService} stream ends. */
+class NotificationStreamServiceTest {
+
+  private static final UID JOB = UID.of("abcdefghijk");
+
+  private final Notifier notifier = mock(Notifier.class);
+
+  private final JobConfigurationService jobConfigurationService =
+      mock(JobConfigurationService.class);
+
+  private final Notifier.Subscription subscription = mock(Notifier.Subscription.class);
+
+  private NotificationStreamService service;
+
+  @BeforeEach
+  void setUp() {
+    service = new NotificationStreamService(notifier, jobConfigurationService);
+    when(notifier.subscribe(eq(JOB), any())).thenReturn(subscription);
+    when(notifier.getNotificationsByJobId(
+            eq(JobType.DATA_INTEGRITY), eq(JOB.getValue()), anyLong()))
+        .thenReturn(new ArrayDeque<>());
+  }
+
+  @AfterEach
+  void tearDown() {
+    service.preDestroy();
+  }
+
+  @Test
+  void testStream_EndsWhenJobIsNoLongerRunning() {
+    givenNotifications(notification(false));
+    givenJobStatus(JobStatus.SCHEDULED);
+
+    service.stream(JobType.DATA_INTEGRITY, JOB, 1L);
+
+    verify(notifier, timeout(2000)).clear(JobType.DATA_INTEGRITY, JOB);
+    verify(subscription, timeout(2000)).close();
+  }
+
+  @Test
+  void testStream_EndsWhenJobDoesNotExist() {
+    givenNotifications(notification(false));
+
+    service.stream(JobType.DATA_INTEGRITY, JOB, 1L);
+
+    verify(notifier, timeout(2000)).clear(JobType.DATA_INTEGRITY, JOB);
+    verify(subscription, timeout(2000)).close();
+  }
+
+  @Test
+  void testStream_StaysOpenWhileJobIsRunning() {
+    givenNotifications(notification(false));
+    givenJobStatus(JobStatus.RUNNING);
+
+    service.stream(JobType.DATA_INTEGRITY, JOB, 1L);
+
+    verify(jobConfigurationService, timeout(2000)).getJobConfigurationByUid(JOB.getValue());
+    verify(notifier, after(500).never()).clear(any(JobType.class), any(UID.class));
+    verify(subscription, never()).close();
+  }
+
+  @Test
+  void testStream_StaysOpenBeforeJobStarted() {
+    givenNotifications();
+
+    service.stream(JobType.DATA_INTEGRITY, JOB, 0L);
+
+    verify(notifier, after(500).never()).clear(any(JobType.class), any(UID.class));
+    verify(subscription, never()).close();
+  }
+
+  private void givenNotifications(Notification... newestFirst) {
+    Deque<Notification> notifications = new ArrayDeque<>(List.of(newestFirst));
+    when(notifier.getNotificationsByJobId(JobType.DATA_INTEGRITY, JOB.getValue()))
+        .thenReturn(notifications);
+  }
+
+  private void givenJobStatus(JobStatus status) {
+    JobConfiguration config = new JobConfiguration();
+    config.setUid(JOB.getValue());
+    config.setJobStatus(status);
+    when(jobConfigurationService.getJobConfigurationByUid(JOB.getValue())).thenReturn(config);
+  }
+
+  private static Notification notification(boolean completed) {
+    return new Notification(
+        NotificationLevel.INFO, JobType.DATA_INTEGRITY, 1L, "msg", completed, null, null);
+  }
+}